@@ -0,0 +1,59 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line like org.openjdk.jmh.Main, but writes the results as JSON to
+ * hermit-benchmarks.json unless another result format or file is given, so that the results of different releases can be
+ * compared by tools.
+ */
+public class BenchmarkRunner {
+    public static final String DEFAULT_RESULT_FILE="hermit-benchmarks.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions=new CommandLineOptions(args);
+        OptionsBuilder optionsBuilder=new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue())
+            optionsBuilder.resultFormat(ResultFormatType.JSON);
+        if (!commandLineOptions.getResult().hasValue())
+            optionsBuilder.result(DEFAULT_RESULT_FILE);
+        Options options=optionsBuilder.build();
+        new Runner(options).run();
+        System.out.println("Results written to "+new File(options.getResult().get()).getAbsolutePath());
+    }
+    /**
+     * Resolves a path relative to the HermiT source tree, which is given by the system property hermit.home and defaults to
+     * the parent of the working directory, as the benchmarks are normally run from the benchmarks directory.
+     */
+    public static File resolve(String path) {
+        File file=new File(path);
+        if (file.isAbsolute())
+            return file;
+        else
+            return new File(System.getProperty("hermit.home",".."),path);
+    }
+}
@@ -0,0 +1,131 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.DirectBlockingChecker;
+import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
+import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
+import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures BlockingSignatureCache.addNode() on the nodes of real models. In the setup, the satisfiability of each atomic
+ * concept of the ontology is tested and the model with the most potential blockers is kept in the tableau; each
+ * invocation then adds those nodes to an empty cache, and adds them again to find them present.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class BlockingSignatureCacheBenchmark {
+    @Param({ "src/test/resources/org/semanticweb/HermiT/reasoner/res/galen-ians-full-undoctored.xml" })
+    public String ontology;
+    @Param({ "200" })
+    public int numberOfTestedConcepts;
+
+    protected DirectBlockingChecker m_directBlockingChecker;
+    protected Tableau m_tableau;
+    protected List<Node> m_nodes;
+    protected BlockingSignatureCache m_blockingSignatureCache;
+
+    @Setup(Level.Trial)
+    public void buildModel() throws Exception {
+        OWLOntology owlOntology=OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(BenchmarkRunner.resolve(ontology));
+        Reasoner reasoner=new Reasoner(new Configuration(),owlOntology);
+        DLOntology dlOntology=reasoner.getDLOntology();
+        reasoner.dispose();
+        if (dlOntology.hasInverseRoles())
+            m_directBlockingChecker=new PairWiseDirectBlockingChecker();
+        else
+            m_directBlockingChecker=new SingleDirectBlockingChecker();
+        m_tableau=new Tableau(new InterruptFlag(-1),null,new CreationOrderStrategy(new AnywhereBlocking(m_directBlockingChecker,null)),false,dlOntology,null,new HashMap<String,Object>());
+        List<AtomicConcept> atomicConcepts=new ArrayList<>(dlOntology.getAllAtomicConcepts());
+        Collections.sort(atomicConcepts,(concept1,concept2) -> concept1.getIRI().compareTo(concept2.getIRI()));
+        AtomicConcept largestModelConcept=null;
+        int largestModelSize=-1;
+        for (AtomicConcept atomicConcept : atomicConcepts.subList(0,Math.min(numberOfTestedConcepts,atomicConcepts.size()))) {
+            if (isSatisfiable(atomicConcept)) {
+                int modelSize=collectNodes().size();
+                if (modelSize>largestModelSize) {
+                    largestModelSize=modelSize;
+                    largestModelConcept=atomicConcept;
+                }
+            }
+        }
+        if (largestModelConcept==null)
+            throw new IllegalStateException("None of the tested concepts is satisfiable.");
+        isSatisfiable(largestModelConcept);
+        m_nodes=collectNodes();
+    }
+    protected boolean isSatisfiable(AtomicConcept atomicConcept) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        return m_tableau.isSatisfiable(false,Collections.singleton(Atom.create(atomicConcept,freshIndividual)),null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(atomicConcept));
+    }
+    protected List<Node> collectNodes() {
+        List<Node> nodes=new ArrayList<>();
+        for (Node node=m_tableau.getFirstTableauNode();node!=null;node=node.getNextTableauNode())
+            if (node.isActive() && !node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
+                nodes.add(node);
+        return nodes;
+    }
+    @Setup(Level.Invocation)
+    public void createCache() {
+        m_blockingSignatureCache=new BlockingSignatureCache(m_directBlockingChecker);
+    }
+    @Benchmark
+    public void addNodes(Blackhole blackhole) {
+        for (Node node : m_nodes)
+            blackhole.consume(m_blockingSignatureCache.addNode(node));
+        for (Node node : m_nodes)
+            blackhole.consume(m_blockingSignatureCache.addNode(node));
+    }
+}
@@ -0,0 +1,100 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.tableau.DependencySet;
+import org.semanticweb.HermiT.tableau.DependencySetFactory;
+
+/**
+ * Measures the two operations through which the tableau builds dependency sets: adding a branching point to a set and
+ * forming the union of two sets. The sets are drawn from a pool that is created once per iteration, so, as in a real
+ * tableau, most results are already known to the factory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class DependencySetFactoryBenchmark {
+    public static final int NUMBER_OF_OPERATIONS=10000;
+
+    @Param({ "1000" })
+    public int numberOfSets;
+    @Param({ "200" })
+    public int numberOfBranchingPoints;
+    @Param({ "8" })
+    public int maximalSetSize;
+
+    protected DependencySetFactory m_dependencySetFactory;
+    protected DependencySet[] m_dependencySets;
+    protected int[] m_firstOperands;
+    protected int[] m_secondOperands;
+    protected int[] m_branchingPoints;
+
+    @Setup(Level.Iteration)
+    public void createDependencySets() {
+        Random random=new Random(42);
+        m_dependencySetFactory=new DependencySetFactory();
+        m_dependencySets=new DependencySet[numberOfSets];
+        for (int setIndex=0;setIndex<numberOfSets;setIndex++) {
+            DependencySet dependencySet=m_dependencySetFactory.emptySet();
+            int size=random.nextInt(maximalSetSize+1);
+            for (int index=0;index<size;index++)
+                dependencySet=m_dependencySetFactory.addBranchingPoint(dependencySet,random.nextInt(numberOfBranchingPoints));
+            m_dependencySets[setIndex]=dependencySet;
+        }
+        m_firstOperands=new int[NUMBER_OF_OPERATIONS];
+        m_secondOperands=new int[NUMBER_OF_OPERATIONS];
+        m_branchingPoints=new int[NUMBER_OF_OPERATIONS];
+        for (int index=0;index<NUMBER_OF_OPERATIONS;index++) {
+            m_firstOperands[index]=random.nextInt(numberOfSets);
+            m_secondOperands[index]=random.nextInt(numberOfSets);
+            m_branchingPoints[index]=random.nextInt(numberOfBranchingPoints);
+        }
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+    public void unionWith(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_OPERATIONS;index++)
+            blackhole.consume(m_dependencySetFactory.unionWith(m_dependencySets[m_firstOperands[index]],m_dependencySets[m_secondOperands[index]]));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+    public void addBranchingPoint(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_OPERATIONS;index++)
+            blackhole.consume(m_dependencySetFactory.addBranchingPoint(m_dependencySets[m_firstOperands[index]],m_branchingPoints[index]));
+    }
+}
@@ -0,0 +1,113 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+
+/**
+ * Measures InterningManager.intern() through the factory methods of the model classes. The IRIs of the vocabulary are
+ * created once, so the benchmark measures hashing and lookup; if missOneIn is positive, every missOneIn-th atom is created
+ * over a fresh individual, which measures insertion as well. The contended variant runs the same code in four threads over
+ * a shared vocabulary; other numbers of threads can be measured by running intern with the JMH option -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class InterningBenchmark {
+    public static final int NUMBER_OF_OPERATIONS=1000;
+
+    @Param({ "10000" })
+    public int vocabularySize;
+    @Param({ "0","100" })
+    public int missOneIn;
+
+    protected String[] m_conceptIRIs;
+    protected String[] m_individualIRIs;
+
+    @Setup
+    public void createVocabulary() {
+        m_conceptIRIs=new String[vocabularySize];
+        m_individualIRIs=new String[vocabularySize];
+        for (int index=0;index<vocabularySize;index++) {
+            m_conceptIRIs[index]="file:/bench#C"+index;
+            m_individualIRIs[index]="file:/bench#i"+index;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        protected static final AtomicInteger s_numberOfThreads=new AtomicInteger();
+
+        protected int m_threadNumber;
+        protected int m_position;
+        protected int m_numberOfFreshIndividuals;
+
+        @Setup
+        public void assignThreadNumber() {
+            m_threadNumber=s_numberOfThreads.getAndIncrement();
+        }
+    }
+
+    protected void internVocabulary(Cursor cursor,Blackhole blackhole) {
+        int position=cursor.m_position;
+        for (int index=0;index<NUMBER_OF_OPERATIONS;index++) {
+            int conceptIndex=position % vocabularySize;
+            Individual individual;
+            if (missOneIn>0 && position % missOneIn==0)
+                individual=Individual.create("file:/bench#fresh"+cursor.m_threadNumber+"_"+(cursor.m_numberOfFreshIndividuals++));
+            else
+                individual=Individual.create(m_individualIRIs[(position*31) % vocabularySize]);
+            blackhole.consume(Atom.create(AtomicConcept.create(m_conceptIRIs[conceptIndex]),individual));
+            position=(position+1) & Integer.MAX_VALUE;
+        }
+        cursor.m_position=position;
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+    public void intern(Cursor cursor,Blackhole blackhole) {
+        internVocabulary(cursor,blackhole);
+    }
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+    public void internContended(Cursor cursor,Blackhole blackhole) {
+        internVocabulary(cursor,blackhole);
+    }
+}
@@ -0,0 +1,120 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Measures a sequence of satisfiability tests with and without recycling nodes between the tests. Each test checks a
+ * concept C_i that implies the root of a binary tree of depth modelDepth and one of two disjuncts, and the concepts of
+ * the tree are distinct, so that no node is blocked and each test creates 2^(modelDepth+1)-1 nodes. The blocking
+ * signature cache is switched off, as it would otherwise block the tree after the first test. A new reasoner is created
+ * before each invocation, so the measured time covers only the satisfiability tests. Run with -prof gc to compare the
+ * allocation rate and the garbage collections of the two settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend={ "-Xmx2G" })
+public class NodeRecyclingBenchmark {
+    protected static final String NS="file:/bench#";
+
+    @Param({ "0", "2147483647" })
+    public int numberOfRecycledNodes;
+    @Param({ "1000" })
+    public int numberOfTests;
+    @Param({ "8" })
+    public int modelDepth;
+
+    protected OWLOntology m_owlOntology;
+    protected OWLClass[] m_testClasses;
+    protected Reasoner m_reasoner;
+
+    @Setup(Level.Trial)
+    public void createOntology() throws Exception {
+        OWLOntologyManager manager=OWLManager.createOWLOntologyManager();
+        OWLDataFactory factory=manager.getOWLDataFactory();
+        m_owlOntology=manager.createOntology(IRI.create("file:/bench"));
+        OWLObjectProperty r=factory.getOWLObjectProperty(IRI.create(NS+"r"));
+        OWLObjectProperty s=factory.getOWLObjectProperty(IRI.create(NS+"s"));
+        Set<OWLAxiom> axioms=new HashSet<>();
+        for (int level=0;level<modelDepth;level++)
+            for (int position=0;position<(1<<level);position++) {
+                OWLClass node=getClass(factory,"T"+level+"_"+position);
+                OWLClass left=getClass(factory,"T"+(level+1)+"_"+(2*position));
+                OWLClass right=getClass(factory,"T"+(level+1)+"_"+(2*position+1));
+                axioms.add(factory.getOWLSubClassOfAxiom(node,factory.getOWLObjectIntersectionOf(factory.getOWLObjectSomeValuesFrom(r,left),factory.getOWLObjectSomeValuesFrom(s,right))));
+            }
+        m_testClasses=new OWLClass[numberOfTests];
+        for (int index=0;index<numberOfTests;index++) {
+            m_testClasses[index]=getClass(factory,"C"+index);
+            axioms.add(factory.getOWLSubClassOfAxiom(m_testClasses[index],factory.getOWLObjectIntersectionOf(getClass(factory,"T0_0"),factory.getOWLObjectUnionOf(getClass(factory,"D"+(index % 17)),getClass(factory,"E"+(index % 13))))));
+        }
+        manager.addAxioms(m_owlOntology,axioms);
+    }
+    protected static OWLClass getClass(OWLDataFactory factory,String name) {
+        return factory.getOWLClass(IRI.create(NS+name));
+    }
+    @Setup(Level.Invocation)
+    public void createReasoner() {
+        Configuration configuration=new Configuration();
+        configuration.blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.NOT_CACHED;
+        configuration.numberOfRecycledNodes=numberOfRecycledNodes;
+        m_reasoner=new Reasoner(configuration,m_owlOntology);
+    }
+    @TearDown(Level.Invocation)
+    public void disposeReasoner() {
+        m_reasoner.dispose();
+        m_reasoner=null;
+    }
+    @Benchmark
+    public Reasoner checkSatisfiability() {
+        for (OWLClass testClass : m_testClasses)
+            if (!m_reasoner.isSatisfiable(testClass))
+                throw new IllegalStateException(testClass+" should be satisfiable.");
+        return m_reasoner;
+    }
+}
@@ -0,0 +1,90 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+/**
+ * Measures the main reasoning tasks on complete ontologies. The ontology is parsed once per trial and a new reasoner is
+ * created before each invocation, so the measured time covers only the reasoning task and not parsing or clausification.
+ * Since each task runs on a fresh reasoner, classification includes the consistency check and realisation includes classification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend={ "-Xmx2G" })
+public class ReasonerBenchmark {
+    @Param({
+        "examples/ontologies/pizza.owl",
+        "src/test/resources/org/semanticweb/HermiT/reasoner/res/wine.xml",
+        "src/test/resources/org/semanticweb/HermiT/reasoner/res/galen-ians-full-undoctored.xml"
+    })
+    public String ontology;
+
+    protected OWLOntology m_owlOntology;
+    protected Reasoner m_reasoner;
+
+    @Setup(Level.Trial)
+    public void loadOntology() throws Exception {
+        m_owlOntology=OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(BenchmarkRunner.resolve(ontology));
+    }
+    @Setup(Level.Invocation)
+    public void createReasoner() {
+        m_reasoner=new Reasoner(new Configuration(),m_owlOntology);
+    }
+    @TearDown(Level.Invocation)
+    public void disposeReasoner() {
+        m_reasoner.dispose();
+        m_reasoner=null;
+    }
+    @Benchmark
+    public boolean isConsistent() {
+        return m_reasoner.isConsistent();
+    }
+    @Benchmark
+    public Reasoner classifyClasses() {
+        m_reasoner.classifyClasses();
+        return m_reasoner;
+    }
+    @Benchmark
+    public Reasoner realise() {
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        return m_reasoner;
+    }
+}
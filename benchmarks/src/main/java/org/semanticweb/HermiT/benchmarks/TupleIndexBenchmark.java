@@ -0,0 +1,124 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.TupleIndex;
+import org.semanticweb.HermiT.tableau.TupleTable;
+
+/**
+ * Measures adding tuples to and looking tuples up in TupleIndex, and adding tuples to TupleTable. The tuples have the
+ * shape of the assertions in a binary or ternary extension table: a predicate followed by one or two terms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class TupleIndexBenchmark {
+    public static final int NUMBER_OF_TUPLES=100000;
+
+    @Param({ "2","3" })
+    public int arity;
+    @Param({ "100" })
+    public int numberOfPredicates;
+    @Param({ "5000" })
+    public int numberOfTerms;
+
+    protected Object[][] m_tuples;
+    protected TupleIndex m_emptyIndex;
+    protected TupleIndex m_filledIndex;
+    protected TupleTable m_emptyTable;
+
+    @Setup(Level.Trial)
+    public void createTuples() {
+        Random random=new Random(42);
+        Object[] predicates=new Object[numberOfPredicates];
+        for (int index=0;index<numberOfPredicates;index++)
+            predicates[index]=(arity==2 ? AtomicConcept.create("file:/bench#C"+index) : AtomicRole.create("file:/bench#r"+index));
+        Object[] terms=new Object[numberOfTerms];
+        for (int index=0;index<numberOfTerms;index++)
+            terms[index]=Individual.create("file:/bench#i"+index);
+        m_tuples=new Object[NUMBER_OF_TUPLES][];
+        for (int tupleIndex=0;tupleIndex<NUMBER_OF_TUPLES;tupleIndex++) {
+            Object[] tuple=new Object[arity];
+            tuple[0]=predicates[random.nextInt(numberOfPredicates)];
+            for (int index=1;index<arity;index++)
+                tuple[index]=terms[random.nextInt(numberOfTerms)];
+            m_tuples[tupleIndex]=tuple;
+        }
+        m_filledIndex=new TupleIndex(createIndexingSequence());
+        for (int tupleIndex=0;tupleIndex<NUMBER_OF_TUPLES;tupleIndex++)
+            m_filledIndex.addTuple(m_tuples[tupleIndex],tupleIndex);
+    }
+    @Setup(Level.Invocation)
+    public void createEmptyStructures() {
+        m_emptyIndex=new TupleIndex(createIndexingSequence());
+        m_emptyTable=new TupleTable(arity);
+    }
+    protected int[] createIndexingSequence() {
+        int[] indexingSequence=new int[arity];
+        for (int index=0;index<arity;index++)
+            indexingSequence[index]=index;
+        return indexingSequence;
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TUPLES)
+    public void addTuple(Blackhole blackhole) {
+        TupleIndex tupleIndex=m_emptyIndex;
+        Object[][] tuples=m_tuples;
+        for (int index=0;index<tuples.length;index++)
+            blackhole.consume(tupleIndex.addTuple(tuples[index],index));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TUPLES)
+    public void getTupleIndex(Blackhole blackhole) {
+        TupleIndex tupleIndex=m_filledIndex;
+        Object[][] tuples=m_tuples;
+        for (Object[] tuple : tuples)
+            blackhole.consume(tupleIndex.getTupleIndex(tuple));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TUPLES)
+    public void addTupleToTable(Blackhole blackhole) {
+        TupleTable tupleTable=m_emptyTable;
+        Object[][] tuples=m_tuples;
+        for (Object[] tuple : tuples)
+            blackhole.consume(tupleTable.addTuple(tuple));
+    }
+}
@@ -86,7 +86,13 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
          * (works even with inverses) and otherwise HermiT uses single blocking if the ontology contains no inverses and
          * pairwise blocking otherwise.
          */
-        OPTIMAL
+        OPTIMAL,
+        /**
+         * Like OPTIMAL, but uses subset blocking instead of single blocking if the ontology contains no inverse roles: a node
+         * can then be blocked by a node whose label contains its label, which results in smaller models. If the ontology
+         * contains at-most restrictions, nominals, or description graphs, then this is the same as single blocking.
+         */
+        SUBSET
     }
 
     /**
@@ -166,6 +172,22 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         EL
     }
 
+    /**
+     * Determines how the tableau stores the assertions in its extension tables.
+     */
+    public enum TupleStorageType {
+        /**
+         * Tuples are stored as arrays of object references and are compared using equals(). This is the default.
+         */
+        OBJECT_REFERENCES,
+        /**
+         * DL predicates, nodes and other tuple objects are assigned dense integer IDs and tuples are stored as IDs in
+         * primitive int arrays. This avoids pointer chasing and equals() calls when the tuple indexes are probed,
+         * which can pay off for large ontologies.
+         */
+        INTEGER_ENCODED
+    }
+
     /**
      * One can implement an instance of this class and pass it to HermiT. HermiT will then print warning with the
      * warning() method of the interface, e.g., if it ignores an unsupported datatype. HermiT does not provide an
@@ -182,6 +204,7 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
     public BlockingStrategyType blockingStrategyType;
     public BlockingSignatureCacheType blockingSignatureCacheType;
     public ExistentialStrategyType existentialStrategyType;
+    public TupleStorageType tupleStorageType;
     /**
      * If HermiT encounters a non-OWL2 datatype, it normally throws an error. If set to true, axioms containing unsupported
      * datatypes will be ignored.
@@ -191,6 +214,36 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      * Can be used to set a custom Tableau monitor.
      */
     public TableauMonitor monitor;
+    /**
+     * The default value is false. If set to true, each reasoner aggregates metrics of its satisfiability tests (the number and
+     * a histogram of the times of the tests of each type, backtrackings, clashes, created and blocked nodes, blocking validations,
+     * datatype checks, satisfiability cache hits, and the size of the extension tables) in a ReasonerMetrics object, which is
+     * returned by Reasoner.getMetrics() and can be read from other threads while the reasoner is running.
+     */
+    public boolean collectMetrics;
+    /**
+     * The default value is null. If collectMetrics is true and this is set to a JMX object name (e.g.,
+     * "org.semanticweb.HermiT:type=ReasonerMetrics,name=myReasoner"), then the metrics of the reasoner are registered under
+     * this name with the platform MBean server when the reasoner is created and unregistered when the reasoner is disposed.
+     */
+    public String metricsObjectName;
+    /**
+     * The default value is false. If set to true, each DL-clause evaluator of the tableaux of the reasoner counts its
+     * evaluations, the tuples it retrieves for each body atom, and the matches of each head, and it measures the time of a
+     * sample of its evaluations. The counters are kept in a DLClauseProfile, which is returned by Reasoner.getDLClauseProfile()
+     * and can be printed with Reasoner.printDLClauseProfile(), ranked by the estimated evaluation time. The profile keeps
+     * the evaluators of all tableaux that have been created for the current ontology, and tableaux that are created only
+     * for a single query with additional axioms are not profiled.
+     */
+    public boolean profileDLClauses;
+    /**
+     * The default value is false. If set to true, the order in which the body atoms of the DL-clauses are matched is
+     * chosen using the number of tuples of each predicate in the extension tables: the atom that is expected to retrieve
+     * the fewest tuples is matched next. The statistics are collected whenever the extension tables of a tableau have
+     * doubled in size, and the DL-clauses whose order changes are compiled anew. This mainly helps ontologies with SWRL
+     * rules or other DL-clauses with several role atoms in the body, where the default order can scan large intermediate results.
+     */
+    public boolean useAdaptiveJoinOrdering;
     /**
      * The parameters are passed to the Tableau class instance, but currently no parameters are used.
      */
@@ -200,6 +253,12 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      * individualTaskTimeout ms.
      */
     public long individualTaskTimeout;
+    /**
+     * If set to a positive value, any individual reasoning task is aborted with a MemoryBudgetExceededException as soon as
+     * its tableau uses approximately more than individualTaskMemoryBudget bytes. The estimate covers the extension tables,
+     * the dependency sets, and the nodes of the tableau. The aborted tableau is cleared, so the reasoner remains usable.
+     */
+    public long individualTaskMemoryBudget;
     public IndividualNodeSetPolicy individualNodeSetPolicy;
     public FreshEntityPolicy freshEntityPolicy;
     /**
@@ -232,6 +291,142 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      */
     public boolean forceQuasiOrderClassification;
 
+    /**
+     * The default value is false and HermiT classifies the atomic concepts with tableau tests. If the value is set to true and
+     * the ontology is in the EL fragment, that is, its DL-clauses are those of an EL TBox possibly with role hierarchies,
+     * transitive roles and role chains, then HermiT classifies all atomic concepts in a single consequence-based saturation
+     * pass, which is polynomial in the size of the ontology. Otherwise, this setting has no effect.
+     */
+    public boolean useConsequenceBasedClassification;
+
+    /**
+     * The default value is 1 and HermiT classifies the atomic concepts using a single tableau. If the value is larger than 1, then
+     * the satisfiability and subsumption tests needed for classifying atomic concepts are distributed over that many threads, each
+     * of which uses its own tableau. The resulting hierarchy does not depend on the number of threads. The parallel classification
+     * is not used if a tableau monitor is configured, since the monitors are not designed to observe several tableaux at once.
+     */
+    public int numberOfClassificationWorkers;
+
+    /**
+     * The default value is null and HermiT clausifies the ontology whenever it is loaded. If set to a directory, HermiT
+     * stores the clausified ontology in that directory and, when the same ontology is loaded again with the same settings,
+     * maps the stored clauses into memory instead of clausifying the ontology again. Ontologies that use description graphs
+     * are never cached. Warnings that the clausification reports to the warning monitor are not repeated on a cache hit.
+     */
+    public File clausificationCacheDirectory;
+
+    /**
+     * The default value is false and HermiT classifies the ontology from scratch after any change that is not an ABox-only change.
+     * If set to true, HermiT keeps the class hierarchy when TBox axioms are added or removed and, in the next classification,
+     * recomputes only the subsumers of the classes whose locality-based modules contain a changed axiom; the subsumers of all
+     * other classes are taken over from the previous hierarchy. This is not done for ontologies that contain SWRL rules,
+     * keys, or the top object or data property, which are always classified from scratch.
+     */
+    public boolean useIncrementalClassification;
+    /**
+     * The default value is 0.2. If useIncrementalClassification is set and the changes affect more than this fraction of the
+     * classes, the ontology is classified from scratch, since recomputing the subsumers of that many classes one by one is
+     * usually no faster than a full classification.
+     */
+    public double maximalFractionOfAffectedClassesForIncrementalClassification;
+
+    /**
+     * The default value is false and HermiT discards all computed class and property instances whenever assertions are added or
+     * removed. If set to true, the computed instances are kept after a change that only adds or removes ABox assertions, and only
+     * the individuals connected to a changed individual via property, equality or inequality assertions are loaded into a tableau
+     * and read off again. This requires that the TBox cannot relate unconnected individuals, so ontologies with nominals, keys,
+     * DL-safe rules over unconnected variables, or the top object property always start from scratch.
+     */
+    public boolean useIncrementalRealisation;
+
+    /**
+     * The default value is 1 and HermiT realises the ontology using a single tableau. If the value is larger than 1, then the
+     * instance tests needed for realising classes and object properties are distributed over that many threads, each of which
+     * uses its own tableau, and the known and possible class instances are read off the initial ABox model by the same number
+     * of threads. The computed instances do not depend on the number of threads. As for classification, this is not used if a
+     * tableau monitor is configured.
+     */
+    public int numberOfRealisationWorkers;
+
+    /**
+     * The default value is false and HermiT loads the entire ABox into the tableau for consistency checks and instance tests.
+     * If set to true, then the individuals are split into the components that are connected via assertions. The consistency
+     * of the ABox is checked by loading one partition after another, where a partition groups components with together at
+     * most aboxPartitionSize assertions (or consists of a single larger component), and the known and possible class instances
+     * are read off in the same way, so the size of a tableau depends on the largest partition rather than on the ABox. Instance
+     * tests load only the components of the tested individuals. If numberOfRealisationWorkers is larger than 1, then the
+     * partitions are checked in parallel. As for useIncrementalRealisation, this requires that the TBox cannot relate
+     * unconnected individuals, so the whole ABox is still used for ontologies with nominals, keys, DL-safe rules over
+     * unconnected variables, or the top object property.
+     */
+    public boolean useABoxPartitioning;
+
+    /**
+     * The default value is 10000. If useABoxPartitioning is true, then this is the maximal number of assertions of a partition
+     * that consists of more than one component.
+     */
+    public int aboxPartitionSize;
+
+    /**
+     * The default value is 0 and HermiT runs the calculus for every satisfiability and subsumption test. If the value is positive,
+     * then each tableau keeps up to that many results of tests for atomic concepts together with a pseudo-model of each satisfiable
+     * atomic concept, that is, its root label and the predicates of its model, and evicts the least recently used entries. A test is
+     * then answered without the calculus if it was performed before, if it involves an unsatisfiable concept, or if the pseudo-models
+     * of its concepts can be merged without interaction and do not contain the negated concepts. The cache is not used for
+     * ontologies with nominals, datatypes, description graphs or (for tests that load it) assertions. Hits and misses are reported
+     * to the tableau monitor.
+     */
+    public int satisfiabilityCacheSize;
+
+    /**
+     * The default value is 0 and HermiT learns nothing from a clash apart from the backtracking counts used for ordering
+     * disjuncts (see useDisjunctionLearning). If the value is positive, then each tableau records up to that many nogoods,
+     * that is, combinations of disjunct choices that led to a clash, and tries a disjunct that would complete a nogood in the
+     * current model only after the other disjuncts of its disjunction. Nogoods are kept until the end of a test or until one
+     * of their nodes is destroyed, and the oldest nogoods are discarded first. The numbers of learned nogoods and excluded
+     * disjuncts are reported to the tableau monitor.
+     */
+    public int nogoodStoreSize;
+
+    /**
+     * The default value is 0 and each satisfiability test that does not reuse a saturated ABox discards the nodes of the
+     * previous test, so that they are allocated anew. If the value is positive, then each tableau keeps up to that many
+     * nodes of the previous test, together with their blocking objects and buffers, and reuses them for the next test.
+     * This saves allocations and garbage collections when many tests build models of similar size, at the price of
+     * keeping that many nodes in memory between tests.
+     */
+    public int numberOfRecycledNodes;
+
+    /**
+     * The default value is null and the blocking signatures that a tableau learns from the models it finds (see
+     * blockingSignatureCacheType) are discarded with the tableau. If set to a directory, then each tableau starts with the
+     * signatures stored in that directory for the same DL-clauses and direct blocking checker, and the signatures of the
+     * reasoner's tableau are stored there when the ontology is reloaded or the reasoner is disposed, so that a new reasoner
+     * for the same ontology does not have to learn them again. Since signatures are not used with nominals or core blocking,
+     * nothing is stored in these cases.
+     */
+    public File blockingSignatureCacheDirectory;
+
+    /**
+     * The default value is false and anywhere blocking recomputes, after each change, the blocking status of all nodes from
+     * the first changed node to the end of the tableau. If set to true, then anywhere blocking records the nodes that have
+     * changed and recomputes only the status of these nodes and of the nodes that depend on them (their children, the nodes
+     * they block, and the nodes with the same label that they can now block). This pays off for large tree models, where
+     * the first changed node is often far from the end of the tableau. The option does not affect core blocking and is
+     * ignored with subset blocking.
+     */
+    public boolean useIncrementalBlockingUpdates;
+
+    /**
+     * The default value is 1 and core blocking (SIMPLE_CORE and COMPLEX_CORE) validates the blocks of the nodes one after
+     * another before a model is accepted. If the value is larger than 1, then the blocks of the nodes that have changed since
+     * the last validation are first checked in parallel by that many threads, and the invalid blocks are then repaired one after
+     * another as before. This pays off for ontologies with inverse roles, where the validation takes a large share of the
+     * time. The option is ignored with other blocking strategies and if tupleStorageType is INTEGER_ENCODED. The threads are
+     * shared by all tableaux, so tableaux that run in parallel (see numberOfClassificationWorkers) do not multiply their number.
+     */
+    public int numberOfBlockingValidationThreads;
+
     public Configuration() {
         warningMonitor=null;
         reasonerProgressMonitor=null;
@@ -240,10 +435,16 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         blockingStrategyType=Configuration.BlockingStrategyType.OPTIMAL;
         blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.CACHED;
         existentialStrategyType=Configuration.ExistentialStrategyType.CREATION_ORDER;
+        tupleStorageType=Configuration.TupleStorageType.OBJECT_REFERENCES;
         ignoreUnsupportedDatatypes=false;
         monitor=null;
+        collectMetrics=false;
+        metricsObjectName=null;
+        profileDLClauses=false;
+        useAdaptiveJoinOrdering=false;
         parameters= new HashMap<>();
         individualTaskTimeout=-1;
+        individualTaskMemoryBudget=-1;
         bufferChanges=true;
         individualNodeSetPolicy=IndividualNodeSetPolicy.BY_NAME;
         freshEntityPolicy=FreshEntityPolicy.ALLOW;
@@ -251,6 +452,21 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         throwInconsistentOntologyException=true;
         prepareReasonerInferences=null;
         forceQuasiOrderClassification=false;
+        useConsequenceBasedClassification=false;
+        numberOfClassificationWorkers=1;
+        clausificationCacheDirectory=null;
+        useIncrementalClassification=false;
+        maximalFractionOfAffectedClassesForIncrementalClassification=0.2;
+        useIncrementalRealisation=false;
+        numberOfRealisationWorkers=1;
+        useABoxPartitioning=false;
+        aboxPartitionSize=10000;
+        satisfiabilityCacheSize=0;
+        nogoodStoreSize=0;
+        numberOfRecycledNodes=0;
+        blockingSignatureCacheDirectory=null;
+        useIncrementalBlockingUpdates=false;
+        numberOfBlockingValidationThreads=1;
     }
     protected void setIndividualReuseStrategyReuseAlways(Set<? extends AtomicConcept> concepts) {
         parameters.put("IndividualReuseStrategy.reuseAlways",concepts);
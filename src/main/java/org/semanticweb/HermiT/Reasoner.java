@@ -18,6 +18,7 @@
 
 package org.semanticweb.HermiT;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,25 +27,33 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.semanticweb.HermiT.Configuration.BlockingStrategyType;
 import org.semanticweb.HermiT.blocking.AncestorBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereValidatedBlocking;
 import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.BlockingSignatureStore;
 import org.semanticweb.HermiT.blocking.BlockingStrategy;
 import org.semanticweb.HermiT.blocking.DirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
+import org.semanticweb.HermiT.blocking.SubsetDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedPairwiseDirectBlockingChecker;
 import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker;
 import org.semanticweb.HermiT.debugger.Debugger;
+import org.semanticweb.HermiT.existentials.AbstractExpansionStrategy;
 import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
 import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
 import org.semanticweb.HermiT.existentials.IndividualReuseStrategy;
+import org.semanticweb.HermiT.hierarchy.ABoxPartitioning;
 import org.semanticweb.HermiT.hierarchy.ClassificationProgressMonitor;
+import org.semanticweb.HermiT.hierarchy.ConsequenceBasedClassification;
 import org.semanticweb.HermiT.hierarchy.DeterministicClassification;
 import org.semanticweb.HermiT.hierarchy.Hierarchy;
 import org.semanticweb.HermiT.hierarchy.HierarchyDumperFSS;
@@ -52,33 +61,42 @@ import org.semanticweb.HermiT.hierarchy.HierarchyNode;
 import org.semanticweb.HermiT.hierarchy.HierarchyPrinterFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchySearch;
 import org.semanticweb.HermiT.hierarchy.InstanceManager;
+import org.semanticweb.HermiT.hierarchy.ParallelClassification;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassification;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassificationForRoles;
+import org.semanticweb.HermiT.hierarchy.TableauWorkerPool;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Constant;
 import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLOntologyBinaryFormat;
 import org.semanticweb.HermiT.model.DescriptionGraph;
 import org.semanticweb.HermiT.model.Equality;
 import org.semanticweb.HermiT.model.Individual;
 import org.semanticweb.HermiT.model.Inequality;
 import org.semanticweb.HermiT.model.InverseRole;
 import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.monitor.MetricsMonitor;
+import org.semanticweb.HermiT.monitor.ReasonerMetrics;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
 import org.semanticweb.HermiT.monitor.TableauMonitorFork;
 import org.semanticweb.HermiT.monitor.Timer;
 import org.semanticweb.HermiT.monitor.TimerWithPause;
 import org.semanticweb.HermiT.structural.BuiltInPropertyManager;
+import org.semanticweb.HermiT.structural.DLOntologyCache;
+import org.semanticweb.HermiT.structural.LocalityBasedChangeAnalysis;
 import org.semanticweb.HermiT.structural.OWLAxioms;
 import org.semanticweb.HermiT.structural.OWLAxiomsExpressivity;
 import org.semanticweb.HermiT.structural.OWLClausification;
 import org.semanticweb.HermiT.structural.OWLNormalization;
 import org.semanticweb.HermiT.structural.ObjectPropertyInclusionManager;
 import org.semanticweb.HermiT.structural.ReducedABoxOnlyClausification;
+import org.semanticweb.HermiT.tableau.DLClauseProfile;
 import org.semanticweb.HermiT.tableau.InterruptFlag;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.TableauConfiguration;
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.AxiomType;
@@ -96,6 +114,7 @@ import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLException;
 import org.semanticweb.owlapi.model.OWLFunctionalObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLHasKeyAxiom;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLInverseFunctionalObjectPropertyAxiom;
@@ -151,12 +170,21 @@ public class Reasoner implements OWLReasoner {
     protected final List<OWLOntologyChange> m_pendingChanges;
     protected final Collection<DescriptionGraph> m_descriptionGraphs;
     protected final InterruptFlag m_interruptFlag;
+    protected final ReasonerMetrics m_metrics;
+    protected final DLClauseProfile m_dlClauseProfile;
+    protected volatile ParallelClassification m_parallelClassification;
+    protected volatile TableauWorkerPool m_realisationWorkerPool;
+    protected ABoxPartitioning m_aboxPartitioning;
+    protected boolean m_aboxPartitioningComputed;
     protected ObjectPropertyInclusionManager m_objectPropertyInclusionManager;
     protected DLOntology m_dlOntology;
     protected Prefixes m_prefixes;
     protected Tableau m_tableau;
     protected Boolean m_isConsistent;
     protected Hierarchy<AtomicConcept> m_atomicConceptHierarchy;
+    protected Hierarchy<AtomicConcept> m_previousAtomicConceptHierarchy;
+    protected final Set<OWLAxiom> m_axiomsAddedSinceClassification;
+    protected final Set<OWLAxiom> m_axiomsRemovedSinceClassification;
     protected Hierarchy<Role> m_objectRoleHierarchy;
     protected Hierarchy<AtomicRole> m_dataRoleHierarchy;
     protected Map<Role,Set<HierarchyNode<AtomicConcept>>> m_directObjectRoleDomains;
@@ -164,6 +192,7 @@ public class Reasoner implements OWLReasoner {
     protected Map<AtomicRole,Set<HierarchyNode<AtomicConcept>>> m_directDataRoleDomains;
     protected Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> m_directDisjointClasses;
     protected InstanceManager m_instanceManager;
+    protected Set<Individual> m_individualsWithChangedAssertions;
 
     /**
      * Creates a new reasoner object with standard parameters for blocking, expansion strategy etc. Then the given manager is used to find all required imports for the given ontology and the ontology with the imports is loaded into the reasoner and the data factory of the manager is used to create fresh concepts during the preprocessing phase if necessary.
@@ -207,9 +236,15 @@ public class Reasoner implements OWLReasoner {
             m_descriptionGraphs=Collections.emptySet();
         else
             m_descriptionGraphs=descriptionGraphs;
-        m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout);
+        m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout,configuration.individualTaskMemoryBudget);
+        m_metrics=(configuration.collectMetrics ? new ReasonerMetrics() : null);
+        m_dlClauseProfile=(configuration.profileDLClauses ? new DLClauseProfile() : null);
         m_directDisjointClasses= new HashMap<>();
+        m_axiomsAddedSinceClassification= new HashSet<>();
+        m_axiomsRemovedSinceClassification= new HashSet<>();
         loadOntology();
+        if (m_metrics!=null && configuration.metricsObjectName!=null)
+            m_metrics.registerMBean(configuration.metricsObjectName);
     }
 
     // Life-cycle management methods
@@ -218,13 +253,36 @@ public class Reasoner implements OWLReasoner {
         clearState();
         // Convert OWLOntology into DLOntology
         OWLClausification clausifier=new OWLClausification(m_configuration);
-        Object[] result=clausifier.preprocessAndClausify(m_rootOntology,m_descriptionGraphs);
-        m_objectPropertyInclusionManager=(ObjectPropertyInclusionManager)result[0];
-        m_dlOntology=(DLOntology)result[1];
+        DLOntologyCache dlOntologyCache=null;
+        String dlOntologyCacheKey=null;
+        if (m_configuration.clausificationCacheDirectory!=null && m_descriptionGraphs.isEmpty()) {
+            dlOntologyCache=new DLOntologyCache(m_configuration.clausificationCacheDirectory);
+            dlOntologyCacheKey=DLOntologyCache.computeKey(m_rootOntology,m_configuration);
+            m_dlOntology=dlOntologyCache.load(dlOntologyCacheKey);
+        }
+        if (m_dlOntology!=null)
+            m_objectPropertyInclusionManager=clausifier.createObjectPropertyInclusionManager(m_rootOntology,m_dlOntology);
+        else {
+            Object[] result=clausifier.preprocessAndClausify(m_rootOntology,m_descriptionGraphs);
+            m_objectPropertyInclusionManager=(ObjectPropertyInclusionManager)result[0];
+            m_dlOntology=(DLOntology)result[1];
+            if (dlOntologyCache!=null && DLOntologyBinaryFormat.isSupported(m_dlOntology)) {
+                try {
+                    dlOntologyCache.save(dlOntologyCacheKey,m_dlOntology);
+                }
+                catch (IOException e) {
+                    if (m_configuration.warningMonitor!=null)
+                        m_configuration.warningMonitor.warning("The clausified ontology could not be stored in the cache directory: "+e.getMessage());
+                }
+            }
+        }
         // Load the DLOntology
         createPrefixes();
-        m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes);
+        if (m_dlClauseProfile!=null)
+            m_dlClauseProfile.clear();
+        m_tableau=createTableau(m_interruptFlag,m_configuration,m_metrics,m_dlClauseProfile,m_dlOntology,null,m_prefixes);
         m_instanceManager=null;
+        m_individualsWithChangedAssertions=null;
     }
     protected void createPrefixes() {
         m_prefixes=new Prefixes();
@@ -270,10 +328,73 @@ public class Reasoner implements OWLReasoner {
         m_rootOntology.getOWLOntologyManager().removeOntologyChangeListener(m_ontologyChangeListener);
         clearState();
         m_interruptFlag.dispose();
+        if (m_metrics!=null)
+            m_metrics.unregisterMBean();
+        if (m_dlClauseProfile!=null)
+            m_dlClauseProfile.clear();
+    }
+    /**
+     * @return the metrics of the satisfiability tests of this reasoner, or null if Configuration.collectMetrics is false
+     */
+    public ReasonerMetrics getMetrics() {
+        return m_metrics;
+    }
+    /**
+     * @return the profile of the DL-clause evaluations of this reasoner, or null if Configuration.profileDLClauses is false
+     */
+    public DLClauseProfile getDLClauseProfile() {
+        return m_dlClauseProfile;
+    }
+    /**
+     * Prints the DL-clauses whose evaluation has taken the most time so far.
+     *
+     * @param out
+     *            - the printwriter that is used to output the profile
+     * @param maximalNumberOfEntries
+     *            - the maximal number of DL-clause bodies that are printed
+     * @throws IllegalStateException if Configuration.profileDLClauses is false
+     */
+    public void printDLClauseProfile(PrintWriter out,int maximalNumberOfEntries) {
+        if (m_dlClauseProfile==null)
+            throw new IllegalStateException("DL-clause profiling is not enabled in the configuration.");
+        m_dlClauseProfile.print(out,m_prefixes,maximalNumberOfEntries);
+    }
+    /**
+     * Stores the blocking signatures that the tableau of this reasoner has learned so far in the directory given by
+     * Configuration.blockingSignatureCacheDirectory. This is done automatically when the ontology is reloaded or the
+     * reasoner is disposed; nothing is done if the directory is not set or the tableau does not use blocking signatures.
+     */
+    public void saveBlockingSignatureCache() {
+        if (m_configuration.blockingSignatureCacheDirectory!=null && m_tableau!=null) {
+            BlockingSignatureCache blockingSignatureCache=getBlockingSignatureCache(m_tableau);
+            if (blockingSignatureCache!=null && !blockingSignatureCache.isEmpty()) {
+                BlockingSignatureStore blockingSignatureStore=new BlockingSignatureStore(m_configuration.blockingSignatureCacheDirectory);
+                try {
+                    blockingSignatureStore.save(m_tableau.getPermanentDLOntology(),blockingSignatureCache);
+                }
+                catch (IOException e) {
+                    if (m_configuration.warningMonitor!=null)
+                        m_configuration.warningMonitor.warning("The blocking signatures could not be stored in the cache directory: "+e.getMessage());
+                }
+            }
+        }
+    }
+    protected static BlockingSignatureCache getBlockingSignatureCache(Tableau tableau) {
+        if (tableau.getExistentialsExpansionStrategy() instanceof AbstractExpansionStrategy) {
+            BlockingStrategy blockingStrategy=((AbstractExpansionStrategy)tableau.getExistentialsExpansionStrategy()).getBlockingStrategy();
+            if (blockingStrategy instanceof AnywhereBlocking)
+                return ((AnywhereBlocking)blockingStrategy).getBlockingSignatureCache();
+            else if (blockingStrategy instanceof AncestorBlocking)
+                return ((AncestorBlocking)blockingStrategy).getBlockingSignatureCache();
+        }
+        return null;
     }
     protected void clearState() {
+        saveBlockingSignatureCache();
         m_pendingChanges.clear();
         m_dlOntology=null;
+        m_aboxPartitioning=null;
+        m_aboxPartitioningComputed=false;
         m_prefixes=null;
         m_tableau=null;
         m_isConsistent=null;
@@ -285,9 +406,16 @@ public class Reasoner implements OWLReasoner {
         m_directDataRoleDomains= new HashMap<>();
         m_directDisjointClasses= new HashMap<>();
         m_instanceManager=null;
+        m_individualsWithChangedAssertions=null;
     }
     public void interrupt() {
         m_interruptFlag.interrupt();
+        ParallelClassification parallelClassification=m_parallelClassification;
+        if (parallelClassification!=null)
+            parallelClassification.interrupt();
+        TableauWorkerPool realisationWorkerPool=m_realisationWorkerPool;
+        if (realisationWorkerPool!=null)
+            realisationWorkerPool.interrupt();
     }
     public OWLDataFactory getDataFactory() {
         return m_rootOntology.getOWLOntologyManager().getOWLDataFactory();
@@ -379,6 +507,7 @@ public class Reasoner implements OWLReasoner {
                 Set<Atom> positiveFacts=m_dlOntology.getPositiveFacts();
                 Set<Atom> negativeFacts=m_dlOntology.getNegativeFacts();
                 Set<Individual> allIndividuals= new HashSet<>();
+                Set<Individual> changedIndividuals= new HashSet<>();
                 Set<AtomicConcept> allAtomicConcepts=m_dlOntology.getAllAtomicConcepts();
                 Set<AtomicRole> allAtomicObjectRoles=m_dlOntology.getAllAtomicObjectRoles();
                 Set<AtomicRole> allAtomicDataRoles=m_dlOntology.getAllAtomicDataRoles();
@@ -388,6 +517,10 @@ public class Reasoner implements OWLReasoner {
                         OWLAxiom axiom=change.getAxiom();
                         if (axiom.isLogicalAxiom()) {
                             aboxFactClausifier.clausify((OWLIndividualAxiom)axiom);
+                            for (Atom atom : aboxFactClausifier.getPositiveFacts())
+                                atom.getIndividuals(changedIndividuals);
+                            for (Atom atom : aboxFactClausifier.getNegativeFacts())
+                                atom.getIndividuals(changedIndividuals);
                             if (change instanceof AddAxiom) {
                                 positiveFacts.addAll(aboxFactClausifier.getPositiveFacts());
                                 negativeFacts.addAll(aboxFactClausifier.getNegativeFacts());
@@ -403,16 +536,98 @@ public class Reasoner implements OWLReasoner {
                     atom.getIndividuals(allIndividuals);
                 for (Atom atom : negativeFacts)
                     atom.getIndividuals(allIndividuals);
+                boolean sameIndividuals=allIndividuals.equals(m_dlOntology.getAllIndividuals());
                 m_dlOntology=new DLOntology(m_dlOntology.getOntologyIRI(),m_dlOntology.getDLClauses(),positiveFacts,negativeFacts,allAtomicConcepts,allAtomicObjectRoles,m_dlOntology.getAllComplexObjectRoles(),allAtomicDataRoles,m_dlOntology.getAllUnknownDatatypeRestrictions(),m_dlOntology.getDefinedDatatypeIRIs(),allIndividuals,m_dlOntology.hasInverseRoles(),m_dlOntology.hasAtMostRestrictions(),m_dlOntology.hasNominals(),m_dlOntology.hasDatatypes());
-                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,m_dlOntology,null,m_configuration.parameters);
-                m_instanceManager=null;
+                m_aboxPartitioning=null;
+                m_aboxPartitioningComputed=false;
+                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,createTableauConfiguration(m_configuration,m_tableau.getDLClauseProfile()),m_dlOntology,null,m_configuration.parameters);
+                if (m_configuration.useIncrementalRealisation && sameIndividuals && canUpdateInstanceManager()) {
+                    if (m_individualsWithChangedAssertions==null)
+                        m_individualsWithChangedAssertions=new HashSet<>();
+                    m_individualsWithChangedAssertions.addAll(changedIndividuals);
+                }
+                else {
+                    m_instanceManager=null;
+                    m_individualsWithChangedAssertions=null;
+                }
                 m_isConsistent=null;
             }
-            else
+            else {
+                if (m_configuration.useIncrementalClassification)
+                    recordChangesForIncrementalClassification();
                 loadOntology();
+            }
             m_pendingChanges.clear();
         }
     }
+    /**
+     * Checks whether the instance manager can be kept after ABox-only changes, which requires that it has read off instances of a
+     * consistent ABox (possibly modulo earlier changes that are still to be processed) and that the consequences of assertions
+     * cannot spread beyond the individuals connected to them.
+     */
+    protected boolean canUpdateInstanceManager() {
+        if (m_instanceManager==null || !(m_instanceManager.areClassesInitialised() || m_instanceManager.arePropertiesInitialised()))
+            return false;
+        if (m_individualsWithChangedAssertions==null && !Boolean.TRUE.equals(m_isConsistent))
+            return false;
+        return ABoxPartitioning.hasLocalABoxConsequences(m_dlOntology);
+    }
+    /**
+     * Processes the assertions changed since the instance manager was last updated. The instance manager is only kept if the
+     * update completes and the ABox is still consistent.
+     */
+    protected void updateInstanceManagerForChangedAssertions() {
+        InstanceManager instanceManager=m_instanceManager;
+        Set<Individual> changedIndividuals=m_individualsWithChangedAssertions;
+        m_instanceManager=null;
+        m_individualsWithChangedAssertions=null;
+        if (instanceManager.updateForChangedIndividuals(changedIndividuals)) {
+            m_instanceManager=instanceManager;
+            m_isConsistent=Boolean.TRUE;
+        }
+        else
+            m_isConsistent=Boolean.FALSE;
+    }
+    /**
+     * Remembers the current class hierarchy together with the pending axiom changes so that the next classification
+     * only needs to recompute the subsumers of the classes that the changes can affect. The changes of several flushes
+     * between two classifications are accumulated.
+     */
+    protected void recordChangesForIncrementalClassification() {
+        if (m_atomicConceptHierarchy!=null) {
+            m_axiomsAddedSinceClassification.clear();
+            m_axiomsRemovedSinceClassification.clear();
+            if (m_isConsistent!=null && m_isConsistent && m_descriptionGraphs.isEmpty())
+                m_previousAtomicConceptHierarchy=m_atomicConceptHierarchy;
+            else
+                m_previousAtomicConceptHierarchy=null;
+        }
+        if (m_previousAtomicConceptHierarchy!=null) {
+            Set<OWLOntology> rootOntologyImportsClosure=m_rootOntology.getImportsClosure();
+            for (OWLOntologyChange change : m_pendingChanges) {
+                if (rootOntologyImportsClosure.contains(change.getOntology())) {
+                    if (!change.isAxiomChange()) {
+                        discardIncrementalClassificationState();
+                        return;
+                    }
+                    OWLAxiom axiom=change.getAxiom();
+                    if (axiom.isLogicalAxiom()) {
+                        if (change instanceof AddAxiom) {
+                            if (!m_axiomsRemovedSinceClassification.remove(axiom))
+                                m_axiomsAddedSinceClassification.add(axiom);
+                        }
+                        else if (!m_axiomsAddedSinceClassification.remove(axiom))
+                            m_axiomsRemovedSinceClassification.add(axiom);
+                    }
+                }
+            }
+        }
+    }
+    protected void discardIncrementalClassificationState() {
+        m_previousAtomicConceptHierarchy=null;
+        m_axiomsAddedSinceClassification.clear();
+        m_axiomsRemovedSinceClassification.clear();
+    }
     public boolean canProcessPendingChangesIncrementally() {
         Set<OWLOntology> rootOntologyImportsClosure=m_rootOntology.getImportsClosure();
         for (OWLOntologyChange change : m_pendingChanges) {
@@ -536,13 +751,13 @@ public class Reasoner implements OWLReasoner {
         case DATA_PROPERTY_HIERARCHY:
             return m_dataRoleHierarchy!=null;
         case CLASS_ASSERTIONS:
-            return m_instanceManager!=null && m_instanceManager.realizationCompleted();
+            return m_instanceManager!=null && m_individualsWithChangedAssertions==null && m_instanceManager.realizationCompleted();
         case OBJECT_PROPERTY_ASSERTIONS:
-            return m_instanceManager!=null && m_instanceManager.objectPropertyRealizationCompleted();
+            return m_instanceManager!=null && m_individualsWithChangedAssertions==null && m_instanceManager.objectPropertyRealizationCompleted();
             // case DATA_PROPERTY_ASSERTIONS:
             // return m_dataRoleHierarchy!=null; // used to find sub-propeties
         case SAME_INDIVIDUAL:
-            return m_instanceManager!=null && m_instanceManager.sameAsIndividualsComputed();
+            return m_instanceManager!=null && m_individualsWithChangedAssertions==null && m_instanceManager.sameAsIndividualsComputed();
             // case DIFFERENT_INDIVIDUALS:
             // return false;
             // case DISJOINT_CLASSES:
@@ -651,6 +866,14 @@ public class Reasoner implements OWLReasoner {
             boolean isConsistent=true;
             if (m_isConsistent!=null && !m_isConsistent)
                 m_instanceManager.setInconsistent();
+            else if (getABoxPartitioning()!=null) {
+                int steps=m_dlOntology.getAllIndividuals().size();
+                isConsistent=m_instanceManager.initializeKnowAndPossibleClassInstances(getTableau(),getABoxPartitioning().getPartitions(m_configuration.aboxPartitionSize),m_configuration.reasonerProgressMonitor,0,steps);
+                if (!isConsistent)
+                    m_instanceManager.setInconsistent();
+                if (m_isConsistent==null)
+                    m_isConsistent=isConsistent;
+            }
             else {
                 int noAxioms=m_dlOntology.getDLClauses().size();
                 int noIndividuals=m_dlOntology.getAllIndividuals().size();
@@ -665,6 +888,10 @@ public class Reasoner implements OWLReasoner {
                     m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(completedSteps,steps);
                 if (!isConsistent)
                     m_instanceManager.setInconsistent();
+                else if (useParallelRealisation()) {
+                    final int initialCompletedSteps=completedSteps;
+                    runWithRealisationWorkers(tableau,false,workerPool -> m_instanceManager.initializeKnowAndPossibleClassInstances(tableau,m_configuration.reasonerProgressMonitor,initialCompletedSteps,steps,workerPool));
+                }
                 else
                     m_instanceManager.initializeKnowAndPossibleClassInstances(tableau,m_configuration.reasonerProgressMonitor,completedSteps,steps);
                 if (m_isConsistent==null)
@@ -677,10 +904,35 @@ public class Reasoner implements OWLReasoner {
     }
     public boolean isConsistent() {
         flushChangesIfRequired();
-        if (m_isConsistent==null)
-            m_isConsistent=getTableau().isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isABoxSatisfiable());
+        if (m_isConsistent==null && m_individualsWithChangedAssertions!=null)
+            updateInstanceManagerForChangedAssertions();
+        if (m_isConsistent==null) {
+            final ABoxPartitioning aboxPartitioning=getABoxPartitioning();
+            if (aboxPartitioning==null)
+                m_isConsistent=getTableau().isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isABoxSatisfiable());
+            else if (useParallelRealisation()) {
+                final boolean[] isConsistent=new boolean[1];
+                runWithRealisationWorkers(getTableau(),true,workerPool -> isConsistent[0]=aboxPartitioning.isConsistent(workerPool,m_configuration.aboxPartitionSize));
+                m_isConsistent=isConsistent[0];
+            }
+            else
+                m_isConsistent=aboxPartitioning.isConsistent(getTableau(),m_configuration.aboxPartitionSize);
+        }
         return m_isConsistent;
     }
+    /**
+     * A mostly internal method. Returns the partitioning of the ABox into the components of connected individuals if
+     * Configuration.useABoxPartitioning is set and the loaded ontology allows for reasoning about each component on its own,
+     * and null otherwise.
+     */
+    public ABoxPartitioning getABoxPartitioning() {
+        if (!m_aboxPartitioningComputed) {
+            if (m_configuration.useABoxPartitioning && ABoxPartitioning.hasLocalABoxConsequences(m_dlOntology))
+                m_aboxPartitioning=new ABoxPartitioning(m_dlOntology);
+            m_aboxPartitioningComputed=true;
+        }
+        return m_aboxPartitioning;
+    }
     public boolean isEntailmentCheckingSupported(AxiomType<?> axiomType) {
         return true;
     }
@@ -717,8 +969,10 @@ public class Reasoner implements OWLReasoner {
             for (AtomicConcept atomicConcept : m_dlOntology.getAllAtomicConcepts())
                 if (!Prefixes.isInternalIRI(atomicConcept.getIRI()))
                     relevantAtomicConcepts.add(atomicConcept);
-            if (!m_isConsistent)
+            if (!m_isConsistent) {
                 m_atomicConceptHierarchy=Hierarchy.emptyHierarchy(relevantAtomicConcepts,AtomicConcept.THING,AtomicConcept.NOTHING);
+                discardIncrementalClassificationState();
+            }
             else {
                 try {
                     final int numRelevantConcepts=relevantAtomicConcepts.size();
@@ -732,9 +986,18 @@ public class Reasoner implements OWLReasoner {
                                 m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(m_processedConcepts,numRelevantConcepts);
                         }
                     };
-                    m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
+                    Set<AtomicConcept> affectedAtomicConcepts=getAtomicConceptsAffectedByChanges(relevantAtomicConcepts);
+                    if (m_configuration.useConsequenceBasedClassification && ConsequenceBasedClassification.isApplicable(m_dlOntology))
+                        m_atomicConceptHierarchy=new ConsequenceBasedClassification(m_dlOntology,m_interruptFlag,progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts).classify();
+                    else if (affectedAtomicConcepts!=null)
+                        m_atomicConceptHierarchy=new QuasiOrderClassification(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts).classify(m_previousAtomicConceptHierarchy,affectedAtomicConcepts);
+                    else if (m_configuration.numberOfClassificationWorkers>1 && m_configuration.monitor==null && m_configuration.tableauMonitorType==Configuration.TableauMonitorType.NONE)
+                        m_atomicConceptHierarchy=classifyAtomicConceptsInParallel(progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
+                    else
+                        m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
                     if (m_instanceManager!=null)
                         m_instanceManager.setToClassifiedConceptHierarchy(m_atomicConceptHierarchy);
+                    discardIncrementalClassificationState();
                 }
                 finally {
                     if (m_configuration.reasonerProgressMonitor!=null)
@@ -760,6 +1023,11 @@ public class Reasoner implements OWLReasoner {
             HierarchyNode<AtomicConcept> node=m_atomicConceptHierarchy.getNodeForElement(concept);
             return node!=m_atomicConceptHierarchy.getBottomNode();
         }
+        else if (classExpression instanceof OWLClass && !containsFreshEntities(classExpression)) {
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Atom assertion=Atom.create(H((OWLClass)classExpression),freshIndividual);
+            return getTableau().isSatisfiable(true,Collections.singleton(assertion),null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(classExpression));
+        }
         else {
             OWLDataFactory factory=getDataFactory();
             OWLIndividual freshIndividual=factory.getOWLAnonymousIndividual("fresh-individual");
@@ -1599,7 +1867,10 @@ public class Reasoner implements OWLReasoner {
         if (m_dlOntology.getAllIndividuals().size()>0) {
             classifyClasses();
             initialiseClassInstanceManager();
-            m_instanceManager.realize(m_configuration.reasonerProgressMonitor);
+            if (useParallelRealisation() && !m_instanceManager.realizationCompleted())
+                runWithRealisationWorkers(getTableau(),true,workerPool -> m_instanceManager.realize(m_configuration.reasonerProgressMonitor,workerPool));
+            else
+                m_instanceManager.realize(m_configuration.reasonerProgressMonitor);
         }
     }
     public void realiseObjectProperties() {
@@ -1607,7 +1878,40 @@ public class Reasoner implements OWLReasoner {
         if (m_dlOntology.getAllIndividuals().size()>0) {
             classifyObjectProperties();
             initialisePropertiesInstanceManager();
-            m_instanceManager.realizeObjectRoles(m_configuration.reasonerProgressMonitor);
+            if (useParallelRealisation() && !m_instanceManager.objectPropertyRealizationCompleted())
+                runWithRealisationWorkers(getTableau(),true,workerPool -> m_instanceManager.realizeObjectRoles(m_configuration.reasonerProgressMonitor,workerPool));
+            else
+                m_instanceManager.realizeObjectRoles(m_configuration.reasonerProgressMonitor);
+        }
+    }
+    protected boolean useParallelRealisation() {
+        return m_configuration.numberOfRealisationWorkers>1 && m_configuration.monitor==null && m_configuration.tableauMonitorType==Configuration.TableauMonitorType.NONE;
+    }
+    /**
+     * Runs the given computation with a pool of realisation workers. If copyTableau is true, then each worker gets its own
+     * copy of the given tableau, which it may use for tests; otherwise, all workers share the given tableau and may only read it.
+     */
+    protected void runWithRealisationWorkers(Tableau tableau,boolean copyTableau,Consumer<TableauWorkerPool> computation) {
+        Tableau[] tableaux=new Tableau[m_configuration.numberOfRealisationWorkers];
+        tableaux[0]=tableau;
+        // the workers may read the ABox partitioning, so it must be computed beforehand
+        getABoxPartitioning();
+        TableauWorkerPool workerPool=null;
+        try {
+            for (int index=1;index<tableaux.length;index++)
+                tableaux[index]=copyTableau ? createTableau(new InterruptFlag(m_configuration.individualTaskTimeout,m_configuration.individualTaskMemoryBudget),m_configuration,m_metrics,m_dlClauseProfile,m_dlOntology,null,m_prefixes) : tableau;
+            workerPool=new TableauWorkerPool(tableaux,"HermiT Realisation Worker");
+            m_realisationWorkerPool=workerPool;
+            computation.accept(workerPool);
+        }
+        finally {
+            m_realisationWorkerPool=null;
+            if (workerPool!=null)
+                workerPool.dispose();
+            if (copyTableau)
+                for (int index=1;index<tableaux.length;index++)
+                    if (tableaux[index]!=null)
+                        tableaux[index].getInterruptFlag().dispose();
         }
     }
     public void precomputeSameAsEquivalenceClasses() {
@@ -1929,10 +2233,38 @@ public class Reasoner implements OWLReasoner {
                 return m_tableau;
             }
             else
-                return createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
+                return createTableau(m_interruptFlag,m_configuration,m_metrics,null,m_dlOntology,deltaDLOntology,m_prefixes);
+        }
+    }
+    /**
+     * A mostly internal method. As getTableau(OWLAxiom...), but the additional axioms are added to the given tableau, which
+     * must have been created for the ontology of this reasoner, and not to the tableau of this reasoner. This allows other
+     * threads to perform tests with additional axioms on their own tableaux.
+     *
+     * @param tableau
+     *            - a tableau for the ontology of this reasoner
+     * @param additionalAxioms
+     *            - a list of additional axioms that should be included in the tableau
+     * @return the given tableau with the additional axioms, or a new tableau that uses the interrupt flag of the given tableau if the given tableau does not support the additional axioms
+     * @throws IllegalArgumentException
+     *             - if the axioms lead to non-admissible clauses, some configuration parameters are incompatible or other such errors
+     */
+    public Tableau getTableau(Tableau tableau,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
+        if (additionalAxioms==null || additionalAxioms.length==0) {
+            tableau.clearAdditionalDLOntology();
+            return tableau;
+        }
+        else {
+            DLOntology deltaDLOntology=createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
+            if (tableau.supportsAdditionalDLOntology(deltaDLOntology)) {
+                tableau.setAdditionalDLOntology(deltaDLOntology);
+                return tableau;
+            }
+            else
+                return createTableau(tableau.getInterruptFlag(),m_configuration,m_metrics,null,m_dlOntology,deltaDLOntology,m_prefixes);
         }
     }
-    protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes) throws IllegalArgumentException {
+    protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,ReasonerMetrics metrics,DLClauseProfile dlClauseProfile,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes) throws IllegalArgumentException {
         boolean hasInverseRoles=(permanentDLOntology.hasInverseRoles() || (additionalDLOntology!=null && additionalDLOntology.hasInverseRoles()));
         boolean hasNominals=(permanentDLOntology.hasNominals() || (additionalDLOntology!=null && additionalDLOntology.hasNominals()));
 
@@ -1964,6 +2296,12 @@ public class Reasoner implements OWLReasoner {
             tableauMonitor=configuration.monitor;
         else
             tableauMonitor=new TableauMonitorFork(wellKnownTableauMonitor,configuration.monitor);
+        if (metrics!=null) {
+            if (tableauMonitor==null)
+                tableauMonitor=new MetricsMonitor(metrics);
+            else
+                tableauMonitor=new TableauMonitorFork(tableauMonitor,new MetricsMonitor(metrics));
+        }
 
         DirectBlockingChecker directBlockingChecker=null;
         switch (configuration.directBlockingType) {
@@ -1975,6 +2313,14 @@ public class Reasoner implements OWLReasoner {
             else
                 directBlockingChecker=new SingleDirectBlockingChecker();
             break;
+        case SUBSET:
+            if (configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)
+                directBlockingChecker=new ValidatedSingleDirectBlockingChecker(hasInverseRoles);
+            else if (hasInverseRoles)
+                directBlockingChecker=new PairWiseDirectBlockingChecker();
+            else
+                directBlockingChecker=new SubsetDirectBlockingChecker();
+            break;
         case SINGLE:
             if (configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)
                 directBlockingChecker=new ValidatedSingleDirectBlockingChecker(hasInverseRoles);
@@ -1996,6 +2342,10 @@ public class Reasoner implements OWLReasoner {
             switch (configuration.blockingSignatureCacheType) {
             case CACHED:
                 blockingSignatureCache=new BlockingSignatureCache(directBlockingChecker);
+                if (configuration.blockingSignatureCacheDirectory!=null && additionalDLOntology==null) {
+                    BlockingSignatureStore blockingSignatureStore=new BlockingSignatureStore(configuration.blockingSignatureCacheDirectory);
+                    blockingSignatureStore.load(permanentDLOntology,blockingSignatureCache);
+                }
                 break;
             case NOT_CACHED:
                 blockingSignatureCache=null;
@@ -2011,16 +2361,16 @@ public class Reasoner implements OWLReasoner {
             blockingStrategy=new AncestorBlocking(directBlockingChecker,blockingSignatureCache);
             break;
         case ANYWHERE:
-            blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache);
+            blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache,configuration.useIncrementalBlockingUpdates);
             break;
         case SIMPLE_CORE:
-            blockingStrategy=new AnywhereValidatedBlocking(directBlockingChecker,hasInverseRoles,true);
+            blockingStrategy=new AnywhereValidatedBlocking(directBlockingChecker,hasInverseRoles,true,configuration.numberOfBlockingValidationThreads);
             break;
         case COMPLEX_CORE:
-            blockingStrategy=new AnywhereValidatedBlocking(directBlockingChecker,hasInverseRoles,false);
+            blockingStrategy=new AnywhereValidatedBlocking(directBlockingChecker,hasInverseRoles,false,configuration.numberOfBlockingValidationThreads);
             break;
         case OPTIMAL:
-            blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache);
+            blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache,configuration.useIncrementalBlockingUpdates);
             break;
         default:
             throw new IllegalArgumentException("Unknown blocking strategy type.");
@@ -2041,7 +2391,17 @@ public class Reasoner implements OWLReasoner {
             throw new IllegalArgumentException("Unknown expansion strategy type.");
         }
 
-        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,configuration.parameters);
+        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,createTableauConfiguration(configuration,dlClauseProfile),permanentDLOntology,additionalDLOntology,configuration.parameters);
+    }
+    protected static TableauConfiguration createTableauConfiguration(Configuration configuration,DLClauseProfile dlClauseProfile) {
+        TableauConfiguration tableauConfiguration=new TableauConfiguration();
+        tableauConfiguration.useIntegerEncodedTuples=(configuration.tupleStorageType==Configuration.TupleStorageType.INTEGER_ENCODED);
+        tableauConfiguration.satisfiabilityCacheSize=configuration.satisfiabilityCacheSize;
+        tableauConfiguration.nogoodStoreSize=configuration.nogoodStoreSize;
+        tableauConfiguration.numberOfRecycledNodes=configuration.numberOfRecycledNodes;
+        tableauConfiguration.dlClauseProfile=dlClauseProfile;
+        tableauConfiguration.useAdaptiveJoinOrdering=configuration.useAdaptiveJoinOrdering;
+        return tableauConfiguration;
     }
     protected Hierarchy<AtomicConcept> classifyAtomicConcepts(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
@@ -2049,6 +2409,65 @@ public class Reasoner implements OWLReasoner {
         else
             return new QuasiOrderClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
     }
+    /**
+     * Returns the classes whose subsumers may have changed since the hierarchy recorded by
+     * recordChangesForIncrementalClassification() was computed, or null if that hierarchy cannot be reused or if more
+     * classes are affected than Configuration.maximalFractionOfAffectedClassesForIncrementalClassification allows. Classes
+     * that did not occur in the previous hierarchy are always affected.
+     */
+    protected Set<AtomicConcept> getAtomicConceptsAffectedByChanges(Set<AtomicConcept> elements) {
+        if (m_previousAtomicConceptHierarchy==null)
+            return null;
+        OWLDataFactory dataFactory=getDataFactory();
+        List<OWLAxiom> axioms= new ArrayList<>();
+        for (OWLOntology ontology : m_rootOntology.getImportsClosure())
+            axioms.addAll(ontology.getLogicalAxioms());
+        axioms.addAll(m_axiomsRemovedSinceClassification);
+        // Rules and keys are DL-safe in HermiT and the built-in top properties are not treated as universal by the
+        // locality conditions, so the analysis is not applicable to ontologies that use any of them.
+        for (OWLAxiom axiom : axioms)
+            if (axiom instanceof SWRLRule || axiom instanceof OWLHasKeyAxiom || axiom.containsEntityInSignature(dataFactory.getOWLTopObjectProperty()) || axiom.containsEntityInSignature(dataFactory.getOWLTopDataProperty()))
+                return null;
+        Set<OWLAxiom> changedAxioms= new HashSet<>(m_axiomsAddedSinceClassification);
+        changedAxioms.addAll(m_axiomsRemovedSinceClassification);
+        LocalityBasedChangeAnalysis changeAnalysis=new LocalityBasedChangeAnalysis(axioms,changedAxioms);
+        int maximalNumberOfAffectedAtomicConcepts=(int)(m_configuration.maximalFractionOfAffectedClassesForIncrementalClassification*elements.size());
+        Set<AtomicConcept> affectedAtomicConcepts= new HashSet<>();
+        for (AtomicConcept atomicConcept : elements)
+            if (m_previousAtomicConceptHierarchy.getNodeForElement(atomicConcept)==null)
+                affectedAtomicConcepts.add(atomicConcept);
+        Set<HierarchyNode<AtomicConcept>> visited= new HashSet<>();
+        Queue<HierarchyNode<AtomicConcept>> toVisit= new LinkedList<>();
+        toVisit.add(m_previousAtomicConceptHierarchy.getTopNode());
+        while (!toVisit.isEmpty()) {
+            HierarchyNode<AtomicConcept> node=toVisit.poll();
+            if (visited.add(node)) {
+                for (AtomicConcept atomicConcept : node.getEquivalentElements())
+                    if (atomicConcept!=AtomicConcept.THING && atomicConcept!=AtomicConcept.NOTHING && elements.contains(atomicConcept) && changeAnalysis.isAffected(dataFactory.getOWLClass(IRI.create(atomicConcept.getIRI()))))
+                        affectedAtomicConcepts.add(atomicConcept);
+                if (affectedAtomicConcepts.size()>maximalNumberOfAffectedAtomicConcepts)
+                    return null;
+                toVisit.addAll(node.getChildNodes());
+            }
+        }
+        return affectedAtomicConcepts;
+    }
+    protected Hierarchy<AtomicConcept> classifyAtomicConceptsInParallel(ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
+        Tableau[] tableaux=new Tableau[m_configuration.numberOfClassificationWorkers];
+        tableaux[0]=getTableau();
+        try {
+            for (int index=1;index<tableaux.length;index++)
+                tableaux[index]=createTableau(new InterruptFlag(m_configuration.individualTaskTimeout,m_configuration.individualTaskMemoryBudget),m_configuration,m_metrics,m_dlClauseProfile,m_dlOntology,null,m_prefixes);
+            m_parallelClassification=new ParallelClassification(tableaux,progressMonitor,topElement,bottomElement,elements,forceQuasiOrder);
+            return m_parallelClassification.classify();
+        }
+        finally {
+            m_parallelClassification=null;
+            for (int index=1;index<tableaux.length;index++)
+                if (tableaux[index]!=null)
+                    tableaux[index].getInterruptFlag().dispose();
+        }
+    }
     protected Hierarchy<AtomicConcept> classifyAtomicConceptsForRoles(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean hasInverses,Map<Role,AtomicConcept> conceptsForRoles,Map<AtomicConcept,Role> rolesForConcepts,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
             return new DeterministicClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
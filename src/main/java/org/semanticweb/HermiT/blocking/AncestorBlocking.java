@@ -43,6 +43,9 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
         m_directBlockingChecker=directBlockingChecker;
         m_blockingSignatureCache=blockingSignatureCache;
     }
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        return m_blockingSignatureCache;
+    }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
         m_directBlockingChecker.initialize(tableau);
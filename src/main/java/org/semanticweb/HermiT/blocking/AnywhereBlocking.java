@@ -18,6 +18,8 @@
 package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -30,20 +32,66 @@ import org.semanticweb.HermiT.tableau.DLClauseEvaluator;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.Tableau;
 
+/**
+ * Anywhere blocking: a node is directly blocked by the first earlier node that is not blocked and that has the same label
+ * according to the direct blocking checker. By default, computeBlocking() recomputes the blocking status of all nodes from
+ * the first changed node to the end of the tableau. With incremental updates, the strategy instead records the changed
+ * nodes in a bit set indexed by node IDs (which are dense, as nodes are always destroyed in the reverse order of their
+ * creation) and recomputes the status of a changed node and of the nodes that depend on it: its children, the nodes that
+ * it directly blocks, and a later blocker with the same label that it replaces. Since all of these have larger IDs, the
+ * changed nodes are processed in the order of their IDs and each of them is processed at most once.
+ */
 public class AnywhereBlocking implements BlockingStrategy,Serializable {
     private static final long serialVersionUID=-2959900333817197464L;
 
     protected final DirectBlockingChecker m_directBlockingChecker;
     protected final BlockersCache m_currentBlockersCache;
     protected final BlockingSignatureCache m_blockingSignatureCache;
+    protected final boolean m_useIncrementalUpdates;
     protected Tableau m_tableau;
     protected boolean m_useBlockingSignatureCache;
     protected Node m_firstChangedNode;
+    protected final BitSet m_changedNodes;
+    protected final BitSet m_recordedBlockedNodes;
+    protected Node[] m_nodesByID;
+    protected int[] m_firstChildIDs;
+    protected int[] m_nextSiblingIDs;
+    protected int m_numberOfNodeUpdates;
 
     public AnywhereBlocking(DirectBlockingChecker directBlockingChecker,BlockingSignatureCache blockingSignatureCache) {
+        this(directBlockingChecker,blockingSignatureCache,false);
+    }
+    public AnywhereBlocking(DirectBlockingChecker directBlockingChecker,BlockingSignatureCache blockingSignatureCache,boolean useIncrementalUpdates) {
         m_directBlockingChecker=directBlockingChecker;
-        m_currentBlockersCache=new BlockersCache(m_directBlockingChecker);
+        if (m_directBlockingChecker instanceof SubsetDirectBlockingChecker) {
+            m_currentBlockersCache=new SubsetBlockersCache((SubsetDirectBlockingChecker)m_directBlockingChecker);
+            // Incremental updates rely on the blockers having pairwise different labels, which is not the case with subset blocking.
+            m_useIncrementalUpdates=false;
+        }
+        else {
+            m_currentBlockersCache=new BlockersCache(m_directBlockingChecker);
+            m_useIncrementalUpdates=useIncrementalUpdates;
+        }
         m_blockingSignatureCache=blockingSignatureCache;
+        m_changedNodes=new BitSet();
+        m_recordedBlockedNodes=new BitSet();
+        if (m_useIncrementalUpdates) {
+            m_nodesByID=new Node[1024];
+            m_firstChildIDs=new int[1024];
+            m_nextSiblingIDs=new int[1024];
+        }
+    }
+    public boolean usesIncrementalUpdates() {
+        return m_useIncrementalUpdates;
+    }
+    /**
+     * @return the number of times the blocking status of a node has been recomputed since this strategy has been created
+     */
+    public int getNumberOfNodeUpdates() {
+        return m_numberOfNodeUpdates;
+    }
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        return m_blockingSignatureCache;
     }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
@@ -57,15 +105,28 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
         updateBlockingSignatureCacheUsage();
     }
     protected void updateBlockingSignatureCacheUsage() {
-        m_useBlockingSignatureCache=(m_tableau.getAdditionalHyperresolutionManager()==null);
+        boolean useBlockingSignatureCache=(m_tableau.getAdditionalHyperresolutionManager()==null);
+        if (m_useIncrementalUpdates && useBlockingSignatureCache!=m_useBlockingSignatureCache) {
+            // The status of any node can depend on the signature cache, so all nodes have to be checked again.
+            Node lastTableauNode=m_tableau.getLastTableauNode();
+            if (lastTableauNode!=null)
+                m_changedNodes.set(1,lastTableauNode.getNodeID()+1);
+        }
+        m_useBlockingSignatureCache=useBlockingSignatureCache;
     }
     public void clear() {
         m_currentBlockersCache.clear();
         m_firstChangedNode=null;
+        m_changedNodes.clear();
+        m_recordedBlockedNodes.clear();
+        if (m_useIncrementalUpdates)
+            Arrays.fill(m_nodesByID,null);
         m_directBlockingChecker.clear();
     }
     public void computeBlocking(boolean finalChance) {
-        if (m_firstChangedNode!=null) {
+        if (m_useIncrementalUpdates)
+            computeBlockingIncrementally();
+        else if (m_firstChangedNode!=null) {
             Node node=m_firstChangedNode;
             while (node!=null) {
                 m_currentBlockersCache.removeNode(node);
@@ -76,6 +137,7 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
             while (node!=null) {
                 if (node.isActive() && (m_directBlockingChecker.canBeBlocked(node) || m_directBlockingChecker.canBeBlocker(node))) {
                     if (m_directBlockingChecker.hasBlockingInfoChanged(node) || !node.isDirectlyBlocked() || node.getBlocker().getNodeID()>=m_firstChangedNode.getNodeID()) {
+                        m_numberOfNodeUpdates++;
                         Node parent=node.getParent();
                         if (parent==null)
                             node.setBlocked(null,false);
@@ -103,6 +165,78 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
             m_firstChangedNode=null;
         }
     }
+    protected void computeBlockingIncrementally() {
+        boolean checkBlockingSignatureCache=(m_useBlockingSignatureCache && m_blockingSignatureCache!=null && !m_blockingSignatureCache.isEmpty());
+        int nodeID=m_changedNodes.nextSetBit(0);
+        while (nodeID>=0) {
+            m_changedNodes.clear(nodeID);
+            updateBlocking(m_nodesByID[nodeID],checkBlockingSignatureCache);
+            // Updating a node marks only nodes with larger IDs as changed.
+            nodeID=m_changedNodes.nextSetBit(nodeID+1);
+        }
+    }
+    protected void updateBlocking(Node node,boolean checkBlockingSignatureCache) {
+        if (node.getBlockingCargo()!=null)
+            removeBlocker(node);
+        if (!node.isActive())
+            return;
+        boolean wasBlocked=node.isBlocked();
+        if (m_directBlockingChecker.canBeBlocked(node) || m_directBlockingChecker.canBeBlocker(node)) {
+            m_numberOfNodeUpdates++;
+            boolean wasRecorded=m_recordedBlockedNodes.get(node.getNodeID()) && node.isDirectlyBlocked();
+            Node previousBlocker=node.getBlocker();
+            Node parent=node.getParent();
+            if (parent==null)
+                node.setBlocked(null,false);
+            else if (parent.isBlocked())
+                node.setBlocked(parent,false);
+            else if (checkBlockingSignatureCache && m_blockingSignatureCache.containsSignature(node))
+                node.setBlocked(Node.SIGNATURE_CACHE_BLOCKER,true);
+            else {
+                Node blocker=m_currentBlockersCache.getBlocker(node);
+                // A later node with the same label can still be in the cache; this node replaces it as the blocker.
+                while (blocker!=null && blocker.getNodeID()>node.getNodeID()) {
+                    removeBlocker(blocker);
+                    m_changedNodes.set(blocker.getNodeID());
+                    blocker=m_currentBlockersCache.getBlocker(node);
+                }
+                node.setBlocked(blocker,blocker!=null);
+            }
+            if (!node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
+                m_currentBlockersCache.addNode(node);
+            Node blocker=node.getBlocker();
+            if (node.isDirectlyBlocked() && blocker.getBlockingCargo()!=null) {
+                if (!wasRecorded || blocker!=previousBlocker) {
+                    ((BlockersCache.CacheEntry)blocker.getBlockingCargo()).addBlockedNode(node);
+                    m_recordedBlockedNodes.set(node.getNodeID());
+                }
+            }
+            else
+                m_recordedBlockedNodes.clear(node.getNodeID());
+        }
+        // The children depend on whether this node is blocked and, for pair-wise blocking, on the label of this node; the
+        // latter holds even if this node cannot be blocked itself, such as a tree node whose parent is a root node.
+        if (wasBlocked!=node.isBlocked() || m_directBlockingChecker.hasBlockingInfoChanged(node))
+            markChildrenChanged(node);
+        m_directBlockingChecker.clearBlockingInfoChanged(node);
+    }
+    protected void removeBlocker(Node node) {
+        List<Node> blockedNodes=((BlockersCache.CacheEntry)node.getBlockingCargo()).m_blockedNodes;
+        if (blockedNodes!=null)
+            for (Node blockedNode : blockedNodes)
+                if (blockedNode.getBlocker()==node && blockedNode.isDirectlyBlocked()) {
+                    m_changedNodes.set(blockedNode.getNodeID());
+                    m_recordedBlockedNodes.clear(blockedNode.getNodeID());
+                }
+        m_currentBlockersCache.removeNode(node);
+    }
+    protected void markChildrenChanged(Node node) {
+        int childID=m_firstChildIDs[node.getNodeID()];
+        while (childID!=0) {
+            m_changedNodes.set(childID);
+            childID=m_nextSiblingIDs[childID];
+        }
+    }
     public boolean isPermanentAssertion(Concept concept,Node node) {
         return true;
     }
@@ -143,22 +277,57 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
         updateNodeChange(node);
     }
     protected final void updateNodeChange(Node node) {
-        if (node!=null && (m_firstChangedNode==null || node.getNodeID()<m_firstChangedNode.getNodeID()))
-            m_firstChangedNode=node;
+        if (node!=null) {
+            if (m_useIncrementalUpdates)
+                m_changedNodes.set(node.getNodeID());
+            else if (m_firstChangedNode==null || node.getNodeID()<m_firstChangedNode.getNodeID())
+                m_firstChangedNode=node;
+        }
     }
     public void nodeInitialized(Node node) {
         m_directBlockingChecker.nodeInitialized(node);
+        if (m_useIncrementalUpdates) {
+            int nodeID=node.getNodeID();
+            if (nodeID>=m_nodesByID.length) {
+                int newLength=Math.max(m_nodesByID.length*2,nodeID+1);
+                m_nodesByID=Arrays.copyOf(m_nodesByID,newLength);
+                m_firstChildIDs=Arrays.copyOf(m_firstChildIDs,newLength);
+                m_nextSiblingIDs=Arrays.copyOf(m_nextSiblingIDs,newLength);
+            }
+            m_nodesByID[nodeID]=node;
+            m_firstChildIDs[nodeID]=0;
+            Node parent=node.getParent();
+            if (parent==null)
+                m_nextSiblingIDs[nodeID]=0;
+            else {
+                m_nextSiblingIDs[nodeID]=m_firstChildIDs[parent.getNodeID()];
+                m_firstChildIDs[parent.getNodeID()]=nodeID;
+            }
+        }
     }
     public void nodeDestroyed(Node node) {
         m_currentBlockersCache.removeNode(node);
         m_directBlockingChecker.nodeDestroyed(node);
-        if (m_firstChangedNode!=null && m_firstChangedNode.getNodeID()>=node.getNodeID())
+        if (m_useIncrementalUpdates) {
+            // Nodes are destroyed in the reverse order of their creation, so the node is the last child of its parent
+            // and all nodes that depend on it have already been destroyed.
+            int nodeID=node.getNodeID();
+            m_changedNodes.clear(nodeID);
+            m_recordedBlockedNodes.clear(nodeID);
+            m_nodesByID[nodeID]=null;
+            Node parent=node.getParent();
+            if (parent!=null) {
+                assert m_firstChildIDs[parent.getNodeID()]==nodeID;
+                m_firstChildIDs[parent.getNodeID()]=m_nextSiblingIDs[nodeID];
+            }
+        }
+        else if (m_firstChangedNode!=null && m_firstChangedNode.getNodeID()>=node.getNodeID())
             m_firstChangedNode=null;
     }
     public void modelFound() {
         if (m_useBlockingSignatureCache && m_blockingSignatureCache!=null) {
             // Since we've found a model, we know what is blocked and what is not, so we don't need to update the blocking status.
-            assert m_firstChangedNode==null;
+            assert m_firstChangedNode==null && m_changedNodes.isEmpty();
             Node node=m_tableau.getFirstTableauNode();
             while (node!=null) {
                 if (node.isActive() && !node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
@@ -176,130 +345,3 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
         }
     }
 }
-class BlockersCache implements Serializable {
-    private static final long serialVersionUID=-7692825443489644667L;
-
-    protected Tableau m_tableau;
-    protected final DirectBlockingChecker m_directBlockingChecker;
-    protected CacheEntry[] m_buckets;
-    protected int m_numberOfElements;
-    protected int m_threshold;
-    protected CacheEntry m_emptyEntries;
-
-    public BlockersCache(DirectBlockingChecker directBlockingChecker) {
-        m_directBlockingChecker=directBlockingChecker;
-        clear();
-    }
-    public boolean isEmpty() {
-        return m_numberOfElements==0;
-    }
-    public void clear() {
-        m_buckets=new CacheEntry[1024];
-        m_threshold=(int)(m_buckets.length*0.75);
-        m_numberOfElements=0;
-        m_emptyEntries=null;
-    }
-    public void removeNode(Node node) {
-        // Check addNode() for an explanation of why we associate the entry with the node.
-        BlockersCache.CacheEntry removeEntry=(BlockersCache.CacheEntry)node.getBlockingCargo();
-        if (removeEntry!=null) {
-            int bucketIndex=getIndexFor(removeEntry.m_hashCode,m_buckets.length);
-            CacheEntry lastEntry=null;
-            CacheEntry entry=m_buckets[bucketIndex];
-            while (entry!=null) {
-                if (entry==removeEntry) {
-                    if (lastEntry==null)
-                        m_buckets[bucketIndex]=entry.m_nextEntry;
-                    else
-                        lastEntry.m_nextEntry=entry.m_nextEntry;
-                    entry.m_nextEntry=m_emptyEntries;
-                    entry.m_node=null;
-                    entry.m_hashCode=0;
-                    m_emptyEntries=entry;
-                    m_numberOfElements--;
-                    node.setBlockingCargo(null);
-                    return;
-                }
-                lastEntry=entry;
-                entry=entry.m_nextEntry;
-            }
-            throw new IllegalStateException("Internal error: entry not in cache!");
-        }
-    }
-    public void addNode(Node node) {
-        int hashCode=m_directBlockingChecker.blockingHashCode(node);
-        int bucketIndex=getIndexFor(hashCode,m_buckets.length);
-        CacheEntry entry=m_buckets[bucketIndex];
-        while (entry!=null) {
-            if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
-                throw new IllegalStateException("Internal error: node already in the cache!");
-            entry=entry.m_nextEntry;
-        }
-        if (m_emptyEntries==null)
-            entry=new CacheEntry();
-        else {
-            entry=m_emptyEntries;
-            m_emptyEntries=m_emptyEntries.m_nextEntry;
-        }
-        entry.initialize(node,hashCode,m_buckets[bucketIndex]);
-        m_buckets[bucketIndex]=entry;
-        // When a node is added to the cache, we record with the node the entry.
-        // This is used to remove nodes from the cache. Note that changes to a node
-        // can affect its label. Therefore, we CANNOT remove a node by taking its present
-        // blocking hash-code, as this can be different from the hash-code used at the
-        // time the node has been added to the cache.
-        node.setBlockingCargo(entry);
-        m_numberOfElements++;
-        if (m_numberOfElements>=m_threshold)
-            resize(m_buckets.length*2);
-    }
-    protected void resize(int newCapacity) {
-        CacheEntry[] newBuckets=new CacheEntry[newCapacity];
-        for (CacheEntry m_bucket : m_buckets) {
-            CacheEntry entry = m_bucket;
-            while (entry != null) {
-                CacheEntry nextEntry = entry.m_nextEntry;
-                int newIndex = getIndexFor(entry.m_hashCode, newCapacity);
-                entry.m_nextEntry = newBuckets[newIndex];
-                newBuckets[newIndex] = entry;
-                entry = nextEntry;
-            }
-        }
-        m_buckets=newBuckets;
-        m_threshold=(int)(newCapacity*0.75);
-    }
-    public Node getBlocker(Node node) {
-        if (m_directBlockingChecker.canBeBlocked(node)) {
-            int hashCode=m_directBlockingChecker.blockingHashCode(node);
-            int bucketIndex=getIndexFor(hashCode,m_buckets.length);
-            CacheEntry entry=m_buckets[bucketIndex];
-            while (entry!=null) {
-                if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
-                    return entry.m_node;
-                entry=entry.m_nextEntry;
-            }
-        }
-        return null;
-    }
-    protected static int getIndexFor(int hashCode,int tableLength) {
-        hashCode+=~(hashCode << 9);
-        hashCode^=(hashCode >>> 14);
-        hashCode+=(hashCode << 4);
-        hashCode^=(hashCode >>> 10);
-        return hashCode & (tableLength-1);
-    }
-
-    public static class CacheEntry implements Serializable {
-        private static final long serialVersionUID=-7047487963170250200L;
-
-        protected Node m_node;
-        protected int m_hashCode;
-        protected CacheEntry m_nextEntry;
-
-        public void initialize(Node node,int hashCode,CacheEntry nextEntry) {
-            m_node=node;
-            m_hashCode=hashCode;
-            m_nextEntry=nextEntry;
-        }
-    }
-}
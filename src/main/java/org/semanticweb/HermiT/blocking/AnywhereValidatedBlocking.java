@@ -19,7 +19,13 @@ package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker.ValidatedBlockingObject;
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -34,12 +40,26 @@ import org.semanticweb.HermiT.tableau.ExtensionManager;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
 
 public class AnywhereValidatedBlocking implements BlockingStrategy {
+    // blocks are validated in parallel only if there are at least that many blocks per thread to validate
+    protected static final int MIN_PARALLEL_VALIDATIONS_PER_THREAD=4;
+    // the threads are shared by all instances, so tableaux that run in parallel do not multiply the number of threads
+    protected static ThreadPoolExecutor s_validationExecutor;
+
     protected final DirectBlockingChecker m_directBlockingChecker;
     protected final ValidatedBlockersCache m_currentBlockersCache;
     protected BlockingValidator m_permanentBlockingValidator;
     protected BlockingValidator m_additionalBlockingValidator;
+    protected final int m_numberOfValidationThreads;
+    // the validators of the threads that validate blocks in parallel; the validators at index 0 are used by the calling thread
+    protected BlockingValidator[] m_permanentBlockingValidators;
+    protected BlockingValidator[] m_additionalBlockingValidators;
+    protected ThreadPoolExecutor m_validationExecutor;
+    protected final List<Node> m_parallelValidationNodes;
+    protected boolean[] m_parallelValidationResults;
+    protected final BitSet m_nodesWithChangedChildBlocks;
     protected Tableau m_tableau;
     protected ExtensionManager m_extensionManager;
     protected Node m_firstChangedNode;
@@ -48,17 +68,53 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
     protected final boolean m_hasInverses;
 
     public AnywhereValidatedBlocking(DirectBlockingChecker directBlockingChecker,boolean hasInverses,boolean useSimpleCore) {
+        this(directBlockingChecker,hasInverses,useSimpleCore,1);
+    }
+    public AnywhereValidatedBlocking(DirectBlockingChecker directBlockingChecker,boolean hasInverses,boolean useSimpleCore,int numberOfValidationThreads) {
         m_directBlockingChecker=directBlockingChecker;
         m_currentBlockersCache=new ValidatedBlockersCache(m_directBlockingChecker);
         m_hasInverses=hasInverses;
         m_useSimpleCore=useSimpleCore;
+        m_numberOfValidationThreads=Math.max(numberOfValidationThreads,1);
+        m_parallelValidationNodes=new ArrayList<>();
+        m_parallelValidationResults=new boolean[16];
+        m_nodesWithChangedChildBlocks=new BitSet();
     }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
         m_directBlockingChecker.initialize(tableau);
         m_extensionManager=m_tableau.getExtensionManager();
-        m_permanentBlockingValidator=new BlockingValidator(m_tableau,m_tableau.getPermanentDLOntology().getDLClauses());
+        // The extension tables with integer-encoded tuples look up tuples using a shared buffer, so they cannot be read concurrently.
+        int numberOfValidationThreads=(m_tableau.usesIntegerEncodedTuples() ? 1 : m_numberOfValidationThreads);
+        m_permanentBlockingValidators=new BlockingValidator[numberOfValidationThreads];
+        m_additionalBlockingValidators=new BlockingValidator[numberOfValidationThreads];
+        for (int index=0;index<numberOfValidationThreads;index++)
+            m_permanentBlockingValidators[index]=new BlockingValidator(m_tableau,m_tableau.getPermanentDLOntology().getDLClauses());
+        m_permanentBlockingValidator=m_permanentBlockingValidators[0];
         updateAdditionalBlockingValidator();
+        if (numberOfValidationThreads>1 && m_validationExecutor==null)
+            m_validationExecutor=getValidationExecutor(numberOfValidationThreads-1);
+    }
+    /**
+     * Returns the executor shared by all instances, making sure that it has at least the given number of threads. If several
+     * tableaux validate their blocks at the same time, their tasks wait in the queue of the executor, so the number of threads
+     * is the largest number requested by any instance rather than the sum.
+     */
+    protected static synchronized ThreadPoolExecutor getValidationExecutor(int numberOfThreads) {
+        if (s_validationExecutor==null) {
+            s_validationExecutor=new ThreadPoolExecutor(numberOfThreads,numberOfThreads,1,TimeUnit.SECONDS,new LinkedBlockingQueue<>(),runnable -> {
+                Thread thread=new Thread(runnable,"HermiT blocking validation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // idle threads terminate, so the executor need not be shut down
+            s_validationExecutor.allowCoreThreadTimeOut(true);
+        }
+        else if (s_validationExecutor.getMaximumPoolSize()<numberOfThreads) {
+            s_validationExecutor.setMaximumPoolSize(numberOfThreads);
+            s_validationExecutor.setCorePoolSize(numberOfThreads);
+        }
+        return s_validationExecutor;
     }
     public void additionalDLOntologySet(DLOntology additionalDLOntology) {
         updateAdditionalBlockingValidator();
@@ -67,19 +123,25 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
         updateAdditionalBlockingValidator();
     }
     protected void updateAdditionalBlockingValidator() {
-        if (m_tableau.getAdditionalHyperresolutionManager()==null)
-            m_additionalBlockingValidator=null;
-        else
-            m_additionalBlockingValidator=new BlockingValidator(m_tableau,m_tableau.getAdditionalDLOntology().getDLClauses());
+        for (int index=0;index<m_additionalBlockingValidators.length;index++) {
+            if (m_tableau.getAdditionalHyperresolutionManager()==null)
+                m_additionalBlockingValidators[index]=null;
+            else
+                m_additionalBlockingValidators[index]=new BlockingValidator(m_tableau,m_tableau.getAdditionalDLOntology().getDLClauses());
+        }
+        m_additionalBlockingValidator=m_additionalBlockingValidators[0];
     }
     public void clear() {
         m_currentBlockersCache.clear();
         m_firstChangedNode=null;
         m_directBlockingChecker.clear();
         m_lastValidatedUnchangedNode=null;
-        m_permanentBlockingValidator.clear();
-        if (m_additionalBlockingValidator!=null)
-            m_additionalBlockingValidator.clear();
+        for (int index=0;index<m_permanentBlockingValidators.length;index++) {
+            m_permanentBlockingValidators[index].clear();
+            if (m_additionalBlockingValidators[index]!=null)
+                m_additionalBlockingValidators[index].clear();
+        }
+        m_parallelValidationNodes.clear();
     }
     public void computeBlocking(boolean finalChance) {
         if (finalChance) {
@@ -149,6 +211,8 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
             m_currentBlockersCache.removeNode(node);
             node=node.getNextTableauNode();
         }
+        boolean validatedInParallel=validateCurrentBlocksInParallel(firstValidatedNode);
+        int parallelValidationIndex=0;
         node=firstValidatedNode;
         if (debuggingMode)
             System.out.print("Model size: "+(m_tableau.getNumberOfNodesInTableau()-m_tableau.getNumberOfMergedOrPrunedNodes())+" Current ID:");
@@ -158,12 +222,26 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
                 if (node.isBlocked()) { // && node.hasUnprocessedExistentials()
                     checkedBlocks++;
                     // check whether the block is a correct one
-                    if ((node.isDirectlyBlocked() && (m_directBlockingChecker.hasChangedSinceValidation(node) || m_directBlockingChecker.hasChangedSinceValidation(node.getParent()) || m_directBlockingChecker.hasChangedSinceValidation(node.getBlocker()))) || !node.getParent().isBlocked()) {
+                    if (needsValidation(node)) {
                         Node validBlocker=null;
                         Node currentBlocker=node.getBlocker();
                         if (node.isDirectlyBlocked() && currentBlocker!=null) {
                             // try the old blocker fist
-                            if (isBlockValid(node))
+                            boolean blockValid;
+                            if (parallelValidationIndex<m_parallelValidationNodes.size() && m_parallelValidationNodes.get(parallelValidationIndex)==node) {
+                                blockValid=m_parallelValidationResults[parallelValidationIndex++];
+                                // The result is outdated if the blocks of the siblings of the node or of the children of the
+                                // blocker have been changed in the meantime, since these blocks are used in the validation.
+                                if (m_nodesWithChangedChildBlocks.get(node.getParent().getNodeID()) || m_nodesWithChangedChildBlocks.get(currentBlocker.getNodeID())) {
+                                    m_permanentBlockingValidator.blockerChanged(node);
+                                    if (m_additionalBlockingValidator!=null)
+                                        m_additionalBlockingValidator.blockerChanged(node);
+                                    blockValid=isBlockValid(node);
+                                }
+                            }
+                            else
+                                blockValid=isBlockValid(node);
+                            if (blockValid)
                                 validBlocker=currentBlocker;
                         }
                         if (validBlocker==null) {
@@ -185,6 +263,8 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
                             if (firstInvalidlyBlockedNode==null)
                                 firstInvalidlyBlockedNode=node;
                         }
+                        if (validatedInParallel && validBlocker!=currentBlocker)
+                            m_nodesWithChangedChildBlocks.set(node.getParent().getNodeID());
                         node.setBlocked(validBlocker,validBlocker!=null);
                     }
                 }
@@ -205,6 +285,8 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
             }
             node=node.getNextTableauNode();
         }
+        m_parallelValidationNodes.clear();
+        m_nodesWithChangedChildBlocks.clear();
         // if set to some node, then computePreblocking will be asked to check from that node onwards in case of invalid blocks
         m_firstChangedNode=firstInvalidlyBlockedNode;
         if (monitor!=null)
@@ -215,10 +297,108 @@ public class AnywhereValidatedBlocking implements BlockingStrategy {
             System.out.println("Checked "+checkedBlocks+" blocked nodes of which "+invalidBlocks+" were invalid.");
         }
     }
+    protected boolean needsValidation(Node node) {
+        return (node.isDirectlyBlocked() && (m_directBlockingChecker.hasChangedSinceValidation(node) || m_directBlockingChecker.hasChangedSinceValidation(node.getParent()) || m_directBlockingChecker.hasChangedSinceValidation(node.getBlocker()))) || !node.getParent().isBlocked();
+    }
+    /**
+     * Checks the current blocks of the directly blocked nodes from the given node onwards that need to be validated using
+     * several threads, each with its own validators, and stores the nodes and the results in m_parallelValidationNodes and
+     * m_parallelValidationResults in the order of the nodes. The validation reads the extension tables and the blocks, which
+     * do not change in the meantime. It also sets the flags of the blocking objects of the parents and their children, so
+     * the nodes are distributed over the threads by their parents. Nodes whose parent is not a tree node are left to the
+     * sequential validation, since graph nodes can be connected to the children of other parents.
+     *
+     * @return true if the blocks have been validated in parallel
+     */
+    protected boolean validateCurrentBlocksInParallel(Node firstValidatedNode) {
+        m_parallelValidationNodes.clear();
+        if (m_validationExecutor==null)
+            return false;
+        Node node=firstValidatedNode;
+        while (node!=null) {
+            if (node.isActive() && node.isDirectlyBlocked() && node.getBlocker()!=null && node.getParent().getNodeType()==NodeType.TREE_NODE && needsValidation(node))
+                m_parallelValidationNodes.add(node);
+            node=node.getNextTableauNode();
+        }
+        int numberOfThreads=m_permanentBlockingValidators.length;
+        if (m_parallelValidationNodes.size()<numberOfThreads*MIN_PARALLEL_VALIDATIONS_PER_THREAD) {
+            m_parallelValidationNodes.clear();
+            return false;
+        }
+        if (m_parallelValidationResults.length<m_parallelValidationNodes.size())
+            m_parallelValidationResults=new boolean[m_parallelValidationNodes.size()*3/2];
+        List<Future<?>> futures=new ArrayList<>(numberOfThreads-1);
+        boolean completedNormally=false;
+        try {
+            for (int threadIndex=1;threadIndex<numberOfThreads;threadIndex++) {
+                final int finalThreadIndex=threadIndex;
+                futures.add(m_validationExecutor.submit(() -> validateCurrentBlocks(finalThreadIndex)));
+            }
+            validateCurrentBlocks(0);
+            for (Future<?> future : futures)
+                future.get();
+            completedNormally=true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReasonerInterruptedException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause=e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            else if (cause instanceof Error)
+                throw (Error)cause;
+            else
+                throw new IllegalStateException("Internal error: unexpected exception in a blocking validation thread.",cause);
+        }
+        finally {
+            if (!completedNormally)
+                waitForValidations(futures);
+        }
+        return true;
+    }
+    /**
+     * Waits until the given validations have finished, ignoring their results. The validations do not check for
+     * interruption, so they must not be left running while the caller changes the tableau.
+     */
+    protected static void waitForValidations(List<Future<?>> futures) {
+        // the flag is cleared while waiting and restored afterwards, since get() would otherwise fail immediately
+        boolean interrupted=Thread.interrupted();
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                }
+                catch (InterruptedException e) {
+                    interrupted=true;
+                }
+                catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+    protected void validateCurrentBlocks(int threadIndex) {
+        int numberOfThreads=m_permanentBlockingValidators.length;
+        BlockingValidator permanentBlockingValidator=m_permanentBlockingValidators[threadIndex];
+        BlockingValidator additionalBlockingValidator=m_additionalBlockingValidators[threadIndex];
+        for (int index=0;index<m_parallelValidationNodes.size();index++) {
+            Node node=m_parallelValidationNodes.get(index);
+            if (node.getParent().getNodeID()%numberOfThreads==threadIndex)
+                m_parallelValidationResults[index]=isBlockValid(node,permanentBlockingValidator,additionalBlockingValidator);
+        }
+    }
     protected boolean isBlockValid(Node node) {
-        if (m_permanentBlockingValidator.isBlockValid(node)) {
-            if (m_additionalBlockingValidator!=null)
-                return m_additionalBlockingValidator.isBlockValid(node);
+        return isBlockValid(node,m_permanentBlockingValidator,m_additionalBlockingValidator);
+    }
+    protected static boolean isBlockValid(Node node,BlockingValidator permanentBlockingValidator,BlockingValidator additionalBlockingValidator) {
+        if (permanentBlockingValidator.isBlockValid(node)) {
+            if (additionalBlockingValidator!=null)
+                return additionalBlockingValidator.isBlockValid(node);
             else
                 return true;
         }
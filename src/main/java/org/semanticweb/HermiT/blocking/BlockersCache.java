@@ -0,0 +1,163 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+class BlockersCache implements Serializable {
+    private static final long serialVersionUID=-7692825443489644667L;
+
+    protected Tableau m_tableau;
+    protected final DirectBlockingChecker m_directBlockingChecker;
+    protected CacheEntry[] m_buckets;
+    protected int m_numberOfElements;
+    protected int m_threshold;
+    protected CacheEntry m_emptyEntries;
+
+    public BlockersCache(DirectBlockingChecker directBlockingChecker) {
+        m_directBlockingChecker=directBlockingChecker;
+        clear();
+    }
+    public boolean isEmpty() {
+        return m_numberOfElements==0;
+    }
+    public void clear() {
+        m_buckets=new CacheEntry[1024];
+        m_threshold=(int)(m_buckets.length*0.75);
+        m_numberOfElements=0;
+        m_emptyEntries=null;
+    }
+    public void removeNode(Node node) {
+        // Check addNode() for an explanation of why we associate the entry with the node.
+        BlockersCache.CacheEntry removeEntry=(BlockersCache.CacheEntry)node.getBlockingCargo();
+        if (removeEntry!=null) {
+            int bucketIndex=getIndexFor(removeEntry.m_hashCode,m_buckets.length);
+            CacheEntry lastEntry=null;
+            CacheEntry entry=m_buckets[bucketIndex];
+            while (entry!=null) {
+                if (entry==removeEntry) {
+                    if (lastEntry==null)
+                        m_buckets[bucketIndex]=entry.m_nextEntry;
+                    else
+                        lastEntry.m_nextEntry=entry.m_nextEntry;
+                    entry.m_nextEntry=m_emptyEntries;
+                    entry.m_node=null;
+                    entry.m_hashCode=0;
+                    if (entry.m_blockedNodes!=null)
+                        entry.m_blockedNodes.clear();
+                    m_emptyEntries=entry;
+                    m_numberOfElements--;
+                    node.setBlockingCargo(null);
+                    return;
+                }
+                lastEntry=entry;
+                entry=entry.m_nextEntry;
+            }
+            throw new IllegalStateException("Internal error: entry not in cache!");
+        }
+    }
+    public void addNode(Node node) {
+        int hashCode=m_directBlockingChecker.blockingHashCode(node);
+        int bucketIndex=getIndexFor(hashCode,m_buckets.length);
+        CacheEntry entry=m_buckets[bucketIndex];
+        while (entry!=null) {
+            if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
+                throw new IllegalStateException("Internal error: node already in the cache!");
+            entry=entry.m_nextEntry;
+        }
+        if (m_emptyEntries==null)
+            entry=new CacheEntry();
+        else {
+            entry=m_emptyEntries;
+            m_emptyEntries=m_emptyEntries.m_nextEntry;
+        }
+        entry.initialize(node,hashCode,m_buckets[bucketIndex]);
+        m_buckets[bucketIndex]=entry;
+        // When a node is added to the cache, we record with the node the entry.
+        // This is used to remove nodes from the cache. Note that changes to a node
+        // can affect its label. Therefore, we CANNOT remove a node by taking its present
+        // blocking hash-code, as this can be different from the hash-code used at the
+        // time the node has been added to the cache.
+        node.setBlockingCargo(entry);
+        m_numberOfElements++;
+        if (m_numberOfElements>=m_threshold)
+            resize(m_buckets.length*2);
+    }
+    protected void resize(int newCapacity) {
+        CacheEntry[] newBuckets=new CacheEntry[newCapacity];
+        for (CacheEntry m_bucket : m_buckets) {
+            CacheEntry entry = m_bucket;
+            while (entry != null) {
+                CacheEntry nextEntry = entry.m_nextEntry;
+                int newIndex = getIndexFor(entry.m_hashCode, newCapacity);
+                entry.m_nextEntry = newBuckets[newIndex];
+                newBuckets[newIndex] = entry;
+                entry = nextEntry;
+            }
+        }
+        m_buckets=newBuckets;
+        m_threshold=(int)(newCapacity*0.75);
+    }
+    public Node getBlocker(Node node) {
+        if (m_directBlockingChecker.canBeBlocked(node)) {
+            int hashCode=m_directBlockingChecker.blockingHashCode(node);
+            int bucketIndex=getIndexFor(hashCode,m_buckets.length);
+            CacheEntry entry=m_buckets[bucketIndex];
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode && m_directBlockingChecker.isBlockedBy(entry.m_node,node))
+                    return entry.m_node;
+                entry=entry.m_nextEntry;
+            }
+        }
+        return null;
+    }
+    protected static int getIndexFor(int hashCode,int tableLength) {
+        hashCode+=~(hashCode << 9);
+        hashCode^=(hashCode >>> 14);
+        hashCode+=(hashCode << 4);
+        hashCode^=(hashCode >>> 10);
+        return hashCode & (tableLength-1);
+    }
+
+    public static class CacheEntry implements Serializable {
+        private static final long serialVersionUID=-7047487963170250200L;
+
+        protected Node m_node;
+        protected int m_hashCode;
+        protected CacheEntry m_nextEntry;
+        // The nodes that have been directly blocked by m_node; this is maintained only by incremental blocking updates
+        // and can contain nodes that are no longer blocked by m_node.
+        protected List<Node> m_blockedNodes;
+
+        public void initialize(Node node,int hashCode,CacheEntry nextEntry) {
+            m_node=node;
+            m_hashCode=hashCode;
+            m_nextEntry=nextEntry;
+        }
+        public void addBlockedNode(Node node) {
+            if (m_blockedNodes==null)
+                m_blockedNodes=new ArrayList<>();
+            m_blockedNodes.add(node);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 */
 package org.semanticweb.HermiT.blocking;
 
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.tableau.Node;
 
 public abstract class BlockingSignature {
@@ -31,6 +32,13 @@ public abstract class BlockingSignature {
     public void setNextEntry(BlockingSignature nextEntry) {
         m_nextEntry=nextEntry;
     }
+    /**
+     * @return the labels that make up this signature in the order expected by DirectBlockingChecker.getBlockingSignatureFor(DLPredicate[][]),
+     * or null if the signature cannot be stored outside of the tableau it was created in
+     */
+    public DLPredicate[][] getLabels() {
+        return null;
+    }
     public abstract boolean blocksNode(Node node);
     public abstract int hashCode();
     public abstract boolean equals(Object that);
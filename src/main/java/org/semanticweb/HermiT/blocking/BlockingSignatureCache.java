@@ -18,6 +18,8 @@
 package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.semanticweb.HermiT.tableau.Node;
 
@@ -35,9 +37,15 @@ public class BlockingSignatureCache implements Serializable {
         m_threshold=(int)(m_buckets.length*0.75);
         m_numberOfElements=0;
     }
+    public DirectBlockingChecker getDirectBlockingChecker() {
+        return m_directBlockingChecker;
+    }
     public boolean isEmpty() {
         return m_numberOfElements==0;
     }
+    public int size() {
+        return m_numberOfElements;
+    }
     public boolean addNode(Node node) {
         int hashCode=m_directBlockingChecker.blockingHashCode(node);
         int bucketIndex=getIndexFor(hashCode,m_buckets.length);
@@ -55,6 +63,37 @@ public class BlockingSignatureCache implements Serializable {
             resize(m_buckets.length*2);
         return true;
     }
+    /**
+     * Adds a signature that has not been obtained from a node of the current tableau, such as a signature read by a BlockingSignatureStore.
+     *
+     * @param signature
+     * @return true if the cache did not contain an equal signature
+     */
+    public boolean addSignature(BlockingSignature signature) {
+        int hashCode=signature.hashCode();
+        int bucketIndex=getIndexFor(hashCode,m_buckets.length);
+        BlockingSignature entry=m_buckets[bucketIndex];
+        while (entry!=null) {
+            if (hashCode==entry.hashCode() && entry.equals(signature))
+                return false;
+            entry=entry.m_nextEntry;
+        }
+        signature.m_nextEntry=m_buckets[bucketIndex];
+        m_buckets[bucketIndex]=signature;
+        m_numberOfElements++;
+        if (m_numberOfElements>=m_threshold)
+            resize(m_buckets.length*2);
+        return true;
+    }
+    public List<BlockingSignature> getSignatures() {
+        List<BlockingSignature> signatures=new ArrayList<>(m_numberOfElements);
+        for (BlockingSignature entry : m_buckets)
+            while (entry!=null) {
+                signatures.add(entry);
+                entry=entry.m_nextEntry;
+            }
+        return signatures;
+    }
     protected void resize(int newCapacity) {
         BlockingSignature[] newBuckets=new BlockingSignature[newCapacity];
         for (BlockingSignature m_bucket : m_buckets) {
@@ -0,0 +1,381 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+
+/**
+ * A directory of blocking signatures. A signature in a BlockingSignatureCache records the labels of a node that has been
+ * part of a model of the DL-clauses of a tableau, so it remains valid for any tableau with the same DL-clauses and the same
+ * kind of direct blocking checker. The signatures are therefore stored under a key that is derived from the DL-clauses and
+ * the class of the checker, and a changed ontology simply gets a new entry. Each entry consists of a table with the IRIs of
+ * the atomic concepts and roles followed by the labels of each signature as indexes into that table. The concepts that the
+ * normalisation introduces for complex class expressions are numbered in the order in which the axioms are processed, which
+ * can differ each time the same ontology is loaded, so both the key and the table use canonical names for them (see
+ * CanonicalNames).
+ */
+public class BlockingSignatureStore {
+    public static final int VERSION=2;
+    protected static final int MAGIC_NUMBER=0x48425347;
+    protected static final String FILE_EXTENSION=".hbs";
+    protected static final byte ATOMIC_CONCEPT=0;
+    protected static final byte ATOMIC_ROLE=1;
+
+    protected final File m_directory;
+
+    public BlockingSignatureStore(File directory) {
+        m_directory=directory;
+    }
+    public File getDirectory() {
+        return m_directory;
+    }
+    /**
+     * Adds the signatures stored for the given DL ontology and the direct blocking checker of the cache to the cache.
+     * Signatures that the direct blocking checker does not accept are skipped.
+     *
+     * @return the number of signatures that have been added, or -1 if there is no entry or the entry cannot be read
+     */
+    public int load(DLOntology dlOntology,BlockingSignatureCache blockingSignatureCache) {
+        CanonicalNames canonicalNames=new CanonicalNames(dlOntology);
+        String key=computeKey(canonicalNames,blockingSignatureCache.getDirectBlockingChecker());
+        File file=getFile(key);
+        if (!file.isFile())
+            return -1;
+        try (InputStream inputStream=new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            return read(key,canonicalNames,blockingSignatureCache,new DataInputStream(inputStream));
+        }
+        catch (IOException|RuntimeException e) {
+            return -1;
+        }
+    }
+    /**
+     * Stores the signatures of the cache for the given DL ontology. The entry is written to a temporary file first and then
+     * moved into place, so concurrent readers never see a partially written entry.
+     */
+    public void save(DLOntology dlOntology,BlockingSignatureCache blockingSignatureCache) throws IOException {
+        CanonicalNames canonicalNames=new CanonicalNames(dlOntology);
+        String key=computeKey(canonicalNames,blockingSignatureCache.getDirectBlockingChecker());
+        Path directory=m_directory.toPath();
+        Files.createDirectories(directory);
+        Path temporaryFile=Files.createTempFile(directory,key,".tmp");
+        try {
+            try (OutputStream outputStream=new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+                DataOutputStream output=new DataOutputStream(outputStream);
+                write(key,canonicalNames,blockingSignatureCache,output);
+                output.flush();
+            }
+            Path file=getFile(key).toPath();
+            try {
+                Files.move(temporaryFile,file,StandardCopyOption.ATOMIC_MOVE,StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile,file,StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+    protected File getFile(String key) {
+        return new File(m_directory,key+FILE_EXTENSION);
+    }
+    protected static void write(String key,CanonicalNames canonicalNames,BlockingSignatureCache blockingSignatureCache,DataOutputStream output) throws IOException {
+        List<DLPredicate[][]> signatureLabels=new ArrayList<>();
+        for (BlockingSignature signature : blockingSignatureCache.getSignatures()) {
+            DLPredicate[][] labels=signature.getLabels();
+            if (labels!=null && canonicalNames.canWrite(labels))
+                signatureLabels.add(labels);
+        }
+        Map<DLPredicate,Integer> indexes=new HashMap<>();
+        List<DLPredicate> dlPredicates=new ArrayList<>();
+        for (DLPredicate[][] labels : signatureLabels)
+            for (DLPredicate[] label : labels)
+                for (DLPredicate dlPredicate : label)
+                    if (!indexes.containsKey(dlPredicate)) {
+                        indexes.put(dlPredicate,Integer.valueOf(dlPredicates.size()));
+                        dlPredicates.add(dlPredicate);
+                    }
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        output.writeUTF(key);
+        output.writeInt(dlPredicates.size());
+        for (DLPredicate dlPredicate : dlPredicates) {
+            if (dlPredicate instanceof AtomicConcept) {
+                output.writeByte(ATOMIC_CONCEPT);
+                output.writeUTF(canonicalNames.getCanonicalIRI(((AtomicConcept)dlPredicate).getIRI()));
+            }
+            else if (dlPredicate instanceof AtomicRole) {
+                output.writeByte(ATOMIC_ROLE);
+                output.writeUTF(((AtomicRole)dlPredicate).getIRI());
+            }
+            else
+                throw new IOException("Unsupported predicate in a blocking signature: "+dlPredicate);
+        }
+        output.writeInt(signatureLabels.size());
+        for (DLPredicate[][] labels : signatureLabels) {
+            output.writeByte(labels.length);
+            for (DLPredicate[] label : labels) {
+                output.writeInt(label.length);
+                for (DLPredicate dlPredicate : label)
+                    output.writeInt(indexes.get(dlPredicate).intValue());
+            }
+        }
+    }
+    protected static int read(String key,CanonicalNames canonicalNames,BlockingSignatureCache blockingSignatureCache,DataInputStream input) throws IOException {
+        if (input.readInt()!=MAGIC_NUMBER || input.readInt()!=VERSION || !key.equals(input.readUTF()))
+            return -1;
+        DLPredicate[] dlPredicates=new DLPredicate[input.readInt()];
+        for (int index=0;index<dlPredicates.length;index++) {
+            byte kind=input.readByte();
+            String iri=input.readUTF();
+            if (kind==ATOMIC_CONCEPT)
+                dlPredicates[index]=AtomicConcept.create(canonicalNames.getInternalIRI(iri));
+            else if (kind==ATOMIC_ROLE)
+                dlPredicates[index]=AtomicRole.create(iri);
+            else
+                return -1;
+        }
+        DirectBlockingChecker directBlockingChecker=blockingSignatureCache.getDirectBlockingChecker();
+        int numberOfSignatures=input.readInt();
+        int numberOfAddedSignatures=0;
+        for (int signatureIndex=0;signatureIndex<numberOfSignatures;signatureIndex++) {
+            DLPredicate[][] labels=new DLPredicate[input.readByte()][];
+            for (int labelIndex=0;labelIndex<labels.length;labelIndex++) {
+                labels[labelIndex]=new DLPredicate[input.readInt()];
+                for (int index=0;index<labels[labelIndex].length;index++)
+                    labels[labelIndex][index]=dlPredicates[input.readInt()];
+            }
+            BlockingSignature signature=directBlockingChecker.getBlockingSignatureFor(labels);
+            if (signature!=null && blockingSignatureCache.addSignature(signature))
+                numberOfAddedSignatures++;
+        }
+        return numberOfAddedSignatures;
+    }
+    /**
+     * Computes the key of the signatures of a tableau for the given DL ontology and direct blocking checker. The key depends
+     * only on the DL-clauses and not on the facts of the ontology: since blocking signatures are not used for ontologies with
+     * nominals, a tree node cannot interact with the named individuals, so the signatures found for one ABox remain valid for
+     * any other ABox. The key depends neither on the order in which the DL-clauses are stored nor on the numbers of the
+     * internal concepts.
+     */
+    public static String computeKey(DLOntology dlOntology,DirectBlockingChecker directBlockingChecker) {
+        return computeKey(new CanonicalNames(dlOntology),directBlockingChecker);
+    }
+    protected static String computeKey(CanonicalNames canonicalNames,DirectBlockingChecker directBlockingChecker) {
+        MessageDigest digest;
+        try {
+            digest=MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 message digest is not available.",e);
+        }
+        update(digest,"HermiT-BlockingSignatures-"+VERSION);
+        update(digest,directBlockingChecker.getClass().getName());
+        for (String dlClause : canonicalNames.getCanonicalDLClauses())
+            update(digest,dlClause);
+        StringBuilder key=new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b>>4) & 0xF,16));
+            key.append(Character.forDigit(b & 0xF,16));
+        }
+        return key.toString();
+    }
+    protected static void update(MessageDigest digest,String string) {
+        digest.update(string.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    /**
+     * Canonical names for the numbered internal concepts of a DL ontology, that is, the concepts that the normalisation
+     * introduces for complex class expressions and for the automata of complex role inclusions. A canonical name depends only
+     * on the DL-clauses in which the concept occurs. The names are computed by colour refinement: initially each concept has
+     * the colour of its kind, and in each round the colour of a concept becomes the rank of its colour together with the
+     * sorted texts of the DL-clauses in which it occurs, where the concept itself is marked and the other internal concepts
+     * are replaced by their colours. The refinement stops once no colour is split any more. Concepts that still share a
+     * colour are then ordered by their numbers. This cannot make a stored signature unsound: two tableaux share an entry only
+     * if their DL-clauses are equal after renaming, so the renaming maps the DL-clauses of one tableau onto those of the other.
+     */
+    protected static class CanonicalNames {
+        protected static final Pattern INTERNAL_IRI=Pattern.compile("internal:(def|all|defdata)#([0-9]+)");
+
+        protected final Map<String,String> m_canonicalIRIs;
+        protected final Map<String,String> m_internalIRIs;
+        protected final List<String> m_canonicalDLClauses;
+
+        public CanonicalNames(DLOntology dlOntology) {
+            // each DL-clause is split into text fragments at even positions and internal IRIs at odd positions
+            List<String[]> dlClauses=new ArrayList<>();
+            Map<String,List<String[]>> occurrences=new TreeMap<>();
+            for (DLClause dlClause : dlOntology.getDLClauses()) {
+                String text=dlClause.toString();
+                List<String> fragments=new ArrayList<>();
+                Set<String> internalIRIs=new HashSet<>();
+                Matcher matcher=INTERNAL_IRI.matcher(text);
+                int start=0;
+                while (matcher.find()) {
+                    fragments.add(text.substring(start,matcher.start()));
+                    fragments.add(matcher.group());
+                    internalIRIs.add(matcher.group());
+                    start=matcher.end();
+                }
+                fragments.add(text.substring(start));
+                String[] dlClauseFragments=fragments.toArray(new String[fragments.size()]);
+                dlClauses.add(dlClauseFragments);
+                for (String internalIRI : internalIRIs) {
+                    List<String[]> dlClausesWithIRI=occurrences.get(internalIRI);
+                    if (dlClausesWithIRI==null) {
+                        dlClausesWithIRI=new ArrayList<>();
+                        occurrences.put(internalIRI,dlClausesWithIRI);
+                    }
+                    dlClausesWithIRI.add(dlClauseFragments);
+                }
+            }
+            Map<String,String> signatures=new HashMap<>();
+            for (String internalIRI : occurrences.keySet())
+                signatures.put(internalIRI,getKind(internalIRI));
+            Map<String,Integer> colours=rank(signatures);
+            int numberOfColours=new HashSet<>(colours.values()).size();
+            while (numberOfColours<colours.size()) {
+                signatures.clear();
+                List<String> texts=new ArrayList<>();
+                for (Map.Entry<String,List<String[]>> entry : occurrences.entrySet()) {
+                    texts.clear();
+                    for (String[] dlClauseFragments : entry.getValue())
+                        texts.add(render(dlClauseFragments,entry.getKey(),colours));
+                    Collections.sort(texts);
+                    StringBuilder signature=new StringBuilder();
+                    signature.append(colours.get(entry.getKey()));
+                    for (String text : texts)
+                        signature.append('\n').append(text);
+                    signatures.put(entry.getKey(),signature.toString());
+                }
+                Map<String,Integer> newColours=rank(signatures);
+                int newNumberOfColours=new HashSet<>(newColours.values()).size();
+                if (newNumberOfColours==numberOfColours)
+                    break;
+                colours=newColours;
+                numberOfColours=newNumberOfColours;
+            }
+            TreeMap<String,String> canonicalOrder=new TreeMap<>();
+            for (Map.Entry<String,Integer> entry : colours.entrySet()) {
+                Matcher matcher=INTERNAL_IRI.matcher(entry.getKey());
+                matcher.matches();
+                canonicalOrder.put(String.format("%010d%010d",entry.getValue(),Long.valueOf(matcher.group(2))),entry.getKey());
+            }
+            m_canonicalIRIs=new HashMap<>();
+            m_internalIRIs=new HashMap<>();
+            for (String internalIRI : canonicalOrder.values()) {
+                String canonicalIRI="internal:"+getKind(internalIRI)+"#c"+m_canonicalIRIs.size();
+                m_canonicalIRIs.put(internalIRI,canonicalIRI);
+                m_internalIRIs.put(canonicalIRI,internalIRI);
+            }
+            m_canonicalDLClauses=new ArrayList<>(dlClauses.size());
+            for (String[] dlClauseFragments : dlClauses) {
+                StringBuilder text=new StringBuilder();
+                for (int index=0;index<dlClauseFragments.length;index++)
+                    text.append(index%2==0 ? dlClauseFragments[index] : m_canonicalIRIs.get(dlClauseFragments[index]));
+                m_canonicalDLClauses.add(text.toString());
+            }
+            Collections.sort(m_canonicalDLClauses);
+        }
+        protected static String getKind(String internalIRI) {
+            return internalIRI.substring("internal:".length(),internalIRI.indexOf('#'));
+        }
+        protected static String render(String[] dlClauseFragments,String internalIRI,Map<String,Integer> colours) {
+            StringBuilder text=new StringBuilder();
+            for (int index=0;index<dlClauseFragments.length;index++) {
+                if (index%2==0)
+                    text.append(dlClauseFragments[index]);
+                else if (dlClauseFragments[index].equals(internalIRI))
+                    text.append('*');
+                else
+                    text.append('?').append(colours.get(dlClauseFragments[index]));
+            }
+            return text.toString();
+        }
+        /**
+         * Maps each key to the rank of its signature among the distinct signatures.
+         */
+        protected static Map<String,Integer> rank(Map<String,String> signatures) {
+            List<String> sortedSignatures=new ArrayList<>(new TreeSet<>(signatures.values()));
+            Map<String,Integer> ranks=new HashMap<>();
+            for (int index=0;index<sortedSignatures.size();index++)
+                ranks.put(sortedSignatures.get(index),Integer.valueOf(index));
+            Map<String,Integer> result=new HashMap<>();
+            for (Map.Entry<String,String> entry : signatures.entrySet())
+                result.put(entry.getKey(),ranks.get(entry.getValue()));
+            return result;
+        }
+        public List<String> getCanonicalDLClauses() {
+            return m_canonicalDLClauses;
+        }
+        /**
+         * Returns true if the labels contain no internal concept without a canonical name; the number of such a concept has
+         * no meaning for another tableau.
+         */
+        public boolean canWrite(DLPredicate[][] labels) {
+            for (DLPredicate[] label : labels)
+                for (DLPredicate dlPredicate : label)
+                    if (dlPredicate instanceof AtomicConcept) {
+                        String iri=((AtomicConcept)dlPredicate).getIRI();
+                        if (INTERNAL_IRI.matcher(iri).matches() && !m_canonicalIRIs.containsKey(iri))
+                            return false;
+                    }
+            return true;
+        }
+        public String getCanonicalIRI(String iri) {
+            String canonicalIRI=m_canonicalIRIs.get(iri);
+            return canonicalIRI==null ? iri : canonicalIRI;
+        }
+        public String getInternalIRI(String iri) {
+            String internalIRI=m_internalIRIs.get(iri);
+            return internalIRI==null ? iri : internalIRI;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.semanticweb.HermiT.model.AtLeastConcept;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Concept;
 import org.semanticweb.HermiT.model.DLClause;
 import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.Equality;
@@ -53,6 +54,8 @@ public class BlockingValidator {
     protected final ExtensionTable.Retrieval m_ternaryRetrieval02Bound;
     protected final ExtensionTable.Retrieval m_ternaryRetrieval1Bound;
     protected final ExtensionTable.Retrieval m_ternaryRetrieval2Bound;
+    protected final Object[] m_binaryAuxiliaryTupleContains;
+    protected final Object[] m_ternaryAuxiliaryTupleContains;
     protected final List<DLClauseInfo> m_dlClauseInfos;
     protected final Map<AtomicConcept,List<DLClauseInfo>> m_dlClauseInfosByXConcepts;
     protected final List<DLClauseInfo> m_dlClauseInfosWithoutXConcepts;
@@ -70,6 +73,8 @@ public class BlockingValidator {
         m_ternaryRetrieval02Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,false,true }, ExtensionTable.View.TOTAL);
         m_ternaryRetrieval1Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { false,true,false }, ExtensionTable.View.TOTAL);
         m_ternaryRetrieval2Bound=m_extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { false,false,true }, ExtensionTable.View.TOTAL);
+        m_binaryAuxiliaryTupleContains=new Object[2];
+        m_ternaryAuxiliaryTupleContains=new Object[3];
         m_dlClauseInfos= new ArrayList<>();
         for (DLClause dlClause : dlClauses) {
             if (dlClause.isGeneralConceptInclusion()) {
@@ -172,7 +177,7 @@ public class BlockingValidator {
             }
             else if (tupleBuffer[0] instanceof AtLeastConcept) {
                 AtLeastConcept atleast=(AtLeastConcept)tupleBuffer[0];
-                if (m_extensionManager.containsRoleAssertion(atleast.getOnRole(),blocker,blockerParent) && m_extensionManager.containsConceptAssertion(atleast.getToConcept(), blockerParent)) {
+                if (containsRoleAssertion(atleast.getOnRole(),blocker,blockerParent) && containsConceptAssertion(atleast.getToConcept(), blockerParent)) {
                     // blocker possibly uses its parent to satisfy the existential, so check if it is satisfied after copying the labels
                     if (!isSatisfiedAtLeastForBlocked(atleast,blockedX,blocker,blockerParent)) {
                         return false;
@@ -191,8 +196,8 @@ public class BlockingValidator {
         Role r=atleast.getOnRole();
         LiteralConcept c=atleast.getToConcept();
         Node blockedXParent=blockedX.getParent();
-        if (m_extensionManager.containsRoleAssertion(r,blockedX,blockedXParent)
-                && m_extensionManager.containsConceptAssertion(c,blockedXParent))
+        if (containsRoleAssertion(r,blockedX,blockedXParent)
+                && containsConceptAssertion(c,blockedXParent))
             return true;
         // blockerParent cannot be used to satisfy the existential, so check whether the blocker has enough suitable children
         Retrieval retrieval;
@@ -215,7 +220,7 @@ public class BlockingValidator {
         int requiredSuccessors=atleast.getNumber();
         while (!retrieval.afterLast()&&suitableSuccessors<requiredSuccessors) {
             Node rSuccessor=(Node)tupleBuffer[position];
-            if (rSuccessor!=blockerParent && m_extensionManager.containsConceptAssertion(c,rSuccessor))
+            if (rSuccessor!=blockerParent && containsConceptAssertion(c,rSuccessor))
                suitableSuccessors++;
             retrieval.next();
         }
@@ -231,15 +236,15 @@ public class BlockingValidator {
         Node blocker=blockedX.getBlocker();
         // Check whether some of the X concepts can be matched to the blocker
         for (AtomicConcept atomicConcept : dlClauseInfo.m_xConcepts)
-            if (!m_extensionManager.containsAssertion(atomicConcept,blocker))
+            if (!containsAssertion(atomicConcept,blocker))
                 return true; // clause not applicable (trivially satisfied)
         for (AtomicRole atomicRole : dlClauseInfo.m_x2xRoles)
-            if (!m_extensionManager.containsAssertion(atomicRole,blocker,blocker))
+            if (!containsAssertion(atomicRole,blocker,blocker))
                 return true; // clause not applicable (trivially satisfied)
         // Find one yConstraint that involves a parent of blockedX, otherwise the clause is not relevant
         int matchingYConstraintIndex=-1;
         for (int yIndex=0;matchingYConstraintIndex==-1 && yIndex<dlClauseInfo.m_yConstraints.length;yIndex++) {
-            if (dlClauseInfo.m_yConstraints[yIndex].isSatisfiedExplicitly(m_extensionManager,blockedX,blockedXParent))
+            if (dlClauseInfo.m_yConstraints[yIndex].isSatisfiedExplicitly(this,blockedX,blockedXParent))
                 matchingYConstraintIndex=yIndex;
         }
         if (matchingYConstraintIndex==-1)
@@ -265,7 +270,7 @@ public class BlockingValidator {
                 Node nodeZ=(Node)tupleBuffer[1];
                 boolean allMatched=true;
                 for (int index=1;index<zConcepts.length;index++)
-                    if (!m_extensionManager.containsAssertion(zConcepts[index],nodeZ)) {
+                    if (!containsAssertion(zConcepts[index],nodeZ)) {
                         allMatched=false;
                         break;
                     }
@@ -318,7 +323,7 @@ public class BlockingValidator {
             Object[] tupleBuffer=retrieval.getTupleBuffer();
             while (!retrieval.afterLast()) {
                 Node nodeY=(Node)tupleBuffer[yNodeIndex];
-                if (nodeY!=blockerParent && yConstraint.isSatisfiedExplicitly(m_extensionManager,blocker,nodeY)) {
+                if (nodeY!=blockerParent && yConstraint.isSatisfiedExplicitly(this,blocker,nodeY)) {
                     dlClauseInfo.m_yNodes[toMatchIndexXToY+toMatchIndexYToX]=nodeY;
                     boolean result=satisfiesDLClauseForBlockedXAnyZAndAnyY(dlClauseInfo,blockedX,parentOfBlockedXIndex,toMatchIndexXToY+xToYIncrement,toMatchIndexYToX+yToXIncrement);
                     dlClauseInfo.m_yNodes[toMatchIndexXToY+toMatchIndexYToX]=null; // checking done, reset assignment
@@ -332,7 +337,7 @@ public class BlockingValidator {
     }
     protected boolean satisfiesDLClauseForBlockedXAndMatchedNodes(DLClauseInfo dlClauseInfo,Node blockedX,int parentOfBlockedXIndex) {
         for (ConsequenceAtom consequenceAtom : dlClauseInfo.m_consequencesForBlockedX) {
-            if (consequenceAtom.isSatisfied(m_extensionManager,dlClauseInfo,blockedX))
+            if (consequenceAtom.isSatisfied(this,dlClauseInfo,blockedX))
                 return true;
         }
         if (debuggingMode) inValidClausesForBlocker.put(dlClauseInfo, blockedX);
@@ -381,19 +386,19 @@ public class BlockingValidator {
         while (!retrieval.afterLast()&&suitableSuccessors<requiredSuccessors) {
             Node rSuccessor=(Node)tupleBuffer[position];
             if (rSuccessor.isBlocked()&&!((ValidatedBlockingObject)rSuccessor.getBlockingObject()).blockViolatesParentConstraints()) {
-                if (m_extensionManager.containsConceptAssertion(c,rSuccessor.getBlocker()))
+                if (containsConceptAssertion(c,rSuccessor.getBlocker()))
                     suitableSuccessors++;
                 else
                     possiblyInvalidlyBlocked.add(rSuccessor);
             }
-            else if (m_extensionManager.containsConceptAssertion(c,rSuccessor))
+            else if (containsConceptAssertion(c,rSuccessor))
                 suitableSuccessors++;
             retrieval.next();
         }
         // unblock nodes until we have enough suitable successors
         for (int i=0;i<possiblyInvalidlyBlocked.size()&&suitableSuccessors<requiredSuccessors;i++) {
             Node blocked=possiblyInvalidlyBlocked.get(i);
-            if (m_extensionManager.containsConceptAssertion(c,blocked)) {
+            if (containsConceptAssertion(c,blocked)) {
                 ((ValidatedBlockingObject)blocked.getBlockingObject()).setBlockViolatesParentConstraints(true);
                 if (debuggingMode) inValidAtleastForBlockedParent.put(atleast,blocked);
                 suitableSuccessors++;
@@ -403,10 +408,10 @@ public class BlockingValidator {
     protected void checkDLClauseForNonblockedX(DLClauseInfo dlClauseInfo,Node nonblockedX) {
         // Check whether some of the X concepts can be matched to the node
         for (AtomicConcept atomicConcept : dlClauseInfo.m_xConcepts)
-            if (!m_extensionManager.containsAssertion(atomicConcept,nonblockedX))
+            if (!containsAssertion(atomicConcept,nonblockedX))
                 return; // trivially satisfied (premise is false)
         for (AtomicRole atomicRole : dlClauseInfo.m_x2xRoles)
-            if (!m_extensionManager.containsAssertion(atomicRole,nonblockedX,nonblockedX))
+            if (!containsAssertion(atomicRole,nonblockedX,nonblockedX))
                 return; // clause not applicable (trivially satisfied)
         dlClauseInfo.m_xNode=nonblockedX;
         // Examine all possible matches for the Zs (and recursively for Ys then as well)
@@ -426,7 +431,7 @@ public class BlockingValidator {
                 Node nodeZ=(Node)tupleBuffer[1];
                 boolean allMatched=true;
                 for (int index=1;index<zConcepts.length;index++)
-                    if (!m_extensionManager.containsAssertion(zConcepts[index],nodeZ)) {
+                    if (!containsAssertion(zConcepts[index],nodeZ)) {
                         allMatched=false;
                         break;
                     }
@@ -469,7 +474,7 @@ public class BlockingValidator {
             Object[] tupleBuffer=retrieval.getTupleBuffer();
             while (!retrieval.afterLast()) {
                 Node nodeY=(Node)tupleBuffer[yNodeIndex];
-                if (yConstraint.isSatisfiedViaMirroringY(m_extensionManager,nonblockedX,nodeY)) {
+                if (yConstraint.isSatisfiedViaMirroringY(this,nonblockedX,nodeY)) {
                     dlClauseInfo.m_yNodes[toMatchIndexXtoY+toMatchIndexYtoX]=nodeY;
                     checkDLClauseForNonblockedXAnyZAndAnyY(dlClauseInfo,nonblockedX,toMatchIndexXtoY+xToYIncrement, toMatchIndexYtoX+yToXIncrement);
                     dlClauseInfo.m_yNodes[toMatchIndexXtoY+toMatchIndexYtoX]=null; // checking done, reset assignments
@@ -491,7 +496,7 @@ public class BlockingValidator {
 
         // some successors are blocked, so check whether this can cause problems in the model construction
         for (ConsequenceAtom consequenceAtom : dlClauseInfo.m_consequencesForNonblockedX) {
-            if (consequenceAtom.isSatisfied(m_extensionManager,dlClauseInfo,nonblockedX))
+            if (consequenceAtom.isSatisfied(this,dlClauseInfo,nonblockedX))
                 return;
         }
         // go through the y's and if y is bound to a blocked node, set a flag that the block is invalid
@@ -500,7 +505,7 @@ public class BlockingValidator {
             YConstraint yConstraint=dlClauseInfo.m_yConstraints[i];
             Node yi=dlClauseInfo.m_yNodes[i];
             for (AtomicConcept c : yConstraint.m_yConcepts) {
-                if (yi.isBlocked()&&!((ValidatedBlockingObject)yi.getBlockingObject()).blockViolatesParentConstraints() && !m_extensionManager.containsAssertion(c,yi) && m_extensionManager.containsAssertion(c,yi.getBlocker())) {
+                if (yi.isBlocked()&&!((ValidatedBlockingObject)yi.getBlockingObject()).blockViolatesParentConstraints() && !containsAssertion(c,yi) && containsAssertion(c,yi.getBlocker())) {
                     ((ValidatedBlockingObject)yi.getBlockingObject()).setBlockViolatesParentConstraints(true);
                     if (debuggingMode) inValidClausesForBlockedParent.put(dlClauseInfo, yi);
                     return;
@@ -511,7 +516,7 @@ public class BlockingValidator {
         for (ConsequenceAtom consequenceAtom : dlClauseInfo.m_consequencesForNonblockedX) {
             if (consequenceAtom instanceof MirroredYConsequenceAtom) {
                 MirroredYConsequenceAtom atom=(MirroredYConsequenceAtom)consequenceAtom;
-                if (atom.isSatisfiedNonMirrored(m_extensionManager,dlClauseInfo)) {
+                if (atom.isSatisfiedNonMirrored(this,dlClauseInfo)) {
                     Node nodeY=dlClauseInfo.m_yNodes[atom.m_yArgumentIndex];
                     ((ValidatedBlockingObject)nodeY.getBlockingObject()).setBlockViolatesParentConstraints(true);
                     if (debuggingMode) inValidClausesForBlockedParent.put(dlClauseInfo, nodeY);
@@ -522,6 +527,54 @@ public class BlockingValidator {
         assert false; // we should never be here, it means we have not broken a block although we should have
     }
 
+    // The following methods are like the ones of ExtensionManager, but use the buffers of this validator, so that
+    // several validators can check blocks of the same tableau at the same time.
+
+    protected boolean containsConceptAssertion(Concept concept,Node node) {
+        if (node.getNodeType().isAbstract() && AtomicConcept.THING.equals(concept))
+            return true;
+        else {
+            m_binaryAuxiliaryTupleContains[0]=concept;
+            m_binaryAuxiliaryTupleContains[1]=node;
+            return m_extensionManager.getBinaryExtensionTable().containsTuple(m_binaryAuxiliaryTupleContains);
+        }
+    }
+    protected boolean containsRoleAssertion(Role role,Node nodeFrom,Node nodeTo) {
+        if (role instanceof AtomicRole) {
+            m_ternaryAuxiliaryTupleContains[0]=role;
+            m_ternaryAuxiliaryTupleContains[1]=nodeFrom;
+            m_ternaryAuxiliaryTupleContains[2]=nodeTo;
+        }
+        else {
+            m_ternaryAuxiliaryTupleContains[0]=((InverseRole)role).getInverseOf();
+            m_ternaryAuxiliaryTupleContains[1]=nodeTo;
+            m_ternaryAuxiliaryTupleContains[2]=nodeFrom;
+        }
+        return m_extensionManager.getTernaryExtensionTable().containsTuple(m_ternaryAuxiliaryTupleContains);
+    }
+    protected boolean containsAssertion(DLPredicate dlPredicate,Node node) {
+        if (AtomicConcept.THING.equals(dlPredicate))
+            return true;
+        else {
+            m_binaryAuxiliaryTupleContains[0]=dlPredicate;
+            m_binaryAuxiliaryTupleContains[1]=node;
+            return m_extensionManager.getBinaryExtensionTable().containsTuple(m_binaryAuxiliaryTupleContains);
+        }
+    }
+    protected boolean containsAssertion(DLPredicate dlPredicate,Node node0,Node node1) {
+        if (Equality.INSTANCE.equals(dlPredicate))
+            return node0==node1;
+        else {
+            m_ternaryAuxiliaryTupleContains[0]=dlPredicate;
+            m_ternaryAuxiliaryTupleContains[1]=node0;
+            m_ternaryAuxiliaryTupleContains[2]=node1;
+            return m_extensionManager.getTernaryExtensionTable().containsTuple(m_ternaryAuxiliaryTupleContains);
+        }
+    }
+    protected boolean containsTuple(Object[] tuple) {
+        return m_extensionManager.containsTuple(tuple);
+    }
+
     protected static class DLClauseInfo {
         protected final AtomicConcept[] m_xConcepts;
         protected final AtomicRole[] m_x2xRoles;
@@ -831,24 +884,24 @@ public class BlockingValidator {
             m_x2yRoles=x2yRoles;
             m_y2xRoles=y2xRoles;
         }
-        public boolean isSatisfiedExplicitly(ExtensionManager extensionManager,Node nodeX,Node nodeY) {
+        public boolean isSatisfiedExplicitly(BlockingValidator blockingValidator,Node nodeX,Node nodeY) {
             for (AtomicRole x2yRole : m_x2yRoles)
-                if (!extensionManager.containsAssertion(x2yRole,nodeX,nodeY))
+                if (!blockingValidator.containsAssertion(x2yRole,nodeX,nodeY))
                     return false;
             for (AtomicRole y2xRole : m_y2xRoles)
-                if (!extensionManager.containsAssertion(y2xRole,nodeY,nodeX))
+                if (!blockingValidator.containsAssertion(y2xRole,nodeY,nodeX))
                     return false;
             for (AtomicConcept yConcept : m_yConcepts)
-                if (!extensionManager.containsAssertion(yConcept,nodeY))
+                if (!blockingValidator.containsAssertion(yConcept,nodeY))
                     return false;
             return true;
         }
-        public boolean isSatisfiedViaMirroringY(ExtensionManager extensionManager,Node nodeX,Node nodeY) {
+        public boolean isSatisfiedViaMirroringY(BlockingValidator blockingValidator,Node nodeX,Node nodeY) {
             for (AtomicRole x2yRole : m_x2yRoles)
-                if (!extensionManager.containsAssertion(x2yRole,nodeX,nodeY))
+                if (!blockingValidator.containsAssertion(x2yRole,nodeX,nodeY))
                     return false;
             for (AtomicRole y2xRole : m_y2xRoles)
-                if (!extensionManager.containsAssertion(y2xRole,nodeY,nodeX))
+                if (!blockingValidator.containsAssertion(y2xRole,nodeY,nodeX))
                     return false;
             Node nodeYMirror;
             if (nodeY.isBlocked()&&!((ValidatedBlockingObject)nodeY.getBlockingObject()).blockViolatesParentConstraints())
@@ -856,7 +909,7 @@ public class BlockingValidator {
             else
                 nodeYMirror=nodeY;
             for (AtomicConcept yConcept : m_yConcepts)
-                if (!extensionManager.containsAssertion(yConcept,nodeYMirror))
+                if (!blockingValidator.containsAssertion(yConcept,nodeYMirror))
                     return false;
             return true;
         }
@@ -865,7 +918,7 @@ public class BlockingValidator {
     protected enum ArgumentType { XVAR,YVAR,ZVAR }
 
     protected interface ConsequenceAtom {
-        boolean isSatisfied(ExtensionManager extensionManager,DLClauseInfo dlClauseInfo,Node blockedX);
+        boolean isSatisfied(BlockingValidator blockingValidator,DLClauseInfo dlClauseInfo,Node blockedX);
     }
 
     protected static class SimpleConsequenceAtom implements ConsequenceAtom {
@@ -883,7 +936,7 @@ public class BlockingValidator {
             m_argumentTypes=argumentTypes;
             m_argumentIndexes=argumentIndexes;
         }
-        public boolean isSatisfied(ExtensionManager extensionManager,DLClauseInfo dlClauseInfo,Node nodeX) {
+        public boolean isSatisfied(BlockingValidator blockingValidator,DLClauseInfo dlClauseInfo,Node nodeX) {
             for (int argumentIndex=m_argumentIndexes.length-1;argumentIndex>=0;--argumentIndex) {
                 switch (m_argumentTypes[argumentIndex]) {
                 case XVAR:
@@ -900,7 +953,7 @@ public class BlockingValidator {
             if (m_assertionBuffer[0] instanceof AnnotatedEquality)
                 return m_assertionBuffer[1]==m_assertionBuffer[2];
             else
-                return extensionManager.containsTuple(m_assertionBuffer);
+                return blockingValidator.containsTuple(m_assertionBuffer);
         }
         public String toString() {
             StringBuilder result= new StringBuilder();
@@ -921,7 +974,7 @@ public class BlockingValidator {
             m_yArgumentIndex=yArgumentIndex;
             m_isX2Y=isX2Y;
         }
-        public boolean isSatisfied(ExtensionManager extensionManager,DLClauseInfo dlClauseInfo,Node nodeX) {
+        public boolean isSatisfied(BlockingValidator blockingValidator,DLClauseInfo dlClauseInfo,Node nodeX) {
             Node nodeY=dlClauseInfo.m_yNodes[m_yArgumentIndex];
             Node nodeXReal;
             if (nodeY==nodeX.getParent())
@@ -929,9 +982,9 @@ public class BlockingValidator {
             else
                 nodeXReal=dlClauseInfo.m_xNode;
             if (m_isX2Y)
-                return extensionManager.containsAssertion(m_atomicRole,nodeXReal,nodeY);
+                return blockingValidator.containsAssertion(m_atomicRole,nodeXReal,nodeY);
             else
-                return extensionManager.containsAssertion(m_atomicRole,nodeY,nodeXReal);
+                return blockingValidator.containsAssertion(m_atomicRole,nodeY,nodeXReal);
         }
         public String toString() {
             return m_atomicRole+"("+(m_isX2Y?"x,yi":"y_i,x")+")";
@@ -946,17 +999,17 @@ public class BlockingValidator {
             m_atomicConcept=atomicConcept;
             m_yArgumentIndex=yArgumentIndex;
         }
-        public boolean isSatisfied(ExtensionManager extensionManager,DLClauseInfo dlClauseInfo,Node nodeX) {
+        public boolean isSatisfied(BlockingValidator blockingValidator,DLClauseInfo dlClauseInfo,Node nodeX) {
             Node nodeY=dlClauseInfo.m_yNodes[m_yArgumentIndex];
             Node nodeYMirror;
             if (nodeY.isBlocked())
                 nodeYMirror=nodeY.getBlocker();
             else
                 nodeYMirror=nodeY;
-            return extensionManager.containsAssertion(m_atomicConcept,nodeYMirror);
+            return blockingValidator.containsAssertion(m_atomicConcept,nodeYMirror);
         }
-        public boolean isSatisfiedNonMirrored(ExtensionManager extensionManager,DLClauseInfo dlClauseInfo) {
-            return extensionManager.containsAssertion(m_atomicConcept,dlClauseInfo.m_yNodes[m_yArgumentIndex]);
+        public boolean isSatisfiedNonMirrored(BlockingValidator blockingValidator,DLClauseInfo dlClauseInfo) {
+            return blockingValidator.containsAssertion(m_atomicConcept,dlClauseInfo.m_yNodes[m_yArgumentIndex]);
         }
         public String toString() {
             return m_atomicConcept+"(y_i)";
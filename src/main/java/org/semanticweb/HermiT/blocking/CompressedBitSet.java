@@ -0,0 +1,160 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.Serializable;
+
+/**
+ * A set of nonnegative integers represented as a bit set that stores only its nonzero 64-bit words, sorted by their
+ * position. Labels in blocking contain few of the elements of an ontology, so this is much smaller than a plain bit set
+ * over all element indexes, while elements can still be added and removed without rebuilding the set.
+ */
+public class CompressedBitSet implements Serializable {
+    private static final long serialVersionUID=-6104367316393834270L;
+
+    protected int[] m_wordIndexes;
+    protected long[] m_words;
+    protected int m_numberOfWords;
+    protected int m_cardinality;
+
+    public CompressedBitSet() {
+        m_wordIndexes=new int[2];
+        m_words=new long[2];
+        m_numberOfWords=0;
+        m_cardinality=0;
+    }
+    public void clear() {
+        m_numberOfWords=0;
+        m_cardinality=0;
+    }
+    public int cardinality() {
+        return m_cardinality;
+    }
+    public boolean isEmpty() {
+        return m_cardinality==0;
+    }
+    public boolean get(int index) {
+        int position=getWordPosition(index >>> 6);
+        return position>=0 && (m_words[position] & (1L << index))!=0;
+    }
+    /**
+     * Adds the given index and returns true if it was not contained in the set.
+     */
+    public boolean add(int index) {
+        int wordIndex=index >>> 6;
+        long mask=1L << index;
+        int position=getWordPosition(wordIndex);
+        if (position>=0) {
+            if ((m_words[position] & mask)!=0)
+                return false;
+            m_words[position]|=mask;
+        }
+        else {
+            position=-position-1;
+            if (m_numberOfWords==m_words.length) {
+                int[] newWordIndexes=new int[m_numberOfWords*2];
+                long[] newWords=new long[m_numberOfWords*2];
+                System.arraycopy(m_wordIndexes,0,newWordIndexes,0,m_numberOfWords);
+                System.arraycopy(m_words,0,newWords,0,m_numberOfWords);
+                m_wordIndexes=newWordIndexes;
+                m_words=newWords;
+            }
+            System.arraycopy(m_wordIndexes,position,m_wordIndexes,position+1,m_numberOfWords-position);
+            System.arraycopy(m_words,position,m_words,position+1,m_numberOfWords-position);
+            m_wordIndexes[position]=wordIndex;
+            m_words[position]=mask;
+            m_numberOfWords++;
+        }
+        m_cardinality++;
+        return true;
+    }
+    /**
+     * Removes the given index and returns true if it was contained in the set.
+     */
+    public boolean remove(int index) {
+        int position=getWordPosition(index >>> 6);
+        long mask=1L << index;
+        if (position<0 || (m_words[position] & mask)==0)
+            return false;
+        m_words[position]&=~mask;
+        if (m_words[position]==0) {
+            m_numberOfWords--;
+            System.arraycopy(m_wordIndexes,position+1,m_wordIndexes,position,m_numberOfWords-position);
+            System.arraycopy(m_words,position+1,m_words,position,m_numberOfWords-position);
+        }
+        m_cardinality--;
+        return true;
+    }
+    public void copyFrom(CompressedBitSet that) {
+        if (m_words.length<that.m_numberOfWords) {
+            m_wordIndexes=new int[that.m_numberOfWords];
+            m_words=new long[that.m_numberOfWords];
+        }
+        System.arraycopy(that.m_wordIndexes,0,m_wordIndexes,0,that.m_numberOfWords);
+        System.arraycopy(that.m_words,0,m_words,0,that.m_numberOfWords);
+        m_numberOfWords=that.m_numberOfWords;
+        m_cardinality=that.m_cardinality;
+    }
+    public boolean contentEquals(CompressedBitSet that) {
+        if (m_cardinality!=that.m_cardinality || m_numberOfWords!=that.m_numberOfWords)
+            return false;
+        for (int position=m_numberOfWords-1;position>=0;--position)
+            if (m_words[position]!=that.m_words[position] || m_wordIndexes[position]!=that.m_wordIndexes[position])
+                return false;
+        return true;
+    }
+    /**
+     * @return the smallest index in the set that is not smaller than the given index, or -1 if there is no such index
+     */
+    public int nextSetBit(int fromIndex) {
+        int wordIndex=fromIndex >>> 6;
+        int position=getWordPosition(wordIndex);
+        if (position>=0) {
+            long word=m_words[position] & (-1L << fromIndex);
+            if (word!=0)
+                return (wordIndex << 6)+Long.numberOfTrailingZeros(word);
+            position++;
+        }
+        else
+            position=-position-1;
+        if (position<m_numberOfWords)
+            return (m_wordIndexes[position] << 6)+Long.numberOfTrailingZeros(m_words[position]);
+        return -1;
+    }
+    public int sizeInMemory() {
+        return m_words.length*12+4*4;
+    }
+    /**
+     * Returns the position of the word with the given index or, if there is no such word, -(insertion position)-1.
+     */
+    protected int getWordPosition(int wordIndex) {
+        int low=0;
+        int high=m_numberOfWords-1;
+        while (low<=high) {
+            int middle=(low+high) >>> 1;
+            int middleWordIndex=m_wordIndexes[middle];
+            if (middleWordIndex<wordIndex)
+                low=middle+1;
+            else if (middleWordIndex>wordIndex)
+                high=middle-1;
+            else
+                return middle;
+        }
+        return -(low+1);
+    }
+}
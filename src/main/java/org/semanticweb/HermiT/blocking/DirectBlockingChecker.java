@@ -19,6 +19,7 @@ package org.semanticweb.HermiT.blocking;
 
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.Tableau;
@@ -49,4 +50,10 @@ public interface DirectBlockingChecker {
     Node nodesMerged(Node mergeFrom,Node mergeInto);
     Node nodesUnmerged(Node mergeFrom,Node mergeInto);
     BlockingSignature getBlockingSignatureFor(Node node);
+    /**
+     * @param labels
+     * @return the signature with the given labels, as returned by BlockingSignature.getLabels(), or null if this checker
+     * does not support stored signatures or the labels do not have the expected form
+     */
+    BlockingSignature getBlockingSignatureFor(DLPredicate[][] labels);
 }
@@ -25,8 +25,8 @@ import java.util.Set;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
-import org.semanticweb.HermiT.tableau.ExtensionTable;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.Tableau;
@@ -39,8 +39,6 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     protected final List<AtomicConcept> m_atomicConceptsBuffer;
     protected final List<AtomicRole> m_atomicRolesBuffer;
     protected Tableau m_tableau;
-    protected ExtensionTable.Retrieval m_binaryTableSearch1Bound;
-    protected ExtensionTable.Retrieval m_ternaryTableSearch12Bound;
 
     public PairWiseDirectBlockingChecker() {
         m_atomicConceptsSetFactory= new SetFactory<>();
@@ -50,14 +48,10 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
-        m_binaryTableSearch1Bound=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
-        m_ternaryTableSearch12Bound=tableau.getExtensionManager().getTernaryExtensionTable().createRetrieval(new boolean[] { false,true,true },ExtensionTable.View.TOTAL);
     }
     public void clear() {
         m_atomicConceptsSetFactory.clearNonpermanent();
         m_atomicRolesSetFactory.clearNonpermanent();
-        m_binaryTableSearch1Bound.clear();
-        m_ternaryTableSearch12Bound.clear();
     }
     public boolean isBlockedBy(Node blocker,Node blocked) {
         PairWiseBlockingObject blockerObject=(PairWiseBlockingObject)blocker.getBlockingObject();
@@ -164,32 +158,38 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new PairWiseBlockingSignature(this,node);
     }
-    protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
+    public BlockingSignature getBlockingSignatureFor(DLPredicate[][] labels) {
+        if (labels.length!=4)
+            return null;
+        Set<AtomicConcept> atomicConceptLabel=getAtomicConceptsSet(labels[0]);
+        Set<AtomicConcept> parentAtomicConceptLabel=getAtomicConceptsSet(labels[1]);
+        Set<AtomicRole> fromParentLabel=getAtomicRolesSet(labels[2]);
+        Set<AtomicRole> toParentLabel=getAtomicRolesSet(labels[3]);
+        if (atomicConceptLabel==null || parentAtomicConceptLabel==null || fromParentLabel==null || toParentLabel==null)
+            return null;
+        return new PairWiseBlockingSignature(this,atomicConceptLabel,parentAtomicConceptLabel,fromParentLabel,toParentLabel);
+    }
+    protected Set<AtomicConcept> getAtomicConceptsSet(DLPredicate[] label) {
         m_atomicConceptsBuffer.clear();
-        m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
-        m_binaryTableSearch1Bound.open();
-        Object[] tupleBuffer=m_binaryTableSearch1Bound.getTupleBuffer();
-        while (!m_binaryTableSearch1Bound.afterLast()) {
-            Object concept=tupleBuffer[0];
-            if (concept instanceof AtomicConcept)
-                m_atomicConceptsBuffer.add((AtomicConcept)concept);
-            m_binaryTableSearch1Bound.next();
+        for (DLPredicate dlPredicate : label) {
+            if (!(dlPredicate instanceof AtomicConcept)) {
+                m_atomicConceptsBuffer.clear();
+                return null;
+            }
+            m_atomicConceptsBuffer.add((AtomicConcept)dlPredicate);
         }
         Set<AtomicConcept> result=m_atomicConceptsSetFactory.getSet(m_atomicConceptsBuffer);
         m_atomicConceptsBuffer.clear();
         return result;
     }
-    public Set<AtomicRole> fetchEdgeLabel(Node nodeFrom,Node nodeTo) {
+    protected Set<AtomicRole> getAtomicRolesSet(DLPredicate[] label) {
         m_atomicRolesBuffer.clear();
-        m_ternaryTableSearch12Bound.getBindingsBuffer()[1]=nodeFrom;
-        m_ternaryTableSearch12Bound.getBindingsBuffer()[2]=nodeTo;
-        m_ternaryTableSearch12Bound.open();
-        Object[] tupleBuffer=m_ternaryTableSearch12Bound.getTupleBuffer();
-        while (!m_ternaryTableSearch12Bound.afterLast()) {
-            Object atomicRole=tupleBuffer[0];
-            if (atomicRole instanceof AtomicRole)
-                m_atomicRolesBuffer.add((AtomicRole)atomicRole);
-            m_ternaryTableSearch12Bound.next();
+        for (DLPredicate dlPredicate : label) {
+            if (!(dlPredicate instanceof AtomicRole)) {
+                m_atomicRolesBuffer.clear();
+                return null;
+            }
+            m_atomicRolesBuffer.add((AtomicRole)dlPredicate);
         }
         Set<AtomicRole> result=m_atomicRolesSetFactory.getSet(m_atomicRolesBuffer);
         m_atomicRolesBuffer.clear();
@@ -207,6 +207,11 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
 
         protected final Node m_node;
         protected boolean m_hasChanged;
+        // The indexes of the elements of the labels; these are updated with each assertion, so that the labels can be
+        // obtained from the set factories without reading the extension tables.
+        protected final CompressedBitSet m_atomicConceptsIndexes;
+        protected final CompressedBitSet m_fromParentIndexes;
+        protected final CompressedBitSet m_toParentIndexes;
         protected Set<AtomicConcept> m_atomicConceptsLabel;
         protected int m_atomicConceptsLabelHashCode;
         protected Set<AtomicRole> m_fromParentLabel;
@@ -216,8 +221,14 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
 
         public PairWiseBlockingObject(Node node) {
             m_node=node;
+            m_atomicConceptsIndexes=new CompressedBitSet();
+            m_fromParentIndexes=new CompressedBitSet();
+            m_toParentIndexes=new CompressedBitSet();
         }
         public void initialize() {
+            m_atomicConceptsIndexes.clear();
+            m_fromParentIndexes.clear();
+            m_toParentIndexes.clear();
             m_atomicConceptsLabel=null;
             m_atomicConceptsLabelHashCode=0;
             m_fromParentLabel=null;
@@ -242,7 +253,7 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
         }
         public Set<AtomicConcept> getAtomicConceptsLabel() {
             if (m_atomicConceptsLabel==null) {
-                m_atomicConceptsLabel=PairWiseDirectBlockingChecker.this.fetchAtomicConceptsLabel(m_node);
+                m_atomicConceptsLabel=m_atomicConceptsSetFactory.getSet(m_atomicConceptsIndexes,m_atomicConceptsLabelHashCode);
                 m_atomicConceptsSetFactory.addReference(m_atomicConceptsLabel);
             }
             return m_atomicConceptsLabel;
@@ -252,7 +263,8 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicConceptsSetFactory.removeReference(m_atomicConceptsLabel);
                 m_atomicConceptsLabel=null;
             }
-            m_atomicConceptsLabelHashCode+=atomicConcept.hashCode();
+            if (m_atomicConceptsIndexes.add(m_atomicConceptsSetFactory.getElementIndex(atomicConcept)))
+                m_atomicConceptsLabelHashCode+=atomicConcept.hashCode();
             m_hasChanged=true;
         }
         public void removeAtomicConcept(AtomicConcept atomicConcept) {
@@ -260,12 +272,13 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicConceptsSetFactory.removeReference(m_atomicConceptsLabel);
                 m_atomicConceptsLabel=null;
             }
-            m_atomicConceptsLabelHashCode-=atomicConcept.hashCode();
+            if (m_atomicConceptsIndexes.remove(m_atomicConceptsSetFactory.getElementIndex(atomicConcept)))
+                m_atomicConceptsLabelHashCode-=atomicConcept.hashCode();
             m_hasChanged=true;
         }
         public Set<AtomicRole> getFromParentLabel() {
             if (m_fromParentLabel==null) {
-                m_fromParentLabel=fetchEdgeLabel(m_node.getParent(),m_node);
+                m_fromParentLabel=m_atomicRolesSetFactory.getSet(m_fromParentIndexes,m_fromParentLabelHashCode);
                 m_atomicRolesSetFactory.addReference(m_fromParentLabel);
             }
             return m_fromParentLabel;
@@ -275,7 +288,8 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicRolesSetFactory.removeReference(m_fromParentLabel);
                 m_fromParentLabel=null;
             }
-            m_fromParentLabelHashCode+=atomicRole.hashCode();
+            if (m_fromParentIndexes.add(m_atomicRolesSetFactory.getElementIndex(atomicRole)))
+                m_fromParentLabelHashCode+=atomicRole.hashCode();
             m_hasChanged=true;
         }
         protected void removeFromFromParentLabel(AtomicRole atomicRole) {
@@ -283,12 +297,13 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicRolesSetFactory.removeReference(m_fromParentLabel);
                 m_fromParentLabel=null;
             }
-            m_fromParentLabelHashCode-=atomicRole.hashCode();
+            if (m_fromParentIndexes.remove(m_atomicRolesSetFactory.getElementIndex(atomicRole)))
+                m_fromParentLabelHashCode-=atomicRole.hashCode();
             m_hasChanged=true;
         }
         public Set<AtomicRole> getToParentLabel() {
             if (m_toParentLabel==null) {
-                m_toParentLabel=fetchEdgeLabel(m_node,m_node.getParent());
+                m_toParentLabel=m_atomicRolesSetFactory.getSet(m_toParentIndexes,m_toParentLabelHashCode);
                 m_atomicRolesSetFactory.addReference(m_toParentLabel);
             }
             return m_toParentLabel;
@@ -298,7 +313,8 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicRolesSetFactory.removeReference(m_toParentLabel);
                 m_toParentLabel=null;
             }
-            m_toParentLabelHashCode+=atomicRole.hashCode();
+            if (m_toParentIndexes.add(m_atomicRolesSetFactory.getElementIndex(atomicRole)))
+                m_toParentLabelHashCode+=atomicRole.hashCode();
             m_hasChanged=true;
         }
         protected void removeFromToParentLabel(AtomicRole atomicRole) {
@@ -306,7 +322,8 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
                 m_atomicRolesSetFactory.removeReference(m_toParentLabel);
                 m_toParentLabel=null;
             }
-            m_toParentLabelHashCode-=atomicRole.hashCode();
+            if (m_toParentIndexes.remove(m_atomicRolesSetFactory.getElementIndex(atomicRole)))
+                m_toParentLabelHashCode-=atomicRole.hashCode();
             m_hasChanged=true;
         }
     }
@@ -322,11 +339,13 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
         protected final int m_hashCode;
 
         public PairWiseBlockingSignature(PairWiseDirectBlockingChecker checker,Node node) {
-            PairWiseBlockingObject nodeBlockingObject=(PairWiseBlockingObject)node.getBlockingObject();
-            m_atomicConceptLabel=nodeBlockingObject.getAtomicConceptsLabel();
-            m_parentAtomicConceptLabel=((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel();
-            m_fromParentLabel=nodeBlockingObject.getFromParentLabel();
-            m_toParentLabel=nodeBlockingObject.getToParentLabel();
+            this(checker,((PairWiseBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel(),((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel(),((PairWiseBlockingObject)node.getBlockingObject()).getFromParentLabel(),((PairWiseBlockingObject)node.getBlockingObject()).getToParentLabel());
+        }
+        public PairWiseBlockingSignature(PairWiseDirectBlockingChecker checker,Set<AtomicConcept> atomicConceptLabel,Set<AtomicConcept> parentAtomicConceptLabel,Set<AtomicRole> fromParentLabel,Set<AtomicRole> toParentLabel) {
+            m_atomicConceptLabel=atomicConceptLabel;
+            m_parentAtomicConceptLabel=parentAtomicConceptLabel;
+            m_fromParentLabel=fromParentLabel;
+            m_toParentLabel=toParentLabel;
             m_hashCode=
                 m_atomicConceptLabel.hashCode()+
                 m_parentAtomicConceptLabel.hashCode()+
@@ -337,6 +356,14 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
             checker.m_atomicRolesSetFactory.makePermanent(m_fromParentLabel);
             checker.m_atomicRolesSetFactory.makePermanent(m_toParentLabel);
         }
+        public DLPredicate[][] getLabels() {
+            return new DLPredicate[][] {
+                m_atomicConceptLabel.toArray(new DLPredicate[m_atomicConceptLabel.size()]),
+                m_parentAtomicConceptLabel.toArray(new DLPredicate[m_parentAtomicConceptLabel.size()]),
+                m_fromParentLabel.toArray(new DLPredicate[m_fromParentLabel.size()]),
+                m_toParentLabel.toArray(new DLPredicate[m_toParentLabel.size()])
+            };
+        }
         public boolean blocksNode(Node node) {
             PairWiseBlockingObject nodeBlockingObject=(PairWiseBlockingObject)node.getBlockingObject();
             return
@@ -18,26 +18,38 @@
 package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
  * This class is used to create sets of various types. It ensures that each distinct set exists only once,
  * thus allowing sets to be compared with ==. Instances of this class are used to create various labels in blocking.
+ * Each element is assigned a dense index when the factory first sees it, and sets are identified by the CompressedBitSet
+ * of the indexes of their elements and by the sum of the hash codes of their elements. Both can be maintained
+ * incrementally as a label changes, so a label can be obtained without collecting its elements into a list first.
  */
 @SuppressWarnings({ "unchecked", "rawtypes"})
 public class SetFactory<E> implements Serializable {
     private static final long serialVersionUID=7071071962187693657L;
 
+    protected final Map<E,Integer> m_elementIndexes;
+    protected final List<E> m_elementsByIndex;
+    protected final CompressedBitSet m_elementIndexesBuffer;
     protected Entry[] m_unusedEntries;
     protected Entry[] m_entries;
     protected int m_size;
     protected int m_resizeThreshold;
 
     public SetFactory() {
+        m_elementIndexes=new HashMap<>();
+        m_elementsByIndex=new ArrayList<>();
+        m_elementIndexesBuffer=new CompressedBitSet();
         m_unusedEntries=new Entry[32];
         m_entries=new Entry[16];
         m_size=0;
@@ -61,14 +73,14 @@ public class SetFactory<E> implements Serializable {
         for (int i=m_unusedEntries.length-1;i>=0;--i) {
             Entry entry=m_unusedEntries[i];
             while (entry!=null) {
-                size+=entry.m_table.length*4+6*4;
+                size+=entry.m_table.length*4+6*4+entry.m_elementIndexes.sizeInMemory();
                 entry=entry.m_nextEntry;
             }
         }
         for (int i=m_entries.length-1;i>=0;--i) {
             Entry entry=m_entries[i];
             while (entry!=null) {
-                size+=entry.m_table.length*4+6*4;
+                size+=entry.m_table.length*4+6*4+entry.m_elementIndexes.sizeInMemory();
                 entry=entry.m_nextEntry;
             }
         }
@@ -88,19 +100,47 @@ public class SetFactory<E> implements Serializable {
     public void makePermanent(Set<E> set) {
         ((Entry)set).m_permanent=true;
     }
+    /**
+     * @return the index of the element, which is assigned when the element is first seen and never changes
+     */
+    public int getElementIndex(E element) {
+        Integer index=m_elementIndexes.get(element);
+        if (index==null) {
+            index=Integer.valueOf(m_elementsByIndex.size());
+            m_elementIndexes.put(element,index);
+            m_elementsByIndex.add(element);
+        }
+        return index.intValue();
+    }
+    public E getElement(int elementIndex) {
+        return m_elementsByIndex.get(elementIndex);
+    }
     public Set<E> getSet(List<E> elements) {
+        m_elementIndexesBuffer.clear();
         int hashCode=0;
-        for (int index=elements.size()-1;index>=0;--index)
-            hashCode+=elements.get(index).hashCode();
+        for (int index=elements.size()-1;index>=0;--index) {
+            E element=elements.get(index);
+            if (m_elementIndexesBuffer.add(getElementIndex(element)))
+                hashCode+=element.hashCode();
+        }
+        Set<E> result=getSet(m_elementIndexesBuffer,hashCode);
+        m_elementIndexesBuffer.clear();
+        return result;
+    }
+    /**
+     * Returns the set of the elements with the given indexes (as returned by getElementIndex()). The hash code must be the
+     * sum of the hash codes of these elements.
+     */
+    public Set<E> getSet(CompressedBitSet elementIndexes,int hashCode) {
         int index=getIndexFor(hashCode,m_entries.length);
         Entry<E> entry=m_entries[index];
         while (entry!=null) {
-            if (hashCode==entry.m_hashCode && entry.equalsTo(elements))
+            if (hashCode==entry.m_hashCode && entry.m_elementIndexes.contentEquals(elementIndexes))
                 return entry;
             entry=entry.m_nextEntry;
         }
-        entry=getEntry(elements.size());
-        entry.initialize(elements,hashCode);
+        entry=getEntry(elementIndexes.cardinality());
+        entry.initialize(elementIndexes,hashCode,m_elementsByIndex);
         entry.m_previousEntry=null;
         entry.m_nextEntry=m_entries[index];
         if (entry.m_nextEntry!=null)
@@ -171,6 +211,7 @@ public class SetFactory<E> implements Serializable {
         private static final long serialVersionUID=-3850593656120645350L;
 
         protected T[] m_table;
+        protected final CompressedBitSet m_elementIndexes;
         protected int m_hashCode;
         protected Entry<T> m_previousEntry;
         protected Entry<T> m_nextEntry;
@@ -180,9 +221,13 @@ public class SetFactory<E> implements Serializable {
         public Entry(int size) {
             m_hashCode=0;
             m_table=(T[])new Object[size];
+            m_elementIndexes=new CompressedBitSet();
         }
-        public void initialize(List<T> elements,int hashCode) {
-            elements.toArray(m_table);
+        public void initialize(CompressedBitSet elementIndexes,int hashCode,List<T> elementsByIndex) {
+            m_elementIndexes.copyFrom(elementIndexes);
+            int position=0;
+            for (int elementIndex=elementIndexes.nextSetBit(0);elementIndex>=0;elementIndex=elementIndexes.nextSetBit(elementIndex+1))
+                m_table[position++]=elementsByIndex.get(elementIndex);
             m_hashCode=hashCode;
         }
         public void clear() {
@@ -191,14 +236,6 @@ public class SetFactory<E> implements Serializable {
         public boolean add(T object) {
             throw new UnsupportedOperationException();
         }
-        public boolean equalsTo(List<T> elements) {
-            if (m_table.length!=elements.size())
-                return false;
-            for (int index=m_table.length-1;index>=0;--index)
-                if (!elements.contains(m_table[index]))
-                    return false;
-            return true;
-        }
         public boolean addAll(Collection<? extends T> c) {
             throw new UnsupportedOperationException();
         }
@@ -25,8 +25,8 @@ import java.util.Set;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
-import org.semanticweb.HermiT.tableau.ExtensionTable;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.Tableau;
@@ -37,7 +37,6 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory;
     protected final List<AtomicConcept> m_atomicConceptsBuffer;
     protected Tableau m_tableau;
-    protected ExtensionTable.Retrieval m_binaryTableSearch1Bound;
 
     public SingleDirectBlockingChecker() {
         m_atomicConceptsSetFactory= new SetFactory<>();
@@ -45,11 +44,9 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
-        m_binaryTableSearch1Bound=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
     }
     public void clear() {
         m_atomicConceptsSetFactory.clearNonpermanent();
-        m_binaryTableSearch1Bound.clear();
     }
     public boolean isBlockedBy(Node blocker,Node blocked) {
         return
@@ -118,16 +115,22 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new SingleBlockingSignature(this,node);
     }
-    protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
+    public BlockingSignature getBlockingSignatureFor(DLPredicate[][] labels) {
+        if (labels.length!=1)
+            return null;
+        Set<AtomicConcept> atomicConceptsLabel=getAtomicConceptsSet(labels[0]);
+        if (atomicConceptsLabel==null)
+            return null;
+        return new SingleBlockingSignature(this,atomicConceptsLabel);
+    }
+    protected Set<AtomicConcept> getAtomicConceptsSet(DLPredicate[] label) {
         m_atomicConceptsBuffer.clear();
-        m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
-        m_binaryTableSearch1Bound.open();
-        Object[] tupleBuffer=m_binaryTableSearch1Bound.getTupleBuffer();
-        while (!m_binaryTableSearch1Bound.afterLast()) {
-            Object concept=tupleBuffer[0];
-            if (concept instanceof AtomicConcept)
-                m_atomicConceptsBuffer.add((AtomicConcept)concept);
-            m_binaryTableSearch1Bound.next();
+        for (DLPredicate dlPredicate : label) {
+            if (!(dlPredicate instanceof AtomicConcept)) {
+                m_atomicConceptsBuffer.clear();
+                return null;
+            }
+            m_atomicConceptsBuffer.add((AtomicConcept)dlPredicate);
         }
         Set<AtomicConcept> result=m_atomicConceptsSetFactory.getSet(m_atomicConceptsBuffer);
         m_atomicConceptsBuffer.clear();
@@ -140,18 +143,23 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
         // do nothing
     }
 
-    protected final class SingleBlockingObject implements Serializable {
+    protected class SingleBlockingObject implements Serializable {
         private static final long serialVersionUID=-5439737072100509531L;
 
         protected final Node m_node;
         protected boolean m_hasChanged;
+        // The indexes of the atomic concepts of the node; these are updated with each assertion, so that the label can be
+        // obtained from the set factory without reading the extension table.
+        protected final CompressedBitSet m_atomicConceptsIndexes;
         protected Set<AtomicConcept> m_atomicConceptsLabel;
         protected int m_atomicConceptsLabelHashCode;
 
         public SingleBlockingObject(Node node) {
             m_node=node;
+            m_atomicConceptsIndexes=new CompressedBitSet();
         }
         public void initialize() {
+            m_atomicConceptsIndexes.clear();
             m_atomicConceptsLabel=null;
             m_atomicConceptsLabelHashCode=0;
             m_hasChanged=true;
@@ -164,7 +172,7 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
         }
         public Set<AtomicConcept> getAtomicConceptsLabel() {
             if (m_atomicConceptsLabel==null) {
-                m_atomicConceptsLabel=SingleDirectBlockingChecker.this.fetchAtomicConceptsLabel(m_node);
+                m_atomicConceptsLabel=m_atomicConceptsSetFactory.getSet(m_atomicConceptsIndexes,m_atomicConceptsLabelHashCode);
                 m_atomicConceptsSetFactory.addReference(m_atomicConceptsLabel);
             }
             return m_atomicConceptsLabel;
@@ -175,7 +183,8 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
                 m_atomicConceptsSetFactory.removeReference(m_atomicConceptsLabel);
                 m_atomicConceptsLabel=null;
             }
-            m_atomicConceptsLabelHashCode+=atomicConcept.hashCode();
+            if (m_atomicConceptsIndexes.add(m_atomicConceptsSetFactory.getElementIndex(atomicConcept)))
+                m_atomicConceptsLabelHashCode+=atomicConcept.hashCode();
             m_hasChanged=true;
         }
         public void removeAtomicConcept(AtomicConcept atomicConcept) {
@@ -184,7 +193,8 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
                 m_atomicConceptsSetFactory.removeReference(m_atomicConceptsLabel);
                 m_atomicConceptsLabel=null;
             }
-            m_atomicConceptsLabelHashCode-=atomicConcept.hashCode();
+            if (m_atomicConceptsIndexes.remove(m_atomicConceptsSetFactory.getElementIndex(atomicConcept)))
+                m_atomicConceptsLabelHashCode-=atomicConcept.hashCode();
             m_hasChanged=true;
         }
     }
@@ -195,9 +205,15 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
         protected final Set<AtomicConcept> m_atomicConceptsLabel;
 
         public SingleBlockingSignature(SingleDirectBlockingChecker checker,Node node) {
-            m_atomicConceptsLabel=((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel();
+            this(checker,((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel());
+        }
+        public SingleBlockingSignature(SingleDirectBlockingChecker checker,Set<AtomicConcept> atomicConceptsLabel) {
+            m_atomicConceptsLabel=atomicConceptsLabel;
             checker.m_atomicConceptsSetFactory.makePermanent(m_atomicConceptsLabel);
         }
+        public DLPredicate[][] getLabels() {
+            return new DLPredicate[][] { m_atomicConceptsLabel.toArray(new DLPredicate[m_atomicConceptsLabel.size()]) };
+        }
         public boolean blocksNode(Node node) {
             return ((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel()==m_atomicConceptsLabel;
         }
@@ -0,0 +1,201 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.tableau.Node;
+
+/**
+ * A blockers cache for the SubsetDirectBlockingChecker. The blockers are grouped by their (interned) core labels, and the
+ * blockers of each group are stored in a set-trie over the sorted indexes of the remaining concepts of their labels, so
+ * that a blocker whose label contains the label of a given node can be found without scanning the whole group. The cache
+ * entry of a blocker is the trie node that the blocker is stored in.
+ */
+class SubsetBlockersCache extends BlockersCache {
+    private static final long serialVersionUID=4622390738271653014L;
+
+    protected final SubsetDirectBlockingChecker m_subsetDirectBlockingChecker;
+    protected Map<Set<AtomicConcept>,TrieNode> m_tries;
+
+    public SubsetBlockersCache(SubsetDirectBlockingChecker subsetDirectBlockingChecker) {
+        super(subsetDirectBlockingChecker);
+        m_subsetDirectBlockingChecker=subsetDirectBlockingChecker;
+    }
+    public void clear() {
+        // Called from the constructor of BlockersCache, so the fields cannot be initialized in the declarations.
+        m_tries=new IdentityHashMap<>();
+        m_numberOfElements=0;
+    }
+    public void removeNode(Node node) {
+        TrieNode trieNode=(TrieNode)node.getBlockingCargo();
+        if (trieNode!=null) {
+            if (!trieNode.removeNode(node))
+                throw new IllegalStateException("Internal error: node not in cache!");
+            node.setBlockingCargo(null);
+            m_numberOfElements--;
+            // Empty trie nodes are removed, so every leaf of a trie stores at least one blocker.
+            while (trieNode.isEmpty()) {
+                TrieNode parent=trieNode.m_parent;
+                if (parent==null) {
+                    m_tries.remove(trieNode.m_coreLabel);
+                    m_subsetDirectBlockingChecker.m_atomicConceptsSetFactory.removeReference(trieNode.m_coreLabel);
+                    break;
+                }
+                parent.removeChild(trieNode);
+                trieNode=parent;
+            }
+        }
+    }
+    public void addNode(Node node) {
+        Set<AtomicConcept> coreLabel=m_subsetDirectBlockingChecker.getCoreLabel(node);
+        TrieNode trieNode=m_tries.get(coreLabel);
+        if (trieNode==null) {
+            // The trie keeps the core label alive so that nodes with the same core get the same interned set.
+            m_subsetDirectBlockingChecker.m_atomicConceptsSetFactory.addReference(coreLabel);
+            trieNode=new TrieNode(null,-1,coreLabel);
+            m_tries.put(coreLabel,trieNode);
+        }
+        for (int index : m_subsetDirectBlockingChecker.getNonCoreIndexes(node))
+            trieNode=trieNode.getChild(index);
+        trieNode.addNode(node);
+        node.setBlockingCargo(trieNode);
+        m_numberOfElements++;
+    }
+    public Node getBlocker(Node node) {
+        if (m_directBlockingChecker.canBeBlocked(node)) {
+            TrieNode trieNode=m_tries.get(m_subsetDirectBlockingChecker.getCoreLabel(node));
+            if (trieNode!=null)
+                return getBlocker(trieNode,m_subsetDirectBlockingChecker.getNonCoreIndexes(node),0,node);
+        }
+        return null;
+    }
+    /**
+     * Searches the subtrie of trieNode for a blocker whose label contains the indexes starting at position indexesStart.
+     */
+    protected Node getBlocker(TrieNode trieNode,int[] indexes,int indexesStart,Node node) {
+        if (indexesStart==indexes.length)
+            return getAnyBlocker(trieNode,node);
+        int index=indexes[indexesStart];
+        // The children are sorted, and a child with a larger index cannot lead to the index any more.
+        for (int childIndex=0;childIndex<trieNode.m_numberOfChildren;childIndex++) {
+            TrieNode child=trieNode.m_children[childIndex];
+            if (child.m_index>index)
+                break;
+            Node blocker=getBlocker(child,indexes,child.m_index==index ? indexesStart+1 : indexesStart,node);
+            if (blocker!=null)
+                return blocker;
+        }
+        return null;
+    }
+    protected Node getAnyBlocker(TrieNode trieNode,Node node) {
+        if (trieNode.m_nodes!=null)
+            for (Node blocker : trieNode.m_nodes)
+                if (m_directBlockingChecker.isBlockedBy(blocker,node))
+                    return blocker;
+        for (int childIndex=0;childIndex<trieNode.m_numberOfChildren;childIndex++) {
+            Node blocker=getAnyBlocker(trieNode.m_children[childIndex],node);
+            if (blocker!=null)
+                return blocker;
+        }
+        return null;
+    }
+
+    protected static class TrieNode implements Serializable {
+        private static final long serialVersionUID=-3524096163815187216L;
+
+        protected final TrieNode m_parent;
+        protected final int m_index;
+        // Set only in the root of a trie.
+        protected final Set<AtomicConcept> m_coreLabel;
+        protected TrieNode[] m_children;
+        protected int m_numberOfChildren;
+        protected List<Node> m_nodes;
+
+        public TrieNode(TrieNode parent,int index,Set<AtomicConcept> coreLabel) {
+            m_parent=parent;
+            m_index=index;
+            m_coreLabel=coreLabel;
+        }
+        public boolean isEmpty() {
+            return m_numberOfChildren==0 && (m_nodes==null || m_nodes.isEmpty());
+        }
+        public void addNode(Node node) {
+            if (m_nodes==null)
+                m_nodes=new ArrayList<>(2);
+            m_nodes.add(node);
+        }
+        public boolean removeNode(Node node) {
+            if (m_nodes!=null)
+                for (int nodeIndex=m_nodes.size()-1;nodeIndex>=0;nodeIndex--)
+                    if (m_nodes.get(nodeIndex)==node) {
+                        m_nodes.remove(nodeIndex);
+                        return true;
+                    }
+            return false;
+        }
+        /**
+         * Returns the child for the given index and creates it if necessary.
+         */
+        public TrieNode getChild(int index) {
+            int position=getChildPosition(index);
+            if (position<m_numberOfChildren && m_children[position].m_index==index)
+                return m_children[position];
+            if (m_children==null)
+                m_children=new TrieNode[2];
+            else if (m_numberOfChildren==m_children.length) {
+                TrieNode[] newChildren=new TrieNode[m_children.length*2];
+                System.arraycopy(m_children,0,newChildren,0,m_numberOfChildren);
+                m_children=newChildren;
+            }
+            System.arraycopy(m_children,position,m_children,position+1,m_numberOfChildren-position);
+            TrieNode child=new TrieNode(this,index,null);
+            m_children[position]=child;
+            m_numberOfChildren++;
+            return child;
+        }
+        public void removeChild(TrieNode child) {
+            int position=getChildPosition(child.m_index);
+            assert m_children[position]==child;
+            m_numberOfChildren--;
+            System.arraycopy(m_children,position+1,m_children,position,m_numberOfChildren-position);
+            m_children[m_numberOfChildren]=null;
+        }
+        /**
+         * Returns the position of the first child whose index is not smaller than the given index.
+         */
+        protected int getChildPosition(int index) {
+            int low=0;
+            int high=m_numberOfChildren;
+            while (low<high) {
+                int middle=(low+high) >>> 1;
+                if (m_children[middle].m_index<index)
+                    low=middle+1;
+                else
+                    high=middle;
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.NodeType;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Subset blocking: a tree node is blocked by a tree node whose label contains the label of the blocked node. Since HermiT
+ * does not represent negated atomic concepts in the labels, this is sound only if the two labels agree on the atomic
+ * concepts that occur in DL-clause bodies at a variable other than X: such a concept in the label of the blocker could
+ * otherwise match a DL-clause for the predecessor of the blocked node, such as  :- A(X), r(X,Y), B(Y). These concepts
+ * form the core of a label, and a node is blocked if its core is the core of the blocker and the remaining concepts of its
+ * label are a subset of the remaining concepts of the blocker. Furthermore, subset blocking is sound only without inverse
+ * roles, at-most restrictions, nominals, and description graphs; if the DL-clauses of the tableau contain any of these,
+ * then the core of a label is the label itself, so the checker behaves like a SingleDirectBlockingChecker.
+ */
+public class SubsetDirectBlockingChecker extends SingleDirectBlockingChecker {
+    private static final long serialVersionUID=-2203916379436525813L;
+
+    protected static final int[] NO_INDEXES=new int[0];
+
+    protected int[] m_indexesBuffer;
+    protected Set<AtomicConcept> m_coreAtomicConcepts;
+    protected boolean m_usesSubsetBlocking;
+    protected DLOntology m_coreAtomicConceptsAdditionalDLOntology;
+    protected int m_coreAtomicConceptsVersion;
+
+    public SubsetDirectBlockingChecker() {
+        m_indexesBuffer=new int[16];
+        m_coreAtomicConcepts=new HashSet<>();
+    }
+    public void initialize(Tableau tableau) {
+        super.initialize(tableau);
+        updateCoreAtomicConcepts();
+    }
+    public void clear() {
+        super.clear();
+        if (m_tableau.getAdditionalDLOntology()!=m_coreAtomicConceptsAdditionalDLOntology)
+            updateCoreAtomicConcepts();
+    }
+    protected void updateCoreAtomicConcepts() {
+        DLOntology permanentDLOntology=m_tableau.getPermanentDLOntology();
+        DLOntology additionalDLOntology=m_tableau.getAdditionalDLOntology();
+        m_coreAtomicConceptsAdditionalDLOntology=additionalDLOntology;
+        m_coreAtomicConcepts.clear();
+        m_usesSubsetBlocking=supportsSubsetBlocking(permanentDLOntology) && (additionalDLOntology==null || supportsSubsetBlocking(additionalDLOntology));
+        if (m_usesSubsetBlocking) {
+            addCoreAtomicConcepts(permanentDLOntology);
+            if (additionalDLOntology!=null)
+                addCoreAtomicConcepts(additionalDLOntology);
+        }
+        // Invalidates the cores stored with the nodes.
+        m_coreAtomicConceptsVersion++;
+    }
+    public static boolean supportsSubsetBlocking(DLOntology dlOntology) {
+        return !dlOntology.hasInverseRoles() && !dlOntology.hasAtMostRestrictions() && !dlOntology.hasNominals() && dlOntology.getAllDescriptionGraphs().isEmpty();
+    }
+    protected void addCoreAtomicConcepts(DLOntology dlOntology) {
+        Variable X=Variable.create("X");
+        for (DLClause dlClause : dlOntology.getDLClauses())
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                Atom bodyAtom=dlClause.getBodyAtom(bodyIndex);
+                if (bodyAtom.getDLPredicate() instanceof AtomicConcept && !X.equals(bodyAtom.getArgument(0)))
+                    m_coreAtomicConcepts.add((AtomicConcept)bodyAtom.getDLPredicate());
+            }
+    }
+    public boolean usesSubsetBlocking() {
+        return m_usesSubsetBlocking;
+    }
+    public boolean isBlockedBy(Node blocker,Node blocked) {
+        if (blocker.isBlocked() || blocker.getNodeType()!=NodeType.TREE_NODE || blocked.getNodeType()!=NodeType.TREE_NODE)
+            return false;
+        SubsetBlockingObject blockerObject=(SubsetBlockingObject)blocker.getBlockingObject();
+        SubsetBlockingObject blockedObject=(SubsetBlockingObject)blocked.getBlockingObject();
+        if (blockerObject.getAtomicConceptsLabel()==blockedObject.getAtomicConceptsLabel())
+            return true;
+        return blockerObject.getCoreLabel()==blockedObject.getCoreLabel() && isSubset(blockedObject.getNonCoreIndexes(),blockerObject.getNonCoreIndexes());
+    }
+    protected static boolean isSubset(int[] subset,int[] superset) {
+        if (subset.length>superset.length)
+            return false;
+        int supersetIndex=0;
+        for (int element : subset) {
+            while (supersetIndex<superset.length && superset[supersetIndex]<element)
+                supersetIndex++;
+            if (supersetIndex==superset.length || superset[supersetIndex]!=element)
+                return false;
+            supersetIndex++;
+        }
+        return true;
+    }
+    /**
+     * @return the atomic concepts of the label of the node that a blocker must have as well, as an interned set
+     */
+    public Set<AtomicConcept> getCoreLabel(Node node) {
+        return ((SubsetBlockingObject)node.getBlockingObject()).getCoreLabel();
+    }
+    /**
+     * @return the indexes of the remaining atomic concepts of the label of the node in increasing order; the array must not be modified
+     */
+    public int[] getNonCoreIndexes(Node node) {
+        return ((SubsetBlockingObject)node.getBlockingObject()).getNonCoreIndexes();
+    }
+    public void nodeInitialized(Node node) {
+        if (node.getBlockingObject()==null)
+            node.setBlockingObject(new SubsetBlockingObject(node));
+        ((SubsetBlockingObject)node.getBlockingObject()).initialize();
+    }
+
+    protected class SubsetBlockingObject extends SingleBlockingObject {
+        private static final long serialVersionUID=3390406366394046155L;
+
+        protected Set<AtomicConcept> m_coreLabel;
+        protected int[] m_nonCoreIndexes;
+        protected int m_coreAtomicConceptsVersion;
+
+        public SubsetBlockingObject(Node node) {
+            super(node);
+        }
+        public void initialize() {
+            super.initialize();
+            // The sets of the previous node have been removed by clearNonpermanent() or destroy().
+            m_coreLabel=null;
+            m_nonCoreIndexes=null;
+        }
+        public void destroy() {
+            invalidateCore();
+            super.destroy();
+        }
+        public void addAtomicConcept(AtomicConcept atomicConcept) {
+            invalidateCore();
+            super.addAtomicConcept(atomicConcept);
+        }
+        public void removeAtomicConcept(AtomicConcept atomicConcept) {
+            invalidateCore();
+            super.removeAtomicConcept(atomicConcept);
+        }
+        protected void invalidateCore() {
+            if (m_coreLabel!=null) {
+                m_atomicConceptsSetFactory.removeReference(m_coreLabel);
+                m_coreLabel=null;
+                m_nonCoreIndexes=null;
+            }
+        }
+        public Set<AtomicConcept> getCoreLabel() {
+            if (m_coreLabel==null || m_coreAtomicConceptsVersion!=SubsetDirectBlockingChecker.this.m_coreAtomicConceptsVersion)
+                computeCore();
+            return m_coreLabel;
+        }
+        public int[] getNonCoreIndexes() {
+            if (m_coreLabel==null || m_coreAtomicConceptsVersion!=SubsetDirectBlockingChecker.this.m_coreAtomicConceptsVersion)
+                computeCore();
+            return m_nonCoreIndexes;
+        }
+        protected void computeCore() {
+            invalidateCore();
+            Set<AtomicConcept> label=getAtomicConceptsLabel();
+            if (!m_usesSubsetBlocking) {
+                m_coreLabel=label;
+                m_nonCoreIndexes=NO_INDEXES;
+            }
+            else {
+                m_atomicConceptsBuffer.clear();
+                if (m_indexesBuffer.length<label.size())
+                    m_indexesBuffer=new int[label.size()];
+                int numberOfNonCoreIndexes=0;
+                // The indexes of the label are visited in increasing order, so the non-core indexes need not be sorted.
+                for (int index=m_atomicConceptsIndexes.nextSetBit(0);index>=0;index=m_atomicConceptsIndexes.nextSetBit(index+1)) {
+                    AtomicConcept atomicConcept=m_atomicConceptsSetFactory.getElement(index);
+                    if (m_coreAtomicConcepts.contains(atomicConcept))
+                        m_atomicConceptsBuffer.add(atomicConcept);
+                    else
+                        m_indexesBuffer[numberOfNonCoreIndexes++]=index;
+                }
+                m_coreLabel=m_atomicConceptsSetFactory.getSet(m_atomicConceptsBuffer);
+                m_atomicConceptsBuffer.clear();
+                m_nonCoreIndexes=(numberOfNonCoreIndexes==0 ? NO_INDEXES : Arrays.copyOf(m_indexesBuffer,numberOfNonCoreIndexes));
+            }
+            m_atomicConceptsSetFactory.addReference(m_coreLabel);
+            m_coreAtomicConceptsVersion=SubsetDirectBlockingChecker.this.m_coreAtomicConceptsVersion;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker.Vali
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DataRange;
 import org.semanticweb.HermiT.tableau.ExtensionTable;
 import org.semanticweb.HermiT.tableau.Node;
@@ -129,24 +130,6 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
     public Node nodesUnmerged(Node mergeFrom,Node mergeInto) {
         return null;
     }
-    protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node,boolean onlyCore) {
-        m_atomicConceptsBuffer.clear();
-        m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
-        m_binaryTableSearch1Bound.open();
-        Object[] tupleBuffer=m_binaryTableSearch1Bound.getTupleBuffer();
-        while (!m_binaryTableSearch1Bound.afterLast()) {
-            Object concept=tupleBuffer[0];
-            if (concept instanceof AtomicConcept) {
-                if (!onlyCore || m_binaryTableSearch1Bound.isCore()) {
-                    m_atomicConceptsBuffer.add((AtomicConcept)concept);
-                }
-            }
-            m_binaryTableSearch1Bound.next();
-        }
-        Set<AtomicConcept> result=m_atomicConceptsSetFactory.getSet(m_atomicConceptsBuffer);
-        m_atomicConceptsBuffer.clear();
-        return result;
-    }
     protected Set<AtomicRole> fetchAtomicRolesLabel(Node nodeFrom,Node nodeTo,boolean onlyCore) {
         m_atomicRolesBuffer.clear();
         m_ternaryTableSearch12Bound.getBindingsBuffer()[1] = nodeFrom;
@@ -167,6 +150,9 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new ValidatedBlockingSignature(this,node);
     }
+    public BlockingSignature getBlockingSignatureFor(DLPredicate[][] labels) {
+        return null;
+    }
 
     protected final class ValidatedPairwiseBlockingObject implements ValidatedBlockingObject {
         protected final Node m_node;
@@ -177,16 +163,26 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
         protected Set<AtomicRole> m_fullFromParentLabel;
         protected Set<AtomicRole> m_fullToParentLabel;
         protected int m_blockingRelevantHashCode;
+        // The indexes of the core and of all atomic concepts of the node; these are updated with each assertion, so that
+        // the labels can be obtained from the set factory without reading the extension table.
+        protected final CompressedBitSet m_blockingRelevantIndexes;
+        protected final CompressedBitSet m_fullAtomicConceptsIndexes;
+        protected int m_fullAtomicConceptsHashCode;
         public boolean m_blockViolatesParentConstraints=false;
         public boolean m_hasAlreadyBeenChecked=false;
 
         public ValidatedPairwiseBlockingObject(Node node) {
             m_node=node;
+            m_blockingRelevantIndexes=new CompressedBitSet();
+            m_fullAtomicConceptsIndexes=new CompressedBitSet();
         }
         public void initialize() {
+            m_blockingRelevantIndexes.clear();
+            m_fullAtomicConceptsIndexes.clear();
             m_blockingRelevantLabel=null;
             m_blockingRelevantHashCode=0;
             m_fullAtomicConceptsLabel=null;
+            m_fullAtomicConceptsHashCode=0;
             m_fullFromParentLabel=null;
             m_fullToParentLabel=null;
             m_hasChangedForBlocking=true;
@@ -214,7 +210,7 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
         }
         public Set<AtomicConcept> getAtomicConceptsLabel() {
             if (m_blockingRelevantLabel==null) {
-                m_blockingRelevantLabel=ValidatedPairwiseDirectBlockingChecker.this.fetchAtomicConceptsLabel(m_node,true);
+                m_blockingRelevantLabel=m_atomicConceptsSetFactory.getSet(m_blockingRelevantIndexes,m_blockingRelevantHashCode);
                 m_atomicConceptsSetFactory.addReference(m_blockingRelevantLabel);
             }
             return m_blockingRelevantLabel;
@@ -229,13 +225,18 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
                   m_atomicConceptsSetFactory.removeReference(m_fullAtomicConceptsLabel);
                   m_fullAtomicConceptsLabel=null;
               }
+              // an assertion that becomes core is reported again, in which case the index is already present
+              int index=m_atomicConceptsSetFactory.getElementIndex((AtomicConcept)concept);
+              if (m_fullAtomicConceptsIndexes.add(index))
+                  m_fullAtomicConceptsHashCode+=concept.hashCode();
               if (isCore) {
                   if (m_blockingRelevantLabel!=null) {
                       // invalidate, recompute real label later if necessary
                       m_atomicConceptsSetFactory.removeReference(m_blockingRelevantLabel);
                       m_blockingRelevantLabel=null;
                   }
-                  m_blockingRelevantHashCode+=concept.hashCode();
+                  if (m_blockingRelevantIndexes.add(index))
+                      m_blockingRelevantHashCode+=concept.hashCode();
                   m_hasChangedForBlocking=true;
               }
           }
@@ -250,20 +251,24 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
                     m_atomicConceptsSetFactory.removeReference(m_fullAtomicConceptsLabel);
                     m_fullAtomicConceptsLabel = null;
                 }
+                int index=m_atomicConceptsSetFactory.getElementIndex((AtomicConcept)concept);
+                if (m_fullAtomicConceptsIndexes.remove(index))
+                    m_fullAtomicConceptsHashCode-=concept.hashCode();
                 if (isCore) {
                     if (m_blockingRelevantLabel != null) {
                         // invalidate, recompute real label later if necessary
                         m_atomicConceptsSetFactory.removeReference(m_blockingRelevantLabel);
                         m_blockingRelevantLabel = null;
                     }
-                    m_blockingRelevantHashCode-=concept.hashCode();
+                    if (m_blockingRelevantIndexes.remove(index))
+                        m_blockingRelevantHashCode-=concept.hashCode();
                     m_hasChangedForBlocking=true;
                 }
             }
         }
         public Set<AtomicConcept> getFullAtomicConceptsLabel() {
             if (m_fullAtomicConceptsLabel==null) {
-                m_fullAtomicConceptsLabel=ValidatedPairwiseDirectBlockingChecker.this.fetchAtomicConceptsLabel(m_node,false);
+                m_fullAtomicConceptsLabel=m_atomicConceptsSetFactory.getSet(m_fullAtomicConceptsIndexes,m_fullAtomicConceptsHashCode);
                 m_atomicConceptsSetFactory.addReference(m_fullAtomicConceptsLabel);
             }
             return m_fullAtomicConceptsLabel;
@@ -343,7 +343,10 @@ public class CommandLine {
         kIgnoreUnsupportedDatatypes=1012,
         kPremise=1013,
         kConclusion=1014,
-        kNoInconsistentException=1015;
+        kNoInconsistentException=1015,
+        kTupleStorage=1016,
+        kClassificationWorkers=1017,
+        kValidationThreads=1018;
 
     protected static final String versionString;
     static {
@@ -418,12 +421,15 @@ public class CommandLine {
         new Option(kDefaultPrefix,"prefix",kPrefixes,true,"IRI","use IRI as the default identifier prefix"),
 
         // algorithm tweaks:
-        new Option(kDirectBlock,"block-match",kAlgorithm,true,"TYPE","identify blocked nodes with TYPE blocking; supported values are 'single', 'pairwise', and 'optimal' (default 'optimal')"),
+        new Option(kDirectBlock,"block-match",kAlgorithm,true,"TYPE","identify blocked nodes with TYPE blocking; supported values are 'single', 'pairwise', 'optimal', and 'subset' (default 'optimal')"),
         new Option(kBlockStrategy,"block-strategy",kAlgorithm,true,"TYPE","use TYPE as blocking strategy; supported values are 'ancestor', 'anywhere', 'core', and 'optimal' (default 'optimal')"),
         new Option(kBlockCache,"blockersCache",kAlgorithm,"cache blocking nodes for use in later tests; not possible with nominals or core blocking"),
         new Option(kIgnoreUnsupportedDatatypes,"ignoreUnsupportedDatatypes",kAlgorithm,"ignore unsupported datatypes"),
         new Option(kExpansion,"expansion-strategy",kAlgorithm,true,"TYPE","use TYPE as existential expansion strategy; supported values are 'el', 'creation', 'reuse', and 'optimal' (default 'optimal')"),
         new Option(kNoInconsistentException,"noInconsistentException",kAlgorithm,"do not throw an exception for an inconsistent ontology"),
+        new Option(kTupleStorage,"tuple-storage",kAlgorithm,true,"TYPE","store assertions in the tableau as TYPE; supported values are 'objects' and 'integers' (default 'objects')"),
+        new Option(kClassificationWorkers,"classification-workers",kAlgorithm,true,"N","classify classes using N threads with one tableau each (default 1)"),
+        new Option(kValidationThreads,"validation-threads",kAlgorithm,true,"N","validate the blocks of core blocking using N threads (default 1)"),
         
         // internals:
         new Option(kDumpClauses,"dump-clauses",kInternals,false,"FILE","output DL-clauses to FILE (default stdout)")
@@ -656,8 +662,11 @@ public class CommandLine {
                         else if (arg.toLowerCase().equals("optimal")) {
                             config.directBlockingType=Configuration.DirectBlockingType.OPTIMAL;
                         }
+                        else if (arg.toLowerCase().equals("subset")) {
+                            config.directBlockingType=Configuration.DirectBlockingType.SUBSET;
+                        }
                         else
-                            throw new UsageException("unknown direct blocking type '"+arg+"'; supported values are 'pairwise', 'single', and 'optimal'");
+                            throw new UsageException("unknown direct blocking type '"+arg+"'; supported values are 'pairwise', 'single', 'optimal', and 'subset'");
                     }
                         break;
                     case kBlockStrategy: {
@@ -697,6 +706,42 @@ public class CommandLine {
                             throw new UsageException("unknown existential strategy type '"+arg+"'; supported values are 'creation', 'el', and 'reuse'");
                     }
                         break;
+                    case kTupleStorage: {
+                        String arg=g.getOptarg();
+                        if (arg.toLowerCase().equals("objects")) {
+                            config.tupleStorageType=Configuration.TupleStorageType.OBJECT_REFERENCES;
+                        }
+                        else if (arg.toLowerCase().equals("integers")) {
+                            config.tupleStorageType=Configuration.TupleStorageType.INTEGER_ENCODED;
+                        }
+                        else
+                            throw new UsageException("unknown tuple storage type '"+arg+"'; supported values are 'objects' and 'integers'");
+                    }
+                        break;
+                    case kClassificationWorkers: {
+                        String arg=g.getOptarg();
+                        try {
+                            config.numberOfClassificationWorkers=Integer.parseInt(arg,10);
+                        }
+                        catch (NumberFormatException e) {
+                            throw new UsageException("argument to --classification-workers must be a number");
+                        }
+                        if (config.numberOfClassificationWorkers<1)
+                            throw new UsageException("argument to --classification-workers must be at least 1");
+                    }
+                        break;
+                    case kValidationThreads: {
+                        String arg=g.getOptarg();
+                        try {
+                            config.numberOfBlockingValidationThreads=Integer.parseInt(arg,10);
+                        }
+                        catch (NumberFormatException e) {
+                            throw new UsageException("argument to --validation-threads must be a number");
+                        }
+                        if (config.numberOfBlockingValidationThreads<1)
+                            throw new UsageException("argument to --validation-threads must be at least 1");
+                    }
+                        break;
                     case kIgnoreUnsupportedDatatypes: {
                         config.ignoreUnsupportedDatatypes=true;
                     }
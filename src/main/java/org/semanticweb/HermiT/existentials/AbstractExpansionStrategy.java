@@ -75,6 +75,9 @@ public abstract class AbstractExpansionStrategy implements ExistentialExpansionS
         m_auxiliaryNodes1= new ArrayList<>();
         m_auxiliaryNodes2= new ArrayList<>();
     }
+    public BlockingStrategy getBlockingStrategy() {
+        return m_blockingStrategy;
+    }
     public void initialize(Tableau tableau) {
         m_tableau=tableau;
         m_interruptFlag=m_tableau.getInterruptFlag();
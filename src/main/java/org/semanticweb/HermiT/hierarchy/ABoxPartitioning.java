@@ -0,0 +1,286 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.semanticweb.HermiT.graph.Graph;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Splits the ABox of a DL-ontology into the components of individuals that are connected by assertions. If the
+ * DL-ontology satisfies hasLocalABoxConsequences(), then the ABox is consistent if and only if each component is
+ * consistent, and the consequences about an individual depend only on the assertions of its component, so each
+ * component can be loaded into a tableau on its own.
+ */
+public class ABoxPartitioning {
+    protected final List<Component> m_components;
+    protected final Map<Individual,Component> m_componentsByIndividual;
+
+    public ABoxPartitioning(DLOntology dlOntology) {
+        m_components=new ArrayList<>();
+        m_componentsByIndividual=new HashMap<>();
+        Graph<Individual> connections=new Graph<>();
+        Set<Individual> individuals=new HashSet<>(dlOntology.getAllIndividuals());
+        addConnections(dlOntology.getPositiveFacts(),connections,individuals);
+        addConnections(dlOntology.getNegativeFacts(),connections,individuals);
+        for (Individual individual : individuals)
+            if (!m_componentsByIndividual.containsKey(individual)) {
+                Component component=new Component();
+                List<Individual> toProcess=new ArrayList<>();
+                toProcess.add(individual);
+                m_componentsByIndividual.put(individual,component);
+                while (!toProcess.isEmpty()) {
+                    Individual current=toProcess.remove(toProcess.size()-1);
+                    component.m_individuals.add(current);
+                    for (Individual connected : connections.getSuccessors(current))
+                        if (!m_componentsByIndividual.containsKey(connected)) {
+                            m_componentsByIndividual.put(connected,component);
+                            toProcess.add(connected);
+                        }
+                }
+                m_components.add(component);
+            }
+        Component componentForGroundFacts=null;
+        Set<Individual> factIndividuals=new HashSet<>();
+        for (int factsIndex=0;factsIndex<2;factsIndex++) {
+            for (Atom fact : factsIndex==0 ? dlOntology.getPositiveFacts() : dlOntology.getNegativeFacts()) {
+                factIndividuals.clear();
+                fact.getIndividuals(factIndividuals);
+                Component component;
+                if (!factIndividuals.isEmpty())
+                    component=m_componentsByIndividual.get(factIndividuals.iterator().next());
+                else {
+                    if (componentForGroundFacts==null) {
+                        componentForGroundFacts=new Component();
+                        m_components.add(componentForGroundFacts);
+                    }
+                    component=componentForGroundFacts;
+                }
+                if (factsIndex==0)
+                    component.m_positiveFacts.add(fact);
+                else
+                    component.m_negativeFacts.add(fact);
+            }
+        }
+    }
+    protected static void addConnections(Set<Atom> facts,Graph<Individual> connections,Set<Individual> individuals) {
+        Set<Individual> factIndividuals=new HashSet<>();
+        for (Atom fact : facts) {
+            factIndividuals.clear();
+            fact.getIndividuals(factIndividuals);
+            individuals.addAll(factIndividuals);
+            if (factIndividuals.size()>1) {
+                Individual first=null;
+                for (Individual individual : factIndividuals) {
+                    if (first==null)
+                        first=individual;
+                    else {
+                        connections.addEdge(first,individual);
+                        connections.addEdge(individual,first);
+                    }
+                }
+            }
+        }
+    }
+    public List<Component> getComponents() {
+        return Collections.unmodifiableList(m_components);
+    }
+    /**
+     * Returns the component of the given individual, or null if the individual does not occur in the DL-ontology.
+     */
+    public Component getComponent(Individual individual) {
+        return m_componentsByIndividual.get(individual);
+    }
+    /**
+     * Returns the union of the components of the given individuals; the individuals that do not occur in the DL-ontology
+     * are contained in the result, but no assertions about them.
+     */
+    public Component getComponent(Collection<Individual> individuals) {
+        Set<Component> components=new HashSet<>();
+        Component result=new Component();
+        for (Individual individual : individuals) {
+            Component component=m_componentsByIndividual.get(individual);
+            if (component==null)
+                result.m_individuals.add(individual);
+            else
+                components.add(component);
+        }
+        if (components.size()==1 && result.m_individuals.isEmpty())
+            return components.iterator().next();
+        for (Component component : components)
+            result.add(component);
+        return result;
+    }
+    /**
+     * Groups the components into partitions that contain at most the given number of assertions, unless a single
+     * component contains more assertions, in which case that component is a partition on its own.
+     */
+    public List<Component> getPartitions(int maximalPartitionSize) {
+        List<Component> partitions=new ArrayList<>();
+        Component currentPartition=null;
+        for (Component component : m_components) {
+            if (component.size()>=maximalPartitionSize)
+                partitions.add(component);
+            else {
+                if (currentPartition!=null && currentPartition.size()+component.size()>maximalPartitionSize) {
+                    partitions.add(currentPartition);
+                    currentPartition=null;
+                }
+                if (currentPartition==null)
+                    currentPartition=new Component();
+                currentPartition.add(component);
+            }
+        }
+        if (currentPartition!=null)
+            partitions.add(currentPartition);
+        return partitions;
+    }
+    /**
+     * Checks the consistency of the ABox by loading one partition after another into the given tableau.
+     */
+    public boolean isConsistent(Tableau tableau,int maximalPartitionSize) {
+        List<Component> partitions=getPartitions(maximalPartitionSize);
+        if (partitions.isEmpty())
+            return isConsistent(tableau,new Component());
+        for (Component partition : partitions)
+            if (!isConsistent(tableau,partition))
+                return false;
+        return true;
+    }
+    /**
+     * Checks the consistency of the ABox by distributing the partitions over the workers of the given pool, each of which
+     * must have its own tableau. Once a partition is found to be inconsistent, the remaining partitions are not checked.
+     */
+    public boolean isConsistent(TableauWorkerPool workerPool,int maximalPartitionSize) {
+        List<Component> partitions=getPartitions(maximalPartitionSize);
+        if (partitions.isEmpty())
+            partitions.add(new Component());
+        final AtomicBoolean isConsistent=new AtomicBoolean(true);
+        List<TableauWorkerPool.Task<Boolean>> tasks=new ArrayList<>();
+        for (final Component partition : partitions)
+            tasks.add(tableau -> {
+                if (isConsistent.get() && !isConsistent(tableau,partition))
+                    isConsistent.set(false);
+                return isConsistent.get();
+            });
+        workerPool.run(tasks,result -> {});
+        return isConsistent.get();
+    }
+    protected static boolean isConsistent(Tableau tableau,Component partition) {
+        return tableau.isSatisfiable(false,false,partition.m_positiveFacts,partition.m_negativeFacts,null,null,null,new ReasoningTaskDescription(false,"ABox consistency for a partition of {0} individuals",partition.m_individuals.size()));
+    }
+    /**
+     * Checks whether the consequences of an ABox assertion can only reach the individuals that are connected to the
+     * individuals of the assertion via (object property, equality or inequality) assertions. This fails for nominals,
+     * description graphs, and the universal object property, and for DL-clauses such as keys and DL-safe rules whose
+     * bodies do not connect all of their (non-data) variables.
+     */
+    public static boolean hasLocalABoxConsequences(DLOntology dlOntology) {
+        if (dlOntology.hasNominals() || !dlOntology.getAllDescriptionGraphs().isEmpty())
+            return false;
+        Set<AtomicRole> dataRoles=dlOntology.getAllAtomicDataRoles();
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            for (Atom atom : dlClause.getHeadAtoms())
+                if (AtomicRole.TOP_OBJECT_ROLE.equals(atom.getDLPredicate()))
+                    return false;
+            Set<Variable> dataVariables=new HashSet<>();
+            for (Atom atom : dlClause.getBodyAtoms()) {
+                if (AtomicRole.TOP_OBJECT_ROLE.equals(atom.getDLPredicate()))
+                    return false;
+                if (dataRoles.contains(atom.getDLPredicate()) && atom.getArgumentVariable(1)!=null)
+                    dataVariables.add(atom.getArgumentVariable(1));
+            }
+            Graph<Variable> connections=new Graph<>();
+            Set<Variable> variables=new HashSet<>();
+            for (Atom atom : dlClause.getBodyAtoms()) {
+                Variable first=null;
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                    Variable variable=atom.getArgumentVariable(argumentIndex);
+                    if (variable!=null && !dataVariables.contains(variable)) {
+                        variables.add(variable);
+                        if (first==null)
+                            first=variable;
+                        else {
+                            connections.addEdge(first,variable);
+                            connections.addEdge(variable,first);
+                        }
+                    }
+                }
+            }
+            if (variables.size()>1) {
+                Variable variable=variables.iterator().next();
+                Set<Variable> connected=connections.getReachableSuccessors(variable);
+                connected.add(variable);
+                if (!connected.containsAll(variables))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A set of individuals together with the assertions about them.
+     */
+    public static class Component {
+        protected final Set<Individual> m_individuals;
+        protected final Set<Atom> m_positiveFacts;
+        protected final Set<Atom> m_negativeFacts;
+
+        public Component() {
+            m_individuals=new HashSet<>();
+            m_positiveFacts=new HashSet<>();
+            m_negativeFacts=new HashSet<>();
+        }
+        protected void add(Component component) {
+            m_individuals.addAll(component.m_individuals);
+            m_positiveFacts.addAll(component.m_positiveFacts);
+            m_negativeFacts.addAll(component.m_negativeFacts);
+        }
+        public Set<Individual> getIndividuals() {
+            return Collections.unmodifiableSet(m_individuals);
+        }
+        public Set<Atom> getPositiveFacts() {
+            return Collections.unmodifiableSet(m_positiveFacts);
+        }
+        public Set<Atom> getNegativeFacts() {
+            return Collections.unmodifiableSet(m_negativeFacts);
+        }
+        /**
+         * Returns the number of assertions of this component.
+         */
+        public int size() {
+            return m_positiveFacts.size()+m_negativeFacts.size();
+        }
+    }
+}
@@ -0,0 +1,513 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
+import org.semanticweb.HermiT.model.AtLeastConcept;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+
+/**
+ * Classifies the atomic concepts of an EL ontology in a single saturation pass instead of running one tableau test per concept.
+ * The DL-clauses of such an ontology (see isApplicable()) are the clauses of an EL TBox: role inclusions, inclusions of a
+ * conjunction of concepts and existential restrictions into an atomic concept, an existential restriction or the bottom
+ * concept. Transitivity and role chains are covered as well, since the clausification encodes them by such clauses. The
+ * saturation derives, for each concept, the atomic concepts that subsume it; the entailed existential restrictions are
+ * represented by links to the contexts of their fillers, so each concept needs only one context.
+ */
+public class ConsequenceBasedClassification {
+    protected final DLOntology m_dlOntology;
+    protected final InterruptFlag m_interruptFlag;
+    protected final ClassificationProgressMonitor m_progressMonitor;
+    protected final AtomicConcept m_topElement;
+    protected final AtomicConcept m_bottomElement;
+    protected final Set<AtomicConcept> m_elements;
+    protected final Map<AtomicConcept,Concept> m_conceptsByAtomicConcept;
+    protected final Map<AtomicRole,Role> m_rolesByAtomicRole;
+    protected final Map<Set<Concept>,Concept> m_conjunctionConcepts;
+    protected final Map<Restriction,Concept> m_existentialConcepts;
+    protected final ArrayDeque<Context> m_activeContexts;
+    protected final ArrayDeque<Context> m_unsatisfiableContexts;
+    protected final Concept m_thing;
+    protected final Concept m_nothing;
+
+    public ConsequenceBasedClassification(DLOntology dlOntology,InterruptFlag interruptFlag,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
+        if (!isApplicable(dlOntology))
+            throw new IllegalArgumentException("The ontology is not in the fragment supported by the consequence-based classification.");
+        m_dlOntology=dlOntology;
+        m_interruptFlag=interruptFlag;
+        m_progressMonitor=progressMonitor;
+        m_topElement=topElement;
+        m_bottomElement=bottomElement;
+        m_elements=elements;
+        m_conceptsByAtomicConcept=new HashMap<>();
+        m_rolesByAtomicRole=new HashMap<>();
+        m_conjunctionConcepts=new HashMap<>();
+        m_existentialConcepts=new HashMap<>();
+        m_activeContexts=new ArrayDeque<>();
+        m_unsatisfiableContexts=new ArrayDeque<>();
+        m_thing=getConcept(AtomicConcept.THING);
+        m_nothing=getConcept(AtomicConcept.NOTHING);
+    }
+    public Hierarchy<AtomicConcept> classify() {
+        m_interruptFlag.startTask();
+        try {
+            for (DLClause dlClause : m_dlOntology.getDLClauses())
+                loadDLClause(dlClause);
+            for (Role role : m_rolesByAtomicRole.values())
+                role.computeSuperRoles();
+            Context thingContext=getContext(m_thing);
+            for (AtomicConcept element : m_elements)
+                getContext(getConcept(element));
+            saturate();
+            if (thingContext.m_isUnsatisfiable)
+                return Hierarchy.emptyHierarchy(m_elements,m_topElement,m_bottomElement);
+            Map<AtomicConcept,GraphNode<AtomicConcept>> allSubsumers=new HashMap<>();
+            for (AtomicConcept element : m_elements) {
+                Context context=getContext(getConcept(element));
+                Set<AtomicConcept> subsumers;
+                if (element.equals(m_bottomElement))
+                    subsumers=m_elements;
+                else if (context.m_isUnsatisfiable) {
+                    // the bottom element is subsumed by all elements, so this suffices to make the element equivalent to it
+                    subsumers=Collections.singleton(m_bottomElement);
+                }
+                else {
+                    subsumers=new HashSet<>();
+                    subsumers.add(m_topElement);
+                    for (Concept subsumer : context.m_subsumers)
+                        if (subsumer.m_atomicConcept!=null && m_elements.contains(subsumer.m_atomicConcept))
+                            subsumers.add(subsumer.m_atomicConcept);
+                }
+                allSubsumers.put(element,new GraphNode<>(element,subsumers));
+                m_progressMonitor.elementClassified(element);
+            }
+            return DeterministicClassification.buildHierarchy(m_topElement,m_bottomElement,allSubsumers);
+        }
+        finally {
+            m_interruptFlag.endTask();
+        }
+    }
+    protected void saturate() {
+        while (true) {
+            // unsatisfiability is propagated first since it makes all other work for the affected contexts superfluous
+            Context context=m_unsatisfiableContexts.poll();
+            if (context!=null) {
+                for (Set<Context> predecessors : context.m_predecessors.values())
+                    for (Context predecessor : predecessors)
+                        addSubsumer(predecessor,m_nothing);
+                continue;
+            }
+            context=m_activeContexts.poll();
+            if (context==null)
+                return;
+            m_interruptFlag.checkInterrupt();
+            context.m_isActive=false;
+            while (!context.m_subsumersToProcess.isEmpty() || !context.m_predecessorsToProcess.isEmpty()) {
+                Concept subsumer=context.m_subsumersToProcess.poll();
+                if (subsumer!=null)
+                    processSubsumer(context,subsumer);
+                Role role=context.m_predecessorRolesToProcess.poll();
+                if (role!=null)
+                    processPredecessor(context,role,context.m_predecessorsToProcess.poll());
+            }
+        }
+    }
+    protected void processSubsumer(Context context,Concept subsumer) {
+        if (context.m_isUnsatisfiable)
+            return;
+        for (Concept superConcept : subsumer.m_superConcepts)
+            addSubsumer(context,superConcept);
+        for (Conjunction conjunction : subsumer.m_conjunctions)
+            if (conjunction.isSatisfiedIn(context))
+                addSubsumer(context,conjunction.m_conclusion);
+        for (Restriction existential : subsumer.m_existentials)
+            addPredecessor(getContext(existential.m_concept),existential.m_role,context);
+        for (Restriction existentialPremise : subsumer.m_existentialPremises) {
+            List<Concept> conclusions=context.m_conclusionsForPredecessors.get(existentialPremise.m_role);
+            if (conclusions==null) {
+                conclusions=new ArrayList<>();
+                context.m_conclusionsForPredecessors.put(existentialPremise.m_role,conclusions);
+            }
+            conclusions.add(existentialPremise.m_concept);
+            Set<Context> predecessors=context.m_predecessors.get(existentialPremise.m_role);
+            if (predecessors!=null)
+                for (Context predecessor : predecessors)
+                    addSubsumer(predecessor,existentialPremise.m_concept);
+        }
+    }
+    protected void processPredecessor(Context context,Role role,Context predecessor) {
+        if (context.m_isUnsatisfiable)
+            addSubsumer(predecessor,m_nothing);
+        else {
+            List<Concept> conclusions=context.m_conclusionsForPredecessors.get(role);
+            if (conclusions!=null)
+                for (Concept conclusion : conclusions)
+                    addSubsumer(predecessor,conclusion);
+        }
+    }
+    protected void addSubsumer(Context context,Concept subsumer) {
+        if (context.m_isUnsatisfiable)
+            return;
+        if (subsumer==m_nothing) {
+            context.m_isUnsatisfiable=true;
+            context.m_subsumers.clear();
+            context.m_subsumers.add(m_nothing);
+            context.m_subsumersToProcess.clear();
+            context.m_conclusionsForPredecessors.clear();
+            m_unsatisfiableContexts.add(context);
+        }
+        else if (context.m_subsumers.add(subsumer)) {
+            context.m_subsumersToProcess.add(subsumer);
+            activate(context);
+        }
+    }
+    protected void addPredecessor(Context context,Role role,Context predecessor) {
+        if (context.m_isUnsatisfiable) {
+            addSubsumer(predecessor,m_nothing);
+            return;
+        }
+        for (Role superRole : role.m_superRoles) {
+            Set<Context> predecessors=context.m_predecessors.get(superRole);
+            if (predecessors==null) {
+                predecessors=new HashSet<>();
+                context.m_predecessors.put(superRole,predecessors);
+            }
+            if (predecessors.add(predecessor)) {
+                context.m_predecessorRolesToProcess.add(superRole);
+                context.m_predecessorsToProcess.add(predecessor);
+                activate(context);
+            }
+        }
+    }
+    protected void activate(Context context) {
+        if (!context.m_isActive) {
+            context.m_isActive=true;
+            m_activeContexts.add(context);
+        }
+    }
+    protected Context getContext(Concept concept) {
+        if (concept.m_context==null) {
+            concept.m_context=new Context();
+            addSubsumer(concept.m_context,concept);
+            addSubsumer(concept.m_context,m_thing);
+        }
+        return concept.m_context;
+    }
+    protected Concept getConcept(AtomicConcept atomicConcept) {
+        Concept concept=m_conceptsByAtomicConcept.get(atomicConcept);
+        if (concept==null) {
+            concept=new Concept(atomicConcept);
+            m_conceptsByAtomicConcept.put(atomicConcept,concept);
+        }
+        return concept;
+    }
+    protected Role getRole(AtomicRole atomicRole) {
+        Role role=m_rolesByAtomicRole.get(atomicRole);
+        if (role==null) {
+            role=new Role();
+            m_rolesByAtomicRole.put(atomicRole,role);
+        }
+        return role;
+    }
+    /**
+     * Returns a concept that is derived exactly when all given concepts are derived.
+     */
+    protected Concept getConjunctionConcept(Set<Concept> conjuncts) {
+        if (conjuncts.isEmpty())
+            return m_thing;
+        else if (conjuncts.size()==1)
+            return conjuncts.iterator().next();
+        Concept concept=m_conjunctionConcepts.get(conjuncts);
+        if (concept==null) {
+            concept=new Concept(null);
+            Conjunction conjunction=new Conjunction(conjuncts.toArray(new Concept[conjuncts.size()]),concept);
+            for (Concept conjunct : conjuncts)
+                conjunct.m_conjunctions.add(conjunction);
+            m_conjunctionConcepts.put(conjuncts,concept);
+        }
+        return concept;
+    }
+    /**
+     * Returns a concept that is derived exactly when the existential restriction on the given role and filler is derived.
+     */
+    protected Concept getExistentialConcept(Role role,Concept filler) {
+        Restriction existential=new Restriction(role,filler);
+        Concept concept=m_existentialConcepts.get(existential);
+        if (concept==null) {
+            concept=new Concept(null);
+            filler.m_existentialPremises.add(new Restriction(role,concept));
+            m_existentialConcepts.put(existential,concept);
+        }
+        return concept;
+    }
+    protected void loadDLClause(DLClause dlClause) {
+        if (dlClause.isAtomicRoleInclusion()) {
+            Role subRole=getRole((AtomicRole)dlClause.getBodyAtom(0).getDLPredicate());
+            subRole.m_directSuperRoles.add(getRole((AtomicRole)dlClause.getHeadAtom(0).getDLPredicate()));
+            return;
+        }
+        Variable root=getRootVariable(dlClause);
+        Set<Concept> premises=new HashSet<>();
+        Map<Variable,AtomicRole> rolesBySuccessor=new HashMap<>();
+        Map<Variable,Set<Concept>> conceptsBySuccessor=new HashMap<>();
+        for (Atom bodyAtom : dlClause.getBodyAtoms()) {
+            if (bodyAtom.getArity()==2) {
+                Variable successor=bodyAtom.getArgumentVariable(1);
+                rolesBySuccessor.put(successor,(AtomicRole)bodyAtom.getDLPredicate());
+                if (!conceptsBySuccessor.containsKey(successor))
+                    conceptsBySuccessor.put(successor,new HashSet<Concept>());
+            }
+            else {
+                Variable variable=bodyAtom.getArgumentVariable(0);
+                Concept concept=getConcept((AtomicConcept)bodyAtom.getDLPredicate());
+                if (variable.equals(root))
+                    premises.add(concept);
+                else {
+                    Set<Concept> concepts=conceptsBySuccessor.get(variable);
+                    if (concepts==null) {
+                        concepts=new HashSet<>();
+                        conceptsBySuccessor.put(variable,concepts);
+                    }
+                    concepts.add(concept);
+                }
+            }
+        }
+        for (Map.Entry<Variable,AtomicRole> entry : rolesBySuccessor.entrySet())
+            premises.add(getExistentialConcept(getRole(entry.getValue()),getConjunctionConcept(conceptsBySuccessor.get(entry.getKey()))));
+        Concept premise=getConjunctionConcept(premises);
+        if (dlClause.getHeadLength()==0)
+            premise.m_superConcepts.add(m_nothing);
+        else {
+            DLPredicate headPredicate=dlClause.getHeadAtom(0).getDLPredicate();
+            if (headPredicate instanceof AtomicConcept)
+                premise.m_superConcepts.add(getConcept((AtomicConcept)headPredicate));
+            else {
+                AtLeastConcept atLeastConcept=(AtLeastConcept)headPredicate;
+                premise.m_existentials.add(new Restriction(getRole((AtomicRole)atLeastConcept.getOnRole()),getConcept((AtomicConcept)atLeastConcept.getToConcept())));
+            }
+        }
+    }
+
+    /**
+     * Determines whether the DL-clauses of the given ontology can be classified by this class. This is the case if the ontology
+     * has no nominals, datatypes or description graphs and if each DL-clause is either an inclusion of atomic roles or has at
+     * most one head atom, which is an atomic concept or an existential restriction on an atomic role and an atomic concept, and
+     * a body that consists of atomic concepts and atomic roles whose variables form a tree of depth at most one rooted at the
+     * variable of the head.
+     */
+    public static boolean isApplicable(DLOntology dlOntology) {
+        if (dlOntology.hasNominals() || dlOntology.hasDatatypes() || !dlOntology.getAllDescriptionGraphs().isEmpty())
+            return false;
+        for (DLClause dlClause : dlOntology.getDLClauses())
+            if (!isSupported(dlClause))
+                return false;
+        return true;
+    }
+    protected static boolean isSupported(DLClause dlClause) {
+        if (dlClause.isAtomicRoleInclusion())
+            return isSupported((AtomicRole)dlClause.getBodyAtom(0).getDLPredicate()) && isSupported((AtomicRole)dlClause.getHeadAtom(0).getDLPredicate());
+        if (dlClause.getHeadLength()>1)
+            return false;
+        if (dlClause.getHeadLength()==1) {
+            Atom headAtom=dlClause.getHeadAtom(0);
+            DLPredicate headPredicate=headAtom.getDLPredicate();
+            if (headPredicate instanceof AtomicConcept) {
+                if (!isSupported((AtomicConcept)headPredicate))
+                    return false;
+            }
+            else if (headPredicate instanceof AtLeastConcept) {
+                AtLeastConcept atLeastConcept=(AtLeastConcept)headPredicate;
+                if (atLeastConcept.getNumber()!=1 || !(atLeastConcept.getOnRole() instanceof AtomicRole) || !isSupported((AtomicRole)atLeastConcept.getOnRole()) || !(atLeastConcept.getToConcept() instanceof AtomicConcept) || !isSupported((AtomicConcept)atLeastConcept.getToConcept()))
+                    return false;
+            }
+            else
+                return false;
+            if (headAtom.getArgumentVariable(0)==null)
+                return false;
+        }
+        Variable root=getRootVariable(dlClause);
+        if (root==null)
+            return false;
+        Set<Variable> successors=new HashSet<>();
+        for (Atom bodyAtom : dlClause.getBodyAtoms()) {
+            DLPredicate predicate=bodyAtom.getDLPredicate();
+            if (predicate instanceof AtomicConcept) {
+                Variable variable=bodyAtom.getArgumentVariable(0);
+                if (variable==null || !isSupported((AtomicConcept)predicate))
+                    return false;
+            }
+            else if (predicate instanceof AtomicRole) {
+                Variable variable0=bodyAtom.getArgumentVariable(0);
+                Variable variable1=bodyAtom.getArgumentVariable(1);
+                if (!isSupported((AtomicRole)predicate) || !root.equals(variable0) || variable1==null || root.equals(variable1) || !successors.add(variable1))
+                    return false;
+            }
+            else
+                return false;
+        }
+        for (Atom bodyAtom : dlClause.getBodyAtoms())
+            if (bodyAtom.getArity()==1 && !root.equals(bodyAtom.getArgument(0)) && !successors.contains(bodyAtom.getArgument(0)))
+                return false;
+        return true;
+    }
+    protected static boolean isSupported(AtomicConcept atomicConcept) {
+        return atomicConcept!=AtomicConcept.INTERNAL_NAMED;
+    }
+    protected static boolean isSupported(AtomicRole atomicRole) {
+        return atomicRole!=AtomicRole.TOP_OBJECT_ROLE && atomicRole!=AtomicRole.BOTTOM_OBJECT_ROLE;
+    }
+    /**
+     * Returns the variable of the head atom or, if the head is empty, the variable that occurs in the body only in the
+     * first position of role atoms; returns null if there is no such variable.
+     */
+    protected static Variable getRootVariable(DLClause dlClause) {
+        if (dlClause.getHeadLength()==1)
+            return dlClause.getHeadAtom(0).getArgumentVariable(0);
+        Variable root=null;
+        for (Atom bodyAtom : dlClause.getBodyAtoms())
+            if (bodyAtom.getArity()==2) {
+                Variable variable=bodyAtom.getArgumentVariable(0);
+                if (root!=null && !root.equals(variable))
+                    return null;
+                root=variable;
+            }
+        if (root==null && dlClause.getBodyLength()>0)
+            root=dlClause.getBodyAtom(0).getArgumentVariable(0);
+        return root;
+    }
+
+    protected static final class Concept {
+        protected final AtomicConcept m_atomicConcept;
+        protected final List<Concept> m_superConcepts;
+        protected final List<Conjunction> m_conjunctions;
+        protected final List<Restriction> m_existentials;
+        protected final List<Restriction> m_existentialPremises;
+        protected Context m_context;
+
+        public Concept(AtomicConcept atomicConcept) {
+            m_atomicConcept=atomicConcept;
+            m_superConcepts=new ArrayList<>();
+            m_conjunctions=new ArrayList<>();
+            m_existentials=new ArrayList<>();
+            m_existentialPremises=new ArrayList<>();
+        }
+    }
+
+    protected static final class Role {
+        protected final List<Role> m_directSuperRoles;
+        protected Set<Role> m_superRoles;
+
+        public Role() {
+            m_directSuperRoles=new ArrayList<>();
+        }
+        public void computeSuperRoles() {
+            m_superRoles=new HashSet<>();
+            ArrayDeque<Role> toVisit=new ArrayDeque<>();
+            toVisit.add(this);
+            Role role;
+            while ((role=toVisit.poll())!=null)
+                if (m_superRoles.add(role))
+                    toVisit.addAll(role.m_directSuperRoles);
+        }
+    }
+
+    /**
+     * The conclusion of a conjunction is derived for a context once all premises are derived for it.
+     */
+    protected static final class Conjunction {
+        protected final Concept[] m_premises;
+        protected final Concept m_conclusion;
+
+        public Conjunction(Concept[] premises,Concept conclusion) {
+            m_premises=premises;
+            m_conclusion=conclusion;
+        }
+        public boolean isSatisfiedIn(Context context) {
+            for (Concept premise : m_premises)
+                if (!context.m_subsumers.contains(premise))
+                    return false;
+            return true;
+        }
+    }
+
+    /**
+     * A role together with a concept. In Concept.m_existentials, the concept is the filler of an existential restriction
+     * implied by the concept that stores the restriction; in Concept.m_existentialPremises, it is the concept implied by the
+     * existential restriction on the role and the concept that stores the restriction.
+     */
+    protected static final class Restriction {
+        protected final Role m_role;
+        protected final Concept m_concept;
+
+        public Restriction(Role role,Concept concept) {
+            m_role=role;
+            m_concept=concept;
+        }
+        public int hashCode() {
+            return m_role.hashCode()*7+m_concept.hashCode();
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof Restriction))
+                return false;
+            Restriction thatRestriction=(Restriction)that;
+            return m_role==thatRestriction.m_role && m_concept==thatRestriction.m_concept;
+        }
+    }
+
+    /**
+     * The subsumers of a concept derived so far. The predecessors are the contexts that have been derived to imply an
+     * existential restriction with the concept of this context as the filler, indexed by the role and its super-roles.
+     */
+    protected static final class Context {
+        protected final Set<Concept> m_subsumers;
+        protected final Map<Role,Set<Context>> m_predecessors;
+        protected final Map<Role,List<Concept>> m_conclusionsForPredecessors;
+        protected final ArrayDeque<Concept> m_subsumersToProcess;
+        protected final ArrayDeque<Role> m_predecessorRolesToProcess;
+        protected final ArrayDeque<Context> m_predecessorsToProcess;
+        protected boolean m_isActive;
+        protected boolean m_isUnsatisfiable;
+
+        public Context() {
+            m_subsumers=new HashSet<>();
+            m_predecessors=new HashMap<>();
+            m_conclusionsForPredecessors=new HashMap<>();
+            m_subsumersToProcess=new ArrayDeque<>();
+            m_predecessorRolesToProcess=new ArrayDeque<>();
+            m_predecessorsToProcess=new ArrayDeque<>();
+        }
+    }
+}
@@ -20,9 +20,11 @@ package org.semanticweb.HermiT.hierarchy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -93,11 +95,11 @@ public class InstanceManager {
     protected boolean m_readingOffFoundPossiblePropertyInstance;
     protected final Map<Individual,Set<Individual>> m_individualToEquivalenceClass;
     protected Map<Set<Individual>,Set<Set<Individual>>> m_individualToPossibleEquivalenceClass;
-    protected final ExtensionTable.Retrieval m_binaryRetrieval0Bound;
-    protected final ExtensionTable.Retrieval m_binaryRetrieval1Bound;
-    protected final ExtensionTable.Retrieval m_ternaryRetrieval1Bound;
-    protected final ExtensionTable.Retrieval m_ternaryRetrieval0Bound;
-    protected final ExtensionTable.Retrieval m_ternaryRetrieval012Bound;
+    protected ExtensionTable.Retrieval m_binaryRetrieval0Bound;
+    protected ExtensionTable.Retrieval m_binaryRetrieval1Bound;
+    protected ExtensionTable.Retrieval m_ternaryRetrieval1Bound;
+    protected ExtensionTable.Retrieval m_ternaryRetrieval0Bound;
+    protected ExtensionTable.Retrieval m_ternaryRetrieval012Bound;
     protected int m_currentIndividualIndex=0;
 
     public InstanceManager(InterruptFlag interruptFlag,Reasoner reasoner,Hierarchy<AtomicConcept> atomicConceptHierarchy,Hierarchy<Role> objectRoleHierarchy) {
@@ -184,17 +186,20 @@ public class InstanceManager {
                 m_currentConceptHierarchy=buildTransitivelyReducedConceptHierarchy(knownConceptSubsumptions);
             if (objectRoleHierarchy==null)
                 m_currentRoleHierarchy=buildTransitivelyReducedRoleHierarchy(knownRoleSubsumptions);
-            ExtensionManager extensionManager=m_reasoner.getTableau().getExtensionManager();
-            m_binaryRetrieval0Bound=extensionManager.getBinaryExtensionTable().createRetrieval(new boolean[] { true, false }, ExtensionTable.View.TOTAL);
-            m_binaryRetrieval1Bound=extensionManager.getBinaryExtensionTable().createRetrieval(new boolean[] { false, true }, ExtensionTable.View.TOTAL);
-            m_ternaryRetrieval1Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { false,true,false }, ExtensionTable.View.TOTAL);
-            m_ternaryRetrieval0Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,false,false }, ExtensionTable.View.TOTAL);
-            m_ternaryRetrieval012Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,true,true }, ExtensionTable.View.TOTAL);
+            createRetrievals(m_reasoner.getTableau());
         }
         finally {
             m_interruptFlag.endTask();
         }
     }
+    protected void createRetrievals(Tableau tableau) {
+        ExtensionManager extensionManager=tableau.getExtensionManager();
+        m_binaryRetrieval0Bound=extensionManager.getBinaryExtensionTable().createRetrieval(new boolean[] { true, false }, ExtensionTable.View.TOTAL);
+        m_binaryRetrieval1Bound=extensionManager.getBinaryExtensionTable().createRetrieval(new boolean[] { false, true }, ExtensionTable.View.TOTAL);
+        m_ternaryRetrieval1Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { false,true,false }, ExtensionTable.View.TOTAL);
+        m_ternaryRetrieval0Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,false,false }, ExtensionTable.View.TOTAL);
+        m_ternaryRetrieval012Bound=extensionManager.getTernaryExtensionTable().createRetrieval(new boolean[] { true,true,true }, ExtensionTable.View.TOTAL);
+    }
     protected void addKnownConceptSubsumption(Graph<AtomicConcept> knownSubsumptions,AtomicConcept subConcept,AtomicConcept superConcept) {
         knownSubsumptions.addEdge(subConcept,superConcept);
     }
@@ -441,15 +446,7 @@ public class InstanceManager {
                         completedSteps++;
                         if (monitor!=null)
                             monitor.reasonerTaskProgressChanged(completedSteps,steps);
-                        OWLObjectProperty objectProperty=factory.getOWLObjectProperty(IRI.create(objectRole.getIRI()));
-                        String indIRI=ind.getIRI();
-                        OWLClass classForIndividual=factory.getOWLClass(IRI.create("internal:individual-concept#"+indIRI));
-                        OWLAxiom axiom=factory.getOWLClassAssertionAxiom(classForIndividual,factory.getOWLNamedIndividual(IRI.create(indIRI)));
-                        additionalAxioms.add(axiom); // A_a(a)
-                        AtomicConcept conceptForRole=AtomicConcept.create("internal:individual-concept#"+objectRole.getIRI()+"#"+indIRI);
-                        OWLClass classForRoleAndIndividual=factory.getOWLClass(IRI.create(conceptForRole.getIRI()));
-                        axiom=factory.getOWLSubClassOfAxiom(classForIndividual,factory.getOWLObjectAllValuesFrom(objectProperty,classForRoleAndIndividual));
-                        additionalAxioms.add(axiom); // A_a implies forall r.A_a^r
+                        addAxiomsForReadingOffComplexProperty(factory,ind,objectRole,additionalAxioms);
                         noAdditionalAxioms+=2;
                         m_interruptFlag.checkInterrupt();
                     }
@@ -465,7 +462,26 @@ public class InstanceManager {
             return new OWLAxiom[0];
         }
     }
+    protected void addAxiomsForReadingOffComplexProperty(OWLDataFactory factory,Individual ind,AtomicRole objectRole,List<OWLAxiom> additionalAxioms) {
+        OWLObjectProperty objectProperty=factory.getOWLObjectProperty(IRI.create(objectRole.getIRI()));
+        String indIRI=ind.getIRI();
+        OWLClass classForIndividual=factory.getOWLClass(IRI.create("internal:individual-concept#"+indIRI));
+        OWLAxiom axiom=factory.getOWLClassAssertionAxiom(classForIndividual,factory.getOWLNamedIndividual(IRI.create(indIRI)));
+        additionalAxioms.add(axiom); // A_a(a)
+        AtomicConcept conceptForRole=AtomicConcept.create("internal:individual-concept#"+objectRole.getIRI()+"#"+indIRI);
+        OWLClass classForRoleAndIndividual=factory.getOWLClass(IRI.create(conceptForRole.getIRI()));
+        axiom=factory.getOWLSubClassOfAxiom(classForIndividual,factory.getOWLObjectAllValuesFrom(objectProperty,classForRoleAndIndividual));
+        additionalAxioms.add(axiom); // A_a implies forall r.A_a^r
+    }
     public void initializeKnowAndPossibleClassInstances(Tableau tableau, ReasonerProgressMonitor monitor, int completedSteps, int steps) {
+        initializeKnowAndPossibleClassInstances(tableau,monitor,completedSteps,steps,null);
+    }
+    /**
+     * As initializeKnowAndPossibleClassInstances(Tableau,ReasonerProgressMonitor,int,int), but if a worker pool is given, then
+     * the types of the individuals are read off by the workers of the pool. The workers only read their tableaux, so every
+     * tableau of the pool must be the given tableau, which may occur in the pool several times.
+     */
+    public void initializeKnowAndPossibleClassInstances(Tableau tableau, ReasonerProgressMonitor monitor, int completedSteps, int steps, TableauWorkerPool workerPool) {
         if (!m_classesInitialised) {
             m_interruptFlag.startTask();
             try {
@@ -474,7 +490,10 @@ public class InstanceManager {
                     // nothing has been read-off yet
                     initializeSameAs();
                 }
-                completedSteps=readOffClassInstancesByIndividual(tableau, monitor, completedSteps, steps);
+                if (workerPool==null)
+                    completedSteps=readOffClassInstancesByIndividual(tableau, monitor, completedSteps, steps);
+                else
+                    completedSteps=readOffClassInstancesInParallel(workerPool, monitor, completedSteps, steps);
                 if (!m_readingOffFoundPossibleConceptInstance && m_usesClassifiedConceptHierarchy)
                     m_realizationCompleted=true;
                 m_classesInitialised=true;
@@ -502,6 +521,93 @@ public class InstanceManager {
         }
         return completedSteps;
     }
+    /**
+     * As initializeKnowAndPossibleClassInstances(Tableau,ReasonerProgressMonitor,int,int), but the given ABox partitions are
+     * loaded into the tableau one after another and the types of the individuals of a partition are read off before the next
+     * partition is loaded. The DL-ontology of the reasoner must satisfy ABoxPartitioning.hasLocalABoxConsequences().
+     *
+     * @return false if some partition is inconsistent, in which case the instances have not been initialised
+     */
+    public boolean initializeKnowAndPossibleClassInstances(Tableau tableau, List<ABoxPartitioning.Component> partitions, ReasonerProgressMonitor monitor, int completedSteps, int steps) {
+        if (!m_classesInitialised) {
+            m_interruptFlag.startTask();
+            try {
+                if (!m_propertiesInitialised)
+                    m_individualToPossibleEquivalenceClass=new HashMap<>();
+                Set<Individual> individuals=new HashSet<>(Arrays.asList(m_individuals));
+                for (ABoxPartitioning.Component partition : partitions) {
+                    List<Individual> partitionIndividuals=new ArrayList<>();
+                    Map<Individual,Node> nodesForIndividuals=new HashMap<>();
+                    for (Individual individual : partition.m_individuals)
+                        if (individuals.contains(individual)) {
+                            partitionIndividuals.add(individual);
+                            nodesForIndividuals.put(individual,null);
+                        }
+                    if (!tableau.isSatisfiable(false,false,partition.m_positiveFacts,partition.m_negativeFacts,null,null,nodesForIndividuals,new ReasoningTaskDescription(false,"Consistency check plus reading-off known and possible class instances of a partition of "+partitionIndividuals.size()+" individuals.")))
+                        return false;
+                    createRetrievals(tableau);
+                    m_nodesForIndividuals.putAll(nodesForIndividuals);
+                    initializeIndividualsForNodes(partitionIndividuals);
+                    if (!m_propertiesInitialised)
+                        readOffSameAs();
+                    for (Individual ind : partitionIndividuals) {
+                        if (!readOffTypes(ind,m_nodesForIndividuals.get(ind))) {
+                            AtomicConceptElement topElement=m_conceptToElement.computeIfAbsent(m_topConcept,k -> new AtomicConceptElement(null,null));
+                            topElement.m_knownInstances.add(ind);
+                        }
+                        completedSteps++;
+                        if (monitor!=null)
+                            monitor.reasonerTaskProgressChanged(completedSteps,steps);
+                        m_interruptFlag.checkInterrupt();
+                    }
+                    // the nodes are reused when the next partition is loaded
+                    m_individualsForNodes.clear();
+                    m_canonicalNodeToDetMergedNodes.clear();
+                    m_canonicalNodeToNonDetMergedNodes.clear();
+                }
+                if (!m_readingOffFoundPossibleConceptInstance && m_usesClassifiedConceptHierarchy)
+                    m_realizationCompleted=true;
+                m_classesInitialised=true;
+            } finally {
+                m_interruptFlag.endTask();
+            }
+        }
+        return true;
+    }
+    protected int readOffClassInstancesInParallel(TableauWorkerPool workerPool, final ReasonerProgressMonitor monitor, final int completedSteps, final int steps) {
+        int chunkSize=Math.max(1,Math.min(1000,m_individuals.length/(4*workerPool.getNumberOfWorkers())));
+        List<TypesReadOffTask> tasks=new ArrayList<>();
+        for (int start=0;start<m_individuals.length;start+=chunkSize)
+            tasks.add(new TypesReadOffTask(start,Math.min(start+chunkSize,m_individuals.length)));
+        workerPool.run(tasks,task -> {
+            for (IndividualTypes types : task.m_types)
+                addTypes(types);
+            if (monitor!=null)
+                monitor.reasonerTaskProgressChanged(completedSteps+task.m_end,steps);
+            m_interruptFlag.checkInterrupt();
+        });
+        return completedSteps+m_individuals.length;
+    }
+    /**
+     * Merges the types that a worker has read off for an individual. Since addKnownConceptInstance() and
+     * addPossibleConceptInstance() only look at the instances of the individual that they add, the worker can compute the
+     * individual's known and possible instances on its own, and the result is the same as if they had been read off here.
+     */
+    protected void addTypes(IndividualTypes types) {
+        if (types.m_nodes.isEmpty()) {
+            AtomicConceptElement topElement = m_conceptToElement.computeIfAbsent(m_topConcept, k -> new AtomicConceptElement(null, null));
+            topElement.m_knownInstances.add(types.m_individual);
+            return;
+        }
+        for (HierarchyNode<AtomicConcept> node : types.m_nodes)
+            m_conceptToElement.computeIfAbsent(node.getRepresentative(), k -> new AtomicConceptElement(null, null));
+        for (HierarchyNode<AtomicConcept> node : types.m_knownNodes)
+            m_conceptToElement.get(node.getRepresentative()).m_knownInstances.add(types.m_individual);
+        for (HierarchyNode<AtomicConcept> node : types.m_possibleNodes)
+            m_conceptToElement.get(node.getRepresentative()).m_possibleInstances.add(types.m_individual);
+        if (types.m_foundPossible)
+            m_readingOffFoundPossibleConceptInstance=true;
+    }
     public int initializeKnowAndPossiblePropertyInstances(Tableau tableau, ReasonerProgressMonitor monitor, int startIndividualIndex, int completedSteps, int steps) {
         if (!m_propertiesInitialised) {
             m_interruptFlag.startTask();
@@ -547,7 +653,10 @@ public class InstanceManager {
         return completedSteps;
     }
     protected void initializeIndividualsForNodes() {
-        for (Individual ind : m_individuals) {
+        initializeIndividualsForNodes(Arrays.asList(m_individuals));
+    }
+    protected void initializeIndividualsForNodes(Collection<Individual> individuals) {
+        for (Individual ind : individuals) {
             Node node=m_nodesForIndividuals.get(ind);
             m_individualsForNodes.put(node, ind);
             if (node.isMerged()) {
@@ -567,6 +676,9 @@ public class InstanceManager {
     }
     protected void initializeSameAs() {
         m_individualToPossibleEquivalenceClass= new HashMap<>();
+        readOffSameAs();
+    }
+    protected void readOffSameAs() {
         for (Map.Entry<Node, Individual> entry : m_individualsForNodes.entrySet()) {
             Node mergedInto=entry.getKey().getMergedInto();
             if (mergedInto!=null) {
@@ -813,7 +925,124 @@ public class InstanceManager {
         m_currentConceptHierarchy=null;
         m_currentRoleHierarchy=null;
     }
+    /**
+     * Brings the known and possible instances up to date after assertions about the given individuals have been added
+     * or removed. The DL-ontology of the reasoner must satisfy ABoxPartitioning.hasLocalABoxConsequences() and contain the same
+     * individuals as when this instance manager was created. Only the facts about individuals connected to a changed
+     * individual are loaded into the tableau, which checks the consistency of the changed part of the ABox, and only
+     * these individuals are read off again. Everything known about the remaining individuals is kept.
+     *
+     * @return false if the changed ABox is inconsistent, in which case this instance manager must no longer be used
+     */
+    public boolean updateForChangedIndividuals(Set<Individual> changedIndividuals) {
+        m_interruptFlag.startTask();
+        try {
+            ABoxPartitioning aboxPartitioning=m_reasoner.getABoxPartitioning();
+            if (aboxPartitioning==null)
+                aboxPartitioning=new ABoxPartitioning(m_reasoner.getDLOntology());
+            ABoxPartitioning.Component component=aboxPartitioning.getComponent(changedIndividuals);
+            Set<Individual> affectedIndividuals=component.m_individuals;
+            List<Individual> affected=new ArrayList<>();
+            for (Individual individual : m_individuals)
+                if (affectedIndividuals.contains(individual))
+                    affected.add(individual);
+            if (affected.isEmpty())
+                return true;
+            boolean readOffComplexRoles=m_propertiesInitialised && !m_complexRoles.isEmpty();
+            Tableau tableau;
+            if (readOffComplexRoles) {
+                List<OWLAxiom> additionalAxioms=new ArrayList<>();
+                for (Individual individual : affected)
+                    for (AtomicRole objectRole : m_complexRoles)
+                        addAxiomsForReadingOffComplexProperty(m_reasoner.getDataFactory(),individual,objectRole,additionalAxioms);
+                tableau=m_reasoner.getTableau(additionalAxioms.toArray(new OWLAxiom[additionalAxioms.size()]));
+            }
+            else
+                tableau=m_reasoner.getTableau();
+            Map<Individual,Node> nodesForIndividuals=new HashMap<>();
+            for (Individual individual : affected)
+                nodesForIndividuals.put(individual,null);
+            boolean isConsistent=tableau.isSatisfiable(false,true,component.m_positiveFacts,component.m_negativeFacts,null,null,nodesForIndividuals,new ReasoningTaskDescription(false,"Consistency check plus reading-off known and possible instances of the "+affected.size()+" individuals affected by ABox changes."));
+            if (isConsistent) {
+                createRetrievals(tableau);
+                m_nodesForIndividuals.putAll(nodesForIndividuals);
+                forgetInstancesOf(affectedIndividuals);
+                initializeIndividualsForNodes(affected);
+                readOffSameAs();
+                if (m_classesInitialised) {
+                    boolean readingOffFoundPossibleConceptInstance=m_readingOffFoundPossibleConceptInstance;
+                    m_readingOffFoundPossibleConceptInstance=false;
+                    for (Individual ind : affected) {
+                        if (!readOffTypes(ind,m_nodesForIndividuals.get(ind))) {
+                            AtomicConceptElement topElement=m_conceptToElement.computeIfAbsent(m_topConcept,k -> new AtomicConceptElement(null,null));
+                            topElement.m_knownInstances.add(ind);
+                        }
+                        m_interruptFlag.checkInterrupt();
+                    }
+                    if (m_readingOffFoundPossibleConceptInstance)
+                        m_realizationCompleted=false;
+                    m_readingOffFoundPossibleConceptInstance|=readingOffFoundPossibleConceptInstance;
+                }
+                if (m_propertiesInitialised) {
+                    boolean readingOffFoundPossiblePropertyInstance=m_readingOffFoundPossiblePropertyInstance;
+                    m_readingOffFoundPossiblePropertyInstance=false;
+                    for (Individual ind : affected) {
+                        Node nodeForIndividual=m_nodesForIndividuals.get(ind);
+                        if (!nodeForIndividual.isMerged())
+                            readOffPropertyInstances(nodeForIndividual);
+                        if (readOffComplexRoles)
+                            readOffComplexRoleSuccessors(ind,nodeForIndividual,null,0,0);
+                        m_interruptFlag.checkInterrupt();
+                    }
+                    if (m_readingOffFoundPossiblePropertyInstance)
+                        m_roleRealizationCompleted=false;
+                    m_readingOffFoundPossiblePropertyInstance|=readingOffFoundPossiblePropertyInstance;
+                }
+                m_individualsForNodes.clear();
+                m_canonicalNodeToDetMergedNodes.clear();
+                m_canonicalNodeToNonDetMergedNodes.clear();
+            }
+            tableau.clearAdditionalDLOntology();
+            return isConsistent;
+        }
+        finally {
+            m_interruptFlag.endTask();
+        }
+    }
+    protected void forgetInstancesOf(Set<Individual> individuals) {
+        for (AtomicConceptElement element : m_conceptToElement.values()) {
+            element.m_knownInstances.removeAll(individuals);
+            element.m_possibleInstances.removeAll(individuals);
+        }
+        // role instances and (possible) equivalences only relate individuals that are connected in the ABox
+        for (RoleElement element : m_roleElementManager.m_roleToElement.values()) {
+            element.m_knownRelations.keySet().removeAll(individuals);
+            element.m_possibleRelations.keySet().removeAll(individuals);
+        }
+        for (Individual individual : individuals) {
+            Set<Individual> equivalentIndividuals=new HashSet<>();
+            equivalentIndividuals.add(individual);
+            m_individualToEquivalenceClass.put(individual,equivalentIndividuals);
+        }
+        if (m_individualToPossibleEquivalenceClass!=null) {
+            // the keys are mutable sets, so the map is rebuilt rather than updated in place
+            Map<Set<Individual>,Set<Set<Individual>>> individualToPossibleEquivalenceClass=new HashMap<>();
+            for (Map.Entry<Set<Individual>,Set<Set<Individual>>> entry : m_individualToPossibleEquivalenceClass.entrySet())
+                if (Collections.disjoint(entry.getKey(),individuals))
+                    individualToPossibleEquivalenceClass.put(entry.getKey(),entry.getValue());
+            m_individualToPossibleEquivalenceClass=individualToPossibleEquivalenceClass;
+        }
+        else
+            m_individualToPossibleEquivalenceClass=new HashMap<>();
+    }
     public void realize(ReasonerProgressMonitor monitor) {
+        realize(monitor,null);
+    }
+    /**
+     * As realize(ReasonerProgressMonitor), but if a worker pool is given, then the possible instances of each class are
+     * tested by the workers of the pool, each of which uses its own tableau.
+     */
+    public void realize(ReasonerProgressMonitor monitor, TableauWorkerPool workerPool) {
         assert m_usesClassifiedConceptHierarchy;
         if (m_readingOffFoundPossibleConceptInstance && !m_realizationCompleted) {
             if (monitor!=null)
@@ -839,12 +1068,16 @@ public class InstanceManager {
                     }
                     if (atomicConceptElement.hasPossibles()) {
                         Set<Individual> nonInstances= new HashSet<>();
-                        for (Individual individual : atomicConceptElement.getPossibleInstances()) {
-                            if (isInstance(individual, atomicConcept))
-                                atomicConceptElement.m_knownInstances.add(individual);
-                            else
-                                nonInstances.add(individual);
+                        if (workerPool==null) {
+                            for (Individual individual : atomicConceptElement.getPossibleInstances()) {
+                                if (isInstance(individual, atomicConcept))
+                                    atomicConceptElement.m_knownInstances.add(individual);
+                                else
+                                    nonInstances.add(individual);
+                            }
                         }
+                        else
+                            testPossibleInstancesInParallel(workerPool, atomicConcept, atomicConceptElement, nonInstances);
                         atomicConceptElement.m_possibleInstances.clear();
                         for (HierarchyNode<AtomicConcept> parent : parents) {
                             AtomicConcept parentRepresentative=parent.getRepresentative();
@@ -867,7 +1100,29 @@ public class InstanceManager {
         }
         m_realizationCompleted=true;
     }
+    protected void testPossibleInstancesInParallel(TableauWorkerPool workerPool, final AtomicConcept atomicConcept, final AtomicConceptElement atomicConceptElement, final Set<Individual> nonInstances) {
+        List<TableauWorkerPool.Task<Boolean>> tasks=new ArrayList<>();
+        final List<Individual> possibleInstances=new ArrayList<>(atomicConceptElement.getPossibleInstances());
+        for (final Individual individual : possibleInstances)
+            tasks.add(tableau -> isInstance(m_reasoner.getTableau(tableau), individual, atomicConcept));
+        final Iterator<Individual> individuals=possibleInstances.iterator();
+        workerPool.run(tasks,isInstance -> {
+            Individual individual=individuals.next();
+            possibleInstanceTested(isInstance);
+            if (isInstance)
+                atomicConceptElement.m_knownInstances.add(individual);
+            else
+                nonInstances.add(individual);
+        });
+    }
     public void realizeObjectRoles(ReasonerProgressMonitor monitor) {
+        realizeObjectRoles(monitor,null);
+    }
+    /**
+     * As realizeObjectRoles(ReasonerProgressMonitor), but if a worker pool is given, then the possible instances of each
+     * object property are tested by the workers of the pool, each of which uses its own tableau.
+     */
+    public void realizeObjectRoles(ReasonerProgressMonitor monitor, TableauWorkerPool workerPool) {
         if (m_readingOffFoundPossiblePropertyInstance && !m_roleRealizationCompleted) {
             if (monitor!=null)
                 monitor.reasonerTaskStarted("Computing instances for all object properties...");
@@ -889,10 +1144,13 @@ public class InstanceManager {
                     if (!toProcess.contains(parent) && !visited.contains(parent))
                         toProcess.add(parent);
                 if (roleElement.hasPossibles()) {
+                    Iterator<Boolean> results=null;
+                    if (workerPool!=null)
+                        results=testPossibleRoleInstancesInParallel(workerPool, role, roleElement.m_possibleRelations);
                     for (Individual individual : roleElement.m_possibleRelations.keySet()) {
                         Set<Individual> nonInstances= new HashSet<>();
                         for (Individual successor : roleElement.m_possibleRelations.get(individual)) {
-                            if (isRoleInstance(role, individual, successor))
+                            if (results==null ? isRoleInstance(role, individual, successor) : results.next())
                                 roleElement.addKnown(individual, successor);
                             else {
                                 nonInstances.add(individual);
@@ -913,6 +1171,23 @@ public class InstanceManager {
         }
         m_roleRealizationCompleted=true;
     }
+    /**
+     * Tests the given possible relations using the workers of the pool and returns the results in the iteration order of the relations.
+     */
+    protected Iterator<Boolean> testPossibleRoleInstancesInParallel(TableauWorkerPool workerPool, final Role role, Map<Individual,Set<Individual>> possibleRelations) {
+        List<TableauWorkerPool.Task<Boolean>> tasks=new ArrayList<>();
+        for (Map.Entry<Individual,Set<Individual>> entry : possibleRelations.entrySet()) {
+            final Individual individual=entry.getKey();
+            for (final Individual successor : entry.getValue())
+                tasks.add(tableau -> isRoleInstance(tableau, role, individual, successor));
+        }
+        final List<Boolean> results=new ArrayList<>(tasks.size());
+        workerPool.run(tasks,isInstance -> {
+            possibleInstanceTested(isInstance);
+            results.add(isInstance);
+        });
+        return results.iterator();
+    }
     public Set<HierarchyNode<AtomicConcept>> getTypes(Individual individual,boolean direct) {
         if (m_isInconsistent)
             return Collections.singleton(m_currentConceptHierarchy.m_bottomNode);
@@ -1280,16 +1555,40 @@ public class InstanceManager {
         }
     }
     protected boolean isInstance(Individual individual,AtomicConcept atomicConcept) {
-        boolean result = !m_reasoner.getTableau().isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
+        boolean result=isInstance(m_reasoner.getTableau(),individual,atomicConcept);
+        possibleInstanceTested(result);
+        return result;
+    }
+    protected boolean isInstance(Tableau tableau,Individual individual,AtomicConcept atomicConcept) {
+        ABoxPartitioning aboxPartitioning=m_reasoner.getABoxPartitioning();
+        if (aboxPartitioning==null)
+            return !tableau.isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
+        else {
+            // only the component of the individual is relevant
+            ABoxPartitioning.Component component=aboxPartitioning.getComponent(Collections.singleton(individual));
+            Set<Atom> negativeFacts=new HashSet<>(component.m_negativeFacts);
+            negativeFacts.add(Atom.create(atomicConcept,individual));
+            return !tableau.isSatisfiable(false,false,component.m_positiveFacts,negativeFacts,null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
+        }
+    }
+    protected void possibleInstanceTested(boolean isInstance) {
         if (m_tableauMonitor!=null) {
-            if (result)
+            if (isInstance)
                 m_tableauMonitor.possibleInstanceIsInstance();
             else 
                 m_tableauMonitor.possibleInstanceIsNotInstance();
         }
-        return result;
     }
     protected boolean isRoleInstance(Role role, Individual individual1, Individual individual2) {
+        boolean result=isRoleInstance(null,role,individual1,individual2);
+        possibleInstanceTested(result);
+        return result;
+    }
+    /**
+     * Tests whether the individuals are related by the role. If a tableau is given, then the test is performed using that
+     * tableau and not the tableau of the reasoner.
+     */
+    protected boolean isRoleInstance(Tableau tableau, Role role, Individual individual1, Individual individual2) {
         OWLDataFactory factory=m_reasoner.getDataFactory();
         AtomicRole atomicRole;
         if (role instanceof InverseRole) {
@@ -1307,15 +1606,17 @@ public class InstanceManager {
         OWLClassExpression allNotPseudoNominal=factory.getOWLObjectAllValuesFrom(property,pseudoNominal.getObjectComplementOf());
         OWLAxiom allNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,namedIndividual1);
         OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,namedIndividual2);
-        Tableau tableau=m_reasoner.getTableau(allNotPseudoNominalAssertion,pseudoNominalAssertion);
-        boolean result=!tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
-        if (m_tableauMonitor!=null) {
-            if (result)
-                m_tableauMonitor.possibleInstanceIsInstance();
-            else 
-                m_tableauMonitor.possibleInstanceIsNotInstance();
+        if (tableau==null)
+            tableau=m_reasoner.getTableau(allNotPseudoNominalAssertion,pseudoNominalAssertion);
+        else
+            tableau=m_reasoner.getTableau(tableau,allNotPseudoNominalAssertion,pseudoNominalAssertion);
+        ABoxPartitioning aboxPartitioning=m_reasoner.getABoxPartitioning();
+        if (aboxPartitioning==null)
+            return !tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
+        else {
+            ABoxPartitioning.Component component=aboxPartitioning.getComponent(Arrays.asList(individual1,individual2));
+            return !tableau.isSatisfiable(false,true,component.m_positiveFacts,component.m_negativeFacts,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
         }
-        return result;
     }
     protected static boolean isResultRelevantIndividual(Individual individual) {
         return !individual.isAnonymous() && !Prefixes.isInternalIRI(individual.getIRI());
@@ -1341,4 +1642,90 @@ public class InstanceManager {
     public Map<Individual, Node> getNodesForIndividuals() {
         return m_nodesForIndividuals;
     }
+
+    /**
+     * Reads off the types of a range of individuals from a tableau that no thread modifies while the task runs.
+     */
+    protected class TypesReadOffTask implements TableauWorkerPool.Task<TypesReadOffTask> {
+        protected final int m_start;
+        protected final int m_end;
+        protected final List<IndividualTypes> m_types;
+
+        public TypesReadOffTask(int start,int end) {
+            m_start=start;
+            m_end=end;
+            m_types=new ArrayList<>(end-start);
+        }
+        public TypesReadOffTask run(Tableau tableau) {
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false, true }, ExtensionTable.View.TOTAL);
+            for (int index=m_start;index<m_end;index++) {
+                Individual individual=m_individuals[index];
+                m_types.add(readOffTypes(retrieval,individual,m_nodesForIndividuals.get(individual)));
+            }
+            return this;
+        }
+        protected IndividualTypes readOffTypes(ExtensionTable.Retrieval retrieval,Individual individual,Node nodeForIndividual) {
+            IndividualTypes types=new IndividualTypes(individual);
+            retrieval.getBindingsBuffer()[1]=nodeForIndividual.getCanonicalNode();
+            retrieval.open();
+            Object[] tupleBuffer=retrieval.getTupleBuffer();
+            while (!retrieval.afterLast()) {
+                Object predicate=tupleBuffer[0];
+                if (predicate instanceof AtomicConcept) {
+                    AtomicConcept atomicConcept=(AtomicConcept)predicate;
+                    if (!atomicConcept.equals(m_topConcept) && !Prefixes.isInternalIRI(atomicConcept.getIRI())) {
+                        HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
+                        types.m_nodes.add(node);
+                        if (retrieval.getDependencySet().isEmpty())
+                            types.addKnown(node);
+                        else {
+                            types.addPossible(node);
+                            types.m_foundPossible=true;
+                        }
+                    }
+                }
+                m_interruptFlag.checkInterrupt();
+                retrieval.next();
+            }
+            return types;
+        }
+    }
+
+    /**
+     * The nodes of the concept hierarchy that an individual is a known or possible instance of, computed in the same way as
+     * by addKnownConceptInstance() and addPossibleConceptInstance().
+     */
+    protected static class IndividualTypes {
+        protected final Individual m_individual;
+        protected final Set<HierarchyNode<AtomicConcept>> m_nodes;
+        protected final Set<HierarchyNode<AtomicConcept>> m_knownNodes;
+        protected final Set<HierarchyNode<AtomicConcept>> m_possibleNodes;
+        protected boolean m_foundPossible;
+
+        public IndividualTypes(Individual individual) {
+            m_individual=individual;
+            m_nodes=new HashSet<>();
+            m_knownNodes=new HashSet<>();
+            m_possibleNodes=new HashSet<>();
+        }
+        public void addKnown(HierarchyNode<AtomicConcept> currentNode) {
+            for (HierarchyNode<AtomicConcept> node : currentNode.getDescendantNodes())
+                if (m_knownNodes.contains(node))
+                    return;
+            m_knownNodes.add(currentNode);
+            Set<HierarchyNode<AtomicConcept>> nodes=currentNode.getAncestorNodes();
+            nodes.remove(currentNode);
+            m_knownNodes.removeAll(nodes);
+            m_possibleNodes.removeAll(nodes);
+        }
+        public void addPossible(HierarchyNode<AtomicConcept> currentNode) {
+            for (HierarchyNode<AtomicConcept> node : currentNode.getDescendantNodes())
+                if (m_knownNodes.contains(node) || m_possibleNodes.contains(node))
+                    return;
+            m_possibleNodes.add(currentNode);
+            Set<HierarchyNode<AtomicConcept>> nodes=currentNode.getAncestorNodes();
+            nodes.remove(currentNode);
+            m_possibleNodes.removeAll(nodes);
+        }
+    }
 }
@@ -0,0 +1,431 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.HermiT.graph.Graph;
+import org.semanticweb.HermiT.hierarchy.DeterministicClassification.GraphNode;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Classifies atomic concepts using several independent tableaux in parallel. The satisfiability and subsumption tests
+ * are run as tasks by a TableauWorkerPool, so each task runs on a tableau that no other task uses at the same time.
+ * The known and possible subsumptions are owned by the thread that calls classify(): tasks receive copies of the
+ * information they need and return their findings, which are then merged by the calling thread. Since the merged
+ * information is always sound and every possible subsumer that is not known to be a subsumer is eventually tested,
+ * the resulting hierarchy is the same as the one computed by QuasiOrderClassification or DeterministicClassification.
+ */
+public class ParallelClassification extends QuasiOrderClassification {
+    protected final Tableau[] m_tableaux;
+    protected final boolean m_forceQuasiOrder;
+    protected final Set<AtomicConcept> m_classifiedElements;
+    protected volatile TableauWorkerPool m_workerPool;
+    protected volatile boolean m_interrupted;
+
+    /**
+     * @param tableaux the tableaux that are used for the tests; all of them must have been created for the same DL-ontology and none of them may be used by another thread during classification
+     */
+    public ParallelClassification(Tableau[] tableaux,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
+        super(tableaux[0],progressMonitor,topElement,bottomElement,elements);
+        m_tableaux=tableaux;
+        m_forceQuasiOrder=forceQuasiOrder;
+        m_classifiedElements=new HashSet<>();
+    }
+    /**
+     * Interrupts the classification; classify() then throws a ReasonerInterruptedException. This method can be called from any thread.
+     */
+    public void interrupt() {
+        m_interrupted=true;
+        TableauWorkerPool workerPool=m_workerPool;
+        if (workerPool!=null)
+            workerPool.interrupt();
+        for (Tableau tableau : m_tableaux)
+            tableau.getInterruptFlag().interrupt();
+    }
+    public Hierarchy<AtomicConcept> classify() {
+        TableauWorkerPool workerPool=new TableauWorkerPool(m_tableaux,"HermiT Classification Worker");
+        m_workerPool=workerPool;
+        try {
+            // an interruption before the pool was published must not get lost
+            if (m_interrupted)
+                workerPool.interrupt();
+            if (m_tableau.isDeterministic() && !m_forceQuasiOrder)
+                return classifyDeterministically(workerPool);
+            else
+                return classifyUsingQuasiOrder(workerPool);
+        }
+        finally {
+            m_workerPool=null;
+            workerPool.dispose();
+        }
+    }
+    protected Hierarchy<AtomicConcept> classifyDeterministically(TableauWorkerPool workerPool) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        if (!m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(m_topElement,freshIndividual)),null,null,null,null,getSatTestDescription(m_topElement)))
+            return Hierarchy.emptyHierarchy(m_elements,m_topElement,m_bottomElement);
+        final Map<AtomicConcept,GraphNode<AtomicConcept>> allSubsumers=new HashMap<>();
+        workerPool.run(m_elements,new TableauWorkerPool.TaskFactory<AtomicConcept,Task>() {
+            public Task createTask(AtomicConcept element) {
+                return new DeterministicSubsumersTask(element);
+            }
+            public void taskCompleted(Task task) {
+                DeterministicSubsumersTask deterministicSubsumersTask=(DeterministicSubsumersTask)task;
+                allSubsumers.put(deterministicSubsumersTask.m_element,new GraphNode<>(deterministicSubsumersTask.m_element,deterministicSubsumersTask.m_subsumers));
+                m_progressMonitor.elementClassified(deterministicSubsumersTask.m_element);
+            }
+        });
+        return DeterministicClassification.buildHierarchy(m_topElement,m_bottomElement,allSubsumers);
+    }
+    protected Hierarchy<AtomicConcept> classifyUsingQuasiOrder(TableauWorkerPool workerPool) {
+        makeConceptUnsatisfiable(m_bottomElement);
+        initialiseKnownSubsumptionsUsingToldSubsumers();
+        // As in the leaf node strategy, the concepts are tested bottom-up with respect to the told subsumptions;
+        // a concept whose possible subsumers have already been read off another model is not tested.
+        final Hierarchy<AtomicConcept> toldHierarchy=buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+        List<AtomicConcept> bottomUpOrder=new ArrayList<>();
+        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
+        Queue<HierarchyNode<AtomicConcept>> toVisit=new LinkedList<>();
+        toVisit.add(toldHierarchy.getBottomNode());
+        while (!toVisit.isEmpty()) {
+            HierarchyNode<AtomicConcept> current=toVisit.poll();
+            for (HierarchyNode<AtomicConcept> parentNode : current.getParentNodes())
+                if (visited.add(parentNode)) {
+                    bottomUpOrder.addAll(parentNode.getEquivalentElements());
+                    toVisit.add(parentNode);
+                }
+        }
+        workerPool.run(bottomUpOrder,new TableauWorkerPool.TaskFactory<AtomicConcept,Task>() {
+            public Task createTask(AtomicConcept element) {
+                if (conceptHasBeenProcessed(element))
+                    return null;
+                else
+                    return new SatisfiabilityTask(element);
+            }
+            public void taskCompleted(Task task) {
+                SatisfiabilityTask satisfiabilityTask=(SatisfiabilityTask)task;
+                if (satisfiabilityTask.m_isSatisfiable) {
+                    addKnownSubsumptions(satisfiabilityTask.m_element,satisfiabilityTask.m_knownSubsumers);
+                    updatePossibleSubsumers(satisfiabilityTask.m_labelIntersections,true);
+                }
+                else {
+                    // Everything that is known to be subsumed by an unsatisfiable concept is unsatisfiable as well.
+                    for (HierarchyNode<AtomicConcept> descendantNode : toldHierarchy.getNodeForElement(satisfiabilityTask.m_element).getDescendantNodes())
+                        for (AtomicConcept element : descendantNode.getEquivalentElements())
+                            makeConceptUnsatisfiableAndClassified(element);
+                }
+            }
+        });
+        // The concepts are processed top-down so that the subsumers of a concept tend to be classified before the concept itself.
+        Hierarchy<AtomicConcept> knownHierarchy=buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+        List<AtomicConcept> topDownOrder=new ArrayList<>();
+        visited.clear();
+        toVisit.add(knownHierarchy.getTopNode());
+        while (!toVisit.isEmpty()) {
+            HierarchyNode<AtomicConcept> current=toVisit.poll();
+            for (HierarchyNode<AtomicConcept> childNode : current.getChildNodes())
+                if (visited.add(childNode)) {
+                    topDownOrder.addAll(childNode.getEquivalentElements());
+                    toVisit.add(childNode);
+                }
+        }
+        topDownOrder.addAll(knownHierarchy.getTopNode().getEquivalentElements());
+        workerPool.run(topDownOrder,new TableauWorkerPool.TaskFactory<AtomicConcept,Task>() {
+            public Task createTask(AtomicConcept element) {
+                if (isUnsatisfiable(element))
+                    return null;
+                Set<AtomicConcept> unknownPossibleSubsumers=new HashSet<>(m_possibleSubsumptions.getSuccessors(element));
+                unknownPossibleSubsumers.removeAll(getAllKnownSubsumers(element));
+                unknownPossibleSubsumers.remove(element);
+                if (unknownPossibleSubsumers.isEmpty()) {
+                    markClassified(element);
+                    return null;
+                }
+                Map<AtomicConcept,Set<AtomicConcept>> knownSubsumersOfPossibleSubsumers=new HashMap<>();
+                for (AtomicConcept unknownPossibleSubsumer : unknownPossibleSubsumers) {
+                    Set<AtomicConcept> knownSubsumers=getAllKnownSubsumers(unknownPossibleSubsumer);
+                    knownSubsumers.retainAll(unknownPossibleSubsumers);
+                    knownSubsumersOfPossibleSubsumers.put(unknownPossibleSubsumer,knownSubsumers);
+                }
+                return new SubsumersSearchTask(element,unknownPossibleSubsumers,knownSubsumersOfPossibleSubsumers);
+            }
+            public void taskCompleted(Task task) {
+                SubsumersSearchTask subsumersSearchTask=(SubsumersSearchTask)task;
+                addKnownSubsumptions(subsumersSearchTask.m_element,subsumersSearchTask.m_knownSubsumers);
+                updatePossibleSubsumers(subsumersSearchTask.m_labelIntersections,false);
+                markClassified(subsumersSearchTask.m_element);
+            }
+        });
+        for (AtomicConcept element : m_elements)
+            markClassified(element);
+        return buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+    }
+    protected boolean conceptHasBeenProcessed(AtomicConcept element) {
+        return !m_possibleSubsumptions.getSuccessors(element).isEmpty() || isUnsatisfiable(element);
+    }
+    protected void makeConceptUnsatisfiableAndClassified(AtomicConcept element) {
+        makeConceptUnsatisfiable(element);
+        markClassified(element);
+    }
+    protected void markClassified(AtomicConcept element) {
+        if (m_classifiedElements.add(element))
+            m_progressMonitor.elementClassified(element);
+    }
+    /**
+     * Intersects the possible subsumers of each concept with the labels of the model nodes that the concept occurs in.
+     * The possible subsumers of concepts that have not been seen in a model so far are initialised only if requested.
+     */
+    protected void updatePossibleSubsumers(Map<AtomicConcept,Set<AtomicConcept>> labelIntersections,boolean initialise) {
+        for (Map.Entry<AtomicConcept,Set<AtomicConcept>> entry : labelIntersections.entrySet()) {
+            AtomicConcept atomicConcept=entry.getKey();
+            if (isUnsatisfiable(atomicConcept))
+                continue;
+            Set<AtomicConcept> possibleSubsumers=m_possibleSubsumptions.getSuccessors(atomicConcept);
+            if (!possibleSubsumers.isEmpty())
+                possibleSubsumers.retainAll(entry.getValue());
+            else if (initialise)
+                m_possibleSubsumptions.addEdges(atomicConcept,entry.getValue());
+        }
+    }
+    protected Set<AtomicConcept> readKnownSubsumersFromRootNode(Tableau tableau,Node checkedNode) {
+        Set<AtomicConcept> knownSubsumers=new HashSet<>();
+        if (checkedNode!=null && checkedNode.getCanonicalNodeDependencySet().isEmpty()) {
+            checkedNode=checkedNode.getCanonicalNode();
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+            retrieval.getBindingsBuffer()[1]=checkedNode;
+            retrieval.open();
+            while (!retrieval.afterLast()) {
+                Object conceptObject=retrieval.getTupleBuffer()[0];
+                if (conceptObject instanceof AtomicConcept && retrieval.getDependencySet().isEmpty() && m_elements.contains(conceptObject))
+                    knownSubsumers.add((AtomicConcept)conceptObject);
+                retrieval.next();
+            }
+        }
+        return knownSubsumers;
+    }
+    /**
+     * For each concept that occurs in the label of an active and unblocked node of the current model, returns the
+     * intersection of all such labels (restricted to the classified concepts); this is a superset of the subsumers of the concept.
+     */
+    protected Map<AtomicConcept,Set<AtomicConcept>> getLabelIntersections(Tableau tableau) {
+        Map<Node,Set<AtomicConcept>> labels=new HashMap<>();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
+        retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            Object conceptObject=tupleBuffer[0];
+            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
+                Node node=(Node)tupleBuffer[1];
+                if (node.isActive() && !node.isBlocked())
+                    labels.computeIfAbsent(node,k -> new HashSet<>()).add((AtomicConcept)conceptObject);
+            }
+            retrieval.next();
+        }
+        Map<AtomicConcept,Set<AtomicConcept>> labelIntersections=new HashMap<>();
+        for (Set<AtomicConcept> label : labels.values())
+            intersectLabel(labelIntersections,label);
+        return labelIntersections;
+    }
+    protected static void intersectLabel(Map<AtomicConcept,Set<AtomicConcept>> labelIntersections,Set<AtomicConcept> label) {
+        for (AtomicConcept atomicConcept : label) {
+            Set<AtomicConcept> labelIntersection=labelIntersections.get(atomicConcept);
+            if (labelIntersection==null)
+                labelIntersections.put(atomicConcept,new HashSet<>(label));
+            else
+                labelIntersection.retainAll(label);
+        }
+    }
+    protected static void intersectLabels(Map<AtomicConcept,Set<AtomicConcept>> labelIntersections,Map<AtomicConcept,Set<AtomicConcept>> newLabelIntersections) {
+        for (Map.Entry<AtomicConcept,Set<AtomicConcept>> entry : newLabelIntersections.entrySet()) {
+            Set<AtomicConcept> labelIntersection=labelIntersections.get(entry.getKey());
+            if (labelIntersection==null)
+                labelIntersections.put(entry.getKey(),entry.getValue());
+            else
+                labelIntersection.retainAll(entry.getValue());
+        }
+    }
+
+    protected abstract class Task implements TableauWorkerPool.Task<Task> {
+        protected final AtomicConcept m_element;
+
+        protected Task(AtomicConcept element) {
+            m_element=element;
+        }
+        public Task run(Tableau tableau) {
+            perform(tableau);
+            return this;
+        }
+        protected abstract void perform(Tableau tableau);
+    }
+
+    protected class DeterministicSubsumersTask extends Task {
+        protected Set<AtomicConcept> m_subsumers;
+
+        public DeterministicSubsumersTask(AtomicConcept element) {
+            super(element);
+        }
+        protected void perform(Tableau tableau) {
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Map<Individual,Node> nodesForIndividuals=new HashMap<>();
+            nodesForIndividuals.put(freshIndividual,null);
+            if (!tableau.isSatisfiable(true,Collections.singleton(Atom.create(m_element,freshIndividual)),null,null,null,nodesForIndividuals,getSatTestDescription(m_element)))
+                m_subsumers=m_elements;
+            else {
+                m_subsumers=new HashSet<>();
+                m_subsumers.add(m_topElement);
+                ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+                retrieval.getBindingsBuffer()[1]=nodesForIndividuals.get(freshIndividual).getCanonicalNode();
+                retrieval.open();
+                while (!retrieval.afterLast()) {
+                    Object subsumer=retrieval.getTupleBuffer()[0];
+                    if (subsumer instanceof AtomicConcept && m_elements.contains(subsumer))
+                        m_subsumers.add((AtomicConcept)subsumer);
+                    retrieval.next();
+                }
+            }
+        }
+    }
+
+    protected class SatisfiabilityTask extends Task {
+        protected boolean m_isSatisfiable;
+        protected Set<AtomicConcept> m_knownSubsumers;
+        protected Map<AtomicConcept,Set<AtomicConcept>> m_labelIntersections;
+
+        public SatisfiabilityTask(AtomicConcept element) {
+            super(element);
+        }
+        protected void perform(Tableau tableau) {
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Map<Individual,Node> checkedNode=new HashMap<>();
+            checkedNode.put(freshIndividual,null);
+            m_isSatisfiable=tableau.isSatisfiable(false,Collections.singleton(Atom.create(m_element,freshIndividual)),null,null,null,checkedNode,getSatTestDescription(m_element));
+            if (m_isSatisfiable) {
+                m_knownSubsumers=readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual));
+                m_labelIntersections=getLabelIntersections(tableau);
+            }
+        }
+    }
+
+    /**
+     * Tests which of the unknown possible subsumers of a concept are subsumers, in the same way as the second phase of
+     * QuasiOrderClassification.
+     */
+    protected class SubsumersSearchTask extends Task {
+        protected final Set<AtomicConcept> m_unknownPossibleSubsumers;
+        protected final Map<AtomicConcept,Set<AtomicConcept>> m_knownSubsumersOfPossibleSubsumers;
+        protected final Set<AtomicConcept> m_knownSubsumers;
+        protected final Map<AtomicConcept,Set<AtomicConcept>> m_labelIntersections;
+
+        public SubsumersSearchTask(AtomicConcept element,Set<AtomicConcept> unknownPossibleSubsumers,Map<AtomicConcept,Set<AtomicConcept>> knownSubsumersOfPossibleSubsumers) {
+            super(element);
+            m_unknownPossibleSubsumers=unknownPossibleSubsumers;
+            m_knownSubsumersOfPossibleSubsumers=knownSubsumersOfPossibleSubsumers;
+            m_knownSubsumers=new HashSet<>();
+            m_labelIntersections=new HashMap<>();
+        }
+        protected void perform(Tableau tableau) {
+            if (isEveryPossibleSubsumerNonSubsumer(tableau,2,7))
+                return;
+            Graph<AtomicConcept> smallKnownSubsumptions=new Graph<>();
+            for (AtomicConcept unknownSubsumer0 : m_unknownPossibleSubsumers) {
+                smallKnownSubsumptions.addEdge(m_bottomElement,unknownSubsumer0);
+                smallKnownSubsumptions.addEdge(unknownSubsumer0,m_topElement);
+                smallKnownSubsumptions.addEdges(unknownSubsumer0,m_knownSubsumersOfPossibleSubsumers.get(unknownSubsumer0));
+            }
+            Set<AtomicConcept> unknownSubsumersWithTopBottom=new HashSet<>(m_unknownPossibleSubsumers);
+            unknownSubsumersWithTopBottom.add(m_bottomElement);
+            unknownSubsumersWithTopBottom.add(m_topElement);
+            Hierarchy<AtomicConcept> smallHierarchy=buildTransitivelyReducedHierarchy(smallKnownSubsumptions,unknownSubsumersWithTopBottom);
+            Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
+            Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<>();
+            visited.add(smallHierarchy.getTopNode());
+            toProcess.add(smallHierarchy.getTopNode());
+            while (!toProcess.isEmpty()) {
+                HierarchyNode<AtomicConcept> current=toProcess.remove();
+                for (HierarchyNode<AtomicConcept> subordinateElement : current.getChildNodes()) {
+                    if (visited.contains(subordinateElement))
+                        continue;
+                    if (doesSubsume(tableau,subordinateElement.getRepresentative())) {
+                        for (AtomicConcept equivalentElement : subordinateElement.getEquivalentElements()) {
+                            m_knownSubsumers.add(equivalentElement);
+                            m_knownSubsumers.addAll(m_knownSubsumersOfPossibleSubsumers.get(equivalentElement));
+                        }
+                        toProcess.add(subordinateElement);
+                    }
+                    visited.add(subordinateElement);
+                }
+            }
+        }
+        protected boolean doesSubsume(Tableau tableau,AtomicConcept parent) {
+            if (m_knownSubsumers.contains(parent))
+                return true;
+            else if (!m_unknownPossibleSubsumers.contains(parent))
+                return false;
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Map<Individual,Node> checkedNode=new HashMap<>();
+            checkedNode.put(freshIndividual,null);
+            boolean isSubsumedBy=!tableau.isSatisfiable(true,Collections.singleton(Atom.create(m_element,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,getSubsumptionTestDescription(m_element,parent));
+            if (!isSubsumedBy)
+                pruneUsingCurrentModel(tableau);
+            m_knownSubsumers.addAll(readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual)));
+            return isSubsumedBy;
+        }
+        protected boolean isEveryPossibleSubsumerNonSubsumer(Tableau tableau,int lowerBound,int upperBound) {
+            if (m_unknownPossibleSubsumers.size()>lowerBound && m_unknownPossibleSubsumers.size()<upperBound) {
+                Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+                Set<Atom> superconceptAssertions=new HashSet<>();
+                Object[] superconcepts=new Object[m_unknownPossibleSubsumers.size()];
+                int index=0;
+                for (AtomicConcept unknownPossibleSubsumer : m_unknownPossibleSubsumers) {
+                    Atom atom=Atom.create(unknownPossibleSubsumer,freshIndividual);
+                    superconceptAssertions.add(atom);
+                    superconcepts[index++]=atom.getDLPredicate();
+                }
+                Map<Individual,Node> checkedNode=new HashMap<>();
+                checkedNode.put(freshIndividual,null);
+                boolean isSubsumedBy=!tableau.isSatisfiable(false,Collections.singleton(Atom.create(m_element,freshIndividual)),null,null,superconceptAssertions,checkedNode,getSubsumedByListTestDescription(m_element,superconcepts));
+                if (!isSubsumedBy)
+                    pruneUsingCurrentModel(tableau);
+                else
+                    m_knownSubsumers.addAll(readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual)));
+                return !isSubsumedBy;
+            }
+            return false;
+        }
+        protected void pruneUsingCurrentModel(Tableau tableau) {
+            Map<AtomicConcept,Set<AtomicConcept>> labelIntersections=getLabelIntersections(tableau);
+            Set<AtomicConcept> labelIntersection=labelIntersections.get(m_element);
+            if (labelIntersection!=null)
+                m_unknownPossibleSubsumers.retainAll(labelIntersection);
+            intersectLabels(m_labelIntersections,labelIntersections);
+        }
+    }
+}
@@ -47,6 +47,7 @@ public class QuasiOrderClassification {
     protected final Set<AtomicConcept> m_elements;
     protected final Graph<AtomicConcept> m_knownSubsumptions;
     protected final Graph<AtomicConcept> m_possibleSubsumptions;
+    protected final Set<AtomicConcept> m_elementsWithKnownSubsumers;
 
     public QuasiOrderClassification(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
         m_tableau=tableau;
@@ -56,6 +57,28 @@ public class QuasiOrderClassification {
         m_elements=elements;
         m_knownSubsumptions= new Graph<>();
         m_possibleSubsumptions= new Graph<>();
+        m_elementsWithKnownSubsumers= new HashSet<>();
+    }
+    /**
+     * Classifies the elements reusing a hierarchy that was computed for a previous version of the ontology. The subsumers
+     * of each element that is neither affected nor new are taken from the previous hierarchy without any test; the
+     * subsumers of the remaining elements are computed as in classify().
+     */
+    public Hierarchy<AtomicConcept> classify(Hierarchy<AtomicConcept> previousHierarchy,Set<AtomicConcept> affectedElements) {
+        for (AtomicConcept element : m_elements) {
+            HierarchyNode<AtomicConcept> previousNode=previousHierarchy.getNodeForElement(element);
+            if (previousNode!=null && element!=m_topElement && element!=m_bottomElement && !affectedElements.contains(element)) {
+                m_elementsWithKnownSubsumers.add(element);
+                if (previousNode==previousHierarchy.getBottomNode())
+                    makeConceptUnsatisfiable(element);
+                else
+                    for (HierarchyNode<AtomicConcept> ancestorNode : previousNode.getAncestorNodes())
+                        for (AtomicConcept ancestor : ancestorNode.getEquivalentElements())
+                            if (ancestor!=element && m_elements.contains(ancestor))
+                                addKnownSubsumption(element,ancestor);
+            }
+        }
+        return classify();
     }
     public Hierarchy<AtomicConcept> classify() {
         Relation<AtomicConcept> relation=new Relation<AtomicConcept>() {
@@ -66,6 +89,14 @@ public class QuasiOrderClassification {
                 else if (!m_possibleSubsumptions.getSuccessors(child).contains(parent))
                     return false;
                 Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+                Boolean cachedResult=m_tableau.getCachedSatisfiability(true,Collections.singleton(Atom.create(child,freshIndividual)),Collections.singleton(Atom.create(parent,freshIndividual)),getSubsumptionTestDescription(child,parent));
+                if (cachedResult!=null) {
+                    boolean isSubsumedBy=!cachedResult.booleanValue();
+                    if (isSubsumedBy)
+                        addKnownSubsumption(child,parent);
+                    m_possibleSubsumptions.getSuccessors(child).remove(parent);
+                    return isSubsumedBy;
+                }
                 Map<Individual,Node> checkedNode= new HashMap<>();
                 checkedNode.put(freshIndividual,null);
                 boolean isSubsumedBy=!m_tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,getSubsumptionTestDescription(child,parent));
@@ -83,6 +114,8 @@ public class QuasiOrderClassification {
         makeConceptUnsatisfiable(m_bottomElement);
         initialiseKnownSubsumptionsUsingToldSubsumers();
         double tasksPerformed=updateSubsumptionsUsingLeafNodeStrategy(totalNumberOfTasks);
+        if (!m_elementsWithKnownSubsumers.isEmpty())
+            buildModelsForUnprocessedElements();
         // Unlike Rob's paper our set of possible subsumptions P would only keep unknown possible subsumptions and not known subsumptions as well.
         Set<AtomicConcept> unclassifiedElements= new HashSet<>();
         for (AtomicConcept element : m_elements) {
@@ -120,6 +153,20 @@ public class QuasiOrderClassification {
             unknownPossibleSubsumers.clear();
         }
         return buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+    }
+    protected void buildModelsForUnprocessedElements() {
+        // Subsumptions taken from a previous hierarchy need not be deterministic consequences of the DL clauses, so an
+        // element above such a subsumption does not necessarily occur in the models built by the leaf node strategy.
+        for (AtomicConcept element : m_elements)
+            if (element!=m_topElement && element!=m_bottomElement && !conceptHasBeenProcessedAlready(element)) {
+                Node rootNodeOfModel=buildModelForConcept(element);
+                if (rootNodeOfModel==null)
+                    makeConceptUnsatisfiable(element);
+                else {
+                    readKnownSubsumersFromRootNode(element,rootNodeOfModel);
+                    updatePossibleSubsumers();
+                }
+            }
     }
 	protected Hierarchy<AtomicConcept> buildHierarchyOfUnknownPossible(Set<AtomicConcept> unknownSubsumers) {
         Graph<AtomicConcept> smallKnownSubsumptions= new Graph<>();
@@ -142,9 +189,22 @@ public class QuasiOrderClassification {
         Stack<HierarchyNode<AtomicConcept>> toProcess= new Stack<>();
         toProcess.addAll(hierarchy.getBottomNode().getParentNodes());
         Set<HierarchyNode<AtomicConcept>> unsatHierarchyNodes= new HashSet<>();
+        Set<HierarchyNode<AtomicConcept>> skippedHierarchyNodes= new HashSet<>();
         while (!toProcess.empty()) {
         	HierarchyNode<AtomicConcept> currentHierarchyElement=toProcess.pop();
             AtomicConcept currentHierarchyConcept=currentHierarchyElement.getRepresentative();
+            if (m_elementsWithKnownSubsumers.containsAll(currentHierarchyElement.getEquivalentElements())) {
+                // Nothing needs to be tested for such a node, but its ancestors might contain elements that need a model.
+                if (skippedHierarchyNodes.add(currentHierarchyElement))
+                    toProcess.addAll(currentHierarchyElement.getParentNodes());
+                continue;
+            }
+            if (m_elementsWithKnownSubsumers.contains(currentHierarchyConcept))
+                for (AtomicConcept equivalentElement : currentHierarchyElement.getEquivalentElements())
+                    if (!m_elementsWithKnownSubsumers.contains(equivalentElement)) {
+                        currentHierarchyConcept=equivalentElement;
+                        break;
+                    }
             if (conceptsProcessed < Math.ceil(totalNumberOfTasks*0.85)) {
 	            m_progressMonitor.elementClassified(currentHierarchyConcept);
 	            conceptsProcessed++;
@@ -183,7 +243,7 @@ public class QuasiOrderClassification {
         return conceptsProcessed;
     }
     private boolean conceptHasBeenProcessedAlready(AtomicConcept atConcept) {
-		return !m_possibleSubsumptions.getSuccessors(atConcept).isEmpty() || isUnsatisfiable(atConcept);
+		return !m_possibleSubsumptions.getSuccessors(atConcept).isEmpty() || isUnsatisfiable(atConcept) || m_elementsWithKnownSubsumers.contains(atConcept);
 	}
 	protected Node buildModelForConcept(AtomicConcept concept) {
         Individual freshIndividual=Individual.createAnonymous("fresh-individual");
@@ -221,7 +281,7 @@ public class QuasiOrderClassification {
         Object[] tupleBuffer=retrieval.getTupleBuffer();
         while (!retrieval.afterLast()) {
             Object conceptObject=tupleBuffer[0];
-            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
+            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject) && !m_elementsWithKnownSubsumers.contains(conceptObject)) {
                 AtomicConcept atomicConcept=(AtomicConcept)conceptObject;
                 Node node=(Node)tupleBuffer[1];
                 if (node.isActive() && !node.isBlocked()) {
@@ -240,7 +300,7 @@ public class QuasiOrderClassification {
         Object[] tupleBuffer=retrieval.getTupleBuffer();
         while (!retrieval.afterLast()) {
             Object conceptObject=tupleBuffer[0];
-            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
+            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject) && !m_elementsWithKnownSubsumers.contains(conceptObject)) {
                 Node node=(Node)tupleBuffer[1];
                 if (node.isActive() && !node.isBlocked())
                     prunePossibleSubsumersOfConcept((AtomicConcept)conceptObject,node);
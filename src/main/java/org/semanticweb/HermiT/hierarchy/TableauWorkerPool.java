@@ -0,0 +1,241 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+/**
+ * Runs independent tasks on a fixed set of tableaux using one thread per tableau. Each task runs on a tableau that no
+ * other task uses at the same time, and the results are handed back to the calling thread, so the caller can merge them
+ * into data structures that are not thread-safe.
+ */
+public class TableauWorkerPool {
+    protected final Tableau[] m_tableaux;
+    protected final BlockingQueue<Tableau> m_idleTableaux;
+    protected final ExecutorService m_executorService;
+    protected volatile boolean m_interrupted;
+
+    /**
+     * @param tableaux the tableaux that are used by the tasks; a tableau may occur more than once if the tasks only read it
+     * @param threadName the prefix of the names of the worker threads
+     */
+    public TableauWorkerPool(Tableau[] tableaux,String threadName) {
+        m_tableaux=tableaux;
+        m_idleTableaux=new LinkedBlockingQueue<>();
+        Collections.addAll(m_idleTableaux,m_tableaux);
+        m_executorService=Executors.newFixedThreadPool(m_tableaux.length,new WorkerThreadFactory(threadName));
+    }
+    public int getNumberOfWorkers() {
+        return m_tableaux.length;
+    }
+    /**
+     * Runs the given tasks and passes their results to the consumer on the calling thread in the order of the tasks. If a
+     * task fails, the remaining tasks are cancelled and the exception is rethrown.
+     */
+    public <T> void run(List<? extends Task<T>> tasks,Consumer<? super T> resultConsumer) {
+        List<Future<T>> futures=new ArrayList<>(tasks.size());
+        boolean completedNormally=false;
+        try {
+            for (Task<T> task : tasks)
+                futures.add(m_executorService.submit(new TaskRunner<>(task)));
+            for (Future<T> future : futures)
+                resultConsumer.accept(getResult(future));
+            completedNormally=true;
+        }
+        finally {
+            if (!completedNormally) {
+                for (Future<T> future : futures)
+                    future.cancel(false);
+                for (Tableau tableau : m_tableaux)
+                    tableau.getInterruptFlag().interrupt();
+            }
+        }
+    }
+    /**
+     * Creates a task for each of the given elements and passes the results of the tasks to the factory in the order in
+     * which the tasks complete. At most two tasks per worker are running at any time and the next task is created only
+     * when a task has completed, so a task can depend on the results of the tasks that completed before it was created.
+     * The tasks are created and their results are processed on the calling thread. If a task fails, the remaining tasks
+     * are cancelled and the exception is rethrown.
+     */
+    public <E,T> void run(Iterable<E> elements,TaskFactory<? super E,T> taskFactory) {
+        CompletionService<T> completionService=new ExecutorCompletionService<>(m_executorService);
+        List<Future<T>> futures=new ArrayList<>();
+        int maximalNumberOfRunningTasks=2*m_tableaux.length;
+        int numberOfRunningTasks=0;
+        boolean completedNormally=false;
+        try {
+            Iterator<E> iterator=elements.iterator();
+            while (true) {
+                while (numberOfRunningTasks<maximalNumberOfRunningTasks && iterator.hasNext()) {
+                    Task<T> task=taskFactory.createTask(iterator.next());
+                    if (task!=null) {
+                        futures.add(completionService.submit(new TaskRunner<>(task)));
+                        numberOfRunningTasks++;
+                    }
+                }
+                if (numberOfRunningTasks==0)
+                    break;
+                T result=getResult(takeCompletedTask(completionService));
+                numberOfRunningTasks--;
+                taskFactory.taskCompleted(result);
+            }
+            completedNormally=true;
+        }
+        finally {
+            if (!completedNormally) {
+                for (Future<T> future : futures)
+                    future.cancel(false);
+                for (Tableau tableau : m_tableaux)
+                    tableau.getInterruptFlag().interrupt();
+            }
+        }
+    }
+    protected <T> Future<T> takeCompletedTask(CompletionService<T> completionService) {
+        try {
+            Future<T> future=null;
+            while (future==null) {
+                if (m_interrupted)
+                    throw new ReasonerInterruptedException();
+                future=completionService.poll(100,TimeUnit.MILLISECONDS);
+            }
+            return future;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReasonerInterruptedException(e);
+        }
+    }
+    protected <T> T getResult(Future<T> future) {
+        try {
+            while (true) {
+                if (m_interrupted)
+                    throw new ReasonerInterruptedException();
+                try {
+                    return future.get(100,TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException e) {
+                    // check for interruption and wait again
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReasonerInterruptedException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause=e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            else if (cause instanceof Error)
+                throw (Error)cause;
+            else
+                throw new IllegalStateException("Internal error: unexpected exception in a worker thread.",cause);
+        }
+    }
+    /**
+     * Interrupts the running tasks; run() then throws a ReasonerInterruptedException. This method can be called from any thread.
+     */
+    public void interrupt() {
+        m_interrupted=true;
+        for (Tableau tableau : m_tableaux)
+            tableau.getInterruptFlag().interrupt();
+    }
+    /**
+     * Stops the worker threads and waits until they have terminated.
+     */
+    public void dispose() {
+        m_executorService.shutdownNow();
+        try {
+            m_executorService.awaitTermination(Long.MAX_VALUE,TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public interface Task<T> {
+        /**
+         * Performs the task using the given tableau. Called on a worker thread.
+         */
+        T run(Tableau tableau);
+    }
+
+    public interface TaskFactory<E,T> {
+        /**
+         * Returns the task for the given element or null if the element need not be processed. Called on the calling thread.
+         */
+        Task<T> createTask(E element);
+        /**
+         * Merges the result of a completed task. Called on the calling thread.
+         */
+        void taskCompleted(T result);
+    }
+
+    protected class TaskRunner<T> implements Callable<T> {
+        protected final Task<T> m_task;
+
+        public TaskRunner(Task<T> task) {
+            m_task=task;
+        }
+        public T call() throws InterruptedException {
+            Tableau tableau=m_idleTableaux.take();
+            try {
+                if (m_interrupted)
+                    throw new ReasonerInterruptedException();
+                return m_task.run(tableau);
+            }
+            finally {
+                m_idleTableaux.add(tableau);
+            }
+        }
+    }
+
+    protected static class WorkerThreadFactory implements ThreadFactory {
+        protected final String m_threadName;
+        protected int m_nextThreadNumber;
+
+        public WorkerThreadFactory(String threadName) {
+            m_threadName=threadName;
+        }
+        public synchronized Thread newThread(Runnable runnable) {
+            Thread thread=new Thread(runnable,m_threadName+" "+(m_nextThreadNumber++));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compact binary encoding of DL ontologies. Unlike Java serialization, which DLOntology.save() uses, the encoding
+ * stores each string, predicate, and term exactly once in a table and refers to table entries by index, and it can
+ * be decoded directly from a (memory-mapped) byte buffer. The encoding does not support description graphs.
+ */
+public class DLOntologyBinaryFormat {
+    public static final int MAGIC=0x48444c4f;
+    public static final int VERSION=1;
+
+    protected static final byte ATOMIC_CONCEPT=1;
+    protected static final byte ATOMIC_ROLE=2;
+    protected static final byte INVERSE_ROLE=3;
+    protected static final byte AT_LEAST_CONCEPT=4;
+    protected static final byte AT_LEAST_DATA_RANGE=5;
+    protected static final byte ATOMIC_NEGATION_CONCEPT=6;
+    protected static final byte EQUALITY=7;
+    protected static final byte INEQUALITY=8;
+    protected static final byte NODE_ID_LESS_EQUAL_THAN=9;
+    protected static final byte NODE_IDS_ASCENDING_OR_EQUAL=10;
+    protected static final byte ANNOTATED_EQUALITY=11;
+    protected static final byte INDIVIDUAL=12;
+    protected static final byte VARIABLE=13;
+    protected static final byte CONSTANT=14;
+    protected static final byte CONSTANT_ENUMERATION=15;
+    protected static final byte DATATYPE_RESTRICTION=16;
+    protected static final byte INTERNAL_DATATYPE=17;
+    protected static final byte ATOMIC_NEGATION_DATA_RANGE=18;
+
+    private DLOntologyBinaryFormat() {
+    }
+    public static boolean isSupported(DLOntology dlOntology) {
+        return dlOntology.getAllDescriptionGraphs().isEmpty();
+    }
+    public static void write(DLOntology dlOntology,OutputStream outputStream) throws IOException {
+        if (!isSupported(dlOntology))
+            throw new IllegalArgumentException("DL ontologies with description graphs cannot be encoded in the binary format.");
+        new Writer(dlOntology).write(new DataOutputStream(outputStream));
+    }
+    public static DLOntology read(ByteBuffer buffer) throws IOException {
+        try {
+            return new Reader(buffer).read();
+        }
+        catch (BufferUnderflowException|IndexOutOfBoundsException|ClassCastException|IllegalArgumentException e) {
+            throw new IOException("The binary DL ontology is corrupt.",e);
+        }
+    }
+
+    protected static class Writer {
+        protected final DLOntology m_dlOntology;
+        protected final Map<String,Integer> m_stringIndexes;
+        protected final List<String> m_strings;
+        protected final Map<Object,Integer> m_objectIndexes;
+        protected final List<Object> m_objects;
+
+        public Writer(DLOntology dlOntology) {
+            m_dlOntology=dlOntology;
+            m_stringIndexes=new HashMap<>();
+            m_strings=new ArrayList<>();
+            m_objectIndexes=new IdentityHashMap<>();
+            m_objects=new ArrayList<>();
+        }
+        public void write(DataOutputStream output) throws IOException {
+            registerString(m_dlOntology.getOntologyIRI());
+            for (DLClause dlClause : m_dlOntology.getDLClauses()) {
+                for (Atom atom : dlClause.getHeadAtoms())
+                    registerAtom(atom);
+                for (Atom atom : dlClause.getBodyAtoms())
+                    registerAtom(atom);
+            }
+            for (Atom atom : m_dlOntology.getPositiveFacts())
+                registerAtom(atom);
+            for (Atom atom : m_dlOntology.getNegativeFacts())
+                registerAtom(atom);
+            registerObjects(m_dlOntology.getAllAtomicConcepts());
+            registerObjects(m_dlOntology.getAllAtomicObjectRoles());
+            registerObjects(m_dlOntology.getAllComplexObjectRoles());
+            registerObjects(m_dlOntology.getAllAtomicDataRoles());
+            registerObjects(m_dlOntology.getAllUnknownDatatypeRestrictions());
+            registerObjects(m_dlOntology.getAllIndividuals());
+            for (String datatypeIRI : m_dlOntology.getDefinedDatatypeIRIs())
+                registerString(datatypeIRI);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(m_strings.size());
+            for (String string : m_strings) {
+                byte[] bytes=string.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            output.writeInt(m_objects.size());
+            for (Object object : m_objects)
+                writeObject(output,object);
+            output.writeInt(m_stringIndexes.get(m_dlOntology.getOntologyIRI()));
+            output.writeInt(m_dlOntology.getDLClauses().size());
+            for (DLClause dlClause : m_dlOntology.getDLClauses()) {
+                writeAtoms(output,dlClause.getHeadAtoms());
+                writeAtoms(output,dlClause.getBodyAtoms());
+            }
+            writeAtoms(output,m_dlOntology.getPositiveFacts());
+            writeAtoms(output,m_dlOntology.getNegativeFacts());
+            writeObjects(output,m_dlOntology.getAllAtomicConcepts());
+            writeObjects(output,m_dlOntology.getAllAtomicObjectRoles());
+            writeObjects(output,m_dlOntology.getAllComplexObjectRoles());
+            writeObjects(output,m_dlOntology.getAllAtomicDataRoles());
+            writeObjects(output,m_dlOntology.getAllUnknownDatatypeRestrictions());
+            writeObjects(output,m_dlOntology.getAllIndividuals());
+            output.writeInt(m_dlOntology.getDefinedDatatypeIRIs().size());
+            for (String datatypeIRI : m_dlOntology.getDefinedDatatypeIRIs())
+                output.writeInt(m_stringIndexes.get(datatypeIRI));
+            output.writeBoolean(m_dlOntology.hasInverseRoles());
+            output.writeBoolean(m_dlOntology.hasAtMostRestrictions());
+            output.writeBoolean(m_dlOntology.hasNominals());
+            output.writeBoolean(m_dlOntology.hasDatatypes());
+            output.flush();
+        }
+        protected void registerString(String string) {
+            if (!m_stringIndexes.containsKey(string)) {
+                m_stringIndexes.put(string,m_strings.size());
+                m_strings.add(string);
+            }
+        }
+        protected void registerAtom(Atom atom) {
+            registerObject(atom.getDLPredicate());
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+                registerObject(atom.getArgument(argumentIndex));
+        }
+        protected void registerObjects(Collection<?> objects) {
+            for (Object object : objects)
+                registerObject(object);
+        }
+        protected void registerObject(Object object) {
+            if (m_objectIndexes.containsKey(object))
+                return;
+            // The components of an object are registered first so that the reader can resolve all indexes in one pass.
+            if (object instanceof AtomicConcept)
+                registerString(((AtomicConcept)object).getIRI());
+            else if (object instanceof AtomicRole)
+                registerString(((AtomicRole)object).getIRI());
+            else if (object instanceof InverseRole)
+                registerObject(((InverseRole)object).getInverseOf());
+            else if (object instanceof AtLeastConcept) {
+                registerObject(((AtLeastConcept)object).getOnRole());
+                registerObject(((AtLeastConcept)object).getToConcept());
+            }
+            else if (object instanceof AtLeastDataRange) {
+                registerObject(((AtLeastDataRange)object).getOnRole());
+                registerObject(((AtLeastDataRange)object).getToDataRange());
+            }
+            else if (object instanceof AtomicNegationConcept)
+                registerObject(((AtomicNegationConcept)object).getNegatedAtomicConcept());
+            else if (object instanceof AnnotatedEquality) {
+                registerObject(((AnnotatedEquality)object).getOnRole());
+                registerObject(((AnnotatedEquality)object).getToConcept());
+            }
+            else if (object instanceof Individual)
+                registerString(((Individual)object).getIRI());
+            else if (object instanceof Variable)
+                registerString(((Variable)object).getName());
+            else if (object instanceof Constant) {
+                registerString(((Constant)object).getLexicalForm());
+                registerString(((Constant)object).getDatatypeURI());
+            }
+            else if (object instanceof ConstantEnumeration) {
+                ConstantEnumeration constantEnumeration=(ConstantEnumeration)object;
+                for (int index=0;index<constantEnumeration.getNumberOfConstants();index++)
+                    registerObject(constantEnumeration.getConstant(index));
+            }
+            else if (object instanceof DatatypeRestriction) {
+                DatatypeRestriction datatypeRestriction=(DatatypeRestriction)object;
+                registerString(datatypeRestriction.getDatatypeURI());
+                for (int index=0;index<datatypeRestriction.getNumberOfFacetRestrictions();index++) {
+                    registerString(datatypeRestriction.getFacetURI(index));
+                    registerObject(datatypeRestriction.getFacetValue(index));
+                }
+            }
+            else if (object instanceof InternalDatatype)
+                registerString(((InternalDatatype)object).getIRI());
+            else if (object instanceof AtomicNegationDataRange)
+                registerObject(((AtomicNegationDataRange)object).getNegatedDataRange());
+            else if (!(object instanceof Equality || object instanceof Inequality || object instanceof NodeIDLessEqualThan || object instanceof NodeIDsAscendingOrEqual))
+                throw new IllegalArgumentException("Objects of type "+object.getClass().getName()+" cannot be encoded in the binary format.");
+            m_objectIndexes.put(object,m_objects.size());
+            m_objects.add(object);
+        }
+        protected void writeObject(DataOutputStream output,Object object) throws IOException {
+            if (object instanceof AtomicConcept) {
+                output.writeByte(ATOMIC_CONCEPT);
+                output.writeInt(m_stringIndexes.get(((AtomicConcept)object).getIRI()));
+            }
+            else if (object instanceof AtomicRole) {
+                output.writeByte(ATOMIC_ROLE);
+                output.writeInt(m_stringIndexes.get(((AtomicRole)object).getIRI()));
+            }
+            else if (object instanceof InverseRole) {
+                output.writeByte(INVERSE_ROLE);
+                output.writeInt(m_objectIndexes.get(((InverseRole)object).getInverseOf()));
+            }
+            else if (object instanceof AtLeastConcept) {
+                AtLeastConcept atLeastConcept=(AtLeastConcept)object;
+                output.writeByte(AT_LEAST_CONCEPT);
+                output.writeInt(atLeastConcept.getNumber());
+                output.writeInt(m_objectIndexes.get(atLeastConcept.getOnRole()));
+                output.writeInt(m_objectIndexes.get(atLeastConcept.getToConcept()));
+            }
+            else if (object instanceof AtLeastDataRange) {
+                AtLeastDataRange atLeastDataRange=(AtLeastDataRange)object;
+                output.writeByte(AT_LEAST_DATA_RANGE);
+                output.writeInt(atLeastDataRange.getNumber());
+                output.writeInt(m_objectIndexes.get(atLeastDataRange.getOnRole()));
+                output.writeInt(m_objectIndexes.get(atLeastDataRange.getToDataRange()));
+            }
+            else if (object instanceof AtomicNegationConcept) {
+                output.writeByte(ATOMIC_NEGATION_CONCEPT);
+                output.writeInt(m_objectIndexes.get(((AtomicNegationConcept)object).getNegatedAtomicConcept()));
+            }
+            else if (object instanceof Equality)
+                output.writeByte(EQUALITY);
+            else if (object instanceof Inequality)
+                output.writeByte(INEQUALITY);
+            else if (object instanceof NodeIDLessEqualThan)
+                output.writeByte(NODE_ID_LESS_EQUAL_THAN);
+            else if (object instanceof NodeIDsAscendingOrEqual) {
+                output.writeByte(NODE_IDS_ASCENDING_OR_EQUAL);
+                output.writeInt(((NodeIDsAscendingOrEqual)object).getArity());
+            }
+            else if (object instanceof AnnotatedEquality) {
+                AnnotatedEquality annotatedEquality=(AnnotatedEquality)object;
+                output.writeByte(ANNOTATED_EQUALITY);
+                output.writeInt(annotatedEquality.getCaridnality());
+                output.writeInt(m_objectIndexes.get(annotatedEquality.getOnRole()));
+                output.writeInt(m_objectIndexes.get(annotatedEquality.getToConcept()));
+            }
+            else if (object instanceof Individual) {
+                output.writeByte(INDIVIDUAL);
+                output.writeInt(m_stringIndexes.get(((Individual)object).getIRI()));
+            }
+            else if (object instanceof Variable) {
+                output.writeByte(VARIABLE);
+                output.writeInt(m_stringIndexes.get(((Variable)object).getName()));
+            }
+            else if (object instanceof Constant) {
+                output.writeByte(CONSTANT);
+                output.writeInt(m_stringIndexes.get(((Constant)object).getLexicalForm()));
+                output.writeInt(m_stringIndexes.get(((Constant)object).getDatatypeURI()));
+            }
+            else if (object instanceof ConstantEnumeration) {
+                ConstantEnumeration constantEnumeration=(ConstantEnumeration)object;
+                output.writeByte(CONSTANT_ENUMERATION);
+                output.writeInt(constantEnumeration.getNumberOfConstants());
+                for (int index=0;index<constantEnumeration.getNumberOfConstants();index++)
+                    output.writeInt(m_objectIndexes.get(constantEnumeration.getConstant(index)));
+            }
+            else if (object instanceof DatatypeRestriction) {
+                DatatypeRestriction datatypeRestriction=(DatatypeRestriction)object;
+                output.writeByte(DATATYPE_RESTRICTION);
+                output.writeInt(m_stringIndexes.get(datatypeRestriction.getDatatypeURI()));
+                output.writeInt(datatypeRestriction.getNumberOfFacetRestrictions());
+                for (int index=0;index<datatypeRestriction.getNumberOfFacetRestrictions();index++) {
+                    output.writeInt(m_stringIndexes.get(datatypeRestriction.getFacetURI(index)));
+                    output.writeInt(m_objectIndexes.get(datatypeRestriction.getFacetValue(index)));
+                }
+            }
+            else if (object instanceof InternalDatatype) {
+                output.writeByte(INTERNAL_DATATYPE);
+                output.writeInt(m_stringIndexes.get(((InternalDatatype)object).getIRI()));
+            }
+            else {
+                output.writeByte(ATOMIC_NEGATION_DATA_RANGE);
+                output.writeInt(m_objectIndexes.get(((AtomicNegationDataRange)object).getNegatedDataRange()));
+            }
+        }
+        protected void writeAtoms(DataOutputStream output,Atom[] atoms) throws IOException {
+            output.writeInt(atoms.length);
+            for (Atom atom : atoms)
+                writeAtom(output,atom);
+        }
+        protected void writeAtoms(DataOutputStream output,Set<Atom> atoms) throws IOException {
+            output.writeInt(atoms.size());
+            for (Atom atom : atoms)
+                writeAtom(output,atom);
+        }
+        protected void writeAtom(DataOutputStream output,Atom atom) throws IOException {
+            output.writeInt(m_objectIndexes.get(atom.getDLPredicate()));
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+                output.writeInt(m_objectIndexes.get(atom.getArgument(argumentIndex)));
+        }
+        protected void writeObjects(DataOutputStream output,Set<?> objects) throws IOException {
+            output.writeInt(objects.size());
+            for (Object object : objects)
+                output.writeInt(m_objectIndexes.get(object));
+        }
+    }
+
+    protected static class Reader {
+        protected final ByteBuffer m_buffer;
+        protected String[] m_strings;
+        protected Object[] m_objects;
+
+        public Reader(ByteBuffer buffer) {
+            m_buffer=buffer;
+        }
+        public DLOntology read() throws IOException {
+            if (m_buffer.getInt()!=MAGIC)
+                throw new IOException("The data does not contain a binary DL ontology.");
+            int version=m_buffer.getInt();
+            if (version!=VERSION)
+                throw new IOException("Unsupported binary DL ontology version "+version+".");
+            m_strings=new String[m_buffer.getInt()];
+            for (int index=0;index<m_strings.length;index++) {
+                byte[] bytes=new byte[m_buffer.getInt()];
+                m_buffer.get(bytes);
+                m_strings[index]=new String(bytes,StandardCharsets.UTF_8);
+            }
+            m_objects=new Object[m_buffer.getInt()];
+            for (int index=0;index<m_objects.length;index++)
+                m_objects[index]=readObject();
+            String ontologyIRI=m_strings[m_buffer.getInt()];
+            int numberOfDLClauses=m_buffer.getInt();
+            Set<DLClause> dlClauses=new LinkedHashSet<>();
+            for (int index=0;index<numberOfDLClauses;index++) {
+                Atom[] headAtoms=readAtoms();
+                Atom[] bodyAtoms=readAtoms();
+                dlClauses.add(DLClause.create(headAtoms,bodyAtoms));
+            }
+            Set<Atom> positiveFacts=readAtomSet();
+            Set<Atom> negativeFacts=readAtomSet();
+            Set<AtomicConcept> atomicConcepts=readObjectSet();
+            Set<AtomicRole> atomicObjectRoles=readObjectSet();
+            Set<Role> complexObjectRoles=readObjectSet();
+            Set<AtomicRole> atomicDataRoles=readObjectSet();
+            Set<DatatypeRestriction> unknownDatatypeRestrictions=readObjectSet();
+            Set<Individual> individuals=readObjectSet();
+            int numberOfDefinedDatatypeIRIs=m_buffer.getInt();
+            Set<String> definedDatatypeIRIs=new HashSet<>();
+            for (int index=0;index<numberOfDefinedDatatypeIRIs;index++)
+                definedDatatypeIRIs.add(m_strings[m_buffer.getInt()]);
+            boolean hasInverseRoles=readBoolean();
+            boolean hasAtMostRestrictions=readBoolean();
+            boolean hasNominals=readBoolean();
+            boolean hasDatatypes=readBoolean();
+            return new DLOntology(ontologyIRI,dlClauses,positiveFacts,negativeFacts,atomicConcepts,atomicObjectRoles,complexObjectRoles,atomicDataRoles,unknownDatatypeRestrictions,definedDatatypeIRIs,individuals,hasInverseRoles,hasAtMostRestrictions,hasNominals,hasDatatypes);
+        }
+        protected Object readObject() throws IOException {
+            byte tag=m_buffer.get();
+            switch (tag) {
+            case ATOMIC_CONCEPT:
+                return AtomicConcept.create(readString());
+            case ATOMIC_ROLE:
+                return AtomicRole.create(readString());
+            case INVERSE_ROLE:
+                return InverseRole.create((AtomicRole)readReference());
+            case AT_LEAST_CONCEPT: {
+                    int number=m_buffer.getInt();
+                    Role onRole=(Role)readReference();
+                    return AtLeastConcept.create(number,onRole,(LiteralConcept)readReference());
+                }
+            case AT_LEAST_DATA_RANGE: {
+                    int number=m_buffer.getInt();
+                    Role onRole=(Role)readReference();
+                    return AtLeastDataRange.create(number,onRole,(LiteralDataRange)readReference());
+                }
+            case ATOMIC_NEGATION_CONCEPT:
+                return AtomicNegationConcept.create((AtomicConcept)readReference());
+            case EQUALITY:
+                return Equality.INSTANCE;
+            case INEQUALITY:
+                return Inequality.INSTANCE;
+            case NODE_ID_LESS_EQUAL_THAN:
+                return NodeIDLessEqualThan.INSTANCE;
+            case NODE_IDS_ASCENDING_OR_EQUAL:
+                return NodeIDsAscendingOrEqual.create(m_buffer.getInt());
+            case ANNOTATED_EQUALITY: {
+                    int cardinality=m_buffer.getInt();
+                    Role onRole=(Role)readReference();
+                    return AnnotatedEquality.create(cardinality,onRole,(LiteralConcept)readReference());
+                }
+            case INDIVIDUAL:
+                return Individual.create(readString());
+            case VARIABLE:
+                return Variable.create(readString());
+            case CONSTANT: {
+                    String lexicalForm=readString();
+                    return Constant.create(lexicalForm,readString());
+                }
+            case CONSTANT_ENUMERATION: {
+                    Constant[] constants=new Constant[m_buffer.getInt()];
+                    for (int index=0;index<constants.length;index++)
+                        constants[index]=(Constant)readReference();
+                    return ConstantEnumeration.create(constants);
+                }
+            case DATATYPE_RESTRICTION: {
+                    String datatypeURI=readString();
+                    int numberOfFacetRestrictions=m_buffer.getInt();
+                    String[] facetURIs=new String[numberOfFacetRestrictions];
+                    Constant[] facetValues=new Constant[numberOfFacetRestrictions];
+                    for (int index=0;index<numberOfFacetRestrictions;index++) {
+                        facetURIs[index]=readString();
+                        facetValues[index]=(Constant)readReference();
+                    }
+                    return DatatypeRestriction.create(datatypeURI,facetURIs,facetValues);
+                }
+            case INTERNAL_DATATYPE:
+                return InternalDatatype.create(readString());
+            case ATOMIC_NEGATION_DATA_RANGE:
+                return AtomicNegationDataRange.create((AtomicDataRange)readReference());
+            default:
+                throw new IOException("Unknown object tag "+tag+" in the binary DL ontology.");
+            }
+        }
+        protected String readString() {
+            return m_strings[m_buffer.getInt()];
+        }
+        protected Object readReference() {
+            return m_objects[m_buffer.getInt()];
+        }
+        protected boolean readBoolean() {
+            return m_buffer.get()!=0;
+        }
+        protected Atom readAtom() {
+            DLPredicate dlPredicate=(DLPredicate)readReference();
+            Term[] arguments=new Term[dlPredicate.getArity()];
+            for (int argumentIndex=0;argumentIndex<arguments.length;argumentIndex++)
+                arguments[argumentIndex]=(Term)readReference();
+            return Atom.create(dlPredicate,arguments);
+        }
+        protected Atom[] readAtoms() {
+            Atom[] atoms=new Atom[m_buffer.getInt()];
+            for (int index=0;index<atoms.length;index++)
+                atoms[index]=readAtom();
+            return atoms;
+        }
+        protected Set<Atom> readAtomSet() {
+            int numberOfAtoms=m_buffer.getInt();
+            Set<Atom> atoms=new HashSet<>();
+            for (int index=0;index<numberOfAtoms;index++)
+                atoms.add(readAtom());
+            return atoms;
+        }
+        @SuppressWarnings("unchecked")
+        protected <T> Set<T> readObjectSet() {
+            int numberOfObjects=m_buffer.getInt();
+            Set<T> objects=new HashSet<>();
+            for (int index=0;index<numberOfObjects;index++)
+                objects.add((T)readReference());
+            return objects;
+        }
+    }
+}
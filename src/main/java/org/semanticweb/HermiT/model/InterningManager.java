@@ -1,134 +1,199 @@
-/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
-   
-   This file is part of HermiT.
-
-   HermiT is free software: you can redistribute it and/or modify
-   it under the terms of the GNU Lesser General Public License as published by
-   the Free Software Foundation, either version 3 of the License, or
-   (at your option) any later version.
-   
-   HermiT is distributed in the hope that it will be useful,
-   but WITHOUT ANY WARRANTY; without even the implied warranty of
-   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
-   GNU Lesser General Public License for more details.
-   
-   You should have received a copy of the GNU Lesser General Public License
-   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
-*/
-package org.semanticweb.HermiT.model;
-
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
-
-/**
- * The manager for the internable objects.
- */
-public abstract class InterningManager<E> {
-    protected static final double LOAD_FACTOR=0.75;
-
-    protected final ReferenceQueue<E> m_referenceQueue;
-    protected Entry<E>[] m_entries;
-    protected int m_size;
-    protected int m_resizeThreshold;
-    
-    public InterningManager() {
-        m_referenceQueue= new ReferenceQueue<>();
-        m_entries=createEntries(16);
-        m_size=0;
-        m_resizeThreshold=(int)(m_entries.length*LOAD_FACTOR);
-    }
-    public synchronized E intern(E object) {
-        processQueue();
-        int hashCode=getHashCode(object);
-        int objectEntryIndex=getIndexFor(hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        Entry<E> entry=m_entries[objectEntryIndex];
-        while (entry!=null) {
-            if (hashCode==entry.m_hashCode) {
-                E entryObject=entry.get();
-                if (entryObject==null) {
-                    if (previousEntry==null)
-                        m_entries[objectEntryIndex]=entry.m_next;
-                    else
-                        previousEntry.m_next=entry.m_next;
-                    m_size--;
-                }
-                else if (equal(object,entryObject))
-                    return entryObject;
-            }
-            previousEntry=entry;
-            entry=entry.m_next;
-        }
-        if (m_size>=m_resizeThreshold) {
-            int newEntriesLength=m_entries.length*2;
-            Entry<E>[] newEntries=createEntries(newEntriesLength);
-            for (Entry<E> m_entry : m_entries) {
-                Entry<E> currentEntry = m_entry;
-                while (currentEntry != null) {
-                    Entry<E> nextEntry = currentEntry.m_next;
-                    if (currentEntry.get() == null)
-                        m_size--;
-                    else {
-                        int newIndex = getIndexFor(currentEntry.m_hashCode, newEntriesLength);
-                        currentEntry.m_next = newEntries[newIndex];
-                        newEntries[newIndex] = currentEntry;
-                    }
-                    currentEntry = nextEntry;
-                }
-            }
-            m_entries=newEntries;
-            m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
-            objectEntryIndex=getIndexFor(hashCode,m_entries.length);
-        }
-        Entry<E> newEntry= new Entry<>(object, m_referenceQueue, hashCode, m_entries[objectEntryIndex]);
-        m_entries[objectEntryIndex]=newEntry;
-        m_size++;
-        return object;
-    }
-    protected final int getIndexFor(int hashCode,int entriesLength) {
-        return hashCode & (entriesLength-1);
-    }
-    protected void removeEntry(Entry<E> entry) {
-        int index=getIndexFor(entry.m_hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        for (Entry<E> current=m_entries[index];current!=null;current=current.m_next) {
-            if (current==entry) {
-                m_size--;
-                if (previousEntry==null)
-                    m_entries[index]=current.m_next;
-                else
-                    previousEntry.m_next=current.m_next;
-                return;
-            }
-            previousEntry=current;
-        }
-    }
-    @SuppressWarnings("unchecked")
-    protected void processQueue() {
-        Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
-        while (entry!=null) {
-            removeEntry(entry);
-            entry=(Entry<E>)m_referenceQueue.poll();
-        }
-    }
-    @SuppressWarnings("unchecked")
-    protected final Entry<E>[] createEntries(int size) {
-        return (Entry<E>[])new Entry[size];
-    }
-    protected abstract int getHashCode(E object);
-    protected abstract boolean equal(E object1,E object2);
-
-    /**
-     * The entry for the hash map.
-     */
-    protected static class Entry<E> extends WeakReference<E> {
-        public final int m_hashCode;
-        public Entry<E> m_next;
-        
-        public Entry(E object,ReferenceQueue<E> referenceQueue,int hashCode,Entry<E> next) {
-            super(object,referenceQueue);
-            m_hashCode=hashCode;
-            m_next=next;
-        }
-    }
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+   
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+   
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+   
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * The manager for the internable objects. The objects are distributed over a fixed number of segments, each of which is
+ * a separately locked weak hash table, so that threads interning different objects rarely contend. Looking up an object
+ * that has already been interned does not lock at all: the chains of a segment are traversed without synchronisation and
+ * only a miss is repeated under the lock of the segment. This is safe because internable objects are immutable and keep
+ * their state in final fields, and because an unsynchronised lookup can only fail to find an object, never return a wrong one.
+ */
+public abstract class InterningManager<E> {
+    protected static final double LOAD_FACTOR=0.75;
+    protected static final int NUMBER_OF_SEGMENTS_BITS=4;
+    protected static final int NUMBER_OF_SEGMENTS=1 << NUMBER_OF_SEGMENTS_BITS;
+    protected static final int INITIAL_SEGMENT_SIZE=8;
+
+    protected final Segment<E>[] m_segments;
+
+    public InterningManager() {
+        m_segments=createSegments(NUMBER_OF_SEGMENTS);
+        for (int index=0;index<NUMBER_OF_SEGMENTS;index++)
+            m_segments[index]=new Segment<>(this);
+    }
+    public E intern(E object) {
+        int hashCode=getHashCode(object);
+        return m_segments[getSegmentIndex(hashCode)].intern(object,hashCode);
+    }
+    /**
+     * The segment is selected by the lowest bits of the hash code and the bucket within the segment by the bits above them,
+     * so the segments together behave like a single table indexed by the low bits of the hash code.
+     */
+    protected static int getSegmentIndex(int hashCode) {
+        return hashCode & (NUMBER_OF_SEGMENTS-1);
+    }
+    protected static int getIndexFor(int hashCode,int entriesLength) {
+        return (hashCode >>> NUMBER_OF_SEGMENTS_BITS) & (entriesLength-1);
+    }
+    @SuppressWarnings("unchecked")
+    protected static <E> Segment<E>[] createSegments(int size) {
+        return (Segment<E>[])new Segment<?>[size];
+    }
+    @SuppressWarnings("unchecked")
+    protected static <E> Entry<E>[] createEntries(int size) {
+        return (Entry<E>[])new Entry[size];
+    }
+    protected abstract int getHashCode(E object);
+    protected abstract boolean equal(E object1,E object2);
+
+    /**
+     * A weak hash table holding the objects whose hash codes map to it.
+     */
+    protected static final class Segment<E> {
+        protected final InterningManager<E> m_interningManager;
+        protected final ReferenceQueue<E> m_referenceQueue;
+        protected volatile Entry<E>[] m_entries;
+        protected int m_size;
+        protected int m_resizeThreshold;
+
+        public Segment(InterningManager<E> interningManager) {
+            m_interningManager=interningManager;
+            m_referenceQueue=new ReferenceQueue<>();
+            m_entries=createEntries(INITIAL_SEGMENT_SIZE);
+            m_size=0;
+            m_resizeThreshold=(int)(INITIAL_SEGMENT_SIZE*LOAD_FACTOR);
+        }
+        public E intern(E object,int hashCode) {
+            E existingObject=find(object,hashCode);
+            if (existingObject!=null)
+                return existingObject;
+            synchronized (this) {
+                return internLocked(object,hashCode);
+            }
+        }
+        /**
+         * Looks the object up without locking. A concurrent modification of the segment can make this method miss an
+         * object that is present, but it never returns an object that is not equal to the given one.
+         */
+        protected E find(E object,int hashCode) {
+            Entry<E>[] entries=m_entries;
+            Entry<E> entry=entries[getIndexFor(hashCode,entries.length)];
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode) {
+                    E entryObject=entry.get();
+                    if (entryObject!=null && m_interningManager.equal(object,entryObject))
+                        return entryObject;
+                }
+                entry=entry.m_next;
+            }
+            return null;
+        }
+        protected E internLocked(E object,int hashCode) {
+            processQueue();
+            Entry<E>[] entries=m_entries;
+            int objectEntryIndex=getIndexFor(hashCode,entries.length);
+            Entry<E> previousEntry=null;
+            Entry<E> entry=entries[objectEntryIndex];
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode) {
+                    E entryObject=entry.get();
+                    if (entryObject==null) {
+                        if (previousEntry==null)
+                            entries[objectEntryIndex]=entry.m_next;
+                        else
+                            previousEntry.m_next=entry.m_next;
+                        m_size--;
+                    }
+                    else if (m_interningManager.equal(object,entryObject))
+                        return entryObject;
+                }
+                previousEntry=entry;
+                entry=entry.m_next;
+            }
+            if (m_size>=m_resizeThreshold) {
+                int newEntriesLength=entries.length*2;
+                Entry<E>[] newEntries=createEntries(newEntriesLength);
+                for (Entry<E> oldEntry : entries) {
+                    Entry<E> currentEntry=oldEntry;
+                    while (currentEntry!=null) {
+                        Entry<E> nextEntry=currentEntry.m_next;
+                        if (currentEntry.get()==null)
+                            m_size--;
+                        else {
+                            int newIndex=getIndexFor(currentEntry.m_hashCode,newEntriesLength);
+                            currentEntry.m_next=newEntries[newIndex];
+                            newEntries[newIndex]=currentEntry;
+                        }
+                        currentEntry=nextEntry;
+                    }
+                }
+                entries=newEntries;
+                m_entries=newEntries;
+                m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
+                objectEntryIndex=getIndexFor(hashCode,entries.length);
+            }
+            Entry<E> newEntry=new Entry<>(object,m_referenceQueue,hashCode,entries[objectEntryIndex]);
+            entries[objectEntryIndex]=newEntry;
+            m_size++;
+            return object;
+        }
+        protected void removeEntry(Entry<E> entry) {
+            Entry<E>[] entries=m_entries;
+            int index=getIndexFor(entry.m_hashCode,entries.length);
+            Entry<E> previousEntry=null;
+            for (Entry<E> current=entries[index];current!=null;current=current.m_next) {
+                if (current==entry) {
+                    m_size--;
+                    if (previousEntry==null)
+                        entries[index]=current.m_next;
+                    else
+                        previousEntry.m_next=current.m_next;
+                    return;
+                }
+                previousEntry=current;
+            }
+        }
+        @SuppressWarnings("unchecked")
+        protected void processQueue() {
+            Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
+            while (entry!=null) {
+                removeEntry(entry);
+                entry=(Entry<E>)m_referenceQueue.poll();
+            }
+        }
+    }
+
+    /**
+     * The entry for the hash map. The link to the next entry is volatile so that unsynchronised lookups see the chains as
+     * they are being modified.
+     */
+    protected static class Entry<E> extends WeakReference<E> {
+        public final int m_hashCode;
+        public volatile Entry<E> m_next;
+        
+        public Entry(E object,ReferenceQueue<E> referenceQueue,int hashCode,Entry<E> next) {
+            super(object,referenceQueue);
+            m_hashCode=hashCode;
+            m_next=next;
+        }
+    }
 }
\ No newline at end of file
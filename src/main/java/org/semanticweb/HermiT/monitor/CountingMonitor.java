@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.tableau.BranchingPoint;
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
 import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription.StandardTestType;
@@ -65,6 +66,10 @@ public class CountingMonitor extends TableauMonitorAdapter {
     protected int m_overallNumberOfClashes=0;
     protected int m_possibleInstancesTested=0;
     protected int m_possibleInstancesInstances=0;
+    protected int m_satisfiabilityCacheHits=0;
+    protected int m_satisfiabilityCacheMisses=0;
+    protected int m_overallNumberOfLearnedNogoods=0;
+    protected int m_overallNumberOfDisjunctsExcludedByNogoods=0;
     // validated blocking
     protected int m_overallInitialModelSize=0;
     protected int m_overallInitiallyBlocked=0;
@@ -102,6 +107,10 @@ public class CountingMonitor extends TableauMonitorAdapter {
         m_overallNumberOfClashes=0;
         m_possibleInstancesTested=0;
         m_possibleInstancesInstances=0;
+        m_satisfiabilityCacheHits=0;
+        m_satisfiabilityCacheMisses=0;
+        m_overallNumberOfLearnedNogoods=0;
+        m_overallNumberOfDisjunctsExcludedByNogoods=0;
         m_overallInitialModelSize=0;
         m_overallInitiallyBlocked=0;
         m_overallInitiallyInvalid=0;
@@ -167,6 +176,18 @@ public class CountingMonitor extends TableauMonitorAdapter {
     public void possibleInstanceIsNotInstance() {
         m_possibleInstancesTested++;
     }
+    public void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+        m_satisfiabilityCacheHits++;
+    }
+    public void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription) {
+        m_satisfiabilityCacheMisses++;
+    }
+    public void nogoodLearned() {
+        m_overallNumberOfLearnedNogoods++;
+    }
+    public void disjunctExcludedByNogood(GroundDisjunction groundDisjunction,int disjunct) {
+        m_overallNumberOfDisjunctsExcludedByNogoods++;
+    }
     public void blockingValidationStarted() {
     	m_noValidations++;
     	Node node;
@@ -290,6 +311,18 @@ public class CountingMonitor extends TableauMonitorAdapter {
     }
 	public int getNumberOfPossibleInstancesInstances() {
         return m_possibleInstancesInstances;
+    }
+	public int getNumberOfSatisfiabilityCacheHits() {
+        return m_satisfiabilityCacheHits;
+    }
+	public int getNumberOfSatisfiabilityCacheMisses() {
+        return m_satisfiabilityCacheMisses;
+    }
+	public int getOverallNumberOfLearnedNogoods() {
+        return m_overallNumberOfLearnedNogoods;
+    }
+	public int getOverallNumberOfDisjunctsExcludedByNogoods() {
+        return m_overallNumberOfDisjunctsExcludedByNogoods;
     }
 	// getters for overall blocking validation measurements
     public int getOverallInitialModelSize() {
@@ -0,0 +1,100 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.monitor;
+
+import org.semanticweb.HermiT.tableau.BranchingPoint;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+
+/**
+ * Collects the metrics of the tests of one tableau and adds them to a ReasonerMetrics object when a test has finished.
+ * The counts of a test are kept in plain fields while the test is running, so the monitor is cheap but must not be shared
+ * between tableaux that run concurrently; the ReasonerMetrics object, in contrast, can be shared by all tableaux of a
+ * reasoner.
+ */
+public class MetricsMonitor extends TableauMonitorAdapter {
+    private static final long serialVersionUID=-1738476380826592218L;
+
+    protected final ReasonerMetrics m_metrics;
+    protected long m_testStartTime;
+    protected int m_numberOfBacktrackings;
+    protected int m_numberOfClashes;
+    protected int m_numberOfCreatedNodes;
+    protected int m_numberOfBlockingValidations;
+    protected int m_numberOfInvalidlyBlockedNodes;
+    protected int m_numberOfDatatypeChecks;
+
+    public MetricsMonitor(ReasonerMetrics metrics) {
+        m_metrics=metrics;
+    }
+    public ReasonerMetrics getMetrics() {
+        return m_metrics;
+    }
+    public void isSatisfiableStarted(ReasoningTaskDescription reasoningTaskDescription) {
+        m_numberOfBacktrackings=0;
+        m_numberOfClashes=0;
+        m_numberOfCreatedNodes=0;
+        m_numberOfBlockingValidations=0;
+        m_numberOfInvalidlyBlockedNodes=0;
+        m_numberOfDatatypeChecks=0;
+        m_testStartTime=System.nanoTime();
+    }
+    public void isSatisfiableFinished(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+        long testTime=(System.nanoTime()-m_testStartTime)/1000;
+        int numberOfBlockedNodes=0;
+        Node node=m_tableau.getFirstTableauNode();
+        while (node!=null) {
+            if (node.isActive() && node.isBlocked() && node.hasUnprocessedExistentials())
+                numberOfBlockedNodes++;
+            node=node.getNextTableauNode();
+        }
+        m_metrics.testFinished(reasoningTaskDescription.getMessagePattern(),testTime);
+        m_metrics.m_numberOfBacktrackings.add(m_numberOfBacktrackings);
+        m_metrics.m_numberOfClashes.add(m_numberOfClashes);
+        m_metrics.m_numberOfCreatedNodes.add(m_numberOfCreatedNodes);
+        m_metrics.m_numberOfBlockedNodes.add(numberOfBlockedNodes);
+        m_metrics.m_numberOfBlockingValidations.add(m_numberOfBlockingValidations);
+        m_metrics.m_numberOfInvalidlyBlockedNodes.add(m_numberOfInvalidlyBlockedNodes);
+        m_metrics.m_numberOfDatatypeChecks.add(m_numberOfDatatypeChecks);
+        m_metrics.numberOfTuplesMeasured(m_tableau.getExtensionManager().getNumberOfTuples());
+    }
+    public void clashDetected() {
+        m_numberOfClashes++;
+    }
+    public void backtrackToFinished(BranchingPoint newCurrentBrancingPoint) {
+        m_numberOfBacktrackings++;
+    }
+    public void nodeCreated(Node node) {
+        m_numberOfCreatedNodes++;
+    }
+    public void blockingValidationStarted() {
+        m_numberOfBlockingValidations++;
+    }
+    public void blockingValidationFinished(int noInvalidlyBlocked) {
+        m_numberOfInvalidlyBlockedNodes+=noInvalidlyBlocked;
+    }
+    public void datatypeCheckingStarted() {
+        m_numberOfDatatypeChecks++;
+    }
+    public void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+        m_metrics.m_numberOfSatisfiabilityCacheHits.increment();
+    }
+    public void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription) {
+        m_metrics.m_numberOfSatisfiabilityCacheMisses.increment();
+    }
+}
@@ -0,0 +1,228 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Aggregates the metrics of all tableaux of a reasoner. The tableaux report to this object through their MetricsMonitor
+ * once a test has finished, and all values can be read from other threads while the reasoner is running, either
+ * directly or through JMX after registerMBean() has been called.
+ */
+public class ReasonerMetrics implements ReasonerMetricsMXBean {
+    protected static final long[] TEST_TIME_HISTOGRAM_BOUNDS={ 100,1000,10000,100000,1000000,10000000 };
+
+    protected final ConcurrentMap<String,TestTypeMetrics> m_testTypeMetrics;
+    protected final LongAdder m_numberOfBacktrackings;
+    protected final LongAdder m_numberOfClashes;
+    protected final LongAdder m_numberOfCreatedNodes;
+    protected final LongAdder m_numberOfBlockedNodes;
+    protected final LongAdder m_numberOfBlockingValidations;
+    protected final LongAdder m_numberOfInvalidlyBlockedNodes;
+    protected final LongAdder m_numberOfDatatypeChecks;
+    protected final LongAdder m_numberOfSatisfiabilityCacheHits;
+    protected final LongAdder m_numberOfSatisfiabilityCacheMisses;
+    protected final AtomicLong m_lastNumberOfTuples;
+    protected final AtomicLong m_maximalNumberOfTuples;
+    protected volatile ObjectName m_objectName;
+
+    public ReasonerMetrics() {
+        m_testTypeMetrics=new ConcurrentHashMap<>();
+        m_numberOfBacktrackings=new LongAdder();
+        m_numberOfClashes=new LongAdder();
+        m_numberOfCreatedNodes=new LongAdder();
+        m_numberOfBlockedNodes=new LongAdder();
+        m_numberOfBlockingValidations=new LongAdder();
+        m_numberOfInvalidlyBlockedNodes=new LongAdder();
+        m_numberOfDatatypeChecks=new LongAdder();
+        m_numberOfSatisfiabilityCacheHits=new LongAdder();
+        m_numberOfSatisfiabilityCacheMisses=new LongAdder();
+        m_lastNumberOfTuples=new AtomicLong();
+        m_maximalNumberOfTuples=new AtomicLong();
+    }
+    /**
+     * Registers this object with the platform MBean server under the given name.
+     *
+     * @throws IllegalArgumentException if the name is malformed
+     * @throws IllegalStateException if this object is already registered or the registration fails (e.g., because the name is in use)
+     */
+    public synchronized void registerMBean(String objectName) {
+        if (m_objectName!=null)
+            throw new IllegalStateException("The metrics are already registered as '"+m_objectName+"'.");
+        try {
+            ObjectName name=new ObjectName(objectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,name);
+            m_objectName=name;
+        }
+        catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid object name for the reasoner metrics: "+objectName,e);
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("The reasoner metrics could not be registered as '"+objectName+"'.",e);
+        }
+    }
+    /**
+     * Removes this object from the platform MBean server if it has been registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (m_objectName!=null) {
+            MBeanServer mbeanServer=ManagementFactory.getPlatformMBeanServer();
+            try {
+                if (mbeanServer.isRegistered(m_objectName))
+                    mbeanServer.unregisterMBean(m_objectName);
+            }
+            catch (JMException e) {
+                throw new IllegalStateException("The reasoner metrics could not be unregistered.",e);
+            }
+            finally {
+                m_objectName=null;
+            }
+        }
+    }
+    public ObjectName getObjectName() {
+        return m_objectName;
+    }
+    protected void testFinished(String messagePattern,long testTime) {
+        TestTypeMetrics testTypeMetrics=m_testTypeMetrics.get(messagePattern);
+        if (testTypeMetrics==null) {
+            TestTypeMetrics newTestTypeMetrics=new TestTypeMetrics();
+            testTypeMetrics=m_testTypeMetrics.putIfAbsent(messagePattern,newTestTypeMetrics);
+            if (testTypeMetrics==null)
+                testTypeMetrics=newTestTypeMetrics;
+        }
+        testTypeMetrics.m_numberOfTests.increment();
+        testTypeMetrics.m_testTime.add(testTime);
+        int bucket=0;
+        while (bucket<TEST_TIME_HISTOGRAM_BOUNDS.length && testTime>TEST_TIME_HISTOGRAM_BOUNDS[bucket])
+            bucket++;
+        testTypeMetrics.m_histogram.incrementAndGet(bucket);
+    }
+    protected void numberOfTuplesMeasured(long numberOfTuples) {
+        m_lastNumberOfTuples.set(numberOfTuples);
+        m_maximalNumberOfTuples.accumulateAndGet(numberOfTuples,Math::max);
+    }
+    public long getNumberOfTests() {
+        long numberOfTests=0;
+        for (TestTypeMetrics testTypeMetrics : m_testTypeMetrics.values())
+            numberOfTests+=testTypeMetrics.m_numberOfTests.sum();
+        return numberOfTests;
+    }
+    public long getTotalTestTime() {
+        long testTime=0;
+        for (TestTypeMetrics testTypeMetrics : m_testTypeMetrics.values())
+            testTime+=testTypeMetrics.m_testTime.sum();
+        return testTime;
+    }
+    public Map<String,Long> getNumberOfTestsByType() {
+        Map<String,Long> result=new TreeMap<>();
+        for (Map.Entry<String,TestTypeMetrics> entry : m_testTypeMetrics.entrySet())
+            result.put(entry.getKey(),entry.getValue().m_numberOfTests.sum());
+        return result;
+    }
+    public Map<String,Long> getTestTimeByType() {
+        Map<String,Long> result=new TreeMap<>();
+        for (Map.Entry<String,TestTypeMetrics> entry : m_testTypeMetrics.entrySet())
+            result.put(entry.getKey(),entry.getValue().m_testTime.sum());
+        return result;
+    }
+    public Map<String,long[]> getTestTimeHistogramsByType() {
+        Map<String,long[]> result=new TreeMap<>();
+        for (Map.Entry<String,TestTypeMetrics> entry : m_testTypeMetrics.entrySet()) {
+            AtomicLongArray histogram=entry.getValue().m_histogram;
+            long[] counts=new long[histogram.length()];
+            for (int bucket=0;bucket<counts.length;bucket++)
+                counts[bucket]=histogram.get(bucket);
+            result.put(entry.getKey(),counts);
+        }
+        return result;
+    }
+    public long[] getTestTimeHistogramBounds() {
+        return TEST_TIME_HISTOGRAM_BOUNDS.clone();
+    }
+    public long getNumberOfBacktrackings() {
+        return m_numberOfBacktrackings.sum();
+    }
+    public long getNumberOfClashes() {
+        return m_numberOfClashes.sum();
+    }
+    public long getNumberOfCreatedNodes() {
+        return m_numberOfCreatedNodes.sum();
+    }
+    public long getNumberOfBlockedNodes() {
+        return m_numberOfBlockedNodes.sum();
+    }
+    public long getNumberOfBlockingValidations() {
+        return m_numberOfBlockingValidations.sum();
+    }
+    public long getNumberOfInvalidlyBlockedNodes() {
+        return m_numberOfInvalidlyBlockedNodes.sum();
+    }
+    public long getNumberOfDatatypeChecks() {
+        return m_numberOfDatatypeChecks.sum();
+    }
+    public long getNumberOfSatisfiabilityCacheHits() {
+        return m_numberOfSatisfiabilityCacheHits.sum();
+    }
+    public long getNumberOfSatisfiabilityCacheMisses() {
+        return m_numberOfSatisfiabilityCacheMisses.sum();
+    }
+    public long getLastNumberOfTuples() {
+        return m_lastNumberOfTuples.get();
+    }
+    public long getMaximalNumberOfTuples() {
+        return m_maximalNumberOfTuples.get();
+    }
+    public void reset() {
+        m_testTypeMetrics.clear();
+        m_numberOfBacktrackings.reset();
+        m_numberOfClashes.reset();
+        m_numberOfCreatedNodes.reset();
+        m_numberOfBlockedNodes.reset();
+        m_numberOfBlockingValidations.reset();
+        m_numberOfInvalidlyBlockedNodes.reset();
+        m_numberOfDatatypeChecks.reset();
+        m_numberOfSatisfiabilityCacheHits.reset();
+        m_numberOfSatisfiabilityCacheMisses.reset();
+        m_lastNumberOfTuples.set(0);
+        m_maximalNumberOfTuples.set(0);
+    }
+
+    protected static class TestTypeMetrics {
+        protected final LongAdder m_numberOfTests;
+        protected final LongAdder m_testTime;
+        protected final AtomicLongArray m_histogram;
+
+        public TestTypeMetrics() {
+            m_numberOfTests=new LongAdder();
+            m_testTime=new LongAdder();
+            m_histogram=new AtomicLongArray(TEST_TIME_HISTOGRAM_BOUNDS.length+1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.monitor;
+
+import java.util.Map;
+
+/**
+ * The management interface of ReasonerMetrics. Times are given in microseconds, and the tests are grouped by the message
+ * pattern of their ReasoningTaskDescription (e.g., "concept subsumption '{0}' =&gt; '{1}'").
+ */
+public interface ReasonerMetricsMXBean {
+    long getNumberOfTests();
+    long getTotalTestTime();
+    Map<String,Long> getNumberOfTestsByType();
+    Map<String,Long> getTestTimeByType();
+    /**
+     * @return for each type of test, the number of tests whose time is at most the corresponding bound of
+     * getTestTimeHistogramBounds() (and greater than the previous bound); the last entry counts the tests that took longer
+     */
+    Map<String,long[]> getTestTimeHistogramsByType();
+    long[] getTestTimeHistogramBounds();
+    long getNumberOfBacktrackings();
+    long getNumberOfClashes();
+    long getNumberOfCreatedNodes();
+    long getNumberOfBlockedNodes();
+    long getNumberOfBlockingValidations();
+    long getNumberOfInvalidlyBlockedNodes();
+    long getNumberOfDatatypeChecks();
+    long getNumberOfSatisfiabilityCacheHits();
+    long getNumberOfSatisfiabilityCacheMisses();
+    long getLastNumberOfTuples();
+    long getMaximalNumberOfTuples();
+    void reset();
+}
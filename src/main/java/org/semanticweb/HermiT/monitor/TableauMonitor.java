@@ -81,4 +81,8 @@ public interface TableauMonitor {
     void blockingValidationFinished(int noInvalidlyBlocked);
     void possibleInstanceIsInstance();
     void possibleInstanceIsNotInstance();
+    void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result);
+    void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription);
+    void nogoodLearned();
+    void disjunctExcludedByNogood(GroundDisjunction groundDisjunction,int disjunct);
 }
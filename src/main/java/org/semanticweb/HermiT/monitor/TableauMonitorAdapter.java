@@ -142,4 +142,12 @@ public class TableauMonitorAdapter implements TableauMonitor,Serializable  {
     }
     public void possibleInstanceIsNotInstance() {
     }
+    public void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+    }
+    public void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription) {
+    }
+    public void nogoodLearned() {
+    }
+    public void disjunctExcludedByNogood(GroundDisjunction groundDisjunction,int disjunct) {
+    }
 }
@@ -248,4 +248,20 @@ public class TableauMonitorFork implements TableauMonitor,Serializable  {
         m_first.possibleInstanceIsNotInstance();
         m_second.possibleInstanceIsNotInstance();
     }
+    public void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+        m_first.satisfiabilityCacheHit(reasoningTaskDescription,result);
+        m_second.satisfiabilityCacheHit(reasoningTaskDescription,result);
+    }
+    public void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription) {
+        m_first.satisfiabilityCacheMiss(reasoningTaskDescription);
+        m_second.satisfiabilityCacheMiss(reasoningTaskDescription);
+    }
+    public void nogoodLearned() {
+        m_first.nogoodLearned();
+        m_second.nogoodLearned();
+    }
+    public void disjunctExcludedByNogood(GroundDisjunction groundDisjunction,int disjunct) {
+        m_first.disjunctExcludedByNogood(groundDisjunction,disjunct);
+        m_second.disjunctExcludedByNogood(groundDisjunction,disjunct);
+    }
 }
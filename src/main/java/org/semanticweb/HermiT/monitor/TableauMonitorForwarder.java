@@ -252,4 +252,20 @@ public class TableauMonitorForwarder implements TableauMonitor,Serializable {
         if (m_forwardingOn)
             m_forwardingTargetMonitor.possibleInstanceIsNotInstance();
     }
+    public void satisfiabilityCacheHit(ReasoningTaskDescription reasoningTaskDescription,boolean result) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.satisfiabilityCacheHit(reasoningTaskDescription,result);
+    }
+    public void satisfiabilityCacheMiss(ReasoningTaskDescription reasoningTaskDescription) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.satisfiabilityCacheMiss(reasoningTaskDescription);
+    }
+    public void nogoodLearned() {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.nogoodLearned();
+    }
+    public void disjunctExcludedByNogood(GroundDisjunction groundDisjunction,int disjunct) {
+        if (m_forwardingOn)
+            m_forwardingTargetMonitor.disjunctExcludedByNogood(groundDisjunction,disjunct);
+    }
 }
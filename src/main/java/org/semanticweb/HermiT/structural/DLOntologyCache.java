@@ -0,0 +1,139 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLOntologyBinaryFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.google.common.base.Optional;
+
+/**
+ * A directory of clausified ontologies. Each DL ontology is stored in the binary format of DLOntologyBinaryFormat
+ * under a key that is derived from the axioms of the imports closure and the configuration options that influence
+ * clausification, so a changed ontology simply gets a new entry. Entries are read through a memory-mapped buffer.
+ */
+public class DLOntologyCache {
+    protected static final String FILE_EXTENSION=".dlo";
+
+    protected final File m_directory;
+
+    public DLOntologyCache(File directory) {
+        m_directory=directory;
+    }
+    public File getDirectory() {
+        return m_directory;
+    }
+    /**
+     * Returns the cached DL ontology for the given key, or null if there is no entry or the entry cannot be read.
+     */
+    public DLOntology load(String key) {
+        File file=getFile(key);
+        if (!file.isFile())
+            return null;
+        try (FileChannel channel=FileChannel.open(file.toPath(),StandardOpenOption.READ)) {
+            MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+            return DLOntologyBinaryFormat.read(buffer);
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+    /**
+     * Stores the DL ontology under the given key. The entry is written to a temporary file first and then moved into
+     * place, so concurrent readers never see a partially written entry.
+     */
+    public void save(String key,DLOntology dlOntology) throws IOException {
+        Path directory=m_directory.toPath();
+        Files.createDirectories(directory);
+        Path temporaryFile=Files.createTempFile(directory,key,".tmp");
+        try {
+            try (OutputStream outputStream=new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+                DLOntologyBinaryFormat.write(dlOntology,outputStream);
+            }
+            Path file=getFile(key).toPath();
+            try {
+                Files.move(temporaryFile,file,StandardCopyOption.ATOMIC_MOVE,StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile,file,StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+    protected File getFile(String key) {
+        return new File(m_directory,key+FILE_EXTENSION);
+    }
+    /**
+     * Computes the key of the clausification of the given ontology under the given configuration. The key does not
+     * depend on the order in which the axioms are stored.
+     */
+    public static String computeKey(OWLOntology rootOntology,Configuration configuration) {
+        MessageDigest digest;
+        try {
+            digest=MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 message digest is not available.",e);
+        }
+        update(digest,"HermiT-DLOntology-"+DLOntologyBinaryFormat.VERSION);
+        update(digest,String.valueOf(configuration.ignoreUnsupportedDatatypes));
+        Optional<IRI> defaultDocumentIRI=rootOntology.getOntologyID().getDefaultDocumentIRI();
+        update(digest,defaultDocumentIRI.isPresent() ? defaultDocumentIRI.get().toString() : "");
+        List<String> axioms=new ArrayList<>();
+        for (OWLOntology ontology : rootOntology.getImportsClosure())
+            for (OWLAxiom axiom : ontology.getAxioms())
+                axioms.add(axiom.toString());
+        Collections.sort(axioms);
+        for (String axiom : axioms)
+            update(digest,axiom);
+        StringBuilder key=new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b>>4) & 0xF,16));
+            key.append(Character.forDigit(b & 0xF,16));
+        }
+        return key.toString();
+    }
+    protected static void update(MessageDigest digest,String string) {
+        digest.update(string.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+}
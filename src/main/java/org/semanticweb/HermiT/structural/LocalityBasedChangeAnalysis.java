@@ -0,0 +1,169 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+/**
+ * Determines which classes can be affected by adding or removing a set of axioms. The analysis is based on syntactic
+ * bottom-locality modules: the module of a class A preserves all subsumers of A, so if the module of A in the union of
+ * the old and the new ontology contains none of the changed axioms, then the module of A is the same in the old and the
+ * new ontology and A has the same subsumers (and the same satisfiability status) in both.
+ *
+ * Modules are extracted on demand. If the module of a class A contains a class B that is already known to be affected,
+ * then the module of B is contained in the module of A and A is affected as well, so the extraction stops early;
+ * querying the classes in a top-down order of the previous hierarchy therefore saves most of the work for affected
+ * classes.
+ */
+public class LocalityBasedChangeAnalysis {
+    protected final SyntacticLocalityEvaluator m_localityEvaluator;
+    protected final OWLAxiom[] m_axioms;
+    protected final boolean[] m_isChangedAxiom;
+    protected final List<OWLEntity> m_entities;
+    protected final Map<OWLEntity,Integer> m_entityIndexes;
+    protected final int[][] m_axiomSignatures;
+    protected final int[][] m_axiomsByEntity;
+    protected final BitSet m_emptySignatureModule;
+    protected final BitSet m_emptySignatureModuleSignature;
+    protected final boolean m_emptySignatureModuleIsAffected;
+    protected final Map<OWLClass,Boolean> m_affectedClasses;
+
+    /**
+     * @param axioms
+     *            the logical axioms of the union of the old and the new ontology
+     * @param changedAxioms
+     *            the axioms that have been added or removed
+     */
+    public LocalityBasedChangeAnalysis(Collection<? extends OWLAxiom> axioms,Set<? extends OWLAxiom> changedAxioms) {
+        m_localityEvaluator=new SyntacticLocalityEvaluator(LocalityClass.BOTTOM_BOTTOM);
+        m_axioms=axioms.toArray(new OWLAxiom[axioms.size()]);
+        m_isChangedAxiom=new boolean[m_axioms.length];
+        m_entities=new ArrayList<>();
+        m_entityIndexes=new HashMap<>();
+        m_axiomSignatures=new int[m_axioms.length][];
+        List<List<Integer>> axiomsByEntity=new ArrayList<>();
+        for (int axiomIndex=0;axiomIndex<m_axioms.length;axiomIndex++) {
+            m_isChangedAxiom[axiomIndex]=changedAxioms.contains(m_axioms[axiomIndex]);
+            Set<OWLEntity> signature=m_axioms[axiomIndex].getSignature();
+            int[] axiomSignature=new int[signature.size()];
+            int position=0;
+            for (OWLEntity entity : signature) {
+                Integer entityIndex=m_entityIndexes.get(entity);
+                if (entityIndex==null) {
+                    entityIndex=m_entities.size();
+                    m_entityIndexes.put(entity,entityIndex);
+                    m_entities.add(entity);
+                    axiomsByEntity.add(new ArrayList<Integer>());
+                }
+                axiomSignature[position++]=entityIndex;
+                axiomsByEntity.get(entityIndex).add(axiomIndex);
+            }
+            m_axiomSignatures[axiomIndex]=axiomSignature;
+        }
+        m_axiomsByEntity=new int[m_entities.size()][];
+        for (int entityIndex=0;entityIndex<m_axiomsByEntity.length;entityIndex++) {
+            List<Integer> axiomIndexes=axiomsByEntity.get(entityIndex);
+            int[] array=new int[axiomIndexes.size()];
+            for (int index=0;index<array.length;index++)
+                array[index]=axiomIndexes.get(index);
+            m_axiomsByEntity[entityIndex]=array;
+        }
+        m_affectedClasses=new HashMap<>();
+        // Axioms that are not local w.r.t. the empty signature belong to every module, so the module of the empty
+        // signature is computed once and used as the starting point of every extraction.
+        m_emptySignatureModule=new BitSet(m_axioms.length);
+        m_emptySignatureModuleSignature=new BitSet(m_entities.size());
+        Set<OWLEntity> signature=new HashSet<>();
+        List<Integer> entitiesToProcess=new ArrayList<>();
+        boolean isAffected=false;
+        for (int axiomIndex=0;axiomIndex<m_axioms.length && !isAffected;axiomIndex++)
+            if (!m_localityEvaluator.isLocal(m_axioms[axiomIndex],Collections.<OWLEntity>emptySet()))
+                isAffected=addToModule(axiomIndex,m_emptySignatureModule,m_emptySignatureModuleSignature,signature,entitiesToProcess);
+        if (!isAffected)
+            isAffected=extendModule(m_emptySignatureModule,m_emptySignatureModuleSignature,signature,entitiesToProcess);
+        m_emptySignatureModuleIsAffected=isAffected;
+    }
+    /**
+     * Returns true if the subsumers of the given class may differ between the old and the new ontology.
+     */
+    public boolean isAffected(OWLClass owlClass) {
+        Boolean isAffected=m_affectedClasses.get(owlClass);
+        if (isAffected==null) {
+            isAffected=computeIsAffected(owlClass);
+            m_affectedClasses.put(owlClass,isAffected);
+        }
+        return isAffected;
+    }
+    protected boolean computeIsAffected(OWLClass owlClass) {
+        if (m_emptySignatureModuleIsAffected)
+            return true;
+        Integer entityIndex=m_entityIndexes.get(owlClass);
+        if (entityIndex==null || m_emptySignatureModuleSignature.get(entityIndex))
+            return false;
+        BitSet module=(BitSet)m_emptySignatureModule.clone();
+        BitSet moduleSignature=(BitSet)m_emptySignatureModuleSignature.clone();
+        Set<OWLEntity> signature=new HashSet<>();
+        for (int index=moduleSignature.nextSetBit(0);index>=0;index=moduleSignature.nextSetBit(index+1))
+            signature.add(m_entities.get(index));
+        List<Integer> entitiesToProcess=new ArrayList<>();
+        addToSignature(entityIndex,moduleSignature,signature,entitiesToProcess);
+        return extendModule(module,moduleSignature,signature,entitiesToProcess);
+    }
+    protected boolean extendModule(BitSet module,BitSet moduleSignature,Set<OWLEntity> signature,List<Integer> entitiesToProcess) {
+        while (!entitiesToProcess.isEmpty()) {
+            int entityIndex=entitiesToProcess.remove(entitiesToProcess.size()-1);
+            OWLEntity entity=m_entities.get(entityIndex);
+            if (entity instanceof OWLClass && Boolean.TRUE.equals(m_affectedClasses.get(entity)))
+                return true;
+            for (int axiomIndex : m_axiomsByEntity[entityIndex])
+                if (!module.get(axiomIndex) && !m_localityEvaluator.isLocal(m_axioms[axiomIndex],signature) && addToModule(axiomIndex,module,moduleSignature,signature,entitiesToProcess))
+                    return true;
+        }
+        return false;
+    }
+    protected boolean addToModule(int axiomIndex,BitSet module,BitSet moduleSignature,Set<OWLEntity> signature,List<Integer> entitiesToProcess) {
+        if (m_isChangedAxiom[axiomIndex])
+            return true;
+        module.set(axiomIndex);
+        for (int entityIndex : m_axiomSignatures[axiomIndex])
+            addToSignature(entityIndex,moduleSignature,signature,entitiesToProcess);
+        return false;
+    }
+    protected void addToSignature(int entityIndex,BitSet moduleSignature,Set<OWLEntity> signature,List<Integer> entitiesToProcess) {
+        if (!moduleSignature.get(entityIndex)) {
+            moduleSignature.set(entityIndex);
+            signature.add(m_entities.get(entityIndex));
+            entitiesToProcess.add(entityIndex);
+        }
+    }
+}
@@ -56,6 +56,7 @@ import org.semanticweb.HermiT.model.Term;
 import org.semanticweb.HermiT.model.Variable;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
@@ -98,6 +99,7 @@ import org.semanticweb.owlapi.model.OWLObjectInverseOf;
 import org.semanticweb.owlapi.model.OWLObjectMaxCardinality;
 import org.semanticweb.owlapi.model.OWLObjectMinCardinality;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
@@ -157,6 +159,25 @@ public class OWLClausification {
         DLOntology dlOntology=clausify(factory,ontologyIRI,axioms,axiomsExpressivity,descriptionGraphs);
         return new Object[] { objectPropertyInclusionManager,dlOntology };
     }
+    /**
+     * Recreates the object property inclusion manager that preprocessAndClausify() produces for the given ontology
+     * without clausifying the ontology again. The automata depend only on the object property axioms and on whether
+     * the top object property is used, which the previously clausified DL ontology records.
+     */
+    public ObjectPropertyInclusionManager createObjectPropertyInclusionManager(OWLOntology rootOntology,DLOntology dlOntology) {
+        OWLDataFactory factory=rootOntology.getOWLOntologyManager().getOWLDataFactory();
+        List<OWLAxiom> objectPropertyAxioms=new ArrayList<>();
+        for (OWLOntology ontology : rootOntology.getImportsClosure())
+            for (OWLAxiom axiom : ontology.getLogicalAxioms())
+                if (axiom instanceof OWLObjectPropertyAxiom)
+                    objectPropertyAxioms.add(axiom);
+        OWLAxioms axioms=new OWLAxioms();
+        OWLNormalization normalization=new OWLNormalization(factory,axioms,0);
+        normalization.processAxioms(objectPropertyAxioms);
+        if (dlOntology.getAllAtomicObjectRoles().contains(AtomicRole.TOP_OBJECT_ROLE))
+            new BuiltInPropertyManager(factory).axiomatizeTopObjectProperty(axioms);
+        return new ObjectPropertyInclusionManager(axioms);
+    }
     public DLOntology clausify(OWLDataFactory factory,String ontologyIRI,OWLAxioms axioms,OWLAxiomsExpressivity axiomsExpressivity,Collection<DescriptionGraph> descriptionGraphs) {
         Set<DLClause> dlClauses= new LinkedHashSet<>();
         Set<Atom> positiveFacts= new HashSet<>();
@@ -38,24 +38,72 @@ import org.semanticweb.HermiT.monitor.TableauMonitor;
 public class DLClauseEvaluator implements Serializable {
     private static final long serialVersionUID=4639844159658590456L;
     protected static final String CRLF=System.getProperty("line.separator");
+    /**
+     * If the evaluator is profiled, the time of one in that many evaluations is measured; the number must be a power of two.
+     */
+    public static final int PROFILING_SAMPLING_INTERVAL=64;
 
     protected final InterruptFlag m_interruptFlag;
     protected final ExtensionManager m_extensionManager;
-    protected final ExtensionTable.Retrieval[] m_retrievals;
-    protected final Worker[] m_workers;
-    protected final DLClause m_bodyDLClause;
+    protected ExtensionTable.Retrieval[] m_retrievals;
+    protected Worker[] m_workers;
+    protected DLClause m_bodyDLClause;
     protected final List<DLClause> m_headDLClauses;
+    protected final long[] m_numberOfRetrievedTuples;
+    protected final long[] m_numberOfFiredHeads;
+    protected long m_numberOfSampledEvaluations;
+    protected long m_sampledEvaluationTime;
 
     public DLClauseEvaluator(Tableau tableau,DLClause bodyDLClause,List<DLClause> headDLClauses,ExtensionTable.Retrieval firstAtomRetrieval,BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize) {
+        this(tableau,bodyDLClause,headDLClauses,firstAtomRetrieval,bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize,false);
+    }
+    /**
+     * @param profile if true, the evaluator counts its evaluations, the tuples retrieved for each body atom, and the matches of each head, and it samples the time of its evaluations (see DLClauseProfile)
+     */
+    public DLClauseEvaluator(Tableau tableau,DLClause bodyDLClause,List<DLClause> headDLClauses,ExtensionTable.Retrieval firstAtomRetrieval,BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize,boolean profile) {
         m_interruptFlag=tableau.m_interruptFlag;
         m_extensionManager=tableau.m_extensionManager;
-        DLClauseCompiler compiler=new DLClauseCompiler(bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize,this,m_extensionManager,tableau.getExistentialsExpansionStrategy(),bodyDLClause,headDLClauses,firstAtomRetrieval);
+        if (profile) {
+            m_numberOfRetrievedTuples=new long[bodyDLClause.getBodyLength()];
+            m_numberOfFiredHeads=new long[headDLClauses.size()];
+        }
+        else {
+            m_numberOfRetrievedTuples=null;
+            m_numberOfFiredHeads=null;
+        }
+        m_headDLClauses=headDLClauses;
+        compile(tableau,bodyDLClause,firstAtomRetrieval,bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize);
+    }
+    protected void compile(Tableau tableau,DLClause bodyDLClause,ExtensionTable.Retrieval firstAtomRetrieval,BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize) {
+        DLClauseCompiler compiler=new DLClauseCompiler(bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize,this,m_extensionManager,tableau.getExistentialsExpansionStrategy(),bodyDLClause,m_headDLClauses,firstAtomRetrieval);
         m_retrievals=new ExtensionTable.Retrieval[compiler.m_retrievals.size()];
         compiler.m_retrievals.toArray(m_retrievals);
         m_workers=new Worker[compiler.m_workers.size()];
         compiler.m_workers.toArray(m_workers);
         m_bodyDLClause=bodyDLClause;
-        m_headDLClauses=headDLClauses;
+    }
+    /**
+     * Compiles the program anew for a body that contains the atoms of the current body in a different order. The first
+     * atom must stay in place because it is matched by the retrieval that triggers the evaluations. The method must not be
+     * called while the evaluator is being evaluated. The counters of a profiled evaluator are carried over to the new order.
+     */
+    public void reorderBody(Tableau tableau,DLClause bodyDLClause,BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize) {
+        if (bodyDLClause.getBodyLength()!=m_bodyDLClause.getBodyLength() || !bodyDLClause.getBodyAtom(0).equals(m_bodyDLClause.getBodyAtom(0)))
+            throw new IllegalArgumentException("The reordered body must have the same atoms and the same first atom as the current body.");
+        if (m_numberOfRetrievedTuples!=null) {
+            long[] numberOfRetrievedTuples=m_numberOfRetrievedTuples.clone();
+            boolean[] usedAtoms=new boolean[numberOfRetrievedTuples.length];
+            for (int newAtomIndex=1;newAtomIndex<numberOfRetrievedTuples.length;newAtomIndex++) {
+                Atom atom=bodyDLClause.getBodyAtom(newAtomIndex);
+                for (int oldAtomIndex=1;oldAtomIndex<numberOfRetrievedTuples.length;oldAtomIndex++)
+                    if (!usedAtoms[oldAtomIndex] && atom.equals(m_bodyDLClause.getBodyAtom(oldAtomIndex))) {
+                        usedAtoms[oldAtomIndex]=true;
+                        m_numberOfRetrievedTuples[newAtomIndex]=numberOfRetrievedTuples[oldAtomIndex];
+                        break;
+                    }
+            }
+        }
+        compile(tableau,bodyDLClause,m_retrievals[0],bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize);
     }
     public int getBodyLength() {
         return m_bodyDLClause.getBodyLength();
@@ -78,7 +126,56 @@ public class DLClauseEvaluator implements Serializable {
     public Object[] getTupleMatchedToBody(int atomIndex) {
         return m_retrievals[atomIndex].getTupleBuffer();
     }
+    public boolean isProfiled() {
+        return m_numberOfRetrievedTuples!=null;
+    }
+    /**
+     * @return the number of evaluations since the profile was last reset, or 0 if the evaluator is not profiled
+     */
+    public long getNumberOfEvaluations() {
+        return m_numberOfRetrievedTuples==null ? 0 : m_numberOfRetrievedTuples[0];
+    }
+    /**
+     * @return the number of tuples retrieved for the given body atom since the profile was last reset; the tuples of the first body atom are the tuples that triggered the evaluations
+     */
+    public long getNumberOfRetrievedTuples(int atomIndex) {
+        return m_numberOfRetrievedTuples==null ? 0 : m_numberOfRetrievedTuples[atomIndex];
+    }
+    /**
+     * @return the number of times the body was matched and the head of the given DL-clause was derived since the profile was last reset
+     */
+    public long getNumberOfFiredHeads(int dlClauseIndex) {
+        return m_numberOfFiredHeads==null ? 0 : m_numberOfFiredHeads[dlClauseIndex];
+    }
+    /**
+     * @return the estimated time in nanoseconds of all evaluations since the profile was last reset, extrapolated from the sampled evaluations
+     */
+    public long getEstimatedEvaluationTime() {
+        if (m_numberOfSampledEvaluations==0)
+            return 0;
+        return (long)((double)m_sampledEvaluationTime/m_numberOfSampledEvaluations*m_numberOfRetrievedTuples[0]);
+    }
+    public void resetProfile() {
+        if (m_numberOfRetrievedTuples!=null) {
+            for (int atomIndex=0;atomIndex<m_numberOfRetrievedTuples.length;atomIndex++)
+                m_numberOfRetrievedTuples[atomIndex]=0;
+            for (int dlClauseIndex=0;dlClauseIndex<m_numberOfFiredHeads.length;dlClauseIndex++)
+                m_numberOfFiredHeads[dlClauseIndex]=0;
+            m_numberOfSampledEvaluations=0;
+            m_sampledEvaluationTime=0;
+        }
+    }
     public void evaluate() {
+        if (m_numberOfRetrievedTuples!=null && (++m_numberOfRetrievedTuples[0] & (PROFILING_SAMPLING_INTERVAL-1))==0) {
+            long startTime=System.nanoTime();
+            executeProgram();
+            m_sampledEvaluationTime+=System.nanoTime()-startTime;
+            m_numberOfSampledEvaluations++;
+        }
+        else
+            executeProgram();
+    }
+    protected void executeProgram() {
         int programCounter=0;
         while (programCounter<m_workers.length && !m_extensionManager.containsClash()) {
             m_interruptFlag.checkInterrupt();
@@ -471,6 +568,25 @@ public class DLClauseEvaluator implements Serializable {
         }
     }
 
+    protected static final class IncrementCounter implements Worker,Serializable {
+        private static final long serialVersionUID=-3513346478227468529L;
+
+        protected final long[] m_counters;
+        protected final int m_counterIndex;
+
+        public IncrementCounter(long[] counters,int counterIndex) {
+            m_counters=counters;
+            m_counterIndex=counterIndex;
+        }
+        public int execute(int programCounter) {
+            m_counters[m_counterIndex]++;
+            return programCounter+1;
+        }
+        public String toString() {
+            return "Increment counter "+m_counterIndex;
+        }
+    }
+
     protected static final class CallMatchStartedOnMonitor implements Worker,Serializable {
         private static final long serialVersionUID=8736659573939242252L;
 
@@ -673,6 +789,7 @@ public class DLClauseEvaluator implements Serializable {
         protected final DLClause m_bodyDLClause;
         protected final List<DLClause> m_headDLClauses;
         protected final boolean[] m_coreVariables;
+        protected boolean m_coreVariablesDependOnlyOnHeadVariables;
 
         public DLClauseCompiler(BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize,DLClauseEvaluator dlClauseEvalautor,ExtensionManager extensionManager,ExistentialExpansionStrategy existentialExpansionStrategy,DLClause bodyDLClause,List<DLClause> headDLClauses,ExtensionTable.Retrieval firstAtomRetrieval) {
             super(bufferSupply,valuesBufferManager,unionDependencySetsBySize,extensionManager,bodyDLClause.getBodyAtoms(),getHeadVariables(headDLClauses));
@@ -682,8 +799,17 @@ public class DLClauseEvaluator implements Serializable {
             m_bodyDLClause=bodyDLClause;
             m_headDLClauses=headDLClauses;
             m_coreVariables=new boolean[m_variables.size()];
+            m_numberOfRetrievedTuples=dlClauseEvalautor.m_numberOfRetrievedTuples;
             generateCode(1,firstAtomRetrieval);
         }
+        protected boolean stopsAtFirstWitness() {
+            return true;
+        }
+        protected boolean skipsRepeatedHeadMatches() {
+            // Deriving the same facts again has no effect and deriving the same disjunction again only adds a copy, unless the
+            // existential expansion strategy has added workers that compute the core variables from the values of all variables.
+            return m_coreVariablesDependOnlyOnHeadVariables;
+        }
         protected int getNumberOfHeads() {
             return m_headDLClauses.size();
         }
@@ -694,10 +820,14 @@ public class DLClauseEvaluator implements Serializable {
             return m_headDLClauses.get(dlClauseIndex).getHeadAtom(atomIndex);
         }
         protected void compileHeads() {
+            int numberOfWorkers=m_workers.size();
             m_existentialExpansionStrategy.dlClauseBodyCompiled(m_workers,m_bodyDLClause,m_variables,m_valuesBufferManager.m_valuesBuffer,m_coreVariables);
+            m_coreVariablesDependOnlyOnHeadVariables=(m_workers.size()==numberOfWorkers);
             for (int dlClauseIndex=0;dlClauseIndex<getNumberOfHeads();dlClauseIndex++) {
                 if (m_extensionManager.m_tableauMonitor!=null)
                     m_workers.add(new CallMatchStartedOnMonitor(m_extensionManager.m_tableauMonitor,m_dlClauseEvalautor,dlClauseIndex));
+                if (m_dlClauseEvalautor.m_numberOfFiredHeads!=null)
+                    m_workers.add(new IncrementCounter(m_dlClauseEvalautor.m_numberOfFiredHeads,dlClauseIndex));
                 if (getHeadLength(dlClauseIndex)==0)
                     m_workers.add(new SetClash(m_extensionManager,m_unionDependencySet));
                 else if (getHeadLength(dlClauseIndex)==1) {
@@ -774,6 +904,9 @@ public class DLClauseEvaluator implements Serializable {
         protected final List<ExtensionTable.Retrieval> m_retrievals;
         public final List<Worker> m_workers;
         protected final List<Integer> m_labels;
+        protected final List<Variable> m_headVariables;
+        protected long[] m_numberOfRetrievedTuples;
+        protected Integer m_headsMatchedExit;
 
         public ConjunctionCompiler(BufferSupply bufferSupply,ValuesBufferManager valuesBufferManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize,ExtensionManager extensionManager,Atom[] bodyAtoms,List<Variable> headVariables) {
             m_bufferSupply=bufferSupply;
@@ -810,6 +943,22 @@ public class DLClauseEvaluator implements Serializable {
             m_retrievals= new ArrayList<>();
             m_workers= new ArrayList<>();
             m_labels= new ArrayList<>();
+            m_headVariables=headVariables;
+        }
+        /**
+         * If true, an atom that binds no variable used by the remaining atoms or the heads is compiled as an existence check:
+         * the remaining atoms behave in the same way for all of its matches, so only its first match is used.
+         */
+        protected boolean stopsAtFirstWitness() {
+            return false;
+        }
+        /**
+         * If true, once the heads have been matched, the program resumes with the next match of the last atom that binds a
+         * head variable rather than with the next match of the last atom. This is correct if matching the heads again for the
+         * same values of the head variables has no further effect; it is checked after compileHeads() has been called.
+         */
+        protected boolean skipsRepeatedHeadMatches() {
+            return false;
         }
         protected final void generateCode(int firstBodyAtomToCompile,ExtensionTable.Retrieval firstAtomRetrieval) {
             m_labels.add(null);
@@ -840,8 +989,13 @@ public class DLClauseEvaluator implements Serializable {
             return false;
         }
         protected final void compileBodyAtom(int bodyAtomIndex,int lastAtomNextElement) {
-            if (bodyAtomIndex==getBodyLength())
+            if (m_headsMatchedExit==null && m_boundSoFar.containsAll(m_headVariables))
+                m_headsMatchedExit=lastAtomNextElement;
+            if (bodyAtomIndex==getBodyLength()) {
                 compileHeads();
+                if (m_headsMatchedExit!=null && m_headsMatchedExit.intValue()!=lastAtomNextElement && skipsRepeatedHeadMatches())
+                    m_workers.add(new JumpTo(m_headsMatchedExit.intValue()));
+            }
             else if (getBodyAtom(bodyAtomIndex).getDLPredicate().equals(NodeIDLessEqualThan.INSTANCE)) {
                 Atom atom=getBodyAtom(bodyAtomIndex);
                 int variable1Index=m_variables.indexOf(atom.getArgumentVariable(0));
@@ -898,17 +1052,36 @@ public class DLClauseEvaluator implements Serializable {
                 m_workers.add(new OpenRetrieval(retrieval));
                 int loopStart=m_workers.size();
                 m_workers.add(new HasMoreRetrieval(afterLoop,retrieval));
+                if (m_numberOfRetrievedTuples!=null)
+                    m_workers.add(new IncrementCounter(m_numberOfRetrievedTuples,bodyAtomIndex));
                 compileCheckUnboundVariableMatches(atom,retrieval,nextElement);
+                boolean isExistenceCheck=stopsAtFirstWitness() && hasUnboundVariable(atom);
+                int numberOfBoundVariables=m_boundSoFar.size();
                 compileGenerateBindings(retrieval,atom);
                 if (m_unionDependencySet!=null)
                     m_workers.add(new CopyDependencySet(retrieval,m_unionDependencySet.m_dependencySets,m_retrievals.size()-1));
-                compileBodyAtom(bodyAtomIndex+1,nextElement);
+                // The unbound variables of the atom are not used afterwards if compileGenerateBindings() has bound none of them.
+                if (isExistenceCheck && numberOfBoundVariables==m_boundSoFar.size()) {
+                    // If the remaining atoms fail, they jump to afterLoop, and if they succeed, they fall through to the jump to afterLoop.
+                    compileBodyAtom(bodyAtomIndex+1,afterLoop);
+                    m_workers.add(new JumpTo(afterLoop));
+                }
+                else
+                    compileBodyAtom(bodyAtomIndex+1,nextElement);
                 setLabelProgramCounter(nextElement);
                 m_workers.add(new NextRetrieval(retrieval));
                 m_workers.add(new JumpTo(loopStart));
                 setLabelProgramCounter(afterLoop);
             }
         }
+        protected final boolean hasUnboundVariable(Atom atom) {
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                Variable variable=atom.getArgumentVariable(argumentIndex);
+                if (variable!=null && !m_boundSoFar.contains(variable))
+                    return true;
+            }
+            return false;
+        }
         protected final int getBodyLength() {
             return m_bodyAtoms.length;
         }
@@ -0,0 +1,182 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.HermiT.Prefixes;
+import org.semanticweb.HermiT.model.DLClause;
+
+/**
+ * Collects the counters of profiled DL-clause evaluators so that the DL-clauses that dominate the hyperresolution can
+ * be identified. A DL-clause with n body atoms is evaluated by up to n evaluators, one for each body atom that can
+ * trigger the evaluation; the evaluators are registered by the HyperresolutionManager of each tableau, and the entries
+ * of the profile combine the evaluators of all tableaux with the same body. The counters are plain fields that are
+ * updated by the tableaux without synchronization, so the profile should be read once reasoning has finished.
+ */
+public class DLClauseProfile {
+    protected final List<DLClauseEvaluator> m_dlClauseEvaluators;
+
+    public DLClauseProfile() {
+        m_dlClauseEvaluators=new ArrayList<>();
+    }
+    public synchronized void registerDLClauseEvaluator(DLClauseEvaluator dlClauseEvaluator) {
+        if (!dlClauseEvaluator.isProfiled())
+            throw new IllegalArgumentException("The DL-clause evaluator is not profiled.");
+        m_dlClauseEvaluators.add(dlClauseEvaluator);
+    }
+    /**
+     * Forgets all registered evaluators, e.g., because the tableaux that own them have been discarded.
+     */
+    public synchronized void clear() {
+        m_dlClauseEvaluators.clear();
+    }
+    /**
+     * Sets the counters of all registered evaluators to zero.
+     */
+    public synchronized void reset() {
+        for (DLClauseEvaluator dlClauseEvaluator : m_dlClauseEvaluators)
+            dlClauseEvaluator.resetProfile();
+    }
+    /**
+     * @return the entries of the profile sorted by decreasing estimated evaluation time
+     */
+    public synchronized List<Entry> getEntries() {
+        Map<DLClause,Entry> entriesByBody=new LinkedHashMap<>();
+        for (DLClauseEvaluator dlClauseEvaluator : m_dlClauseEvaluators) {
+            Entry entry=entriesByBody.get(dlClauseEvaluator.m_bodyDLClause);
+            if (entry==null) {
+                entry=new Entry(dlClauseEvaluator.m_bodyDLClause,dlClauseEvaluator.m_headDLClauses);
+                entriesByBody.put(dlClauseEvaluator.m_bodyDLClause,entry);
+            }
+            entry.add(dlClauseEvaluator);
+        }
+        List<Entry> entries=new ArrayList<>(entriesByBody.values());
+        Collections.sort(entries,(entry1,entry2) -> {
+            int comparison=Long.compare(entry2.m_estimatedEvaluationTime,entry1.m_estimatedEvaluationTime);
+            if (comparison==0)
+                comparison=Long.compare(entry2.getNumberOfRetrievedTuples(),entry1.getNumberOfRetrievedTuples());
+            return comparison;
+        });
+        return entries;
+    }
+    /**
+     * Prints the entries with the highest estimated evaluation times. For each entry, the body is printed in the order
+     * in which it is matched (the first atom is the one that triggers the evaluation) together with the number of tuples
+     * retrieved for each atom, followed by the DL-clauses that share the body and the number of times their head was derived.
+     */
+    public void print(PrintWriter output,Prefixes prefixes,int maximalNumberOfEntries) {
+        List<Entry> entries=getEntries();
+        int numberOfEntries=Math.min(maximalNumberOfEntries,entries.size());
+        output.println("DL-clause profile: "+numberOfEntries+" of "+entries.size()+" bodies");
+        for (int entryIndex=0;entryIndex<numberOfEntries;entryIndex++) {
+            Entry entry=entries.get(entryIndex);
+            output.print(entryIndex+1);
+            output.print(". time ");
+            output.print(String.format("%.3f",entry.m_estimatedEvaluationTime/1000000.0));
+            output.print(" ms, evaluations ");
+            output.print(entry.getNumberOfEvaluations());
+            output.print(", fan-out ");
+            output.println(String.format("%.1f",entry.getFanOut()));
+            DLClause bodyDLClause=entry.m_bodyDLClause;
+            for (int atomIndex=0;atomIndex<bodyDLClause.getBodyLength();atomIndex++) {
+                output.print("    ");
+                output.print(bodyDLClause.getBodyAtom(atomIndex).toString(prefixes));
+                output.print(": ");
+                output.println(entry.m_numberOfRetrievedTuples[atomIndex]);
+            }
+            for (int dlClauseIndex=0;dlClauseIndex<entry.m_dlClauses.size();dlClauseIndex++) {
+                output.print("  ");
+                output.print(entry.m_dlClauses.get(dlClauseIndex).toString(prefixes));
+                output.print(" fired ");
+                output.println(entry.m_numberOfFiredHeads[dlClauseIndex]);
+            }
+        }
+        output.flush();
+    }
+
+    public static class Entry {
+        protected final DLClause m_bodyDLClause;
+        protected final List<DLClause> m_dlClauses;
+        protected final long[] m_numberOfRetrievedTuples;
+        protected final long[] m_numberOfFiredHeads;
+        protected long m_estimatedEvaluationTime;
+
+        protected Entry(DLClause bodyDLClause,List<DLClause> dlClauses) {
+            m_bodyDLClause=bodyDLClause;
+            m_dlClauses=dlClauses;
+            m_numberOfRetrievedTuples=new long[bodyDLClause.getBodyLength()];
+            m_numberOfFiredHeads=new long[dlClauses.size()];
+        }
+        protected void add(DLClauseEvaluator dlClauseEvaluator) {
+            for (int atomIndex=0;atomIndex<m_numberOfRetrievedTuples.length;atomIndex++)
+                m_numberOfRetrievedTuples[atomIndex]+=dlClauseEvaluator.getNumberOfRetrievedTuples(atomIndex);
+            for (int dlClauseIndex=0;dlClauseIndex<m_numberOfFiredHeads.length;dlClauseIndex++)
+                m_numberOfFiredHeads[dlClauseIndex]+=dlClauseEvaluator.getNumberOfFiredHeads(dlClauseIndex);
+            m_estimatedEvaluationTime+=dlClauseEvaluator.getEstimatedEvaluationTime();
+        }
+        /**
+         * @return the body in the order in which it is matched; the first atom is the one whose new tuples trigger the evaluation
+         */
+        public DLClause getBodyDLClause() {
+            return m_bodyDLClause;
+        }
+        /**
+         * @return the DL-clauses of the ontology that share the body
+         */
+        public List<DLClause> getDLClauses() {
+            return m_dlClauses;
+        }
+        public long getNumberOfEvaluations() {
+            return m_numberOfRetrievedTuples[0];
+        }
+        public long getNumberOfRetrievedTuples(int atomIndex) {
+            return m_numberOfRetrievedTuples[atomIndex];
+        }
+        /**
+         * @return the number of tuples retrieved for all body atoms but the first one
+         */
+        public long getNumberOfRetrievedTuples() {
+            long result=0;
+            for (int atomIndex=1;atomIndex<m_numberOfRetrievedTuples.length;atomIndex++)
+                result+=m_numberOfRetrievedTuples[atomIndex];
+            return result;
+        }
+        public long getNumberOfFiredHeads(int dlClauseIndex) {
+            return m_numberOfFiredHeads[dlClauseIndex];
+        }
+        /**
+         * @return the estimated time of all evaluations in nanoseconds
+         */
+        public long getEstimatedEvaluationTime() {
+            return m_estimatedEvaluationTime;
+        }
+        /**
+         * @return the average number of tuples retrieved for the remaining body atoms per evaluation
+         */
+        public double getFanOut() {
+            long numberOfEvaluations=getNumberOfEvaluations();
+            return numberOfEvaluations==0 ? 0.0 : (double)getNumberOfRetrievedTuples()/numberOfEvaluations;
+        }
+    }
+}
@@ -35,11 +35,19 @@ public final class DisjunctionBranchingPoint extends BranchingPoint {
         m_groundDisjunction=groundDisjunction;
         m_sortedDisjunctIndexes=sortedDisjunctIndexes;
     }
+    public GroundDisjunction getGroundDisjunction() {
+        return m_groundDisjunction;
+    }
+    public int getCurrentDisjunctIndex() {
+        return m_sortedDisjunctIndexes[m_currentIndex];
+    }
     public void startNextChoice(Tableau tableau,DependencySet clashDependencySet) {
         if (tableau.m_useDisjunctionLearning)
             m_groundDisjunction.getGroundDisjunctionHeader().increaseNumberOfBacktrackings(m_sortedDisjunctIndexes[m_currentIndex]);
         m_currentIndex++;
         assert m_currentIndex<m_groundDisjunction.getNumberOfDisjuncts();
+        if (tableau.m_nogoodStore!=null)
+            tableau.m_nogoodStore.deferExcludedDisjuncts(m_groundDisjunction,m_sortedDisjunctIndexes,m_currentIndex);
         int currentDisjunctIndex=m_sortedDisjunctIndexes[m_currentIndex];
         if (tableau.m_tableauMonitor!=null)
             tableau.m_tableauMonitor.disjunctProcessingStarted(m_groundDisjunction,currentDisjunctIndex);
@@ -45,6 +45,7 @@ public final class ExtensionManager implements Serializable {
     protected final ExtensionTable[] m_allExtensionTablesArray;
     protected final ExtensionTable m_binaryExtensionTable;
     protected final ExtensionTable m_ternaryExtensionTable;
+    protected final TupleObjectEncoding m_tupleObjectEncoding;
     protected final Object[] m_binaryAuxiliaryTupleContains;
     protected final Object[] m_binaryAuxiliaryTupleAdd;
     protected final Object[] m_ternaryAuxiliaryTupleContains;
@@ -59,46 +60,89 @@ public final class ExtensionManager implements Serializable {
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_dependencySetFactory=m_tableau.m_dependencySetFactory;
         m_extensionTablesByArity= new HashMap<>();
-        m_binaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),
-                new TupleIndex[] {
-                    new TupleIndex(new int[] { 1,0 }),
-                    new TupleIndex(new int[] { 0,1 })
-                }
-            ) {
-                private static final long serialVersionUID=1462821385000191875L;
+        if (m_tableau.m_useIntegerEncodedTuples) {
+            m_tupleObjectEncoding=new TupleObjectEncoding();
+            m_binaryExtensionTable=
+                new IntegerExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),m_tupleObjectEncoding,
+                    new IntegerTupleIndex[] {
+                        new IntegerTupleIndex(new int[] { 1,0 }),
+                        new IntegerTupleIndex(new int[] { 0,1 })
+                    }
+                ) {
+                    private static final long serialVersionUID=-2941577268913958230L;
 
-                public boolean isTupleActive(Object[] tuple) {
-                    return ((Node)tuple[1]).isActive();
-                }
-                public boolean isTupleActive(int tupleIndex) {
-                    return ((Node)m_tupleTable.getTupleObject(tupleIndex,1)).isActive();
-                }
-            };
-        m_extensionTablesByArity.put(Integer.valueOf(2),m_binaryExtensionTable);
-        m_ternaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),
-                new TupleIndex[] {
-                    new TupleIndex(new int[] { 0,1,2 }),
-                    new TupleIndex(new int[] { 1,2,0 }),
-                    new TupleIndex(new int[] { 2,0,1 })
-                }
-            ) {
-                private static final long serialVersionUID=-731201626401421877L;
+                    public boolean isTupleActive(Object[] tuple) {
+                        return ((Node)tuple[1]).isActive();
+                    }
+                    public boolean isTupleActive(int tupleIndex) {
+                        return getTupleNode(tupleIndex,1).isActive();
+                    }
+                };
+            m_ternaryExtensionTable=
+                new IntegerExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),m_tupleObjectEncoding,
+                    new IntegerTupleIndex[] {
+                        new IntegerTupleIndex(new int[] { 0,1,2 }),
+                        new IntegerTupleIndex(new int[] { 1,2,0 }),
+                        new IntegerTupleIndex(new int[] { 2,0,1 })
+                    }
+                ) {
+                    private static final long serialVersionUID=6160466862424386525L;
+
+                    public boolean isTupleActive(Object[] tuple) {
+                        return ((Node)tuple[1]).isActive() && ((Node)tuple[2]).isActive();
+                    }
+                    public boolean isTupleActive(int tupleIndex) {
+                        return getTupleNode(tupleIndex,1).isActive() && getTupleNode(tupleIndex,2).isActive();
+                    }
+                };
+        }
+        else {
+            m_tupleObjectEncoding=null;
+            m_binaryExtensionTable=
+                new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),
+                    new TupleIndex[] {
+                        new TupleIndex(new int[] { 1,0 }),
+                        new TupleIndex(new int[] { 0,1 })
+                    }
+                ) {
+                    private static final long serialVersionUID=1462821385000191875L;
 
-                public boolean isTupleActive(Object[] tuple) {
-                    return ((Node)tuple[1]).isActive() && ((Node)tuple[2]).isActive();
-                }
-                public boolean isTupleActive(int tupleIndex) {
-                    return ((Node)m_tupleTable.getTupleObject(tupleIndex,1)).isActive()
-                        && ((Node)m_tupleTable.getTupleObject(tupleIndex,2)).isActive();
-                }
-            };
+                    public boolean isTupleActive(Object[] tuple) {
+                        return ((Node)tuple[1]).isActive();
+                    }
+                    public boolean isTupleActive(int tupleIndex) {
+                        return ((Node)m_tupleTable.getTupleObject(tupleIndex,1)).isActive();
+                    }
+                };
+            m_ternaryExtensionTable=
+                new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),
+                    new TupleIndex[] {
+                        new TupleIndex(new int[] { 0,1,2 }),
+                        new TupleIndex(new int[] { 1,2,0 }),
+                        new TupleIndex(new int[] { 2,0,1 })
+                    }
+                ) {
+                    private static final long serialVersionUID=-731201626401421877L;
+
+                    public boolean isTupleActive(Object[] tuple) {
+                        return ((Node)tuple[1]).isActive() && ((Node)tuple[2]).isActive();
+                    }
+                    public boolean isTupleActive(int tupleIndex) {
+                        return ((Node)m_tupleTable.getTupleObject(tupleIndex,1)).isActive()
+                            && ((Node)m_tupleTable.getTupleObject(tupleIndex,2)).isActive();
+                    }
+                };
+        }
+        m_extensionTablesByArity.put(Integer.valueOf(2),m_binaryExtensionTable);
         m_extensionTablesByArity.put(Integer.valueOf(3),m_ternaryExtensionTable);
         for (DescriptionGraph descriptionGraph : m_tableau.m_permanentDLOntology.getAllDescriptionGraphs()) {
             Integer arityInteger=Integer.valueOf(descriptionGraph.getNumberOfVertices()+1);
-            if (!m_extensionTablesByArity.containsKey(arityInteger))
-                m_extensionTablesByArity.put(arityInteger,new ExtensionTableWithFullIndex(m_tableau,descriptionGraph.getNumberOfVertices()+1,!m_tableau.isDeterministic()));
+            if (!m_extensionTablesByArity.containsKey(arityInteger)) {
+                if (m_tupleObjectEncoding!=null)
+                    m_extensionTablesByArity.put(arityInteger,new IntegerExtensionTableWithFullIndex(m_tableau,descriptionGraph.getNumberOfVertices()+1,!m_tableau.isDeterministic(),m_tupleObjectEncoding));
+                else
+                    m_extensionTablesByArity.put(arityInteger,new ExtensionTableWithFullIndex(m_tableau,descriptionGraph.getNumberOfVertices()+1,!m_tableau.isDeterministic()));
+            }
         }
         m_allExtensionTablesArray=new ExtensionTable[m_extensionTablesByArity.size()];
         m_extensionTablesByArity.values().toArray(m_allExtensionTablesArray);
@@ -112,6 +156,8 @@ public final class ExtensionManager implements Serializable {
     public void clear() {
         for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
             m_allExtensionTablesArray[index].clear();
+        if (m_tupleObjectEncoding!=null)
+            m_tupleObjectEncoding.clear();
         m_clashDependencySet=null;
         m_binaryAuxiliaryTupleContains[0]=null;
         m_binaryAuxiliaryTupleContains[1]=null;
@@ -133,6 +179,35 @@ public final class ExtensionManager implements Serializable {
         m_fouraryAuxiliaryTupleAdd[3]=null;
 
     }
+    /**
+     * @return the approximate number of bytes used by all extension tables
+     */
+    public long sizeInMemory() {
+        long size=0;
+        for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
+            size+=m_allExtensionTablesArray[index].sizeInMemory();
+        if (m_tupleObjectEncoding!=null)
+            size+=m_tupleObjectEncoding.sizeInMemory();
+        return size;
+    }
+    /**
+     * @return the number of tuples in all extension tables
+     */
+    public long getNumberOfTuples() {
+        long numberOfTuples=0;
+        for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
+            numberOfTuples+=m_allExtensionTablesArray[index].getNumberOfTuples();
+        return numberOfTuples;
+    }
+    /**
+     * @return the number of active tuples of each predicate in all extension tables; the time needed is linear in the number of tuples
+     */
+    public Map<Object,Integer> getNumberOfTuplesByPredicate() {
+        Map<Object,Integer> numberOfTuplesByPredicate=new HashMap<>();
+        for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
+            m_allExtensionTablesArray[index].countTuplesByPredicate(numberOfTuplesByPredicate);
+        return numberOfTuplesByPredicate;
+    }
     public void branchingPointPushed() {
         for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
             m_allExtensionTablesArray[index].branchingPointPushed();
@@ -141,6 +216,12 @@ public final class ExtensionManager implements Serializable {
         for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
             m_allExtensionTablesArray[index].backtrack();
     }
+    /**
+     * @return the encoding of tuple objects into IDs if the extension tables store integer-encoded tuples and null otherwise
+     */
+    public TupleObjectEncoding getTupleObjectEncoding() {
+        return m_tupleObjectEncoding;
+    }
     public ExtensionTable getBinaryExtensionTable() {
         return m_binaryExtensionTable;
     }
@@ -18,6 +18,7 @@
 package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicNegationConcept;
@@ -58,11 +59,23 @@ public abstract class ExtensionTable implements Serializable {
     protected int[] m_indicesByBranchingPoint;
 
     public ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets) {
+        this(tableau,tupleArity,needsDependencySets,new TupleTable(tupleArity+(needsDependencySets ? 1 : 0)));
+    }
+    /**
+     * @param tupleTable the table holding the tuples; subclasses that store tuples differently pass null,
+     * in which case dependency sets are kept in a separate array
+     */
+    protected ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleTable tupleTable) {
         m_tableau=tableau;
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_tupleArity=tupleArity;
-        m_tupleTable=new TupleTable(m_tupleArity+(needsDependencySets ? 1 : 0));
-        m_dependencySetManager=needsDependencySets ? new LastObjectDependencySetManager(this) : new DeterministicDependencySetManager(this);
+        m_tupleTable=tupleTable;
+        if (!needsDependencySets)
+            m_dependencySetManager=new DeterministicDependencySetManager(this);
+        else if (m_tupleTable!=null)
+            m_dependencySetManager=new LastObjectDependencySetManager(this);
+        else
+            m_dependencySetManager=new ArrayDependencySetManager(this);
         if (m_tupleArity==2)
             m_coreManager=new RealCoreManager();
         else
@@ -70,6 +83,20 @@ public abstract class ExtensionTable implements Serializable {
         m_indicesByBranchingPoint=new int[2*3];
     }
     public abstract int sizeInMemory();
+    /**
+     * @return the number of tuples in the table, including removed tuples that have not been backtracked and new tuples that have not been propagated yet
+     */
+    public int getNumberOfTuples() {
+        return m_afterDeltaNewTupleIndex;
+    }
+    /**
+     * Adds the number of active tuples of each predicate (the first object of a tuple) in this table to the given map.
+     */
+    public void countTuplesByPredicate(Map<Object,Integer> numberOfTuplesByPredicate) {
+        for (int tupleIndex=0;tupleIndex<m_afterDeltaNewTupleIndex;tupleIndex++)
+            if (isTupleActive(tupleIndex))
+                numberOfTuplesByPredicate.merge(getTupleObject(tupleIndex,0),1,Integer::sum);
+    }
     public int getArity() {
         return m_tupleArity;
     }
@@ -367,6 +394,41 @@ public abstract class ExtensionTable implements Serializable {
         }
     }
 
+    protected static class ArrayDependencySetManager implements DependencySetManager,Serializable {
+        private static final long serialVersionUID=-2751287470587839632L;
+
+        protected final DependencySetFactory m_dependencySetFactory;
+        protected PermanentDependencySet[] m_dependencySets;
+
+        public ArrayDependencySetManager(ExtensionTable extensionTable) {
+            m_dependencySetFactory=extensionTable.m_tableau.getDependencySetFactory();
+            m_dependencySets=new PermanentDependencySet[TupleTable.PAGE_SIZE];
+        }
+        public int sizeInMemory() {
+            return m_dependencySets.length*4;
+        }
+        public DependencySet getDependencySet(int tupleIndex) {
+            return m_dependencySets[tupleIndex];
+        }
+        public void setDependencySet(int tupleIndex,DependencySet dependencySet) {
+            PermanentDependencySet permanentDependencySet=m_dependencySetFactory.getPermanent(dependencySet);
+            if (tupleIndex>=m_dependencySets.length) {
+                int newSize=3*m_dependencySets.length/2;
+                while (tupleIndex>=newSize)
+                    newSize=3*newSize/2;
+                PermanentDependencySet[] newDependencySets=new PermanentDependencySet[newSize];
+                System.arraycopy(m_dependencySets,0,newDependencySets,0,m_dependencySets.length);
+                m_dependencySets=newDependencySets;
+            }
+            m_dependencySets[tupleIndex]=permanentDependencySet;
+            m_dependencySetFactory.addUsage(permanentDependencySet);
+        }
+        public void forgetDependencySet(int tupleIndex) {
+            m_dependencySetFactory.removeUsage(m_dependencySets[tupleIndex]);
+            m_dependencySets[tupleIndex]=null;
+        }
+    }
+
     protected interface CoreManager {
         boolean isCore(int tupleIndex);
         void addCore(int tupleIndex);
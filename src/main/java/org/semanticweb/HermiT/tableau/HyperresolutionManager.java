@@ -49,12 +49,20 @@ public final class HyperresolutionManager implements Serializable {
     protected final Map<AtomicRole,CompiledDLClauseInfo> m_atomicRoleTupleConsumersUnguarded;
     protected final HashMap<AtomicRole,Map<AtomicConcept,CompiledDLClauseInfo>> m_atomicRoleTupleConsumersByGuardConcept1;
     protected final HashMap<AtomicRole,Map<AtomicConcept,CompiledDLClauseInfo>> m_atomicRoleTupleConsumersByGuardConcept2;
-    protected final Object[][] m_buffersToClear;
+    protected final transient JoinOrderOptimizer m_joinOrderOptimizer;
+    protected Object[][] m_buffersToClear;
     protected final UnionDependencySet[] m_unionDependencySetsToClear;
     protected final Object[] m_valuesBuffer;
     protected final int m_maxNumberOfVariables;
 
     public HyperresolutionManager(Tableau tableau,Set<DLClause> dlClauses) {
+        this(tableau,dlClauses,null,false);
+    }
+    /**
+     * @param dlClauseProfile if not null, the DL-clause evaluators are profiled and registered with the profile
+     * @param useAdaptiveJoinOrdering if true, the bodies of the DL-clauses are reordered according to the number of tuples of each predicate in the extension tables whenever these have grown considerably (see JoinOrderOptimizer)
+     */
+    public HyperresolutionManager(Tableau tableau,Set<DLClause> dlClauses,DLClauseProfile dlClauseProfile,boolean useAdaptiveJoinOrdering) {
         InterruptFlag interruptFlag=tableau.m_interruptFlag;
         m_extensionManager=tableau.m_extensionManager;
         m_tupleConsumersByDeltaPredicate= new HashMap<>();
@@ -78,6 +86,10 @@ public final class HyperresolutionManager implements Serializable {
         Map<Integer,UnionDependencySet> unionDependencySetsBySize= new HashMap<>();
         ArrayList<Atom> guardingAtomicConceptAtoms1= new ArrayList<>();
         ArrayList<Atom> guardingAtomicConceptAtoms2= new ArrayList<>();
+        if (useAdaptiveJoinOrdering)
+            m_joinOrderOptimizer=new JoinOrderOptimizer(tableau,bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize);
+        else
+            m_joinOrderOptimizer=null;
         for (Map.Entry<DLClauseBodyKey,List<DLClause>> entry : dlClausesByBody.entrySet()) {
             DLClause bodyDLClause=entry.getKey().m_dlClause;
             BodyAtomsSwapper bodyAtomsSwapper=new BodyAtomsSwapper(bodyDLClause);
@@ -93,29 +105,31 @@ public final class HyperresolutionManager implements Serializable {
                         firstTableRetrieval=extensionTable.createRetrieval(new boolean[extensionTable.getArity()],ExtensionTable.View.DELTA_OLD);
                         retrievalsByArity.put(arity,firstTableRetrieval);
                     }
-                    DLClauseEvaluator evaluator=new DLClauseEvaluator(tableau,swappedDLClause,entry.getValue(),firstTableRetrieval,bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize);
+                    DLClauseEvaluator evaluator=new DLClauseEvaluator(tableau,swappedDLClause,entry.getValue(),firstTableRetrieval,bufferSupply,valuesBufferManager,groundDisjunctionHeaderManager,unionDependencySetsBySize,dlClauseProfile!=null);
+                    if (dlClauseProfile!=null)
+                        dlClauseProfile.registerDLClauseEvaluator(evaluator);
+                    if (m_joinOrderOptimizer!=null)
+                        m_joinOrderOptimizer.addDLClauseEvaluator(evaluator,bodyAtomsSwapper,bodyAtomIndex);
                     CompiledDLClauseInfo normalTupleConsumer=new CompiledDLClauseInfo(evaluator,m_tupleConsumersByDeltaPredicate.get(deltaDLPredicate));
                     m_tupleConsumersByDeltaPredicate.put(deltaDLPredicate,normalTupleConsumer);
                     if (deltaDLPredicate instanceof AtomicRole && deltaAtom.getArgument(0) instanceof Variable && deltaAtom.getArgument(1) instanceof Variable) {
                         AtomicRole deltaAtomicRole=(AtomicRole)deltaDLPredicate;
                         getAtomicRoleClauseGuards(swappedDLClause,guardingAtomicConceptAtoms1,guardingAtomicConceptAtoms2);
+                        // An evaluator fires only if all of its guards are matched, so it suffices to register it under just one
+                        // of them; registering it under each guard would evaluate it once per matched guard for the same tuple.
                         if (!guardingAtomicConceptAtoms1.isEmpty()) {
                             Map<AtomicConcept, CompiledDLClauseInfo> compiledDLClauseInfos = m_atomicRoleTupleConsumersByGuardConcept1.computeIfAbsent(deltaAtomicRole, k -> new HashMap<>());
-                            for (Atom guardingAtom : guardingAtomicConceptAtoms1) {
-                                AtomicConcept atomicConcept=(AtomicConcept)guardingAtom.getDLPredicate();
-                                CompiledDLClauseInfo optimizedTupleConsumer=new CompiledDLClauseInfo(evaluator,compiledDLClauseInfos.get(atomicConcept));
-                                compiledDLClauseInfos.put(atomicConcept,optimizedTupleConsumer);
-                            }
+                            AtomicConcept atomicConcept=(AtomicConcept)guardingAtomicConceptAtoms1.get(0).getDLPredicate();
+                            CompiledDLClauseInfo optimizedTupleConsumer=new CompiledDLClauseInfo(evaluator,compiledDLClauseInfos.get(atomicConcept));
+                            compiledDLClauseInfos.put(atomicConcept,optimizedTupleConsumer);
                         }
-                        if (!guardingAtomicConceptAtoms2.isEmpty()) {
+                        else if (!guardingAtomicConceptAtoms2.isEmpty()) {
                             Map<AtomicConcept, CompiledDLClauseInfo> compiledDLClauseInfos = m_atomicRoleTupleConsumersByGuardConcept2.computeIfAbsent(deltaAtomicRole, k -> new HashMap<>());
-                            for (Atom guardingAtom : guardingAtomicConceptAtoms2) {
-                                AtomicConcept atomicConcept=(AtomicConcept)guardingAtom.getDLPredicate();
-                                CompiledDLClauseInfo optimizedTupleConsumer=new CompiledDLClauseInfo(evaluator,compiledDLClauseInfos.get(atomicConcept));
-                                compiledDLClauseInfos.put(atomicConcept,optimizedTupleConsumer);
-                            }
+                            AtomicConcept atomicConcept=(AtomicConcept)guardingAtomicConceptAtoms2.get(0).getDLPredicate();
+                            CompiledDLClauseInfo optimizedTupleConsumer=new CompiledDLClauseInfo(evaluator,compiledDLClauseInfos.get(atomicConcept));
+                            compiledDLClauseInfos.put(atomicConcept,optimizedTupleConsumer);
                         }
-                        if (guardingAtomicConceptAtoms1.isEmpty() && guardingAtomicConceptAtoms2.isEmpty()) {
+                        else {
                             CompiledDLClauseInfo unguardedTupleConsumer=new CompiledDLClauseInfo(evaluator,m_atomicRoleTupleConsumersUnguarded.get(deltaAtomicRole));
                             m_atomicRoleTupleConsumersUnguarded.put(deltaAtomicRole,unguardedTupleConsumer);
                         }
@@ -173,7 +187,17 @@ public final class HyperresolutionManager implements Serializable {
         for (int variableIndex=0;variableIndex<m_maxNumberOfVariables;variableIndex++)
             m_valuesBuffer[variableIndex]=null;
     }
+    /**
+     * @return the number of times a DL-clause body has been compiled anew because its join order has changed, or 0 if adaptive join ordering is not used
+     */
+    public int getNumberOfReorderedDLClauseBodies() {
+        return m_joinOrderOptimizer==null ? 0 : m_joinOrderOptimizer.m_numberOfReorderedBodies;
+    }
     public void applyDLClauses() {
+        if (m_joinOrderOptimizer!=null && m_joinOrderOptimizer.needsReordering()) {
+            m_joinOrderOptimizer.reorderBodies();
+            m_buffersToClear=m_joinOrderOptimizer.m_bufferSupply.getAllBuffers();
+        }
         for (ExtensionTable.Retrieval deltaOldRetrieval : m_deltaOldRetrievals) {
             deltaOldRetrieval.open();
             Object[] deltaOldTupleBuffer = deltaOldRetrieval.getTupleBuffer();
@@ -255,12 +279,74 @@ public final class HyperresolutionManager implements Serializable {
         }
     }
 
+    /**
+     * Reorders the bodies of the DL-clause evaluators according to the number of tuples of each predicate in the extension
+     * tables. The statistics are collected in time linear in the number of tuples, so they are collected only when the
+     * extension tables contain at least MINIMAL_NUMBER_OF_TUPLES tuples and twice as many tuples as when they were last
+     * collected; the number of reorderings is thus logarithmic in the largest number of tuples ever seen in the tableau.
+     * Only the evaluators whose join order actually changes are compiled anew.
+     */
+    protected static final class JoinOrderOptimizer {
+        public static final int MINIMAL_NUMBER_OF_TUPLES=1024;
+
+        protected final Tableau m_tableau;
+        protected final DLClauseEvaluator.BufferSupply m_bufferSupply;
+        protected final DLClauseEvaluator.ValuesBufferManager m_valuesBufferManager;
+        protected final DLClauseEvaluator.GroundDisjunctionHeaderManager m_groundDisjunctionHeaderManager;
+        protected final Map<Integer,UnionDependencySet> m_unionDependencySetsBySize;
+        protected final List<DLClauseEvaluator> m_dlClauseEvaluators;
+        protected final List<BodyAtomsSwapper> m_bodyAtomsSwappers;
+        protected final List<Integer> m_deltaAtomIndexes;
+        protected long m_numberOfTuplesForNextReordering;
+        protected int m_numberOfReorderedBodies;
+
+        public JoinOrderOptimizer(Tableau tableau,DLClauseEvaluator.BufferSupply bufferSupply,DLClauseEvaluator.ValuesBufferManager valuesBufferManager,DLClauseEvaluator.GroundDisjunctionHeaderManager groundDisjunctionHeaderManager,Map<Integer,UnionDependencySet> unionDependencySetsBySize) {
+            m_tableau=tableau;
+            m_bufferSupply=bufferSupply;
+            m_valuesBufferManager=valuesBufferManager;
+            m_groundDisjunctionHeaderManager=groundDisjunctionHeaderManager;
+            m_unionDependencySetsBySize=unionDependencySetsBySize;
+            m_dlClauseEvaluators=new ArrayList<>();
+            m_bodyAtomsSwappers=new ArrayList<>();
+            m_deltaAtomIndexes=new ArrayList<>();
+            m_numberOfTuplesForNextReordering=MINIMAL_NUMBER_OF_TUPLES;
+        }
+        public void addDLClauseEvaluator(DLClauseEvaluator dlClauseEvaluator,BodyAtomsSwapper bodyAtomsSwapper,int deltaAtomIndex) {
+            m_dlClauseEvaluators.add(dlClauseEvaluator);
+            m_bodyAtomsSwappers.add(bodyAtomsSwapper);
+            m_deltaAtomIndexes.add(deltaAtomIndex);
+        }
+        public boolean needsReordering() {
+            return !m_dlClauseEvaluators.isEmpty() && m_tableau.m_extensionManager.getNumberOfTuples()>=m_numberOfTuplesForNextReordering;
+        }
+        public void reorderBodies() {
+            ExtensionManager extensionManager=m_tableau.m_extensionManager;
+            Map<Object,Integer> numberOfTuplesByPredicate=extensionManager.getNumberOfTuplesByPredicate();
+            int numberOfNodes=Math.max(1,m_tableau.getNumberOfNodesInTableau());
+            for (int index=0;index<m_dlClauseEvaluators.size();index++) {
+                DLClauseEvaluator dlClauseEvaluator=m_dlClauseEvaluators.get(index);
+                BodyAtomsSwapper bodyAtomsSwapper=m_bodyAtomsSwappers.get(index);
+                bodyAtomsSwapper.setStatistics(numberOfTuplesByPredicate,numberOfNodes);
+                DLClause reorderedDLClause=bodyAtomsSwapper.getSwappedDLClause(m_deltaAtomIndexes.get(index));
+                if (!reorderedDLClause.equals(dlClauseEvaluator.m_bodyDLClause)) {
+                    m_bufferSupply.reuseBuffers();
+                    dlClauseEvaluator.reorderBody(m_tableau,reorderedDLClause,m_bufferSupply,m_valuesBufferManager,m_groundDisjunctionHeaderManager,m_unionDependencySetsBySize);
+                    m_numberOfReorderedBodies++;
+                }
+                m_tableau.m_interruptFlag.checkInterrupt();
+            }
+            m_numberOfTuplesForNextReordering=Math.max(MINIMAL_NUMBER_OF_TUPLES,extensionManager.getNumberOfTuples()*2L);
+        }
+    }
+
     public static final class BodyAtomsSwapper {
         protected final DLClause m_dlClause;
         protected final List<Atom> m_nodeIDComparisonAtoms;
         protected final boolean[] m_usedAtoms;
         protected final List<Atom> m_reorderedAtoms;
         protected final Set<Variable> m_boundVariables;
+        protected Map<Object,Integer> m_numberOfTuplesByPredicate;
+        protected int m_numberOfNodes;
 
         public BodyAtomsSwapper(DLClause dlClause) {
             m_dlClause=dlClause;
@@ -269,6 +355,17 @@ public final class HyperresolutionManager implements Serializable {
             m_reorderedAtoms= new ArrayList<>(m_dlClause.getBodyLength());
             m_boundVariables= new HashSet<>();
         }
+        /**
+         * Makes getSwappedDLClause() order the atoms by the estimated number of tuples that they retrieve rather than only by
+         * the number of bound variables; the estimate for an atom is the number of tuples of its predicate divided by the
+         * number of nodes once for each bound argument.
+         *
+         * @param numberOfTuplesByPredicate the number of tuples of each predicate, or null if the atoms should be ordered only by the number of bound variables
+         */
+        public void setStatistics(Map<Object,Integer> numberOfTuplesByPredicate,int numberOfNodes) {
+            m_numberOfTuplesByPredicate=numberOfTuplesByPredicate;
+            m_numberOfNodes=numberOfNodes;
+        }
         public DLClause getSwappedDLClause(int bodyIndex) {
             m_nodeIDComparisonAtoms.clear();
             for (int index=m_usedAtoms.length-1;index>=0;--index) {
@@ -287,13 +384,16 @@ public final class HyperresolutionManager implements Serializable {
                 Atom bestAtom=null;
                 int bestAtomIndex=-1;
                 int bestAtomGoodness=-1000;
+                double bestAtomCost=Double.POSITIVE_INFINITY;
                 for (int index=m_usedAtoms.length-1;index>=0;--index)
                     if (!m_usedAtoms[index]) {
                         atom=m_dlClause.getBodyAtom(index);
                         int atomGoodness=getAtomGoodness(atom);
-                        if (atomGoodness>bestAtomGoodness) {
+                        double atomCost=(m_numberOfTuplesByPredicate==null ? 0.0 : getAtomCost(atom));
+                        if (atomCost<bestAtomCost || (atomCost==bestAtomCost && atomGoodness>bestAtomGoodness) || bestAtom==null) {
                             bestAtom=atom;
                             bestAtomGoodness=atomGoodness;
+                            bestAtomCost=atomCost;
                             bestAtomIndex=index;
                         }
                     }
@@ -306,6 +406,26 @@ public final class HyperresolutionManager implements Serializable {
             m_reorderedAtoms.toArray(bodyAtoms);
             return m_dlClause.getChangedDLClause(null,bodyAtoms);
         }
+        protected double getAtomCost(Atom atom) {
+            if (NodeIDLessEqualThan.INSTANCE.equals(atom.getDLPredicate()) || atom.getDLPredicate() instanceof NodeIDsAscendingOrEqual) {
+                for (int argumentIndex=atom.getArity()-1;argumentIndex>=0;--argumentIndex)
+                    if (!m_boundVariables.contains(atom.getArgument(argumentIndex)))
+                        return Double.POSITIVE_INFINITY;
+                return 0.0;
+            }
+            else {
+                Integer numberOfTuples=m_numberOfTuplesByPredicate.get(atom.getDLPredicate());
+                if (numberOfTuples==null)
+                    return 0.0;
+                double cost=numberOfTuples.intValue();
+                for (int argumentIndex=atom.getArity()-1;argumentIndex>=0;--argumentIndex) {
+                    Term argument=atom.getArgument(argumentIndex);
+                    if (!(argument instanceof Variable) || m_boundVariables.contains(argument))
+                        cost/=m_numberOfNodes;
+                }
+                return cost;
+            }
+        }
         protected int getAtomGoodness(Atom atom) {
             if (NodeIDLessEqualThan.INSTANCE.equals(atom.getDLPredicate())) {
                 if (m_boundVariables.contains(atom.getArgumentVariable(0)) && m_boundVariables.contains(atom.getArgumentVariable(1)))
@@ -0,0 +1,241 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * The base class for extension tables that store their tuples as integer IDs
+ * in an IntegerTupleTable rather than as object references. The IDs are
+ * assigned by a TupleObjectEncoding that is shared by all extension tables of
+ * the tableau. To the outside, these tables behave just like the other
+ * extension tables: tuples are passed in and retrieved as object arrays, and
+ * they are translated to and from IDs at the table boundary.
+ */
+public abstract class IntegerExtensionTable extends ExtensionTable {
+    private static final long serialVersionUID=4420187283011386950L;
+
+    protected final TupleObjectEncoding m_tupleObjectEncoding;
+    protected final IntegerTupleTable m_integerTupleTable;
+    protected final int[] m_addIDTuple;
+    protected final int[] m_lookupIDTuple;
+    protected final int[] m_removeIDTuple;
+    protected final Object[] m_auxiliaryTuple;
+
+    public IntegerExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleObjectEncoding tupleObjectEncoding) {
+        super(tableau,tupleArity,needsDependencySets,null);
+        m_tupleObjectEncoding=tupleObjectEncoding;
+        m_integerTupleTable=new IntegerTupleTable(m_tupleArity);
+        m_addIDTuple=new int[m_tupleArity];
+        m_lookupIDTuple=new int[m_tupleArity];
+        m_removeIDTuple=new int[m_tupleArity];
+        m_auxiliaryTuple=new Object[m_tupleArity];
+    }
+    /**
+     * @return the memory taken by the tuples and their dependency sets, excluding the indexes and the (shared) encoding
+     */
+    protected int tuplesSizeInMemory() {
+        int size=m_integerTupleTable.sizeInMemory();
+        if (m_dependencySetManager instanceof ArrayDependencySetManager)
+            size+=((ArrayDependencySetManager)m_dependencySetManager).sizeInMemory();
+        return size;
+    }
+    public TupleObjectEncoding getTupleObjectEncoding() {
+        return m_tupleObjectEncoding;
+    }
+    public void retrieveTuple(Object[] tupleBuffer,int tupleIndex) {
+        m_integerTupleTable.retrieveTuple(tupleBuffer,tupleIndex,m_tupleObjectEncoding);
+    }
+    public Object getTupleObject(int tupleIndex,int objectIndex) {
+        return m_tupleObjectEncoding.decode(m_integerTupleTable.getTupleObjectID(tupleIndex,objectIndex));
+    }
+    protected Node getTupleNode(int tupleIndex,int objectIndex) {
+        return m_tupleObjectEncoding.decodeNode(m_integerTupleTable.getTupleObjectID(tupleIndex,objectIndex));
+    }
+    /**
+     * Translates the given tuple into IDs, assigning fresh IDs to objects that have not been seen before.
+     */
+    protected void encodeTuple(Object[] tuple,int[] idTuple) {
+        for (int index=m_tupleArity-1;index>=0;--index)
+            idTuple[index]=m_tupleObjectEncoding.encode(tuple[index]);
+    }
+    /**
+     * Translates the given tuple into IDs without assigning fresh IDs. If some object of the tuple does not have
+     * an ID, then the tuple cannot be in the table and the method returns false.
+     */
+    protected boolean encodeTupleIfPossible(Object[] tuple,int[] idTuple) {
+        for (int index=m_tupleArity-1;index>=0;--index) {
+            int id=m_tupleObjectEncoding.getID(tuple[index]);
+            if (id==-1)
+                return false;
+            idTuple[index]=id;
+        }
+        return true;
+    }
+    public boolean propagateDeltaNew() {
+        boolean deltaNewNotEmpty=(m_afterExtensionThisTupleIndex!=m_afterDeltaNewTupleIndex);
+        m_afterExtensionOldTupleIndex=m_afterExtensionThisTupleIndex;
+        m_afterExtensionThisTupleIndex=m_afterDeltaNewTupleIndex;
+        m_afterDeltaNewTupleIndex=m_integerTupleTable.getFirstFreeTupleIndex();
+        return deltaNewNotEmpty;
+    }
+    public void backtrack() {
+        int start=m_tableau.getCurrentBranchingPoint().m_level*3;
+        int newAfterDeltaNewTupleIndex=m_indicesByBranchingPoint[start+2];
+        for (int tupleIndex=m_afterDeltaNewTupleIndex-1;tupleIndex>=newAfterDeltaNewTupleIndex;--tupleIndex) {
+            removeTuple(tupleIndex);
+            m_dependencySetManager.forgetDependencySet(tupleIndex);
+            m_integerTupleTable.nullifyTuple(tupleIndex);
+        }
+        m_integerTupleTable.truncate(newAfterDeltaNewTupleIndex);
+        m_afterExtensionOldTupleIndex=m_indicesByBranchingPoint[start];
+        m_afterExtensionThisTupleIndex=m_indicesByBranchingPoint[start+1];
+        m_afterDeltaNewTupleIndex=newAfterDeltaNewTupleIndex;
+    }
+    public void clear() {
+        m_integerTupleTable.clear();
+        m_afterExtensionOldTupleIndex=0;
+        m_afterExtensionThisTupleIndex=0;
+        m_afterDeltaNewTupleIndex=0;
+    }
+    public boolean isTupleActive(int tupleIndex) {
+        for (int objectIndex=m_tupleArity-1;objectIndex>0;--objectIndex)
+            if (!getTupleNode(tupleIndex,objectIndex).isActive())
+                return false;
+        return true;
+    }
+
+    protected class IntegerUnindexedRetrieval implements Retrieval,Serializable {
+        private static final long serialVersionUID=-5117392512358730163L;
+
+        protected final ExtensionTable.View m_extensionView;
+        protected final int[] m_bindingPositions;
+        protected final Object[] m_bindingsBuffer;
+        protected final Object[] m_tupleBuffer;
+        protected final boolean m_ownsBuffers;
+        protected final int[] m_boundPositions;
+        protected final int[] m_boundIDs;
+        protected final int[] m_idTupleBuffer;
+        protected int m_currentTupleIndex;
+        protected int m_afterLastTupleIndex;
+
+        public IntegerUnindexedRetrieval(int[] bindingPositions,Object[] bindingsBuffer,Object[] tupleBuffer,boolean ownsBuffers,ExtensionTable.View extensionView) {
+            m_bindingPositions=bindingPositions;
+            m_extensionView=extensionView;
+            m_bindingsBuffer=bindingsBuffer;
+            m_tupleBuffer=tupleBuffer;
+            m_ownsBuffers=ownsBuffers;
+            int numberOfBoundPositions=0;
+            for (int index=m_bindingPositions.length-1;index>=0;--index)
+                if (m_bindingPositions[index]!=-1)
+                    numberOfBoundPositions++;
+            m_boundPositions=new int[numberOfBoundPositions];
+            for (int index=m_bindingPositions.length-1;index>=0;--index)
+                if (m_bindingPositions[index]!=-1)
+                    m_boundPositions[--numberOfBoundPositions]=index;
+            m_boundIDs=new int[m_boundPositions.length];
+            m_idTupleBuffer=new int[m_tupleArity];
+        }
+        public ExtensionTable getExtensionTable() {
+            return IntegerExtensionTable.this;
+        }
+        public ExtensionTable.View getExtensionView() {
+            return m_extensionView;
+        }
+        public void clear() {
+            if (m_ownsBuffers) {
+                for (int index=m_bindingsBuffer.length-1;index>=0;--index)
+                    m_bindingsBuffer[index]=null;
+                for (int index=m_tupleBuffer.length-1;index>=0;--index)
+                    m_tupleBuffer[index]=null;
+            }
+        }
+        public int[] getBindingPositions() {
+            return m_bindingPositions;
+        }
+        public Object[] getBindingsBuffer() {
+            return m_bindingsBuffer;
+        }
+        public Object[] getTupleBuffer() {
+            return m_tupleBuffer;
+        }
+        public DependencySet getDependencySet() {
+            return m_dependencySetManager.getDependencySet(m_currentTupleIndex);
+        }
+        public boolean isCore() {
+            return m_coreManager.isCore(m_currentTupleIndex);
+        }
+        public void open() {
+            switch (m_extensionView) {
+            case EXTENSION_THIS:
+                m_currentTupleIndex=0;
+                m_afterLastTupleIndex=m_afterExtensionThisTupleIndex;
+                break;
+            case EXTENSION_OLD:
+                m_currentTupleIndex=0;
+                m_afterLastTupleIndex=m_afterExtensionOldTupleIndex;
+                break;
+            case DELTA_OLD:
+                m_currentTupleIndex=m_afterExtensionOldTupleIndex;
+                m_afterLastTupleIndex=m_afterExtensionThisTupleIndex;
+                break;
+            case TOTAL:
+                m_currentTupleIndex=0;
+                m_afterLastTupleIndex=m_afterDeltaNewTupleIndex;
+                break;
+            }
+            for (int index=m_boundPositions.length-1;index>=0;--index) {
+                m_boundIDs[index]=m_tupleObjectEncoding.getID(m_bindingsBuffer[m_bindingPositions[m_boundPositions[index]]]);
+                if (m_boundIDs[index]==-1) {
+                    m_currentTupleIndex=m_afterLastTupleIndex;
+                    return;
+                }
+            }
+            while (m_currentTupleIndex<m_afterLastTupleIndex) {
+                if (isTupleActive())
+                    return;
+                m_currentTupleIndex++;
+            }
+        }
+        public boolean afterLast() {
+            return m_currentTupleIndex>=m_afterLastTupleIndex;
+        }
+        public int getCurrentTupleIndex() {
+            return m_currentTupleIndex;
+        }
+        public void next() {
+            if (m_currentTupleIndex<m_afterLastTupleIndex) {
+                m_currentTupleIndex++;
+                while (m_currentTupleIndex<m_afterLastTupleIndex) {
+                    if (isTupleActive())
+                        return;
+                    m_currentTupleIndex++;
+                }
+            }
+        }
+        protected boolean isTupleActive() {
+            m_integerTupleTable.retrieveTuple(m_idTupleBuffer,m_currentTupleIndex);
+            for (int index=m_boundPositions.length-1;index>=0;--index)
+                if (m_idTupleBuffer[m_boundPositions[index]]!=m_boundIDs[index])
+                    return false;
+            for (int index=m_tupleArity-1;index>=0;--index)
+                m_tupleBuffer[index]=m_tupleObjectEncoding.decode(m_idTupleBuffer[index]);
+            return IntegerExtensionTable.this.isTupleActive(m_tupleBuffer);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.InternalDatatype;
+
+/**
+ * The integer-encoded counterpart of ExtensionTableWithTupleIndexes for use
+ * with binary and ternary assertions.
+ * @see IntegerExtensionTableWithFullIndex
+ */
+public class IntegerExtensionTableWithTupleIndexes extends IntegerExtensionTable {
+    private static final long serialVersionUID=-3087521628440160227L;
+
+    protected final IntegerTupleIndex[] m_tupleIndexes;
+
+    public IntegerExtensionTableWithTupleIndexes(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleObjectEncoding tupleObjectEncoding,IntegerTupleIndex[] tupleIndexes) {
+        super(tableau,tupleArity,needsDependencySets,tupleObjectEncoding);
+        m_tupleIndexes=tupleIndexes;
+    }
+    public int sizeInMemory() {
+        int size=tuplesSizeInMemory();
+        for (int i=m_tupleIndexes.length-1;i>=0;--i)
+            size+=m_tupleIndexes[i].sizeInMemory();
+        return size;
+    }
+    public boolean addTuple(Object[] tuple,DependencySet dependencySet,boolean isCore) {
+        if (m_tableauMonitor!=null)
+            m_tableauMonitor.addFactStarted(tuple,isCore);
+        if (isTupleActive(tuple) && (m_tableau.m_needsThingExtension || !AtomicConcept.THING.equals(tuple[0])) && (m_tableau.m_needsRDFSLiteralExtension || !InternalDatatype.RDFS_LITERAL.equals(tuple[0]))) {
+            encodeTuple(tuple,m_addIDTuple);
+            int firstFreeTupleIndex=m_integerTupleTable.getFirstFreeTupleIndex();
+            int addTupleIndex=m_tupleIndexes[0].addTuple(m_addIDTuple,firstFreeTupleIndex);
+            if (addTupleIndex==firstFreeTupleIndex) {
+                for (int index=1;index<m_tupleIndexes.length;index++)
+                    m_tupleIndexes[index].addTuple(m_addIDTuple,addTupleIndex);
+                m_integerTupleTable.addTuple(m_addIDTuple);
+                m_dependencySetManager.setDependencySet(addTupleIndex,dependencySet);
+                m_coreManager.setCore(addTupleIndex,isCore);
+                m_afterDeltaNewTupleIndex=m_integerTupleTable.getFirstFreeTupleIndex();
+                if (m_tableauMonitor!=null)
+                    m_tableauMonitor.addFactFinished(tuple,isCore,true);
+                postAdd(tuple,dependencySet,addTupleIndex,isCore);
+                return true;
+            }
+            if (isCore && !m_coreManager.isCore(addTupleIndex)) {
+                m_coreManager.addCore(addTupleIndex);
+                Object dlPredicateObject=tuple[0];
+                if (dlPredicateObject instanceof Concept)
+                    m_tableau.m_existentialExpansionStrategy.assertionCoreSet((Concept)dlPredicateObject,(Node)tuple[1]);
+                else if (dlPredicateObject instanceof AtomicRole)
+                    m_tableau.m_existentialExpansionStrategy.assertionCoreSet((AtomicRole)dlPredicateObject,(Node)tuple[1],(Node)tuple[2]);
+            }
+        }
+        if (m_tableauMonitor!=null)
+            m_tableauMonitor.addFactFinished(tuple,isCore,false);
+        return false;
+    }
+    public boolean containsTuple(Object[] tuple) {
+        if (!encodeTupleIfPossible(tuple,m_lookupIDTuple))
+            return false;
+        int tupleIndex=m_tupleIndexes[0].getTupleIndex(m_lookupIDTuple);
+        return tupleIndex!=-1 && isTupleActive(tupleIndex);
+    }
+    public DependencySet getDependencySet(Object[] tuple) {
+        if (!encodeTupleIfPossible(tuple,m_lookupIDTuple))
+            return null;
+        int tupleIndex=m_tupleIndexes[0].getTupleIndex(m_lookupIDTuple);
+        if (tupleIndex==-1)
+            return null;
+        else
+            return m_dependencySetManager.getDependencySet(tupleIndex);
+    }
+    public boolean isCore(Object[] tuple) {
+        if (!encodeTupleIfPossible(tuple,m_lookupIDTuple))
+            return false;
+        int tupleIndex=m_tupleIndexes[0].getTupleIndex(m_lookupIDTuple);
+        if (tupleIndex==-1)
+            return false;
+        else
+            return m_coreManager.isCore(tupleIndex);
+    }
+    public Retrieval createRetrieval(int[] bindingPositions,Object[] bindingsBuffer,Object[] tupleBuffer,boolean ownsBuffers,View extensionView) {
+        IntegerTupleIndex selectedTupleIndex=null;
+        int boundPrefixSizeInSelected=0;
+        for (int index=m_tupleIndexes.length-1;index>=0;--index) {
+            int[] indexingSequence=m_tupleIndexes[index].getIndexingSequence();
+            int boundPrefixSize=0;
+            for (int anIndexingSequence : indexingSequence)
+                if (bindingPositions[anIndexingSequence] != -1)
+                    boundPrefixSize++;
+                else
+                    break;
+            if (boundPrefixSize>boundPrefixSizeInSelected) {
+                selectedTupleIndex=m_tupleIndexes[index];
+                boundPrefixSizeInSelected=boundPrefixSize;
+            }
+        }
+        if (selectedTupleIndex==null)
+            return new IntegerUnindexedRetrieval(bindingPositions,bindingsBuffer,tupleBuffer,ownsBuffers,extensionView);
+        else
+            return new IndexedRetrieval(selectedTupleIndex,bindingPositions,bindingsBuffer,tupleBuffer,ownsBuffers,extensionView);
+    }
+    protected void removeTuple(int tupleIndex) {
+        m_integerTupleTable.retrieveTuple(m_removeIDTuple,tupleIndex);
+        for (int index=m_tupleIndexes.length-1;index>=0;--index)
+            m_tupleIndexes[index].removeTuple(m_removeIDTuple);
+        m_integerTupleTable.retrieveTuple(m_auxiliaryTuple,tupleIndex,m_tupleObjectEncoding);
+        postRemove(m_auxiliaryTuple,tupleIndex);
+    }
+    public void clear() {
+        super.clear();
+        for (int index=m_tupleIndexes.length-1;index>=0;--index)
+            m_tupleIndexes[index].clear();
+    }
+    /**
+     * Returns the tuple positions of the bound prefix of the indexing sequence. Unlike in ExtensionTableWithTupleIndexes, the
+     * IDs of the bindings are stored by tuple position rather than at their positions in the bindings buffer, since the
+     * bindings buffer of a DL-clause evaluator is shared by all of its retrievals and can be large.
+     */
+    protected static int[] createPositionSelectionArray(int[] bindingPositions,int[] indexingSequence) {
+        int boundPrefixLength=0;
+        for (int anIndexingSequence : indexingSequence)
+            if (bindingPositions[anIndexingSequence] != -1)
+                boundPrefixLength++;
+            else
+                break;
+        int[] selection=new int[boundPrefixLength];
+        System.arraycopy(indexingSequence,0,selection,0,boundPrefixLength);
+        return selection;
+    }
+
+    protected class IndexedRetrieval extends IntegerTupleIndex.IntegerTupleIndexRetrieval implements Retrieval,Serializable {
+        private static final long serialVersionUID=-8291574622085460826L;
+
+        protected final int[] m_bindingPositions;
+        protected final Object[] m_objectBindingsBuffer;
+        protected final Object[] m_tupleBuffer;
+        protected final boolean m_ownsBuffers;
+        protected final ExtensionTable.View m_extensionView;
+        protected final int[] m_boundPositions;
+        protected final int[] m_idTupleBuffer;
+        protected final boolean m_checkTupleSelection;
+        protected DependencySet m_dependencySet;
+        protected boolean m_isCore;
+        protected int m_firstTupleIndex;
+        protected int m_afterLastTupleIndex;
+
+        public IndexedRetrieval(IntegerTupleIndex tupleIndex,int[] bindingPositions,Object[] bindingsBuffer,Object[] tupleBuffer,boolean ownsBuffers,View extensionView) {
+            super(tupleIndex,new int[bindingPositions.length],createPositionSelectionArray(bindingPositions,tupleIndex.m_indexingSequence));
+            m_ownsBuffers=ownsBuffers;
+            m_bindingPositions=bindingPositions;
+            m_objectBindingsBuffer=bindingsBuffer;
+            m_extensionView=extensionView;
+            m_tupleBuffer=tupleBuffer;
+            int numberOfBoundPositions=0;
+            for (int index=m_bindingPositions.length-1;index>=0;--index)
+                if (m_bindingPositions[index]!=-1)
+                    numberOfBoundPositions++;
+            m_checkTupleSelection=(numberOfBoundPositions>m_selectionIndices.length);
+            m_boundPositions=new int[numberOfBoundPositions];
+            for (int index=m_bindingPositions.length-1;index>=0;--index)
+                if (m_bindingPositions[index]!=-1)
+                    m_boundPositions[--numberOfBoundPositions]=index;
+            m_idTupleBuffer=new int[m_tupleArity];
+        }
+        public ExtensionTable getExtensionTable() {
+            return IntegerExtensionTableWithTupleIndexes.this;
+        }
+        public ExtensionTable.View getExtensionView() {
+            return m_extensionView;
+        }
+        public void clear() {
+            if (m_ownsBuffers) {
+                for (int index=m_objectBindingsBuffer.length-1;index>=0;--index)
+                    m_objectBindingsBuffer[index]=null;
+                for (int index=m_tupleBuffer.length-1;index>=0;--index)
+                    m_tupleBuffer[index]=null;
+            }
+        }
+        public int[] getBindingPositions() {
+            return m_bindingPositions;
+        }
+        public Object[] getBindingsBuffer() {
+            return m_objectBindingsBuffer;
+        }
+        public Object[] getTupleBuffer() {
+            return m_tupleBuffer;
+        }
+        public DependencySet getDependencySet() {
+            return m_dependencySet;
+        }
+        public boolean isCore() {
+            return m_isCore;
+        }
+        public void open() {
+            switch (m_extensionView) {
+            case EXTENSION_THIS:
+                m_firstTupleIndex=0;
+                m_afterLastTupleIndex=m_afterExtensionThisTupleIndex;
+                break;
+            case EXTENSION_OLD:
+                m_firstTupleIndex=0;
+                m_afterLastTupleIndex=m_afterExtensionOldTupleIndex;
+                break;
+            case DELTA_OLD:
+                m_firstTupleIndex=m_afterExtensionOldTupleIndex;
+                m_afterLastTupleIndex=m_afterExtensionThisTupleIndex;
+                break;
+            case TOTAL:
+                m_firstTupleIndex=0;
+                m_afterLastTupleIndex=m_afterDeltaNewTupleIndex;
+                break;
+            }
+            for (int index=m_boundPositions.length-1;index>=0;--index) {
+                int bindingIndex=m_bindingPositions[m_boundPositions[index]];
+                int id=m_tupleObjectEncoding.getID(m_objectBindingsBuffer[bindingIndex]);
+                if (id==-1) {
+                    m_currentTrieNode=-1;
+                    return;
+                }
+                m_bindingsBuffer[m_boundPositions[index]]=id;
+            }
+            super.open();
+            while (!afterLast()) {
+                int tupleIndex=getCurrentTupleIndex();
+                if (m_firstTupleIndex<=tupleIndex && tupleIndex<m_afterLastTupleIndex && isTupleValid(tupleIndex)) {
+                    m_dependencySet=m_dependencySetManager.getDependencySet(tupleIndex);
+                    m_isCore=m_coreManager.isCore(tupleIndex);
+                    return;
+                }
+                super.next();
+            }
+        }
+        public void next() {
+            super.next();
+            while (!afterLast()) {
+                int tupleIndex=getCurrentTupleIndex();
+                if (m_firstTupleIndex<=tupleIndex && tupleIndex<m_afterLastTupleIndex && isTupleValid(tupleIndex)) {
+                    m_dependencySet=m_dependencySetManager.getDependencySet(tupleIndex);
+                    m_isCore=m_coreManager.isCore(tupleIndex);
+                    return;
+                }
+                super.next();
+            }
+        }
+        protected boolean isTupleValid(int tupleIndex) {
+            m_integerTupleTable.retrieveTuple(m_idTupleBuffer,tupleIndex);
+            if (m_checkTupleSelection)
+                for (int index=m_boundPositions.length-1;index>=0;--index) {
+                    int position=m_boundPositions[index];
+                    if (m_idTupleBuffer[position]!=m_bindingsBuffer[position])
+                        return false;
+                }
+            for (int index=m_tupleArity-1;index>=0;--index)
+                m_tupleBuffer[index]=m_tupleObjectEncoding.decode(m_idTupleBuffer[index]);
+            return IntegerExtensionTableWithTupleIndexes.this.isTupleActive(m_tupleBuffer);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * A variant of TupleTable that stores tuples of integer IDs (as assigned by a
+ * TupleObjectEncoding) in primitive pages. Comparing tuples thus does not
+ * involve any equals() calls or pointer chasing.
+ */
+public final class IntegerTupleTable implements Serializable {
+    private static final long serialVersionUID=-6186357417211302316L;
+
+    protected static final int PAGE_SIZE=TupleTable.PAGE_SIZE;
+
+    protected final int m_arity;
+    protected Page[] m_pages;
+    protected int m_numberOfPages;
+    protected int m_tupleCapacity;
+    protected int m_firstFreeTupleIndex;
+
+    public IntegerTupleTable(int arity) {
+        m_arity=arity;
+        clear();
+    }
+    public int sizeInMemory() {
+        int size=m_pages.length*4;
+        for (int i=m_pages.length-1;i>=0;--i)
+            if (m_pages[i]!=null)
+                size+=m_pages[i].sizeInMemory();
+        return size;
+    }
+    public int getFirstFreeTupleIndex() {
+        return m_firstFreeTupleIndex;
+    }
+    public int addTuple(int[] tupleBuffer) {
+        int newTupleIndex=m_firstFreeTupleIndex;
+        if (newTupleIndex==m_tupleCapacity) {
+            if (m_numberOfPages==m_pages.length) {
+                Page[] newPages=new Page[m_numberOfPages*3/2];
+                System.arraycopy(m_pages,0,newPages,0,m_numberOfPages);
+                m_pages=newPages;
+            }
+            m_pages[m_numberOfPages++]=new Page(m_arity);
+            m_tupleCapacity+=PAGE_SIZE;
+        }
+        System.arraycopy(tupleBuffer,0,m_pages[newTupleIndex / PAGE_SIZE].m_ids,(newTupleIndex % PAGE_SIZE)*m_arity,m_arity);
+        m_firstFreeTupleIndex++;
+        return newTupleIndex;
+    }
+    public boolean tupleEquals(int[] tupleBuffer,int tupleIndex,int compareLength) {
+        int[] ids=m_pages[tupleIndex / PAGE_SIZE].m_ids;
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=compareLength-1;index>=0;--index)
+            if (tupleBuffer[index]!=ids[tupleStartIndex+index])
+                return false;
+        return true;
+    }
+    public boolean tupleEquals(int[] tupleBuffer,int[] positionIndexes,int tupleIndex,int compareLength) {
+        int[] ids=m_pages[tupleIndex / PAGE_SIZE].m_ids;
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=compareLength-1;index>=0;--index)
+            if (tupleBuffer[positionIndexes[index]]!=ids[tupleStartIndex+index])
+                return false;
+        return true;
+    }
+    public void retrieveTuple(int[] tupleBuffer,int tupleIndex) {
+        System.arraycopy(m_pages[tupleIndex / PAGE_SIZE].m_ids,(tupleIndex % PAGE_SIZE)*m_arity,tupleBuffer,0,m_arity);
+    }
+    public void retrieveTuple(Object[] tupleBuffer,int tupleIndex,TupleObjectEncoding tupleObjectEncoding) {
+        int[] ids=m_pages[tupleIndex / PAGE_SIZE].m_ids;
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=m_arity-1;index>=0;--index)
+            tupleBuffer[index]=tupleObjectEncoding.decode(ids[tupleStartIndex+index]);
+    }
+    public int getTupleObjectID(int tupleIndex,int objectIndex) {
+        assert objectIndex < m_arity;
+        return m_pages[tupleIndex / PAGE_SIZE].m_ids[(tupleIndex % PAGE_SIZE)*m_arity+objectIndex];
+    }
+    public void truncate(int newFirstFreeTupleIndex) {
+        m_firstFreeTupleIndex=newFirstFreeTupleIndex;
+    }
+    public void nullifyTuple(int tupleIndex) {
+        int[] ids=m_pages[tupleIndex / PAGE_SIZE].m_ids;
+        int tupleStartIndex=(tupleIndex % PAGE_SIZE)*m_arity;
+        for (int index=0;index<m_arity;index++)
+            ids[tupleStartIndex+index]=-1;
+    }
+    public void clear() {
+        m_pages=new Page[10];
+        m_numberOfPages=1;
+        m_pages[0]=new Page(m_arity);
+        m_tupleCapacity=m_numberOfPages*PAGE_SIZE;
+        m_firstFreeTupleIndex=0;
+    }
+
+    protected final static class Page implements Serializable {
+        private static final long serialVersionUID=-1463281432651227604L;
+
+        public final int[] m_ids;
+
+        public Page(int arity) {
+            m_ids=new int[arity*PAGE_SIZE];
+        }
+        public int sizeInMemory() {
+            return m_ids.length*4;
+        }
+    }
+}
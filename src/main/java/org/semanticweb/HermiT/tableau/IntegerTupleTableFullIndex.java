@@ -0,0 +1,136 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * A variant of TupleTableFullIndex for tuples stored in an IntegerTupleTable.
+ */
+public final class IntegerTupleTableFullIndex implements Serializable {
+    private static final long serialVersionUID=-818265936240416021L;
+
+    protected static final int BUCKET_OFFSET=1;
+    protected static final float LOAD_FACTOR=0.75f;
+
+    protected final IntegerTupleTable m_tupleTable;
+    protected final int m_indexedArity;
+    protected final TupleTableFullIndex.EntryManager m_entryManager;
+    protected int[] m_buckets;
+    protected int m_resizeThreshold;
+    protected int m_numberOfTuples;
+
+    public IntegerTupleTableFullIndex(IntegerTupleTable tupleTable,int indexedArity) {
+        m_tupleTable=tupleTable;
+        m_indexedArity=indexedArity;
+        m_entryManager=new TupleTableFullIndex.EntryManager();
+        clear();
+    }
+    public int sizeInMemory() {
+        return m_buckets.length*4+m_entryManager.size();
+    }
+    public void clear() {
+        m_buckets=new int[16];
+        m_resizeThreshold=(int)(m_buckets.length*LOAD_FACTOR);
+        m_numberOfTuples=0;
+        m_entryManager.clear();
+    }
+    public int addTuple(int[] tuple,int tentativeTupleIndex) {
+        int hashCode=getTupleHashCode(tuple);
+        int entryIndex=getBucketIndex(hashCode,m_buckets.length);
+        int entry=m_buckets[entryIndex]-BUCKET_OFFSET;
+        while (entry!=-1) {
+            if (hashCode==m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_HASH_CODE)) {
+                int tupleIndex=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_TUPLE_INDEX);
+                if (m_tupleTable.tupleEquals(tuple,tupleIndex,m_indexedArity))
+                    return tupleIndex;
+            }
+            entry=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT);
+        }
+        entry=m_entryManager.newEntry();
+        m_entryManager.setEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT,m_buckets[entryIndex]-BUCKET_OFFSET);
+        m_entryManager.setEntryComponent(entry,TupleTableFullIndex.ENTRY_HASH_CODE,hashCode);
+        m_entryManager.setEntryComponent(entry,TupleTableFullIndex.ENTRY_TUPLE_INDEX,tentativeTupleIndex);
+        m_buckets[entryIndex]=entry+BUCKET_OFFSET;
+        m_numberOfTuples++;
+        if (m_numberOfTuples>=m_resizeThreshold)
+            resizeBuckets();
+        return tentativeTupleIndex;
+    }
+    protected void resizeBuckets() {
+        int[] newBuckets=new int[m_buckets.length*2];
+        for (int bucketIndex=m_buckets.length-1;bucketIndex>=0;--bucketIndex) {
+            int entry=m_buckets[bucketIndex]-BUCKET_OFFSET;
+            while (entry!=-1) {
+                int nextEntry=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT);
+                int newBucketIndex=getBucketIndex(m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_HASH_CODE),newBuckets.length);
+                m_entryManager.setEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT,newBuckets[newBucketIndex]-BUCKET_OFFSET);
+                newBuckets[newBucketIndex]=entry+BUCKET_OFFSET;
+                entry=nextEntry;
+            }
+        }
+        m_buckets=newBuckets;
+        m_resizeThreshold=(int)(newBuckets.length*LOAD_FACTOR);
+    }
+    public int getTupleIndex(int[] tuple) {
+        int hashCode=getTupleHashCode(tuple);
+        int entry=m_buckets[getBucketIndex(hashCode,m_buckets.length)]-BUCKET_OFFSET;
+        while (entry!=-1) {
+            if (hashCode==m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_HASH_CODE)) {
+                int tupleIndex=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_TUPLE_INDEX);
+                if (m_tupleTable.tupleEquals(tuple,tupleIndex,m_indexedArity))
+                    return tupleIndex;
+            }
+            entry=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT);
+        }
+        return -1;
+    }
+    public boolean removeTuple(int tupleIndex) {
+        int hashCode=0;
+        for (int index=0;index<m_indexedArity;index++)
+            hashCode=hashCode*31+m_tupleTable.getTupleObjectID(tupleIndex,index);
+        int lastEntry=-1;
+        int entryIndex=getBucketIndex(hashCode,m_buckets.length);
+        int entry=m_buckets[entryIndex]-BUCKET_OFFSET;
+        while (entry!=-1) {
+            int nextEntry=m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_NEXT);
+            if (hashCode==m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_HASH_CODE) && tupleIndex==m_entryManager.getEntryComponent(entry,TupleTableFullIndex.ENTRY_TUPLE_INDEX)) {
+                if (lastEntry==-1)
+                    m_buckets[entryIndex]=nextEntry+BUCKET_OFFSET;
+                else
+                    m_entryManager.setEntryComponent(lastEntry,TupleTableFullIndex.ENTRY_NEXT,nextEntry);
+                m_entryManager.deleteEntry(entry);
+                m_numberOfTuples--;
+                return true;
+            }
+            lastEntry=entry;
+            entry=nextEntry;
+        }
+        return false;
+    }
+    protected int getTupleHashCode(int[] tuple) {
+        int hashCode=0;
+        for (int index=0;index<m_indexedArity;index++)
+            hashCode=hashCode*31+tuple[index];
+        return hashCode;
+    }
+    protected static int getBucketIndex(int hashCode,int bucketsLength) {
+        hashCode^=(hashCode >>> 16);
+        return hashCode & (bucketsLength-1);
+    }
+}
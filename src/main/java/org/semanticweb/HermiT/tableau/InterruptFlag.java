@@ -27,14 +27,39 @@ public final class InterruptFlag implements Serializable {
 
     protected enum InterruptType { INTERRUPTED,TIMEOUT }
 
+    /** The number of calls to checkInterrupt() between two checks of the memory budget. */
+    protected static final int MEMORY_CHECK_INTERVAL=1024;
+
     protected final InterruptTimer m_interruptTimer;
+    protected final long m_memoryBudget;
     protected volatile InterruptType m_interruptType;
+    protected Tableau m_tableau;
+    protected int m_callsUntilMemoryCheck;
 
     public InterruptFlag(long individualTaskTimeout) {
+        this(individualTaskTimeout,-1);
+    }
+    /**
+     * @param individualTaskMemoryBudget if positive, checkInterrupt() throws a MemoryBudgetExceededException as soon as a
+     *            tableau running the calculus with this flag uses approximately more than that many bytes
+     */
+    public InterruptFlag(long individualTaskTimeout,long individualTaskMemoryBudget) {
         if (individualTaskTimeout>0)
             m_interruptTimer=new InterruptTimer(individualTaskTimeout);
         else
             m_interruptTimer=null;
+        m_memoryBudget=individualTaskMemoryBudget;
+        m_callsUntilMemoryCheck=MEMORY_CHECK_INTERVAL;
+    }
+    /**
+     * Sets the tableau whose memory consumption is checked against the memory budget. Tableaux register themselves while
+     * they run the calculus and unregister (by passing null) afterwards.
+     */
+    void setTableau(Tableau tableau) {
+        m_tableau=tableau;
+    }
+    public long getMemoryBudget() {
+        return m_memoryBudget;
     }
     public void checkInterrupt() {
         InterruptType interruptType=m_interruptType;
@@ -44,6 +69,17 @@ public final class InterruptFlag implements Serializable {
             else
                 throw new ReasonerInterruptedException();
         }
+        if (m_memoryBudget>0 && --m_callsUntilMemoryCheck<=0)
+            checkMemoryBudget();
+    }
+    public void checkMemoryBudget() {
+        m_callsUntilMemoryCheck=MEMORY_CHECK_INTERVAL;
+        Tableau tableau=m_tableau;
+        if (m_memoryBudget>0 && tableau!=null) {
+            long sizeInMemory=tableau.sizeInMemory();
+            if (sizeInMemory>m_memoryBudget)
+                throw new MemoryBudgetExceededException(sizeInMemory,m_memoryBudget);
+        }
     }
     public void interrupt() {
         m_interruptType=InterruptType.INTERRUPTED;
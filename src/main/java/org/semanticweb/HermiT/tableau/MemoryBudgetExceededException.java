@@ -0,0 +1,42 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import org.semanticweb.owlapi.reasoner.OWLReasonerRuntimeException;
+
+/**
+ * Thrown if a reasoning task exceeds the memory budget given by Configuration.individualTaskMemoryBudget. The tableau that
+ * ran out of budget is cleared before the exception is thrown, so the reasoner can be used for further tasks.
+ */
+@SuppressWarnings("serial")
+public class MemoryBudgetExceededException extends OWLReasonerRuntimeException {
+    protected final long m_sizeInMemory;
+    protected final long m_memoryBudget;
+
+    public MemoryBudgetExceededException(long sizeInMemory,long memoryBudget) {
+        super("The reasoning task uses approximately "+sizeInMemory+" bytes, which exceeds the memory budget of "+memoryBudget+" bytes.");
+        m_sizeInMemory=sizeInMemory;
+        m_memoryBudget=memoryBudget;
+    }
+    public long getSizeInMemory() {
+        return m_sizeInMemory;
+    }
+    public long getMemoryBudget() {
+        return m_memoryBudget;
+    }
+}
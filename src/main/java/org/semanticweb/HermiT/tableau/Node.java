@@ -56,10 +56,12 @@ public final class Node implements Serializable {
     protected Object m_blockingObject;
     protected Object m_blockingCargo;
     protected int m_firstGraphOccurrenceNode;
+    protected int m_tupleObjectID;
 
     public Node(Tableau tableau) {
         m_tableau=tableau;
         m_nodeID=-1;
+        m_tupleObjectID=-1;
     }
     public Tableau getTableau() {
         return m_tableau;
@@ -106,6 +108,30 @@ public final class Node implements Serializable {
         m_blocker=null;
         m_tableau.m_descriptionGraphManager.destroyNode(this);
     }
+    /**
+     * Prepares the node for reuse after the tableau has been cleared. Unlike destroy(), this does not release the dependency
+     * sets and description graph occurrences of the node, which are discarded by the clear() methods of their managers. The
+     * blocking object is kept and reinitialized by the blocking strategy when the node is initialized again.
+     */
+    protected void recycle() {
+        m_nodeID=-1;
+        m_nodeState=null;
+        m_parent=null;
+        m_nodeType=null;
+        if (m_unprocessedExistentials!=NO_EXISTENTIALS) {
+            m_unprocessedExistentials.clear();
+            m_tableau.putExistentialConceptsBuffer(m_unprocessedExistentials);
+        }
+        m_unprocessedExistentials=null;
+        m_previousTableauNode=null;
+        m_nextTableauNode=null;
+        m_previousMergedOrPrunedNode=null;
+        m_mergedInto=null;
+        m_mergedIntoDependencySet=null;
+        m_blocker=null;
+        m_directlyBlocked=false;
+        m_blockingCargo=null;
+    }
     public int getNodeID() {
         return m_nodeID;
     }
@@ -0,0 +1,262 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Equality;
+import org.semanticweb.HermiT.model.Inequality;
+
+/**
+ * Records combinations of disjunct choices that led to a clash. When a clash occurs, the branching points in its dependency
+ * set are the choices that the clash depends on; if all of them are disjunction branching points, then the disjuncts
+ * currently chosen at these branching points cannot be true at the same time, which is recorded as a nogood. Because the
+ * clash follows from these disjuncts and from facts that do not depend on any choice, the nogood remains valid after
+ * backtracking for as long as its nodes exist, so a nogood is discarded when one of its nodes is destroyed. When a
+ * ground disjunction is processed, a disjunct is excluded if it completes a nogood whose other disjuncts are contained
+ * in the current model; excluded disjuncts are tried only after all other disjuncts. The store holds at most the given
+ * number of nogoods and discards the oldest ones first. All nogoods are discarded when the tableau is cleared.
+ */
+public final class NogoodStore implements Serializable {
+    private static final long serialVersionUID=-6385139734120453921L;
+
+    protected final Tableau m_tableau;
+    protected final int m_capacity;
+    protected final Map<Literal,List<Nogood>> m_nogoodsByLiteral;
+    protected final Map<Node,List<Nogood>> m_nogoodsByNode;
+    protected final ArrayDeque<Nogood> m_nogoods;
+    protected final Literal[] m_auxiliaryLiterals;
+    protected int m_numberOfNogoods;
+
+    public NogoodStore(Tableau tableau,int capacity) {
+        if (capacity<=0)
+            throw new IllegalArgumentException("The capacity of the nogood store must be positive.");
+        m_tableau=tableau;
+        m_capacity=capacity;
+        m_nogoodsByLiteral=new HashMap<>();
+        m_nogoodsByNode=new HashMap<>();
+        m_nogoods=new ArrayDeque<>();
+        m_auxiliaryLiterals=new Literal[] { null,new Literal(null,new Node[1]),new Literal(null,new Node[2]) };
+    }
+    public void clear() {
+        m_nogoodsByLiteral.clear();
+        m_nogoodsByNode.clear();
+        m_nogoods.clear();
+        m_numberOfNogoods=0;
+    }
+    public int getNumberOfNogoods() {
+        return m_numberOfNogoods;
+    }
+    /**
+     * Records the nogood for the given clash if all branching points that the clash depends on are disjunction branching
+     * points above the nonbacktrackable one.
+     *
+     * @return true if a nogood has been recorded
+     */
+    public boolean clashDetected(DependencySet clashDependencySet) {
+        PermanentDependencySet dependencySet=m_tableau.m_dependencySetFactory.getPermanent(clashDependencySet);
+        List<Literal> literals=new ArrayList<>();
+        while (dependencySet.m_branchingPoint>m_tableau.m_nonbacktrackableBranchingPoint) {
+            BranchingPoint branchingPoint=m_tableau.m_branchingPoints[dependencySet.m_branchingPoint];
+            if (!(branchingPoint instanceof DisjunctionBranchingPoint))
+                return false;
+            DisjunctionBranchingPoint disjunctionBranchingPoint=(DisjunctionBranchingPoint)branchingPoint;
+            Literal literal=createLiteral(disjunctionBranchingPoint.getGroundDisjunction(),disjunctionBranchingPoint.getCurrentDisjunctIndex());
+            if (literal==null)
+                return false;
+            literals.add(literal);
+            dependencySet=dependencySet.m_rest;
+        }
+        if (literals.isEmpty())
+            return false;
+        Nogood nogood=new Nogood(literals.toArray(new Literal[literals.size()]));
+        for (Literal literal : nogood.m_literals) {
+            getNogoods(m_nogoodsByLiteral,literal).add(nogood);
+            for (Node node : literal.m_nodes)
+                getNogoods(m_nogoodsByNode,node).add(nogood);
+        }
+        m_nogoods.add(nogood);
+        m_numberOfNogoods++;
+        if (m_nogoods.size()>2*m_capacity)
+            m_nogoods.removeIf(queuedNogood -> !queuedNogood.m_isValid);
+        while (m_numberOfNogoods>m_capacity) {
+            Nogood oldestNogood=m_nogoods.poll();
+            if (oldestNogood.m_isValid)
+                removeNogood(oldestNogood);
+        }
+        return true;
+    }
+    /**
+     * Discards the nogoods that mention the given node.
+     */
+    public void nodeDestroyed(Node node) {
+        List<Nogood> nogoods=m_nogoodsByNode.get(node);
+        if (nogoods!=null)
+            for (Nogood nogood : nogoods.toArray(new Nogood[nogoods.size()]))
+                removeNogood(nogood);
+    }
+    protected void removeNogood(Nogood nogood) {
+        nogood.m_isValid=false;
+        m_numberOfNogoods--;
+        for (Literal literal : nogood.m_literals) {
+            removeFromList(m_nogoodsByLiteral,literal,nogood);
+            for (Node node : literal.m_nodes)
+                removeFromList(m_nogoodsByNode,node,nogood);
+        }
+    }
+    /**
+     * Checks whether choosing the given disjunct would complete a nogood whose other literals hold in the current model.
+     */
+    public boolean isExcluded(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        if (m_numberOfNogoods==0 || !isSupported(groundDisjunction.getDLPredicate(disjunctIndex)))
+            return false;
+        Literal literal=m_auxiliaryLiterals[groundDisjunction.getDLPredicate(disjunctIndex).getArity()];
+        setLiteral(literal,groundDisjunction,disjunctIndex);
+        List<Nogood> nogoods=m_nogoodsByLiteral.get(literal);
+        if (nogoods!=null)
+            for (Nogood nogood : nogoods)
+                if (containsOtherLiterals(nogood,literal))
+                    return true;
+        return false;
+    }
+    /**
+     * Moves the disjuncts in sortedDisjunctIndexes from startIndex onwards that are excluded by a nogood behind all other
+     * disjuncts, keeping the relative order of the disjuncts otherwise.
+     */
+    public void deferExcludedDisjuncts(GroundDisjunction groundDisjunction,int[] sortedDisjunctIndexes,int startIndex) {
+        if (m_numberOfNogoods==0)
+            return;
+        int[] excludedDisjunctIndexes=null;
+        int numberOfExcluded=0;
+        int numberOfIncluded=startIndex;
+        for (int index=startIndex;index<sortedDisjunctIndexes.length;index++) {
+            int disjunctIndex=sortedDisjunctIndexes[index];
+            if (isExcluded(groundDisjunction,disjunctIndex)) {
+                if (excludedDisjunctIndexes==null)
+                    excludedDisjunctIndexes=new int[sortedDisjunctIndexes.length-startIndex];
+                excludedDisjunctIndexes[numberOfExcluded++]=disjunctIndex;
+                if (m_tableau.m_tableauMonitor!=null)
+                    m_tableau.m_tableauMonitor.disjunctExcludedByNogood(groundDisjunction,disjunctIndex);
+            }
+            else
+                sortedDisjunctIndexes[numberOfIncluded++]=disjunctIndex;
+        }
+        if (numberOfExcluded>0)
+            System.arraycopy(excludedDisjunctIndexes,0,sortedDisjunctIndexes,numberOfIncluded,numberOfExcluded);
+    }
+    protected boolean containsOtherLiterals(Nogood nogood,Literal literal) {
+        ExtensionManager extensionManager=m_tableau.m_extensionManager;
+        for (Literal otherLiteral : nogood.m_literals) {
+            if (!otherLiteral.equals(literal)) {
+                for (Node node : otherLiteral.m_nodes)
+                    if (!node.getCanonicalNode().isActive())
+                        return false;
+                if (otherLiteral.m_nodes.length==1) {
+                    if (!extensionManager.containsAssertion(otherLiteral.m_dlPredicate,otherLiteral.m_nodes[0].getCanonicalNode()))
+                        return false;
+                }
+                else if (!extensionManager.containsAssertion(otherLiteral.m_dlPredicate,otherLiteral.m_nodes[0].getCanonicalNode(),otherLiteral.m_nodes[1].getCanonicalNode()))
+                    return false;
+            }
+        }
+        return true;
+    }
+    protected static Literal createLiteral(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        DLPredicate dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+        if (!isSupported(dlPredicate))
+            return null;
+        Literal literal=new Literal(dlPredicate,new Node[dlPredicate.getArity()]);
+        setLiteral(literal,groundDisjunction,disjunctIndex);
+        return literal;
+    }
+    protected static boolean isSupported(DLPredicate dlPredicate) {
+        int arity=dlPredicate.getArity();
+        return (arity==1 || arity==2) && !(dlPredicate instanceof AnnotatedEquality) && !Equality.INSTANCE.equals(dlPredicate) && !Inequality.INSTANCE.equals(dlPredicate);
+    }
+    protected static void setLiteral(Literal literal,GroundDisjunction groundDisjunction,int disjunctIndex) {
+        literal.m_dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+        for (int argumentIndex=0;argumentIndex<literal.m_nodes.length;argumentIndex++)
+            literal.m_nodes[argumentIndex]=groundDisjunction.getArgument(disjunctIndex,argumentIndex);
+    }
+    protected static <K> void removeFromList(Map<K,List<Nogood>> map,K key,Nogood nogood) {
+        List<Nogood> nogoods=map.get(key);
+        if (nogoods!=null) {
+            nogoods.remove(nogood);
+            if (nogoods.isEmpty())
+                map.remove(key);
+        }
+    }
+    protected static <K> List<Nogood> getNogoods(Map<K,List<Nogood>> map,K key) {
+        List<Nogood> nogoods=map.get(key);
+        if (nogoods==null) {
+            nogoods=new ArrayList<>(2);
+            map.put(key,nogoods);
+        }
+        return nogoods;
+    }
+
+    protected static class Literal implements Serializable {
+        private static final long serialVersionUID=4238862001826004957L;
+
+        protected DLPredicate m_dlPredicate;
+        protected Node[] m_nodes;
+
+        public Literal(DLPredicate dlPredicate,Node[] nodes) {
+            m_dlPredicate=dlPredicate;
+            m_nodes=nodes;
+        }
+        public int hashCode() {
+            int hashCode=m_dlPredicate.hashCode();
+            for (Node node : m_nodes)
+                hashCode=hashCode*7+System.identityHashCode(node);
+            return hashCode;
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof Literal))
+                return false;
+            Literal thatLiteral=(Literal)that;
+            if (m_dlPredicate!=thatLiteral.m_dlPredicate || m_nodes.length!=thatLiteral.m_nodes.length)
+                return false;
+            for (int index=0;index<m_nodes.length;index++)
+                if (m_nodes[index]!=thatLiteral.m_nodes[index])
+                    return false;
+            return true;
+        }
+    }
+
+    protected static class Nogood implements Serializable {
+        private static final long serialVersionUID=-1472008916541003215L;
+
+        protected final Literal[] m_literals;
+        protected boolean m_isValid;
+
+        public Nogood(Literal[] literals) {
+            m_literals=literals;
+            m_isValid=true;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicNegationConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLPredicate;
+
+/**
+ * Caches the outcome of satisfiability tests that assert atomic concepts and negated atomic concepts of one fresh individual.
+ * Apart from the results of the tests themselves, the cache stores for each atomic concept C whose satisfiability is known a
+ * pseudo-model: the concepts in the label of the root node of a model of C, and the signature of that model, that is, all
+ * predicates that occur in the model. Two pseudo-models can be merged if the root labels do not clash and no DL-clause body
+ * contains predicates of both signatures: since all DL-clauses are HT-clauses whose body atoms form a star, a DL-clause that
+ * can be matched in the union of two models glued at the root must then be matched in one of the models, so the union is a
+ * model as well. Thus, C1 and ... and Cn and not D1 and ... and not Dm is satisfiable if the pseudo-models of the Ci can be
+ * merged and no Dj occurs in their root labels. The cache is used only for ontologies without nominals, datatypes and
+ * description graphs. It holds at most the given number of entries and evicts the least recently used ones.
+ */
+public final class SatisfiabilityCache implements Serializable {
+    private static final long serialVersionUID=-3590472264850183641L;
+
+    protected static final PseudoModel UNSATISFIABLE=new PseudoModel(Collections.<AtomicConcept>emptySet(),Collections.<AtomicConcept>emptySet(),Collections.<DLPredicate>emptySet());
+
+    protected final Map<DLPredicate,Set<DLPredicate>> m_bodyCooccurrences;
+    protected final LRUMap m_entries;
+
+    public SatisfiabilityCache(Set<DLClause> dlClauses,int capacity) {
+        if (capacity<=0)
+            throw new IllegalArgumentException("The capacity of the satisfiability cache must be positive.");
+        m_bodyCooccurrences=new HashMap<>();
+        for (DLClause dlClause : dlClauses)
+            if (dlClause.getBodyLength()>1) {
+                Set<DLPredicate> bodyPredicates=new HashSet<>();
+                for (int atomIndex=0;atomIndex<dlClause.getBodyLength();atomIndex++)
+                    bodyPredicates.add(dlClause.getBodyAtom(atomIndex).getDLPredicate());
+                for (DLPredicate dlPredicate : bodyPredicates) {
+                    Set<DLPredicate> cooccurrences=m_bodyCooccurrences.get(dlPredicate);
+                    if (cooccurrences==null) {
+                        cooccurrences=new HashSet<>();
+                        m_bodyCooccurrences.put(dlPredicate,cooccurrences);
+                    }
+                    cooccurrences.addAll(bodyPredicates);
+                }
+            }
+        m_entries=new LRUMap(capacity);
+    }
+    public void clear() {
+        m_entries.clear();
+    }
+    public int size() {
+        return m_entries.size();
+    }
+    /**
+     * Returns the result of the satisfiability test for the given atomic concepts and negated atomic concepts if the cache
+     * determines it, and null otherwise.
+     */
+    public Boolean isSatisfiable(Set<AtomicConcept> positiveConcepts,Set<AtomicConcept> negativeConcepts) {
+        Object result=m_entries.get(new TestKey(positiveConcepts,negativeConcepts));
+        if (result!=null)
+            return (Boolean)result;
+        if (positiveConcepts.isEmpty())
+            return null;
+        PseudoModel[] pseudoModels=new PseudoModel[positiveConcepts.size()];
+        int index=0;
+        for (AtomicConcept atomicConcept : positiveConcepts) {
+            PseudoModel pseudoModel=(PseudoModel)m_entries.get(atomicConcept);
+            if (pseudoModel==UNSATISFIABLE)
+                return Boolean.FALSE;
+            else if (pseudoModel==null)
+                return null;
+            for (AtomicConcept negativeConcept : negativeConcepts)
+                if (pseudoModel.m_rootConcepts.contains(negativeConcept))
+                    return null;
+            pseudoModels[index++]=pseudoModel;
+        }
+        for (int first=0;first<pseudoModels.length;first++)
+            for (int second=first+1;second<pseudoModels.length;second++)
+                if (!canBeMerged(pseudoModels[first],pseudoModels[second]))
+                    return null;
+        return Boolean.TRUE;
+    }
+    /**
+     * Records the result of a satisfiability test. If the test was satisfiable, then the tableau must still contain the
+     * model and rootNode must be the node of the fresh individual.
+     */
+    public void testFinished(Set<AtomicConcept> positiveConcepts,Set<AtomicConcept> negativeConcepts,boolean result,Tableau tableau,Node rootNode) {
+        m_entries.put(new TestKey(positiveConcepts,negativeConcepts),Boolean.valueOf(result));
+        if (result) {
+            PseudoModel pseudoModel=null;
+            for (AtomicConcept atomicConcept : positiveConcepts)
+                if (!m_entries.containsKey(atomicConcept)) {
+                    if (pseudoModel==null)
+                        pseudoModel=createPseudoModel(tableau,rootNode);
+                    m_entries.put(atomicConcept,pseudoModel);
+                }
+        }
+        else if (positiveConcepts.size()==1 && negativeConcepts.isEmpty())
+            m_entries.put(positiveConcepts.iterator().next(),UNSATISFIABLE);
+    }
+    protected boolean canBeMerged(PseudoModel pseudoModel1,PseudoModel pseudoModel2) {
+        for (AtomicConcept negativeConcept : pseudoModel1.m_negativeRootConcepts)
+            if (pseudoModel2.m_rootConcepts.contains(negativeConcept))
+                return false;
+        for (AtomicConcept negativeConcept : pseudoModel2.m_negativeRootConcepts)
+            if (pseudoModel1.m_rootConcepts.contains(negativeConcept))
+                return false;
+        for (DLPredicate dlPredicate : pseudoModel1.m_signature) {
+            Set<DLPredicate> cooccurrences=m_bodyCooccurrences.get(dlPredicate);
+            if (cooccurrences!=null)
+                for (DLPredicate cooccurringPredicate : cooccurrences)
+                    if (pseudoModel2.m_signature.contains(cooccurringPredicate))
+                        return false;
+        }
+        return true;
+    }
+    protected static PseudoModel createPseudoModel(Tableau tableau,Node rootNode) {
+        Set<AtomicConcept> rootConcepts=new HashSet<>();
+        Set<AtomicConcept> negativeRootConcepts=new HashSet<>();
+        Set<DLPredicate> signature=new HashSet<>();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
+        retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            Object predicate=tupleBuffer[0];
+            if (predicate instanceof DLPredicate)
+                signature.add((DLPredicate)predicate);
+            if (tupleBuffer[1]==rootNode) {
+                if (predicate instanceof AtomicConcept)
+                    rootConcepts.add((AtomicConcept)predicate);
+                else if (predicate instanceof AtomicNegationConcept)
+                    negativeRootConcepts.add(((AtomicNegationConcept)predicate).getNegatedAtomicConcept());
+            }
+            retrieval.next();
+        }
+        retrieval=tableau.getExtensionManager().getTernaryExtensionTable().createRetrieval(new boolean[] { false,false,false },ExtensionTable.View.TOTAL);
+        retrieval.open();
+        tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            if (tupleBuffer[0] instanceof DLPredicate)
+                signature.add((DLPredicate)tupleBuffer[0]);
+            retrieval.next();
+        }
+        return new PseudoModel(rootConcepts,negativeRootConcepts,signature);
+    }
+
+    protected static class PseudoModel implements Serializable {
+        private static final long serialVersionUID=5017960219438587014L;
+
+        protected final Set<AtomicConcept> m_rootConcepts;
+        protected final Set<AtomicConcept> m_negativeRootConcepts;
+        protected final Set<DLPredicate> m_signature;
+
+        public PseudoModel(Set<AtomicConcept> rootConcepts,Set<AtomicConcept> negativeRootConcepts,Set<DLPredicate> signature) {
+            m_rootConcepts=rootConcepts;
+            m_negativeRootConcepts=negativeRootConcepts;
+            m_signature=signature;
+        }
+    }
+
+    protected static class TestKey implements Serializable {
+        private static final long serialVersionUID=-1826531052315829408L;
+
+        protected final Set<AtomicConcept> m_positiveConcepts;
+        protected final Set<AtomicConcept> m_negativeConcepts;
+
+        public TestKey(Set<AtomicConcept> positiveConcepts,Set<AtomicConcept> negativeConcepts) {
+            m_positiveConcepts=positiveConcepts;
+            m_negativeConcepts=negativeConcepts;
+        }
+        public int hashCode() {
+            return m_positiveConcepts.hashCode()*7+m_negativeConcepts.hashCode();
+        }
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof TestKey))
+                return false;
+            TestKey thatKey=(TestKey)that;
+            return m_positiveConcepts.equals(thatKey.m_positiveConcepts) && m_negativeConcepts.equals(thatKey.m_negativeConcepts);
+        }
+    }
+
+    protected static class LRUMap extends LinkedHashMap<Object,Object> {
+        private static final long serialVersionUID=7419250373470911305L;
+
+        protected final int m_capacity;
+
+        public LRUMap(int capacity) {
+            super(16,0.75f,true);
+            m_capacity=capacity;
+        }
+        protected boolean removeEldestEntry(Map.Entry<Object,Object> eldest) {
+            return size()>m_capacity;
+        }
+    }
+}
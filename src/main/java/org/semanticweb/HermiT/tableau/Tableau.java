@@ -20,6 +20,7 @@ package org.semanticweb.HermiT.tableau;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -55,6 +56,8 @@ import org.semanticweb.HermiT.tableau.Node.NodeState;
  */
 public final class Tableau implements Serializable {
     private static final long serialVersionUID=-28982363158925221L;
+    /** The approximate number of bytes used by a node, excluding its assertions in the extension tables. */
+    protected static final int NODE_SIZE_IN_MEMORY=160;
 
     protected final InterruptFlag m_interruptFlag;
     protected final Map<String,Object> m_parameters;
@@ -74,7 +77,13 @@ public final class Tableau implements Serializable {
     protected final DatatypeManager m_datatypeManager;
     protected final List<List<ExistentialConcept>> m_existentialConceptsBuffers;
     protected final boolean m_useDisjunctionLearning;
+    protected final boolean m_useIntegerEncodedTuples;
     protected final boolean m_hasDescriptionGraphs;
+    protected final SatisfiabilityCache m_satisfiabilityCache;
+    protected final NogoodStore m_nogoodStore;
+    protected final int m_numberOfRecycledNodes;
+    protected final DLClauseProfile m_dlClauseProfile;
+    protected final boolean m_useAdaptiveJoinOrdering;
     protected BranchingPoint[] m_branchingPoints;
     protected int m_currentBranchingPoint;
     protected int m_nonbacktrackableBranchingPoint;
@@ -94,8 +103,16 @@ public final class Tableau implements Serializable {
     protected Node m_lastMergedOrPrunedNode;
     protected GroundDisjunction m_firstGroundDisjunction;
     protected GroundDisjunction m_firstUnprocessedGroundDisjunction;
+    protected Map<Term,Node> m_saturatedABoxTermsToNodes;
+    protected boolean m_saturatedABoxContainsAdditionalABox;
 
     public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,boolean useDisjunctionLearning,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
+        this(interruptFlag,tableauMonitor,existentialsExpansionStrategy,useDisjunctionLearning,new TableauConfiguration(),permanentDLOntology,additionalDLOntology,parameters);
+    }
+    /**
+     * @param tableauConfiguration the optional features of the tableau (see TableauConfiguration)
+     */
+    public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,boolean useDisjunctionLearning,TableauConfiguration tableauConfiguration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
         if (additionalDLOntology!=null && !additionalDLOntology.getAllDescriptionGraphs().isEmpty())
             throw new IllegalArgumentException("Additional ontology cannot contain description graphs.");
         m_interruptFlag=interruptFlag;
@@ -107,9 +124,12 @@ public final class Tableau implements Serializable {
             m_permanentDLOntology=permanentDLOntology;
             m_additionalDLOntology=additionalDLOntology;
             m_dependencySetFactory=new DependencySetFactory();
+            m_useIntegerEncodedTuples=tableauConfiguration.useIntegerEncodedTuples;
+            m_dlClauseProfile=tableauConfiguration.dlClauseProfile;
+            m_useAdaptiveJoinOrdering=tableauConfiguration.useAdaptiveJoinOrdering;
             m_extensionManager=new ExtensionManager(this);
             m_clashManager=new ClashManager(this);
-            m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses());
+            m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses(),m_dlClauseProfile,m_useAdaptiveJoinOrdering);
             if (m_additionalDLOntology!=null)
                 m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
             else
@@ -122,7 +142,16 @@ public final class Tableau implements Serializable {
             m_existentialExpansionStrategy.initialize(this);
             m_existentialConceptsBuffers= new ArrayList<>();
             m_useDisjunctionLearning=useDisjunctionLearning;
+            m_numberOfRecycledNodes=tableauConfiguration.numberOfRecycledNodes;
+            if (tableauConfiguration.nogoodStoreSize>0)
+                m_nogoodStore=new NogoodStore(this,tableauConfiguration.nogoodStoreSize);
+            else
+                m_nogoodStore=null;
             m_hasDescriptionGraphs=!m_permanentDLOntology.getAllDescriptionGraphs().isEmpty();
+            if (tableauConfiguration.satisfiabilityCacheSize>0 && !m_hasDescriptionGraphs && !m_permanentDLOntology.hasNominals() && !m_permanentDLOntology.hasDatatypes())
+                m_satisfiabilityCache=new SatisfiabilityCache(m_permanentDLOntology.getDLClauses(),tableauConfiguration.satisfiabilityCacheSize);
+            else
+                m_satisfiabilityCache=null;
             m_branchingPoints=new BranchingPoint[2];
             m_currentBranchingPoint=-1;
             m_nonbacktrackableBranchingPoint=-1;
@@ -152,6 +181,18 @@ public final class Tableau implements Serializable {
     public ExistentialExpansionStrategy getExistentialsExpansionStrategy() {
         return m_existentialExpansionStrategy;
     }
+    public boolean usesIntegerEncodedTuples() {
+        return m_useIntegerEncodedTuples;
+    }
+    public int getNumberOfRecycledNodes() {
+        return m_numberOfRecycledNodes;
+    }
+    public DLClauseProfile getDLClauseProfile() {
+        return m_dlClauseProfile;
+    }
+    public boolean usesAdaptiveJoinOrdering() {
+        return m_useAdaptiveJoinOrdering;
+    }
     public boolean isDeterministic() {
         return m_permanentDLOntology.isHorn() && (m_additionalDLOntology==null || m_additionalDLOntology.isHorn()) && m_existentialExpansionStrategy.isDeterministic();
     }
@@ -179,12 +220,28 @@ public final class Tableau implements Serializable {
     public DescriptionGraphManager getDescriptionGraphManager() {
         return m_descriptionGraphManager;
     }
+    public SatisfiabilityCache getSatisfiabilityCache() {
+        return m_satisfiabilityCache;
+    }
+    public NogoodStore getNogoodStore() {
+        return m_nogoodStore;
+    }
+    /**
+     * @return the approximate number of bytes used by the extension tables, the dependency sets, and the nodes of the tableau
+     */
+    public long sizeInMemory() {
+        return m_extensionManager.sizeInMemory()+m_dependencySetFactory.sizeInMemory()+(long)m_allocatedNodes*NODE_SIZE_IN_MEMORY;
+    }
     public void clear() {
-        m_allocatedNodes=0;
+        if (m_numberOfRecycledNodes>0)
+            recycleNodes();
+        else {
+            m_allocatedNodes=0;
+            m_firstFreeNode=null;
+        }
         m_numberOfNodesInTableau=0;
         m_numberOfMergedOrPrunedNodes=0;
         m_numberOfNodeCreations=0;
-        m_firstFreeNode=null;
         m_firstTableauNode=null;
         m_lastTableauNode=null;
         m_lastMergedOrPrunedNode=null;
@@ -193,6 +250,7 @@ public final class Tableau implements Serializable {
         m_branchingPoints=new BranchingPoint[2];
         m_currentBranchingPoint=-1;
         m_nonbacktrackableBranchingPoint=-1;
+        m_saturatedABoxTermsToNodes=null;
         m_dependencySetFactory.clear();
         m_extensionManager.clear();
         m_clashManager.clear();
@@ -207,6 +265,8 @@ public final class Tableau implements Serializable {
         m_existentialExpansionStrategy.clear();
         m_datatypeManager.clear();
         m_existentialConceptsBuffers.clear();
+        if (m_nogoodStore!=null)
+            m_nogoodStore.clear();
         if (m_tableauMonitor!=null)
             m_tableauMonitor.tableauCleared();
     }
@@ -228,6 +288,7 @@ public final class Tableau implements Serializable {
             throw new IllegalArgumentException("Additional DL-ontology contains features that are incompatible with this tableau.");
         m_additionalDLOntology=additionalDLOntology;
         m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
+        m_saturatedABoxTermsToNodes=null;
         m_existentialExpansionStrategy.additionalDLOntologySet(m_additionalDLOntology);
         m_datatypeManager.additionalDLOntologySet(m_additionalDLOntology);
         updateFlagsDependentOnAdditionalOntology();
@@ -235,6 +296,7 @@ public final class Tableau implements Serializable {
     public void clearAdditionalDLOntology() {
         m_additionalDLOntology=null;
         m_additionalHyperresolutionManager=null;
+        m_saturatedABoxTermsToNodes=null;
         m_existentialExpansionStrategy.additionalDLOntologyCleared();
         m_datatypeManager.additionalDLOntologyCleared();
         updateFlagsDependentOnAdditionalOntology();
@@ -263,20 +325,38 @@ public final class Tableau implements Serializable {
         return isSatisfiable(loadPermanentABox,loadAdditionalABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency,perTestPositiveFactsDummyDependency,perTestNegativeFactsDummyDependency, new HashMap<>(),nodesForIndividuals,reasoningTaskDescription);
     }
     public boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
+        Individual cachedIndividual=null;
+        Set<AtomicConcept> cachedPositiveConcepts=null;
+        Set<AtomicConcept> cachedNegativeConcepts=null;
+        if (m_satisfiabilityCache!=null && termsToNodes.isEmpty() && isEmpty(perTestPositiveFactsDummyDependency) && isEmpty(perTestNegativeFactsDummyDependency)) {
+            cachedIndividual=getCacheableIndividual(loadPermanentABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency);
+            if (cachedIndividual!=null) {
+                cachedPositiveConcepts=getAtomicConcepts(perTestPositiveFactsNoDependency);
+                cachedNegativeConcepts=getAtomicConcepts(perTestNegativeFactsNoDependency);
+                if (nodesForIndividuals==null) {
+                    Boolean cachedResult=m_satisfiabilityCache.isSatisfiable(cachedPositiveConcepts,cachedNegativeConcepts);
+                    if (m_tableauMonitor!=null) {
+                        if (cachedResult!=null)
+                            m_tableauMonitor.satisfiabilityCacheHit(reasoningTaskDescription,cachedResult.booleanValue());
+                        else
+                            m_tableauMonitor.satisfiabilityCacheMiss(reasoningTaskDescription);
+                    }
+                    if (cachedResult!=null)
+                        return cachedResult.booleanValue();
+                }
+            }
+        }
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
-        clear();
-        if (loadPermanentABox) {
-            for (Atom atom : m_permanentDLOntology.getPositiveFacts())
-                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-            for (Atom atom : m_permanentDLOntology.getNegativeFacts())
-                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-        }
-        if (loadAdditionalABox && m_additionalDLOntology!=null) {
-            for (Atom atom : m_additionalDLOntology.getPositiveFacts())
-                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-            for (Atom atom : m_additionalDLOntology.getNegativeFacts())
-                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        boolean loadAdditionalFacts=(loadAdditionalABox && m_additionalDLOntology!=null);
+        boolean canSaveSaturatedABox=canSaveSaturatedABox(loadPermanentABox,termsToNodes);
+        if (canSaveSaturatedABox && m_saturatedABoxTermsToNodes!=null && m_saturatedABoxContainsAdditionalABox==loadAdditionalFacts)
+            restoreSaturatedABox(termsToNodes);
+        else {
+            clear();
+            loadABox(loadPermanentABox,loadAdditionalFacts,termsToNodes);
+            if (canSaveSaturatedABox)
+                saveSaturatedABox(loadPermanentABox,loadAdditionalFacts,termsToNodes);
         }
         if (perTestPositiveFactsNoDependency!=null && !perTestPositiveFactsNoDependency.isEmpty())
             for (Atom atom : perTestPositiveFactsNoDependency)
@@ -285,7 +365,7 @@ public final class Tableau implements Serializable {
             for (Atom atom : perTestNegativeFactsNoDependency)
                 loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
         if ((perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty()) || (perTestNegativeFactsDummyDependency!=null && !perTestNegativeFactsDummyDependency.isEmpty())) {
-            m_branchingPoints[0]=new BranchingPoint(this);
+            m_branchingPoints[m_currentBranchingPoint+1]=new BranchingPoint(this);
             m_currentBranchingPoint++;
             m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
             DependencySet dependencySet=m_dependencySetFactory.addBranchingPoint(m_dependencySetFactory.emptySet(),m_currentBranchingPoint);
@@ -308,10 +388,132 @@ public final class Tableau implements Serializable {
         if (m_firstTableauNode==null)
             createNewNINode(m_dependencySetFactory.emptySet());
         boolean result=runCalculus();
+        if (cachedIndividual!=null)
+            m_satisfiabilityCache.testFinished(cachedPositiveConcepts,cachedNegativeConcepts,result,this,termsToNodes.get(cachedIndividual).getCanonicalNode());
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableFinished(reasoningTaskDescription,result);
         return result;
     }
+    /**
+     * Determines whether the state of the tableau after loading the ABox of a test can be saved for later tests. This is the
+     * case if the test loads the permanent ABox, which is not empty, and the caller does not map terms to nodes in advance.
+     */
+    protected boolean canSaveSaturatedABox(boolean loadPermanentABox,Map<Term,Node> termsToNodes) {
+        return loadPermanentABox && !m_hasDescriptionGraphs && termsToNodes.isEmpty() && (!m_permanentDLOntology.getPositiveFacts().isEmpty() || !m_permanentDLOntology.getNegativeFacts().isEmpty());
+    }
+    protected void loadABox(boolean loadPermanentABox,boolean loadAdditionalABox,Map<Term,Node> termsToNodes) {
+        if (loadPermanentABox) {
+            for (Atom atom : m_permanentDLOntology.getPositiveFacts())
+                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+            for (Atom atom : m_permanentDLOntology.getNegativeFacts())
+                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        }
+        if (loadAdditionalABox) {
+            for (Atom atom : m_additionalDLOntology.getPositiveFacts())
+                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+            for (Atom atom : m_additionalDLOntology.getNegativeFacts())
+                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        }
+    }
+    /**
+     * Saturates the loaded ABox up to the first nondeterministic choice, that is, applies the deterministic rules and, if the
+     * existential expansion strategy is deterministic, expands the existentials until only disjunctions are left. The resulting
+     * state is saved by a branching point that cannot be backtracked by the test. Later tests that load the same ABox then
+     * backtrack to this branching point instead of reloading and saturating the ABox again. Nothing is saved if the ABox is
+     * unsatisfiable, and the ABox is loaded again if the saturation had to make a choice (e.g., by the nominal introduction rule).
+     */
+    protected void saveSaturatedABox(boolean loadPermanentABox,boolean loadAdditionalABox,Map<Term,Node> termsToNodes) {
+        boolean expandExistentials=m_existentialExpansionStrategy.isDeterministic();
+        m_interruptFlag.startTask();
+        m_interruptFlag.setTableau(this);
+        try {
+            boolean hasMoreWork=true;
+            while (hasMoreWork && m_currentBranchingPoint==-1 && !m_extensionManager.containsClash())
+                hasMoreWork=applyDeterministicRules() || (expandExistentials && !m_extensionManager.containsClash() && m_existentialExpansionStrategy.expandExistentials(false));
+        }
+        catch (MemoryBudgetExceededException e) {
+            clear();
+            throw e;
+        }
+        finally {
+            m_interruptFlag.setTableau(null);
+            m_interruptFlag.endTask();
+        }
+        if (m_currentBranchingPoint!=-1) {
+            clear();
+            termsToNodes.clear();
+            loadABox(loadPermanentABox,loadAdditionalABox,termsToNodes);
+        }
+        else if (!m_extensionManager.containsClash()) {
+            addBranchingPoint(new BranchingPoint(this));
+            m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
+            m_saturatedABoxTermsToNodes=new HashMap<>(termsToNodes);
+            m_saturatedABoxContainsAdditionalABox=loadAdditionalABox;
+        }
+    }
+    /**
+     * Restores the state saved by saveSaturatedABox() and fills termsToNodes with the nodes of the ABox terms.
+     */
+    protected void restoreSaturatedABox(Map<Term,Node> termsToNodes) {
+        resetToBranchingPoint(0);
+        m_nonbacktrackableBranchingPoint=0;
+        m_isCurrentModelDeterministic=true;
+        m_dependencySetFactory.removeUnusedSets();
+        if (m_nogoodStore!=null)
+            m_nogoodStore.clear();
+        termsToNodes.putAll(m_saturatedABoxTermsToNodes);
+    }
+    /**
+     * Determines the result of the given satisfiability test using the satisfiability cache, without running the calculus.
+     * The parameters are as in isSatisfiable() without dummy dependencies.
+     *
+     * @return the result of the test, or null if the cache cannot determine it
+     */
+    public Boolean getCachedSatisfiability(boolean loadPermanentABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,ReasoningTaskDescription reasoningTaskDescription) {
+        if (m_satisfiabilityCache==null || getCacheableIndividual(loadPermanentABox,perTestPositiveFactsNoDependency,perTestNegativeFactsNoDependency)==null)
+            return null;
+        Boolean result=m_satisfiabilityCache.isSatisfiable(getAtomicConcepts(perTestPositiveFactsNoDependency),getAtomicConcepts(perTestNegativeFactsNoDependency));
+        if (m_tableauMonitor!=null) {
+            if (result!=null)
+                m_tableauMonitor.satisfiabilityCacheHit(reasoningTaskDescription,result.booleanValue());
+            else
+                m_tableauMonitor.satisfiabilityCacheMiss(reasoningTaskDescription);
+        }
+        return result;
+    }
+    /**
+     * Returns the individual of a test that the satisfiability cache can answer, or null if the test is not of that kind. Such
+     * tests involve no additional ontology and no ABox, and assert only atomic concepts and negated atomic concepts of a single
+     * anonymous individual.
+     */
+    protected Individual getCacheableIndividual(boolean loadPermanentABox,Set<Atom> perTestPositiveFacts,Set<Atom> perTestNegativeFacts) {
+        if (m_additionalDLOntology!=null || (loadPermanentABox && (!m_permanentDLOntology.getPositiveFacts().isEmpty() || !m_permanentDLOntology.getNegativeFacts().isEmpty())) || isEmpty(perTestPositiveFacts))
+            return null;
+        Individual individual=null;
+        for (int index=0;index<2;index++) {
+            Set<Atom> atoms=(index==0 ? perTestPositiveFacts : perTestNegativeFacts);
+            if (atoms!=null)
+                for (Atom atom : atoms) {
+                    if (!(atom.getDLPredicate() instanceof AtomicConcept) || !(atom.getArgument(0) instanceof Individual) || !((Individual)atom.getArgument(0)).isAnonymous())
+                        return null;
+                    if (individual==null)
+                        individual=(Individual)atom.getArgument(0);
+                    else if (!individual.equals(atom.getArgument(0)))
+                        return null;
+                }
+        }
+        return individual;
+    }
+    protected static Set<AtomicConcept> getAtomicConcepts(Set<Atom> atoms) {
+        Set<AtomicConcept> atomicConcepts=new HashSet<>();
+        if (atoms!=null)
+            for (Atom atom : atoms)
+                atomicConcepts.add((AtomicConcept)atom.getDLPredicate());
+        return atomicConcepts;
+    }
+    protected static boolean isEmpty(Set<Atom> atoms) {
+        return atoms==null || atoms.isEmpty();
+    }
     protected void loadPositiveFact(Map<Term,Node> termsToNodes,Atom atom,DependencySet dependencySet) {
         DLPredicate dlPredicate=atom.getDLPredicate();
         if (dlPredicate instanceof LiteralConcept)
@@ -371,6 +573,7 @@ public final class Tableau implements Serializable {
     }
     protected boolean runCalculus() {
         m_interruptFlag.startTask();
+        m_interruptFlag.setTableau(this);
         try {
             boolean existentialsAreExact=m_existentialExpansionStrategy.isExact();
             if (m_tableauMonitor!=null)
@@ -403,32 +606,19 @@ public final class Tableau implements Serializable {
             else
                 return false;
         }
+        catch (MemoryBudgetExceededException e) {
+            // release the memory of the aborted test so that the tableau can be used for further tests
+            clear();
+            throw e;
+        }
         finally {
+            m_interruptFlag.setTableau(null);
             m_interruptFlag.endTask();
         }
     }
     protected boolean doIteration() {
-        if (!m_extensionManager.containsClash()) {
-            m_nominalIntroductionManager.processAnnotatedEqualities();
-            boolean hasChange=false;
-            while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
-                if (m_hasDescriptionGraphs && !m_extensionManager.containsClash())
-                    m_descriptionGraphManager.checkGraphConstraints();
-                if (!m_extensionManager.containsClash())
-                    m_permanentHyperresolutionManager.applyDLClauses();
-                if (m_additionalHyperresolutionManager!=null && !m_extensionManager.containsClash())
-                    m_additionalHyperresolutionManager.applyDLClauses();
-                if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
-                    m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
-                if (m_checkDatatypes && !m_extensionManager.containsClash())
-                    m_datatypeManager.checkDatatypeConstraints();
-                if (!m_extensionManager.containsClash())
-                    m_nominalIntroductionManager.processAnnotatedEqualities();
-                hasChange=true;
-            }
-            if (hasChange)
-                return true;
-        }
+        if (!m_extensionManager.containsClash() && applyDeterministicRules())
+            return true;
         if (!m_extensionManager.containsClash())
             if (m_existentialExpansionStrategy.expandExistentials(false))
                 return true;
@@ -440,6 +630,8 @@ public final class Tableau implements Serializable {
                 m_firstUnprocessedGroundDisjunction=groundDisjunction.m_previousGroundDisjunction;
                 if (!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(this)) {
                     int[] sortedDisjunctIndexes=groundDisjunction.getGroundDisjunctionHeader().getSortedDisjunctIndexes();
+                    if (m_nogoodStore!=null)
+                        m_nogoodStore.deferExcludedDisjuncts(groundDisjunction,sortedDisjunctIndexes,0);
                     DependencySet dependencySet=groundDisjunction.getDependencySet();
                     if (groundDisjunction.getNumberOfDisjuncts()>1) {
                         BranchingPoint branchingPoint=new DisjunctionBranchingPoint(this,groundDisjunction,sortedDisjunctIndexes);
@@ -467,6 +659,8 @@ public final class Tableau implements Serializable {
             int newCurrentBranchingPoint=clashDependencySet.getMaximumBranchingPoint();
             if (newCurrentBranchingPoint<=m_nonbacktrackableBranchingPoint)
                 return false;
+            if (m_nogoodStore!=null && m_nogoodStore.clashDetected(clashDependencySet) && m_tableauMonitor!=null)
+                m_tableauMonitor.nogoodLearned();
             backtrackTo(newCurrentBranchingPoint);
             BranchingPoint branchingPoint=getCurrentBranchingPoint();
             if (m_tableauMonitor!=null)
@@ -479,6 +673,32 @@ public final class Tableau implements Serializable {
         }
         return false;
     }
+    /**
+     * Applies the DL-clauses, the datatype checks and the nominal introduction rule until no new facts are derived or a clash
+     * occurs.
+     *
+     * @return true if new facts have been derived
+     */
+    protected boolean applyDeterministicRules() {
+        m_nominalIntroductionManager.processAnnotatedEqualities();
+        boolean hasChange=false;
+        while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
+            if (m_hasDescriptionGraphs && !m_extensionManager.containsClash())
+                m_descriptionGraphManager.checkGraphConstraints();
+            if (!m_extensionManager.containsClash())
+                m_permanentHyperresolutionManager.applyDLClauses();
+            if (m_additionalHyperresolutionManager!=null && !m_extensionManager.containsClash())
+                m_additionalHyperresolutionManager.applyDLClauses();
+            if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
+                m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
+            if (m_checkDatatypes && !m_extensionManager.containsClash())
+                m_datatypeManager.checkDatatypeConstraints();
+            if (!m_extensionManager.containsClash())
+                m_nominalIntroductionManager.processAnnotatedEqualities();
+            hasChange=true;
+        }
+        return hasChange;
+    }
     public boolean isCurrentModelDeterministic() {
         return m_isCurrentModelDeterministic;
     }
@@ -511,6 +731,12 @@ public final class Tableau implements Serializable {
         assert m_currentBranchingPoint+1==branchingPoint.m_level;
         if (m_tableauMonitor!=null)
             m_tableauMonitor.pushBranchingPointStarted(branchingPoint);
+        addBranchingPoint(branchingPoint);
+        m_isCurrentModelDeterministic=false;
+        if (m_tableauMonitor!=null)
+            m_tableauMonitor.pushBranchingPointFinished(branchingPoint);
+    }
+    protected void addBranchingPoint(BranchingPoint branchingPoint) {
         m_currentBranchingPoint++;
         if (m_currentBranchingPoint>=m_branchingPoints.length) {
             BranchingPoint[] newBranchingPoints=new BranchingPoint[m_currentBranchingPoint*3/2];
@@ -522,9 +748,6 @@ public final class Tableau implements Serializable {
         m_existentialExpasionManager.branchingPointPushed();
         m_existentialExpansionStrategy.branchingPointPushed();
         m_nominalIntroductionManager.branchingPointPushed();
-        m_isCurrentModelDeterministic=false;
-        if (m_tableauMonitor!=null)
-            m_tableauMonitor.pushBranchingPointFinished(branchingPoint);
     }
     /**
      * Backtrack to a certain branching point in the list of branching points that have been set during the run.
@@ -535,6 +758,12 @@ public final class Tableau implements Serializable {
         BranchingPoint branchingPoint=m_branchingPoints[newCurrentBrancingPoint];
         if (m_tableauMonitor!=null)
             m_tableauMonitor.backtrackToStarted(branchingPoint);
+        resetToBranchingPoint(newCurrentBrancingPoint);
+        if (m_tableauMonitor!=null)
+            m_tableauMonitor.backtrackToFinished(branchingPoint);
+    }
+    protected void resetToBranchingPoint(int newCurrentBrancingPoint) {
+        BranchingPoint branchingPoint=m_branchingPoints[newCurrentBrancingPoint];
         // backtrack the list of branching points
         for (int index=newCurrentBrancingPoint+1;index<=m_currentBranchingPoint;index++)
             m_branchingPoints[index]=null;
@@ -566,8 +795,6 @@ public final class Tableau implements Serializable {
             destroyLastTableauNode();
         // finish
         m_extensionManager.clearClash();
-        if (m_tableauMonitor!=null)
-            m_tableauMonitor.backtrackToFinished(branchingPoint);
     }
     /**
      * Create a new node that represents an individual named in the input ontology (thus, keys have to be applied to it)
@@ -733,6 +960,8 @@ public final class Tableau implements Serializable {
         else
             node.m_previousTableauNode.m_nextTableauNode=null;
         m_lastTableauNode=node.m_previousTableauNode;
+        if (m_nogoodStore!=null)
+            m_nogoodStore.nodeDestroyed(node);
         node.destroy();
         node.m_nextTableauNode=m_firstFreeNode;
         m_firstFreeNode=node;
@@ -767,6 +996,42 @@ public final class Tableau implements Serializable {
         }
         return null;
     }
+    /**
+     * Moves the nodes of the tableau to the free list so that the next test reuses them (together with their blocking objects
+     * and existential buffers) instead of allocating new ones. At most m_numberOfRecycledNodes nodes are kept; the remaining
+     * nodes are left to the garbage collector. The managers that refer to nodes are cleared by clear() afterwards.
+     */
+    protected void recycleNodes() {
+        int numberOfFreeNodes=0;
+        Node firstFreeNode=null;
+        Node lastFreeNode=null;
+        Node node=m_firstTableauNode;
+        while (node!=null && numberOfFreeNodes<m_numberOfRecycledNodes) {
+            Node nextNode=node.m_nextTableauNode;
+            node.recycle();
+            if (lastFreeNode==null)
+                firstFreeNode=node;
+            else
+                lastFreeNode.m_nextTableauNode=node;
+            lastFreeNode=node;
+            numberOfFreeNodes++;
+            node=nextNode;
+        }
+        node=m_firstFreeNode;
+        while (node!=null && numberOfFreeNodes<m_numberOfRecycledNodes) {
+            if (lastFreeNode==null)
+                firstFreeNode=node;
+            else
+                lastFreeNode.m_nextTableauNode=node;
+            lastFreeNode=node;
+            numberOfFreeNodes++;
+            node=node.m_nextTableauNode;
+        }
+        if (lastFreeNode!=null)
+            lastFreeNode.m_nextTableauNode=null;
+        m_firstFreeNode=firstFreeNode;
+        m_allocatedNodes=numberOfFreeNodes;
+    }
     protected List<ExistentialConcept> getExistentialConceptsBuffer() {
         if (m_existentialConceptsBuffers.isEmpty())
             return new ArrayList<>();
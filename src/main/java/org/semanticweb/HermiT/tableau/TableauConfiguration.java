@@ -0,0 +1,60 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+/**
+ * The optional features of a tableau. The default values switch all of them off, which gives a tableau that behaves
+ * like one created without a TableauConfiguration.
+ */
+public class TableauConfiguration {
+    /**
+     * If true, the extension tables store tuples as integer IDs in primitive arrays rather than as object references.
+     */
+    public boolean useIntegerEncodedTuples;
+    /**
+     * If positive, the results of satisfiability tests for atomic concepts of fresh individuals are kept in a
+     * SatisfiabilityCache with that many entries.
+     */
+    public int satisfiabilityCacheSize;
+    /**
+     * If positive, clashing combinations of disjunct choices are recorded in a NogoodStore with that many entries.
+     */
+    public int nogoodStoreSize;
+    /**
+     * If positive, clear() keeps up to that many nodes of the previous test on the free list instead of discarding all nodes.
+     */
+    public int numberOfRecycledNodes;
+    /**
+     * If not null, the evaluators of the DL clauses of the permanent ontology are profiled and registered with the profile.
+     */
+    public DLClauseProfile dlClauseProfile;
+    /**
+     * If true, the bodies of the DL clauses of the permanent ontology are reordered according to the number of tuples of
+     * each predicate in the extension tables.
+     */
+    public boolean useAdaptiveJoinOrdering;
+
+    public TableauConfiguration() {
+        useIntegerEncodedTuples=false;
+        satisfiabilityCacheSize=0;
+        nogoodStoreSize=0;
+        numberOfRecycledNodes=0;
+        dlClauseProfile=null;
+        useAdaptiveJoinOrdering=false;
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * Assigns dense integer IDs to the objects that occur in the tuples of the
+ * integer-encoded extension tables. Nodes keep their ID in a field of the node
+ * so that encoding them is just a field access; all other tuple objects (DL
+ * predicates, concepts, data ranges etc.) are interned and are therefore
+ * encoded by identity. IDs remain valid until the encoding is cleared, which
+ * happens whenever the tableau is cleared.
+ */
+public final class TupleObjectEncoding implements Serializable {
+    private static final long serialVersionUID=-2385624357608434911L;
+
+    protected static final float LOAD_FACTOR=0.7f;
+
+    protected Object[] m_objectsByID;
+    protected int m_numberOfObjects;
+    protected Object[] m_keys;
+    protected int[] m_keyIDs;
+    protected int m_numberOfKeys;
+    protected int m_resizeThreshold;
+
+    public TupleObjectEncoding() {
+        clear();
+    }
+    public int sizeInMemory() {
+        return m_objectsByID.length*4+m_keys.length*4+m_keyIDs.length*4;
+    }
+    public int getNumberOfObjects() {
+        return m_numberOfObjects;
+    }
+    public void clear() {
+        if (m_objectsByID!=null)
+            for (int id=m_numberOfObjects-1;id>=0;--id) {
+                Object object=m_objectsByID[id];
+                if (object instanceof Node)
+                    ((Node)object).m_tupleObjectID=-1;
+            }
+        m_objectsByID=new Object[128];
+        m_numberOfObjects=0;
+        m_keys=new Object[64];
+        m_keyIDs=new int[64];
+        m_numberOfKeys=0;
+        m_resizeThreshold=(int)(m_keys.length*LOAD_FACTOR);
+    }
+    /**
+     * Returns the ID of the given object and assigns a fresh ID if the object has not been encoded yet.
+     */
+    public int encode(Object object) {
+        if (object instanceof Node) {
+            Node node=(Node)object;
+            if (node.m_tupleObjectID==-1)
+                node.m_tupleObjectID=addObject(node);
+            return node.m_tupleObjectID;
+        }
+        int index=getKeyIndex(object,m_keys.length-1);
+        Object key=m_keys[index];
+        while (key!=null) {
+            if (key==object)
+                return m_keyIDs[index];
+            index=(index+1) & (m_keys.length-1);
+            key=m_keys[index];
+        }
+        int id=addObject(object);
+        m_keys[index]=object;
+        m_keyIDs[index]=id;
+        m_numberOfKeys++;
+        if (m_numberOfKeys>=m_resizeThreshold)
+            resizeKeys();
+        return id;
+    }
+    /**
+     * Returns the ID of the given object or -1 if the object has not been encoded yet; in the latter
+     * case, the object cannot occur in any of the tuples stored using this encoding.
+     */
+    public int getID(Object object) {
+        if (object instanceof Node)
+            return ((Node)object).m_tupleObjectID;
+        int index=getKeyIndex(object,m_keys.length-1);
+        Object key=m_keys[index];
+        while (key!=null) {
+            if (key==object)
+                return m_keyIDs[index];
+            index=(index+1) & (m_keys.length-1);
+            key=m_keys[index];
+        }
+        return -1;
+    }
+    public Object decode(int id) {
+        return m_objectsByID[id];
+    }
+    public Node decodeNode(int id) {
+        return (Node)m_objectsByID[id];
+    }
+    protected int addObject(Object object) {
+        if (m_numberOfObjects==m_objectsByID.length) {
+            Object[] newObjectsByID=new Object[m_objectsByID.length*3/2];
+            System.arraycopy(m_objectsByID,0,newObjectsByID,0,m_objectsByID.length);
+            m_objectsByID=newObjectsByID;
+        }
+        m_objectsByID[m_numberOfObjects]=object;
+        return m_numberOfObjects++;
+    }
+    protected void resizeKeys() {
+        Object[] newKeys=new Object[m_keys.length*2];
+        int[] newKeyIDs=new int[newKeys.length];
+        int newKeysLengthMinusOne=newKeys.length-1;
+        for (int oldIndex=m_keys.length-1;oldIndex>=0;--oldIndex) {
+            Object key=m_keys[oldIndex];
+            if (key!=null) {
+                int newIndex=getKeyIndex(key,newKeysLengthMinusOne);
+                while (newKeys[newIndex]!=null)
+                    newIndex=(newIndex+1) & newKeysLengthMinusOne;
+                newKeys[newIndex]=key;
+                newKeyIDs[newIndex]=m_keyIDs[oldIndex];
+            }
+        }
+        m_keys=newKeys;
+        m_keyIDs=newKeyIDs;
+        m_resizeThreshold=(int)(m_keys.length*LOAD_FACTOR);
+    }
+    protected static int getKeyIndex(Object object,int keysLengthMinusOne) {
+        int hashCode=System.identityHashCode(object);
+        hashCode^=(hashCode >>> 16);
+        return (hashCode*0x9E3779B1) >>> 8 & keysLengthMinusOne;
+    }
+}
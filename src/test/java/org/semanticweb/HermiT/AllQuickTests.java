@@ -20,6 +20,8 @@ public class AllQuickTests extends TestCase {
         suite.addTest(org.semanticweb.HermiT.tableau.AllTests.suite());
         // Tests the graph library.
         suite.addTest(org.semanticweb.HermiT.graph.AllTests.suite());
+        // Tests the model classes.
+        suite.addTest(org.semanticweb.HermiT.model.AllTests.suite());
         // Rungs the WG tests.
         suite.addTest(org.semanticweb.HermiT.owl_wg_tests.AllNonRejectedNonExtracreditWGTests.suite());
         // $JUnit-END$
@@ -0,0 +1,17 @@
+package org.semanticweb.HermiT.model;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTests {
+
+    public static Test suite() {
+        TestSuite suite=new TestSuite("Unit tests for the model classes");
+        // $JUnit-BEGIN$
+        suite.addTestSuite(InterningManagerTest.class);
+        suite.addTestSuite(DLOntologyBinaryFormatTest.class);
+        // $JUnit-END$
+        return suite;
+    }
+
+}
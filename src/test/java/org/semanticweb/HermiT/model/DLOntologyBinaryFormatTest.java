@@ -0,0 +1,111 @@
+package org.semanticweb.HermiT.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class DLOntologyBinaryFormatTest extends TestCase {
+    protected static final String NS="http://www.example.org/test#";
+    protected static final String XSD_INTEGER="http://www.w3.org/2001/XMLSchema#integer";
+    protected static final String XSD_STRING="http://www.w3.org/2001/XMLSchema#string";
+
+    public DLOntologyBinaryFormatTest(String name) {
+        super(name);
+    }
+    public void testRoundTrip() throws Exception {
+        Variable X=Variable.create("X");
+        Variable Y=Variable.create("Y");
+        Variable Z=Variable.create("Z");
+        AtomicConcept A=AtomicConcept.create(NS+"A");
+        AtomicConcept B=AtomicConcept.create(NS+"B");
+        AtomicRole r=AtomicRole.create(NS+"r");
+        AtomicRole s=AtomicRole.create(NS+"s");
+        AtomicRole d=AtomicRole.create(NS+"d");
+        Constant one=Constant.create("1",XSD_INTEGER);
+        Constant five=Constant.create("5",XSD_INTEGER);
+        Constant abc=Constant.create("abc",XSD_STRING);
+        DatatypeRestriction range=DatatypeRestriction.create(XSD_INTEGER,new String[] { "http://www.w3.org/2001/XMLSchema#minInclusive","http://www.w3.org/2001/XMLSchema#maxInclusive" },new Constant[] { one,five });
+        ConstantEnumeration enumeration=ConstantEnumeration.create(new Constant[] { abc,one });
+        Individual a=Individual.create(NS+"a");
+        Individual b=Individual.createAnonymous("b");
+        Set<DLClause> dlClauses=new LinkedHashSet<>();
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(AtLeastConcept.create(2,InverseRole.create(r),AtomicNegationConcept.create(B)),X) },new Atom[] { Atom.create(A,X) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(A,X),Atom.create(B,X) },new Atom[] { Atom.create(r,X,Y),Atom.create(s,Y,X) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(Equality.INSTANCE,Y,Z) },new Atom[] { Atom.create(B,X),Atom.create(r,X,Y),Atom.create(r,X,Z) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(AnnotatedEquality.create(1,r,A),Y,Z,X) },new Atom[] { Atom.create(A,X),Atom.create(r,X,Y),Atom.create(r,X,Z),Atom.create(NodeIDsAscendingOrEqual.create(2),Y,Z) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(AtLeastDataRange.create(1,d,AtomicNegationDataRange.create(range)),X) },new Atom[] { Atom.create(B,X) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(enumeration,Y) },new Atom[] { Atom.create(d,X,Y),Atom.create(InternalDatatype.RDFS_LITERAL,Y) }));
+        dlClauses.add(DLClause.create(new Atom[] {},new Atom[] { Atom.create(Inequality.INSTANCE,X,Y),Atom.create(NodeIDLessEqualThan.INSTANCE,X,Y) }));
+        Set<Atom> positiveFacts=new HashSet<>();
+        positiveFacts.add(Atom.create(A,a));
+        positiveFacts.add(Atom.create(r,a,b));
+        positiveFacts.add(Atom.create(d,a,abc));
+        Set<Atom> negativeFacts=new HashSet<>();
+        negativeFacts.add(Atom.create(s,b,a));
+        Set<AtomicConcept> atomicConcepts=new HashSet<>();
+        Collections.addAll(atomicConcepts,A,B);
+        Set<AtomicRole> atomicObjectRoles=new HashSet<>();
+        Collections.addAll(atomicObjectRoles,r,s);
+        Set<Role> complexObjectRoles=new HashSet<>();
+        Collections.addAll(complexObjectRoles,r,InverseRole.create(r));
+        Set<AtomicRole> atomicDataRoles=Collections.singleton(d);
+        Set<DatatypeRestriction> unknownDatatypeRestrictions=Collections.singleton(range);
+        Set<String> definedDatatypeIRIs=Collections.singleton(NS+"dt");
+        Set<Individual> individuals=new HashSet<>();
+        Collections.addAll(individuals,a,b);
+        DLOntology dlOntology=new DLOntology(NS,dlClauses,positiveFacts,negativeFacts,atomicConcepts,atomicObjectRoles,complexObjectRoles,atomicDataRoles,unknownDatatypeRestrictions,definedDatatypeIRIs,individuals,true,true,false,true);
+        DLOntology result=roundTrip(dlOntology);
+        assertEquals(NS,result.getOntologyIRI());
+        assertEquals(new ArrayList<>(dlOntology.getDLClauses()),new ArrayList<>(result.getDLClauses()));
+        for (DLClause dlClause : result.getDLClauses())
+            assertTrue(dlClauses.contains(dlClause));
+        assertEquals(positiveFacts,result.getPositiveFacts());
+        assertEquals(negativeFacts,result.getNegativeFacts());
+        assertEquals(atomicConcepts,result.getAllAtomicConcepts());
+        assertEquals(atomicObjectRoles,result.getAllAtomicObjectRoles());
+        assertEquals(complexObjectRoles,result.getAllComplexObjectRoles());
+        assertEquals(atomicDataRoles,result.getAllAtomicDataRoles());
+        assertEquals(unknownDatatypeRestrictions,result.getAllUnknownDatatypeRestrictions());
+        assertEquals(definedDatatypeIRIs,result.getDefinedDatatypeIRIs());
+        assertEquals(individuals,result.getAllIndividuals());
+        assertTrue(result.hasInverseRoles());
+        assertTrue(result.hasAtMostRestrictions());
+        assertFalse(result.hasNominals());
+        assertTrue(result.hasDatatypes());
+        assertEquals(dlOntology.isHorn(),result.isHorn());
+    }
+    public void testRejectsCorruptData() throws Exception {
+        DLOntology dlOntology=new DLOntology(NS,new LinkedHashSet<DLClause>(),new HashSet<Atom>(),new HashSet<Atom>(),null,null,null,null,null,null,null,false,false,false,false);
+        byte[] bytes=encode(dlOntology);
+        bytes[0]^=0xFF;
+        try {
+            DLOntologyBinaryFormat.read(ByteBuffer.wrap(bytes));
+            fail();
+        }
+        catch (IOException expected) {
+        }
+        byte[] truncated=new byte[encode(dlOntology).length-1];
+        System.arraycopy(encode(dlOntology),0,truncated,0,truncated.length);
+        try {
+            DLOntologyBinaryFormat.read(ByteBuffer.wrap(truncated));
+            fail();
+        }
+        catch (IOException expected) {
+        }
+    }
+    protected static DLOntology roundTrip(DLOntology dlOntology) throws IOException {
+        return DLOntologyBinaryFormat.read(ByteBuffer.wrap(encode(dlOntology)));
+    }
+    protected static byte[] encode(DLOntology dlOntology) throws IOException {
+        ByteArrayOutputStream outputStream=new ByteArrayOutputStream();
+        DLOntologyBinaryFormat.write(dlOntology,outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package org.semanticweb.HermiT.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+public class InterningManagerTest extends TestCase {
+    protected static final int NUMBER_OF_THREADS=8;
+    protected static final int NUMBER_OF_OBJECTS=20000;
+
+    public InterningManagerTest(String name) {
+        super(name);
+    }
+    public void testInternReturnsFirstInstance() {
+        InterningManager<String> interningManager=createStringInterningManager();
+        List<String> firstInstances=new ArrayList<>();
+        for (int index=0;index<NUMBER_OF_OBJECTS;index++) {
+            String string=new String("s"+index);
+            assertSame(string,interningManager.intern(string));
+            firstInstances.add(string);
+        }
+        for (int index=0;index<NUMBER_OF_OBJECTS;index++)
+            assertSame(firstInstances.get(index),interningManager.intern(new String("s"+index)));
+    }
+    public void testCollidingHashCodes() {
+        InterningManager<String> interningManager=new InterningManager<String>() {
+            protected boolean equal(String object1,String object2) {
+                return object1.equals(object2);
+            }
+            protected int getHashCode(String object) {
+                return object.length();
+            }
+        };
+        String first=new String("abc");
+        String second=new String("xyz");
+        assertSame(first,interningManager.intern(first));
+        assertSame(second,interningManager.intern(second));
+        assertSame(first,interningManager.intern(new String("abc")));
+        assertSame(second,interningManager.intern(new String("xyz")));
+    }
+    public void testConcurrentInterningPreservesIdentity() throws Exception {
+        final InterningManager<String> interningManager=createStringInterningManager();
+        final CountDownLatch startSignal=new CountDownLatch(1);
+        ExecutorService executorService=Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            List<Future<String[]>> futures=new ArrayList<>();
+            for (int threadIndex=0;threadIndex<NUMBER_OF_THREADS;threadIndex++) {
+                final int offset=threadIndex*(NUMBER_OF_OBJECTS/NUMBER_OF_THREADS);
+                futures.add(executorService.submit(new Callable<String[]>() {
+                    public String[] call() throws Exception {
+                        startSignal.await();
+                        String[] result=new String[NUMBER_OF_OBJECTS];
+                        for (int index=0;index<NUMBER_OF_OBJECTS;index++) {
+                            int objectIndex=(index+offset)%NUMBER_OF_OBJECTS;
+                            result[objectIndex]=interningManager.intern(new String("s"+objectIndex));
+                        }
+                        return result;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            String[] expected=futures.get(0).get();
+            for (Future<String[]> future : futures) {
+                String[] actual=future.get();
+                for (int index=0;index<NUMBER_OF_OBJECTS;index++)
+                    assertSame(expected[index],actual[index]);
+            }
+            for (int index=0;index<NUMBER_OF_OBJECTS;index++)
+                assertSame(expected[index],interningManager.intern(new String("s"+index)));
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+    public void testConcurrentCreationOfAtoms() throws Exception {
+        final CountDownLatch startSignal=new CountDownLatch(1);
+        ExecutorService executorService=Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            List<Future<Atom[]>> futures=new ArrayList<>();
+            for (int threadIndex=0;threadIndex<NUMBER_OF_THREADS;threadIndex++)
+                futures.add(executorService.submit(new Callable<Atom[]>() {
+                    public Atom[] call() throws Exception {
+                        startSignal.await();
+                        Atom[] result=new Atom[1000];
+                        for (int index=0;index<result.length;index++)
+                            result[index]=Atom.create(AtomicConcept.create("file:/c/InterningManagerTest#C"+index),Individual.create("file:/c/InterningManagerTest#i"+index));
+                        return result;
+                    }
+                }));
+            startSignal.countDown();
+            Atom[] expected=futures.get(0).get();
+            for (Future<Atom[]> future : futures) {
+                Atom[] actual=future.get();
+                for (int index=0;index<expected.length;index++)
+                    assertSame(expected[index],actual[index]);
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+    protected static InterningManager<String> createStringInterningManager() {
+        return new InterningManager<String>() {
+            protected boolean equal(String object1,String object2) {
+                return object1.equals(object2);
+            }
+            protected int getHashCode(String object) {
+                return object.hashCode();
+            }
+        };
+    }
+}
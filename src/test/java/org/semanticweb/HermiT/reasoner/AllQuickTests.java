@@ -20,6 +20,25 @@ public class AllQuickTests extends TestCase {
         suite.addTestSuite(ReasonerTest.class);
         suite.addTestSuite(ReasonerIndividualReuseTest.class);
         suite.addTestSuite(ReasonerCoreBlockingTest.class);
+        suite.addTestSuite(ReasonerIntegerEncodedTuplesTest.class);
+        suite.addTestSuite(ReasonerParallelClassificationTest.class);
+        suite.addTestSuite(ReasonerParallelRealisationTest.class);
+        suite.addTestSuite(ReasonerClausificationCacheTest.class);
+        suite.addTestSuite(ReasonerIncrementalClassificationTest.class);
+        suite.addTestSuite(ReasonerIncrementalRealisationTest.class);
+        suite.addTestSuite(ReasonerABoxPartitioningTest.class);
+        suite.addTestSuite(ReasonerSatisfiabilityCacheTest.class);
+        suite.addTestSuite(ReasonerNogoodLearningTest.class);
+        suite.addTestSuite(ReasonerMemoryBudgetTest.class);
+        suite.addTestSuite(ReasonerNodeRecyclingTest.class);
+        suite.addTestSuite(ReasonerMetricsTest.class);
+        suite.addTestSuite(ReasonerDLClauseProfileTest.class);
+        suite.addTestSuite(ReasonerAdaptiveJoinOrderingTest.class);
+        suite.addTestSuite(ReasonerConsequenceBasedClassificationTest.class);
+        suite.addTestSuite(ReasonerBlockingSignatureStoreTest.class);
+        suite.addTestSuite(ReasonerIncrementalBlockingTest.class);
+        suite.addTestSuite(ReasonerSubsetBlockingTest.class);
+        suite.addTestSuite(ReasonerParallelBlockingValidationTest.class);
         suite.addTestSuite(ComplexConceptTest.class);
         suite.addTestSuite(EntailmentTest.class);
         suite.addTestSuite(RIATest.class);
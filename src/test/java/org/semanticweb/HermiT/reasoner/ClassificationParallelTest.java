@@ -0,0 +1,15 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ClassificationParallelTest extends ClassificationTest {
+
+    public ClassificationParallelTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration configuration=super.getConfiguration();
+        configuration.numberOfClassificationWorkers=4;
+        return configuration;
+    }
+}
@@ -0,0 +1,71 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.hierarchy.ABoxPartitioning;
+import org.semanticweb.HermiT.model.Individual;
+
+public class ReasonerABoxPartitioningTest extends ReasonerTest {
+
+    public ReasonerABoxPartitioningTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useABoxPartitioning=true;
+        c.aboxPartitionSize=2;
+        return c;
+    }
+    public void testComponentsAndPartitions() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) "+
+            "ClassAssertion(:A :a) ObjectPropertyAssertion(:r :a :b) ObjectPropertyAssertion(:r :c :b) "+
+            "ClassAssertion(:B :d) ClassAssertion(:A :e) SameIndividual(:e :f) DifferentIndividuals(:g :h)";
+        loadReasonerWithAxioms(axioms);
+        ABoxPartitioning aboxPartitioning=m_reasoner.getABoxPartitioning();
+        assertNotNull(aboxPartitioning);
+        assertEquals(4,aboxPartitioning.getComponents().size());
+        ABoxPartitioning.Component component=aboxPartitioning.getComponent(Individual.create(NS+"c"));
+        assertEquals(3,component.getIndividuals().size());
+        assertEquals(3,component.size());
+        assertSame(component,aboxPartitioning.getComponent(Individual.create(NS+"a")));
+        assertEquals(2,aboxPartitioning.getComponent(Individual.create(NS+"f")).getIndividuals().size());
+        List<ABoxPartitioning.Component> partitions=aboxPartitioning.getPartitions(2);
+        int numberOfIndividuals=0;
+        for (ABoxPartitioning.Component partition : partitions) {
+            assertTrue(partition.size()<=2 || partition==component);
+            numberOfIndividuals+=partition.getIndividuals().size();
+        }
+        assertEquals(8,numberOfIndividuals);
+        assertEquals(1,aboxPartitioning.getPartitions(100).size());
+    }
+    public void testInconsistentPartition() throws Exception {
+        StringBuilder axioms=new StringBuilder("DisjointClasses(:A :B) SubClassOf(:C ObjectAllValuesFrom(:r :B)) ");
+        for (int index=0;index<20;index++)
+            axioms.append("ClassAssertion(:A :a"+index+") ObjectPropertyAssertion(:r :b"+index+" :a"+index+") ");
+        axioms.append("ClassAssertion(:C :b13)");
+        loadOntologyWithAxioms(axioms.toString());
+        createReasoner();
+        assertFalse(m_reasoner.isConsistent());
+        Configuration c=getConfiguration();
+        c.numberOfRealisationWorkers=3;
+        createReasoner(c,null);
+        assertFalse(m_reasoner.isConsistent());
+    }
+    public void testRealisationWithWorkers() throws Exception {
+        StringBuilder axioms=new StringBuilder("SubClassOf(:A ObjectUnionOf(:B :C)) SubClassOf(:B :D) SubClassOf(:C :D) SubClassOf(ObjectSomeValuesFrom(:r :D) :E) ");
+        for (int index=0;index<10;index++)
+            axioms.append("ClassAssertion(:A :a"+index+") ObjectPropertyAssertion(:r :b"+index+" :a"+index+") ");
+        loadOntologyWithAxioms(axioms.toString());
+        Configuration c=getConfiguration();
+        c.numberOfRealisationWorkers=3;
+        createReasoner(c,null);
+        assertInstancesOf(NS_C("E"),false,IRIs("b0","b1","b2","b3","b4","b5","b6","b7","b8","b9"));
+        assertInstanceOf(NS_C("E"),NS_NI("a0"),false);
+    }
+    public void testNominalsUseWholeABox() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectHasValue(:r :b)) ClassAssertion(:A :a)");
+        assertNull(m_reasoner.getABoxPartitioning());
+    }
+}
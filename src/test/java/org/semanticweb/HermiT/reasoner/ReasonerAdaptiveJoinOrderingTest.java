@@ -0,0 +1,59 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.DLClauseProfile;
+
+public class ReasonerAdaptiveJoinOrderingTest extends ReasonerTest {
+
+    public ReasonerAdaptiveJoinOrderingTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useAdaptiveJoinOrdering=true;
+        return c;
+    }
+    /**
+     * Each of the ten individuals b0,...,b9 has 100 s-successors, but only c0 is an instance of A. By default, the rule
+     * is matched from an r-edge through all s-successors of its target before A is checked; with adaptive join ordering,
+     * A is matched before s once the extension tables are large enough for the statistics to be collected.
+     */
+    protected static String getRuleHeavyAxioms() {
+        StringBuilder buffer=new StringBuilder();
+        buffer.append("DLSafeRule(Body(ObjectPropertyAtom(:r Variable(:x) Variable(:y)) ObjectPropertyAtom(:s Variable(:y) Variable(:z)) ClassAtom(:A Variable(:z))) Head(ClassAtom(:B Variable(:x)))) ");
+        for (int bIndex=0;bIndex<10;bIndex++)
+            for (int cIndex=0;cIndex<100;cIndex++)
+                buffer.append("ObjectPropertyAssertion(:s :b"+bIndex+" :c"+cIndex+") ");
+        for (int aIndex=0;aIndex<40;aIndex++)
+            buffer.append("ObjectPropertyAssertion(:r :a"+aIndex+" :b"+(aIndex%10)+") ");
+        buffer.append("ClassAssertion(:A :c0)");
+        return buffer.toString();
+    }
+    protected long getNumberOfRetrievedTuples(Configuration configuration) throws Exception {
+        configuration.profileDLClauses=true;
+        createReasoner(configuration,null);
+        assertTrue(m_reasoner.isConsistent());
+        assertEquals(40,m_reasoner.getInstances(NS_C("B"),false).getFlattened().size());
+        long numberOfRetrievedTuples=0;
+        for (DLClauseProfile.Entry entry : m_reasoner.getDLClauseProfile().getEntries())
+            numberOfRetrievedTuples+=entry.getNumberOfRetrievedTuples();
+        return numberOfRetrievedTuples;
+    }
+    public void testFewerTuplesAreRetrievedForRules() throws Exception {
+        loadOntologyWithAxioms(getRuleHeavyAxioms());
+        long numberOfRetrievedTuplesStatic=getNumberOfRetrievedTuples(super.getConfiguration());
+        assertEquals(0,m_reasoner.getTableau().getPermanentHyperresolutionManager().getNumberOfReorderedDLClauseBodies());
+        long numberOfRetrievedTuplesAdaptive=getNumberOfRetrievedTuples(getConfiguration());
+        assertTrue(m_reasoner.getTableau().getPermanentHyperresolutionManager().getNumberOfReorderedDLClauseBodies()>0);
+        assertTrue(numberOfRetrievedTuplesAdaptive+" vs. "+numberOfRetrievedTuplesStatic,numberOfRetrievedTuplesAdaptive*10<numberOfRetrievedTuplesStatic);
+    }
+    public void testSmallTableauxAreNotReordered() throws Exception {
+        loadOntologyWithAxioms("DLSafeRule(Body(ObjectPropertyAtom(:r Variable(:x) Variable(:y)) ObjectPropertyAtom(:s Variable(:y) Variable(:z)) ClassAtom(:A Variable(:z))) Head(ClassAtom(:B Variable(:x)))) "+
+            "ObjectPropertyAssertion(:r :a :b) ObjectPropertyAssertion(:s :b :c) ClassAssertion(:A :c)");
+        createReasoner();
+        assertTrue(m_reasoner.isConsistent());
+        assertTrue(m_reasoner.getInstances(NS_C("B"),false).containsEntity(NS_NI("a")));
+        assertEquals(0,m_reasoner.getTableau().getPermanentHyperresolutionManager().getNumberOfReorderedDLClauseBodies());
+    }
+}
@@ -0,0 +1,185 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.blocking.BlockingSignature;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.BlockingSignatureStore;
+import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
+import org.semanticweb.HermiT.existentials.AbstractExpansionStrategy;
+import org.semanticweb.HermiT.model.AtLeastConcept;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicNegationConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.DescriptionGraph;
+import org.semanticweb.HermiT.model.LiteralConcept;
+import org.semanticweb.HermiT.model.Term;
+
+/**
+ * Runs the reasoner tests with a blocking signature cache directory. Each reasoner is created twice: the first reasoner
+ * classifies the ontology and stores the signatures it has learned when it is disposed, and the second one, which the tests
+ * then use, starts with these signatures.
+ */
+public class ReasonerBlockingSignatureStoreTest extends ReasonerTest {
+    protected File m_cacheDirectory;
+
+    public ReasonerBlockingSignatureStoreTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        super.setUp();
+        m_cacheDirectory=Files.createTempDirectory("hermit-blocking-signatures").toFile();
+    }
+    protected void tearDown() {
+        super.tearDown();
+        File[] files=m_cacheDirectory.listFiles();
+        if (files!=null)
+            for (File file : files)
+                file.delete();
+        m_cacheDirectory.delete();
+    }
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.blockingSignatureCacheDirectory=m_cacheDirectory;
+        return c;
+    }
+    protected void createReasoner(Configuration configuration,Set<DescriptionGraph> descriptionGraphs) {
+        if (descriptionGraphs==null)
+            descriptionGraphs=Collections.emptySet();
+        Reasoner learningReasoner=new Reasoner(configuration,m_ontology,descriptionGraphs);
+        try {
+            if (learningReasoner.isConsistent())
+                learningReasoner.classifyClasses();
+        }
+        finally {
+            learningReasoner.dispose();
+        }
+        m_reasoner=new Reasoner(configuration,m_ontology,descriptionGraphs);
+    }
+    protected static final String NESTED_EXPRESSIONS=
+        "SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B ObjectSomeValuesFrom(:s ObjectUnionOf(:C ObjectSomeValuesFrom(:r :A))))))"+
+        "SubClassOf(:B ObjectAllValuesFrom(:s ObjectSomeValuesFrom(:r ObjectIntersectionOf(:C ObjectSomeValuesFrom(:s :D)))))"+
+        "SubClassOf(ObjectIntersectionOf(:C ObjectSomeValuesFrom(:r :D)) :E)"+
+        "SubClassOf(:D ObjectSomeValuesFrom(:s ObjectUnionOf(:A ObjectIntersectionOf(:B ObjectAllValuesFrom(:r :C)))))";
+
+    /**
+     * Returns a copy of the DL ontology in which the numbers of the internal definition concepts are reversed, as if the
+     * axioms had been normalised in a different order.
+     */
+    protected static DLOntology renumberInternalConcepts(DLOntology dlOntology) {
+        Set<DLClause> dlClauses=new HashSet<DLClause>();
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            Atom[] headAtoms=new Atom[dlClause.getHeadLength()];
+            for (int index=0;index<headAtoms.length;index++)
+                headAtoms[index]=renumber(dlClause.getHeadAtom(index));
+            Atom[] bodyAtoms=new Atom[dlClause.getBodyLength()];
+            for (int index=0;index<bodyAtoms.length;index++)
+                bodyAtoms[index]=renumber(dlClause.getBodyAtom(index));
+            dlClauses.add(DLClause.create(headAtoms,bodyAtoms));
+        }
+        return new DLOntology(dlOntology.getOntologyIRI(),dlClauses,dlOntology.getPositiveFacts(),dlOntology.getNegativeFacts(),dlOntology.getAllAtomicConcepts(),dlOntology.getAllAtomicObjectRoles(),dlOntology.getAllComplexObjectRoles(),dlOntology.getAllAtomicDataRoles(),dlOntology.getAllUnknownDatatypeRestrictions(),dlOntology.getDefinedDatatypeIRIs(),dlOntology.getAllIndividuals(),dlOntology.hasInverseRoles(),dlOntology.hasAtMostRestrictions(),dlOntology.hasNominals(),dlOntology.hasDatatypes());
+    }
+    protected static Atom renumber(Atom atom) {
+        Term[] arguments=new Term[atom.getArity()];
+        for (int index=0;index<arguments.length;index++)
+            arguments[index]=atom.getArgument(index);
+        DLPredicate dlPredicate=atom.getDLPredicate();
+        if (dlPredicate instanceof AtomicConcept)
+            dlPredicate=renumber((AtomicConcept)dlPredicate);
+        else if (dlPredicate instanceof AtLeastConcept) {
+            AtLeastConcept atLeastConcept=(AtLeastConcept)dlPredicate;
+            dlPredicate=AtLeastConcept.create(atLeastConcept.getNumber(),atLeastConcept.getOnRole(),renumber(atLeastConcept.getToConcept()));
+        }
+        return Atom.create(dlPredicate,arguments);
+    }
+    protected static LiteralConcept renumber(LiteralConcept literalConcept) {
+        if (literalConcept instanceof AtomicConcept)
+            return renumber((AtomicConcept)literalConcept);
+        else if (literalConcept instanceof AtomicNegationConcept)
+            return AtomicNegationConcept.create(renumber(((AtomicNegationConcept)literalConcept).getNegatedAtomicConcept()));
+        else
+            return literalConcept;
+    }
+    protected static AtomicConcept renumber(AtomicConcept atomicConcept) {
+        String prefix="internal:def#";
+        if (atomicConcept.getIRI().startsWith(prefix))
+            return AtomicConcept.create(prefix+(1000-Integer.parseInt(atomicConcept.getIRI().substring(prefix.length()))));
+        else
+            return atomicConcept;
+    }
+    protected BlockingSignatureCache getBlockingSignatureCache() {
+        AbstractExpansionStrategy expansionStrategy=(AbstractExpansionStrategy)m_reasoner.getTableau().getExistentialsExpansionStrategy();
+        return ((AnywhereBlocking)expansionStrategy.getBlockingStrategy()).getBlockingSignatureCache();
+    }
+    public void testSignaturesArePreloaded() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectSomeValuesFrom(:r :A)) SubClassOf(:B :C)");
+        assertEquals(1,m_cacheDirectory.list().length);
+        BlockingSignatureCache blockingSignatureCache=getBlockingSignatureCache();
+        assertFalse(blockingSignatureCache.isEmpty());
+        int numberOfPreloadedSignatures=blockingSignatureCache.size();
+        assertSubsumedBy("A","C",false);
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"),NS_C("B"))));
+        assertTrue(blockingSignatureCache.size()>=numberOfPreloadedSignatures);
+    }
+    public void testSignaturesArePreloadedForNestedExpressions() throws Exception {
+        loadReasonerWithAxioms(NESTED_EXPRESSIONS);
+        assertEquals(1,m_cacheDirectory.list().length);
+        assertFalse(getBlockingSignatureCache().isEmpty());
+        assertSubsumedBy("A","E",false);
+    }
+    public void testStoreDoesNotDependOnNumbersOfInternalConcepts() throws Exception {
+        loadReasonerWithAxioms(NESTED_EXPRESSIONS);
+        m_reasoner.classifyClasses();
+        BlockingSignatureCache blockingSignatureCache=getBlockingSignatureCache();
+        assertTrue(blockingSignatureCache.getDirectBlockingChecker() instanceof SingleDirectBlockingChecker);
+        DLOntology dlOntology=m_reasoner.getDLOntology();
+        DLOntology renumberedDLOntology=renumberInternalConcepts(dlOntology);
+        assertFalse(dlOntology.getDLClauses().equals(renumberedDLOntology.getDLClauses()));
+        assertEquals(BlockingSignatureStore.computeKey(dlOntology,blockingSignatureCache.getDirectBlockingChecker()),BlockingSignatureStore.computeKey(renumberedDLOntology,blockingSignatureCache.getDirectBlockingChecker()));
+        BlockingSignatureStore blockingSignatureStore=new BlockingSignatureStore(m_cacheDirectory);
+        blockingSignatureStore.save(dlOntology,blockingSignatureCache);
+        BlockingSignatureCache loadedBlockingSignatureCache=new BlockingSignatureCache(new SingleDirectBlockingChecker());
+        assertEquals(blockingSignatureCache.size(),blockingSignatureStore.load(renumberedDLOntology,loadedBlockingSignatureCache));
+        Set<Set<DLPredicate>> expectedLabels=new HashSet<Set<DLPredicate>>();
+        for (BlockingSignature signature : blockingSignatureCache.getSignatures()) {
+            Set<DLPredicate> label=new HashSet<DLPredicate>();
+            for (DLPredicate dlPredicate : signature.getLabels()[0])
+                label.add(renumber((AtomicConcept)dlPredicate));
+            expectedLabels.add(label);
+        }
+        Set<Set<DLPredicate>> loadedLabels=new HashSet<Set<DLPredicate>>();
+        for (BlockingSignature signature : loadedBlockingSignatureCache.getSignatures()) {
+            Set<DLPredicate> label=new HashSet<DLPredicate>();
+            Collections.addAll(label,signature.getLabels()[0]);
+            loadedLabels.add(label);
+        }
+        assertEquals(expectedLabels,loadedLabels);
+    }
+    public void testChangedOntologyGetsNewEntry() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :A))");
+        assertEquals(1,m_cacheDirectory.list().length);
+        m_ontologyManager.addAxiom(m_ontology,m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("B"))));
+        m_ontologyManager.addAxiom(m_ontology,m_dataFactory.getOWLDisjointClassesAxiom(NS_C("A"),NS_C("B")));
+        createReasoner();
+        assertEquals(2,m_cacheDirectory.list().length);
+        assertSatisfiable("A",true);
+        assertSatisfiable("B",true);
+    }
+    public void testSignaturesAreNotStoredWithoutDirectory() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :A))");
+        createReasoner(super.getConfiguration(),null);
+        m_reasoner.classifyClasses();
+        m_reasoner.dispose();
+        assertEquals(0,m_cacheDirectory.list().length);
+    }
+}
@@ -0,0 +1,65 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DescriptionGraph;
+
+/**
+ * Runs the reasoner tests with a clausification cache. Each reasoner is created twice: the first reasoner clausifies
+ * the ontology and fills the cache, and the second one, which the tests then use, loads the clauses from the cache.
+ */
+public class ReasonerClausificationCacheTest extends ReasonerTest {
+    protected File m_cacheDirectory;
+
+    public ReasonerClausificationCacheTest(String name) {
+        super(name);
+    }
+    protected void setUp() throws Exception {
+        super.setUp();
+        m_cacheDirectory=Files.createTempDirectory("hermit-clausification-cache").toFile();
+    }
+    protected void tearDown() {
+        super.tearDown();
+        File[] files=m_cacheDirectory.listFiles();
+        if (files!=null)
+            for (File file : files)
+                file.delete();
+        m_cacheDirectory.delete();
+    }
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.clausificationCacheDirectory=m_cacheDirectory;
+        return c;
+    }
+    protected void createReasoner(Configuration configuration,Set<DescriptionGraph> descriptionGraphs) {
+        if (descriptionGraphs==null)
+            descriptionGraphs=Collections.emptySet();
+        Reasoner clausifyingReasoner=new Reasoner(configuration,m_ontology,descriptionGraphs);
+        DLOntology clausifiedDLOntology=clausifyingReasoner.getDLOntology();
+        clausifyingReasoner.dispose();
+        m_reasoner=new Reasoner(configuration,m_ontology,descriptionGraphs);
+        if (configuration.clausificationCacheDirectory!=null && descriptionGraphs.isEmpty()) {
+            assertNotSame(clausifiedDLOntology,m_reasoner.getDLOntology());
+            assertEquals(new ArrayList<>(clausifiedDLOntology.getDLClauses()),new ArrayList<>(m_reasoner.getDLOntology().getDLClauses()));
+            assertTrue(clausifiedDLOntology.getPositiveFacts().equals(m_reasoner.getDLOntology().getPositiveFacts()));
+            assertTrue(clausifiedDLOntology.getNegativeFacts().equals(m_reasoner.getDLOntology().getNegativeFacts()));
+        }
+    }
+    public void testChangedOntologyIsClausifiedAgain() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B)");
+        assertSubsumedBy("A","B",true);
+        assertSubsumedBy("A","C",false);
+        assertEquals(1,m_cacheDirectory.list().length);
+        m_ontologyManager.addAxiom(m_ontology,m_dataFactory.getOWLSubClassOfAxiom(NS_C("B"),NS_C("C")));
+        createReasoner();
+        assertSubsumedBy("A","C",true);
+        assertEquals(2,m_cacheDirectory.list().length);
+    }
+}
@@ -0,0 +1,69 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.hierarchy.ConsequenceBasedClassification;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class ReasonerConsequenceBasedClassificationTest extends ReasonerTest {
+
+    public ReasonerConsequenceBasedClassificationTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useConsequenceBasedClassification=true;
+        return c;
+    }
+    protected CountingMonitor createReasonerWithCountingMonitor(String axioms) throws Exception {
+        loadOntologyWithAxioms(axioms);
+        Configuration c=getConfiguration();
+        CountingMonitor countingMonitor=new CountingMonitor();
+        c.monitor=countingMonitor;
+        createReasoner(c,null);
+        return countingMonitor;
+    }
+    public void testELOntologyIsClassifiedWithoutTableauTests() throws Exception {
+        String axioms="SubClassOf(:Hand ObjectSomeValuesFrom(:partOf :Arm)) SubClassOf(:Arm ObjectSomeValuesFrom(:partOf :Body)) "+
+            "TransitiveObjectProperty(:partOf) EquivalentClasses(:BodyPart ObjectSomeValuesFrom(:partOf :Body)) "+
+            "SubObjectPropertyOf(:partOf :relatedTo) ObjectPropertyDomain(:relatedTo :Entity) "+
+            "SubObjectPropertyOf(ObjectPropertyChain(:locatedIn :partOf) :locatedIn) SubClassOf(:Bone ObjectSomeValuesFrom(:locatedIn :Hand)) "+
+            "EquivalentClasses(:ArmStructure ObjectSomeValuesFrom(:locatedIn :Arm)) EquivalentClasses(:HandPart ObjectIntersectionOf(:Hand :BodyPart)) "+
+            "DisjointClasses(:Body :Bone) EquivalentClasses(:Impossible ObjectIntersectionOf(:Body :Bone)) SubClassOf(:Broken ObjectSomeValuesFrom(:partOf :Impossible))";
+        CountingMonitor countingMonitor=createReasonerWithCountingMonitor(axioms);
+        assertTrue(ConsequenceBasedClassification.isApplicable(m_reasoner.getDLOntology()));
+        assertTrue(m_reasoner.isConsistent());
+        int numberOfTests=countingMonitor.getOverallNumberOfTests();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(numberOfTests,countingMonitor.getOverallNumberOfTests());
+        assertTrue(isSubClassOf("Hand","BodyPart"));
+        assertTrue(isSubClassOf("Hand","Entity"));
+        assertTrue(isSubClassOf("Bone","ArmStructure"));
+        assertTrue(isSubClassOf("Hand","HandPart"));
+        assertTrue(isSubClassOf("HandPart","Hand"));
+        assertFalse(isSubClassOf("Arm","Hand"));
+        assertFalse(isSubClassOf("Bone","Entity"));
+        assertTrue(m_reasoner.getUnsatisfiableClasses().contains(NS_C("Impossible")));
+        assertTrue(m_reasoner.getUnsatisfiableClasses().contains(NS_C("Broken")));
+        assertFalse(m_reasoner.getUnsatisfiableClasses().contains(NS_C("Bone")));
+        assertEquals(numberOfTests,countingMonitor.getOverallNumberOfTests());
+    }
+    public void testNonELOntologyIsClassifiedWithTableau() throws Exception {
+        CountingMonitor countingMonitor=createReasonerWithCountingMonitor("SubClassOf(:A ObjectUnionOf(:B :C)) SubClassOf(:B :D) SubClassOf(:C :D)");
+        assertFalse(ConsequenceBasedClassification.isApplicable(m_reasoner.getDLOntology()));
+        assertTrue(m_reasoner.isConsistent());
+        int numberOfTests=countingMonitor.getOverallNumberOfTests();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertTrue(countingMonitor.getOverallNumberOfTests()>numberOfTests);
+        assertTrue(isSubClassOf("A","D"));
+    }
+    public void testInverseRolesAreNotSupported() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(ObjectInverseOf(:r) :B)) SubClassOf(:B ObjectAllValuesFrom(:r :C))");
+        assertFalse(ConsequenceBasedClassification.isApplicable(m_reasoner.getDLOntology()));
+        assertTrue(isSubClassOf("A","C"));
+    }
+    protected boolean isSubClassOf(String subClassName,String superClassName) {
+        return m_reasoner.getSuperClasses(NS_C(subClassName),false).containsEntity(NS_C(superClassName)) || m_reasoner.getEquivalentClasses(NS_C(subClassName)).contains(NS_C(superClassName));
+    }
+}
@@ -0,0 +1,108 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.tableau.DLClauseProfile;
+
+public class ReasonerDLClauseProfileTest extends ReasonerTest {
+    protected static final String AXIOMS="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectUnionOf(:C :D)) SubClassOf(:C :E) SubClassOf(:D :E) "+
+        "SubClassOf(ObjectSomeValuesFrom(:r :E) :F) SubClassOf(:G ObjectSomeValuesFrom(:s :G)) DisjointClasses(:E :H)";
+
+    public ReasonerDLClauseProfileTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.profileDLClauses=true;
+        return c;
+    }
+    public void testProfileOfClassification() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner();
+        m_reasoner.classifyClasses();
+        assertTrue(m_reasoner.getSuperClasses(NS_C("A"),false).containsEntity(NS_C("F")));
+        DLClauseProfile profile=m_reasoner.getDLClauseProfile();
+        List<DLClauseProfile.Entry> entries=profile.getEntries();
+        assertFalse(entries.isEmpty());
+        boolean joinEntryFound=false;
+        for (int index=0;index<entries.size();index++) {
+            DLClauseProfile.Entry entry=entries.get(index);
+            if (index>0)
+                assertTrue(entries.get(index-1).getEstimatedEvaluationTime()>=entry.getEstimatedEvaluationTime());
+            DLClause bodyDLClause=entry.getBodyDLClause();
+            for (int dlClauseIndex=0;dlClauseIndex<entry.getDLClauses().size();dlClauseIndex++) {
+                DLClause dlClause=entry.getDLClauses().get(dlClauseIndex);
+                if (bodyDLClause.getBodyLength()==1)
+                    assertTrue(entry.getNumberOfFiredHeads(dlClauseIndex)<=entry.getNumberOfEvaluations());
+                // F(X) :- r(X,Y), E(Y) fires when E(Y) is derived for an r-successor Y and the r-edge is then retrieved
+                if (bodyDLClause.getBodyLength()==2 && dlClause.getHeadLength()==1 && dlClause.getHeadAtom(0).getDLPredicate().equals(AtomicConcept.create(NS+"F")) && entry.getNumberOfFiredHeads(dlClauseIndex)>0) {
+                    assertTrue(entry.getNumberOfEvaluations()>0);
+                    assertTrue(entry.getNumberOfFiredHeads(dlClauseIndex)<=entry.getNumberOfRetrievedTuples(1));
+                    joinEntryFound=true;
+                }
+            }
+        }
+        assertTrue(joinEntryFound);
+        profile.reset();
+        for (DLClauseProfile.Entry entry : profile.getEntries()) {
+            assertEquals(0,entry.getNumberOfEvaluations());
+            assertEquals(0,entry.getEstimatedEvaluationTime());
+        }
+    }
+    public void testOnlyFirstMatchOfNonHeadVariablesIsRetrieved() throws Exception {
+        StringBuilder buffer=new StringBuilder();
+        buffer.append("DLSafeRule(Body(ClassAtom(:A Variable(:x)) ObjectPropertyAtom(:s Variable(:x) Variable(:z))) Head(ClassAtom(:B Variable(:x)))) ");
+        for (int index=0;index<100;index++)
+            buffer.append("ObjectPropertyAssertion(:s :a :c"+index+") ");
+        buffer.append("ClassAssertion(:A :a)");
+        loadOntologyWithAxioms(buffer.toString());
+        createReasoner();
+        assertTrue(m_reasoner.isConsistent());
+        assertTrue(m_reasoner.getInstances(NS_C("B"),false).containsEntity(NS_NI("a")));
+        AtomicConcept a=AtomicConcept.create(NS+"A");
+        AtomicRole s=AtomicRole.create(NS+"s");
+        boolean entryFound=false;
+        for (DLClauseProfile.Entry entry : m_reasoner.getDLClauseProfile().getEntries()) {
+            DLClause bodyDLClause=entry.getBodyDLClause();
+            // once X is bound and the head is derived, no further s-successors of X are retrieved
+            if (bodyDLClause.getBodyAtom(0).getDLPredicate().equals(a) && entry.getNumberOfEvaluations()>0) {
+                for (int bodyAtomIndex=1;bodyAtomIndex<bodyDLClause.getBodyLength();bodyAtomIndex++)
+                    if (bodyDLClause.getBodyAtom(bodyAtomIndex).getDLPredicate().equals(s))
+                        assertTrue(entry.getNumberOfRetrievedTuples(bodyAtomIndex)<=entry.getNumberOfEvaluations());
+                entryFound=true;
+            }
+        }
+        assertTrue(entryFound);
+    }
+    public void testPrintProfile() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner();
+        m_reasoner.classifyClasses();
+        StringWriter buffer=new StringWriter();
+        m_reasoner.printDLClauseProfile(new PrintWriter(buffer),3);
+        String profile=buffer.toString();
+        assertTrue(profile,profile.startsWith("DL-clause profile: 3 of "));
+        assertTrue(profile,profile.contains("1. time "));
+        assertTrue(profile,profile.contains("3. time "));
+        assertFalse(profile,profile.contains("4. time "));
+    }
+    public void testProfileIsOffByDefault() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(super.getConfiguration(),null);
+        m_reasoner.classifyClasses();
+        assertNull(m_reasoner.getDLClauseProfile());
+        try {
+            m_reasoner.printDLClauseProfile(new PrintWriter(new StringWriter()),10);
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+    }
+}
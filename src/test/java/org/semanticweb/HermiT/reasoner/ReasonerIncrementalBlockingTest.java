@@ -0,0 +1,48 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.existentials.AbstractExpansionStrategy;
+
+public class ReasonerIncrementalBlockingTest extends ReasonerTest {
+
+    public ReasonerIncrementalBlockingTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useIncrementalBlockingUpdates=true;
+        return c;
+    }
+    /**
+     * A has 50 r-successors B0,...,B49, each Bi has an r-successor Di, and Di propagates Ei back to its predecessor. Each
+     * such propagation changes a node close to the root, after which the whole remaining tableau is checked again by default,
+     * whereas incremental updates check only the changed node and its children.
+     */
+    protected static String getWideModelAxioms() {
+        StringBuilder buffer=new StringBuilder();
+        for (int index=0;index<50;index++) {
+            buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:r :B"+index+")) ");
+            buffer.append("SubClassOf(:B"+index+" ObjectSomeValuesFrom(:r :D"+index+")) ");
+            buffer.append("SubClassOf(:D"+index+" ObjectAllValuesFrom(ObjectInverseOf(:r) :E"+index+")) ");
+        }
+        buffer.append("SubClassOf(:B49 :F) SubClassOf(:E0 :G) DisjointClasses(:F :G)");
+        return buffer.toString();
+    }
+    protected int getNumberOfNodeUpdates(Configuration configuration) throws Exception {
+        createReasoner(configuration,null);
+        assertFalse(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"),NS_C("B0"),NS_C("B49"))));
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        AbstractExpansionStrategy expansionStrategy=(AbstractExpansionStrategy)m_reasoner.getTableau().getExistentialsExpansionStrategy();
+        AnywhereBlocking blockingStrategy=(AnywhereBlocking)expansionStrategy.getBlockingStrategy();
+        assertEquals(configuration.useIncrementalBlockingUpdates,blockingStrategy.usesIncrementalUpdates());
+        return blockingStrategy.getNumberOfNodeUpdates();
+    }
+    public void testFewerNodesAreUpdatedInWideModels() throws Exception {
+        loadOntologyWithAxioms(getWideModelAxioms());
+        int numberOfNodeUpdatesFull=getNumberOfNodeUpdates(super.getConfiguration());
+        int numberOfNodeUpdatesIncremental=getNumberOfNodeUpdates(getConfiguration());
+        assertTrue(numberOfNodeUpdatesIncremental+" vs. "+numberOfNodeUpdatesFull,numberOfNodeUpdatesIncremental*5<numberOfNodeUpdatesFull);
+    }
+}
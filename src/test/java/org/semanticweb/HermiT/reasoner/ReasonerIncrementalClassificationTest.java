@@ -0,0 +1,161 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.structural.LocalityBasedChangeAnalysis;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+public class ReasonerIncrementalClassificationTest extends AbstractReasonerTest {
+
+    public ReasonerIncrementalClassificationTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useIncrementalClassification=true;
+        // the ontologies of the tests are small, so the changes affect a large fraction of the classes
+        c.maximalFractionOfAffectedClassesForIncrementalClassification=1.0;
+        return c;
+    }
+    public void testAffectedClasses() throws Exception {
+        OWLAxiom aSubB=m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),NS_C("B"));
+        OWLAxiom cSubD=m_dataFactory.getOWLSubClassOfAxiom(NS_C("C"),NS_C("D"));
+        OWLAxiom eSubC=m_dataFactory.getOWLSubClassOfAxiom(NS_C("E"),m_dataFactory.getOWLObjectIntersectionOf(NS_C("C"),NS_C("F")));
+        List<OWLAxiom> axioms=new ArrayList<>();
+        Collections.addAll(axioms,aSubB,cSubD,eSubC);
+        LocalityBasedChangeAnalysis changeAnalysis=new LocalityBasedChangeAnalysis(axioms,Collections.singleton(cSubD));
+        assertFalse(changeAnalysis.isAffected(NS_C("A")));
+        assertFalse(changeAnalysis.isAffected(NS_C("B")));
+        assertTrue(changeAnalysis.isAffected(NS_C("C")));
+        assertFalse(changeAnalysis.isAffected(NS_C("D")));
+        assertTrue(changeAnalysis.isAffected(NS_C("E")));
+        assertFalse(changeAnalysis.isAffected(NS_C("F")));
+        assertFalse(changeAnalysis.isAffected(NS_C("G")));
+    }
+    public void testGlobalAxiomAffectsEverything() throws Exception {
+        OWLAxiom aSubB=m_dataFactory.getOWLSubClassOfAxiom(NS_C("A"),NS_C("B"));
+        OWLAxiom thingSubC=m_dataFactory.getOWLSubClassOfAxiom(m_dataFactory.getOWLThing(),NS_C("C"));
+        List<OWLAxiom> axioms=new ArrayList<>();
+        Collections.addAll(axioms,aSubB,thingSubC);
+        LocalityBasedChangeAnalysis changeAnalysis=new LocalityBasedChangeAnalysis(axioms,Collections.singleton(thingSubC));
+        assertTrue(changeAnalysis.isAffected(NS_C("A")));
+        assertTrue(changeAnalysis.isAffected(NS_C("D")));
+    }
+    public void testAddAndRemoveSubsumption() throws Exception {
+        String axioms="SubClassOf(:A :B) SubClassOf(:B :C) SubClassOf(:D ObjectSomeValuesFrom(:r :A)) SubClassOf(:E ObjectUnionOf(:A :F)) SubClassOf(:F :B)";
+        loadReasonerWithAxioms(axioms);
+        m_reasoner.classifyClasses();
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("C"),NS_C("G")));
+        assertSameHierarchyAsNewReasoner();
+        assertSubsumedBy("E","G",true);
+        removeAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("F"),NS_C("B")));
+        assertSameHierarchyAsNewReasoner();
+        assertSubsumedBy("E","B",false);
+        assertSubsumedBy("A","G",true);
+    }
+    public void testNewAndUnsatisfiableClasses() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:C :B) SubClassOf(:D ObjectIntersectionOf(:A :C))");
+        m_reasoner.classifyClasses();
+        addAxiom(m_dataFactory.getOWLDisjointClassesAxiom(NS_C("A"),NS_C("C")));
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("H"),NS_C("A")));
+        assertSameHierarchyAsNewReasoner();
+        assertSatisfiable("D",false);
+        assertSubsumedBy("H","B",true);
+        removeAxiom(m_dataFactory.getOWLDisjointClassesAxiom(NS_C("A"),NS_C("C")));
+        assertSameHierarchyAsNewReasoner();
+        assertSatisfiable("D",true);
+    }
+    public void testChangesOfSeveralFlushesAreAccumulated() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A :B) SubClassOf(:C :D) EquivalentClasses(:E ObjectSomeValuesFrom(:r :B))");
+        m_reasoner.classifyClasses();
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("B"),NS_C("C")));
+        m_reasoner.flush();
+        removeAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("C"),NS_C("D")));
+        m_reasoner.flush();
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("F"),m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"),NS_C("A"))));
+        assertSameHierarchyAsNewReasoner();
+        assertSubsumedBy("F","E",true);
+        assertSubsumedBy("A","D",false);
+    }
+    public void testPizzaAxiomRemovalAndAddition() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        m_reasoner.classifyClasses();
+        List<OWLSubClassOfAxiom> subClassOfAxioms=new ArrayList<>(m_ontology.getAxioms(AxiomType.SUBCLASS_OF));
+        Collections.sort(subClassOfAxioms,new Comparator<OWLSubClassOfAxiom>() {
+            public int compare(OWLSubClassOfAxiom axiom1,OWLSubClassOfAxiom axiom2) {
+                return axiom1.toString().compareTo(axiom2.toString());
+            }
+        });
+        for (int index=0;index<subClassOfAxioms.size();index+=subClassOfAxioms.size()/4) {
+            OWLSubClassOfAxiom axiom=subClassOfAxioms.get(index);
+            removeAxiom(axiom);
+            assertSameHierarchyAsNewReasoner();
+            addAxiom(axiom);
+            assertSameHierarchyAsNewReasoner();
+        }
+    }
+    public void testFallbackToFullClassification() throws Exception {
+        StringBuilder buffer=new StringBuilder();
+        for (int index=0;index<20;index++)
+            buffer.append("SubClassOf(:A"+index+" :B"+index+") ");
+        loadOntologyWithAxioms(buffer.toString());
+        Configuration configuration=getConfiguration();
+        configuration.maximalFractionOfAffectedClassesForIncrementalClassification=0.2;
+        final List<Set<AtomicConcept>> affectedAtomicConcepts=new ArrayList<>();
+        m_reasoner=new Reasoner(configuration,m_ontology) {
+            protected Set<AtomicConcept> getAtomicConceptsAffectedByChanges(Set<AtomicConcept> elements) {
+                Set<AtomicConcept> result=super.getAtomicConceptsAffectedByChanges(elements);
+                affectedAtomicConcepts.add(result);
+                return result;
+            }
+        };
+        m_reasoner.classifyClasses();
+        assertNull(affectedAtomicConcepts.get(0));
+        // the change affects A0, B0 and the new class C, which is less than a fifth of the classes
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(NS_C("B0"),NS_C("C")));
+        m_reasoner.flush();
+        m_reasoner.classifyClasses();
+        Set<AtomicConcept> expectedAffectedAtomicConcepts=new HashSet<>();
+        Collections.addAll(expectedAffectedAtomicConcepts,AtomicConcept.create(NS+"A0"),AtomicConcept.create(NS+"B0"),AtomicConcept.create(NS+"C"));
+        assertEquals(expectedAffectedAtomicConcepts,affectedAtomicConcepts.get(1));
+        assertSubsumedBy("A0","C",true);
+        // a change that affects all classes exceeds the fraction, so the ontology is classified from scratch
+        addAxiom(m_dataFactory.getOWLSubClassOfAxiom(m_dataFactory.getOWLThing(),NS_C("D")));
+        m_reasoner.flush();
+        m_reasoner.classifyClasses();
+        assertEquals(3,affectedAtomicConcepts.size());
+        assertNull(affectedAtomicConcepts.get(2));
+        assertSubsumedBy("A5","D",true);
+        assertSameHierarchyAsNewReasoner();
+    }
+    protected void addAxiom(OWLAxiom axiom) {
+        m_ontologyManager.addAxiom(m_ontology,axiom);
+    }
+    protected void removeAxiom(OWLAxiom axiom) {
+        m_ontologyManager.removeAxiom(m_ontology,axiom);
+    }
+    protected void assertSameHierarchyAsNewReasoner() {
+        m_reasoner.flush();
+        m_reasoner.classifyClasses();
+        String incrementalHierarchy=getHierarchiesAsText();
+        Reasoner incrementalReasoner=m_reasoner;
+        Configuration configuration=getConfiguration();
+        configuration.useIncrementalClassification=false;
+        createReasoner(configuration,null);
+        m_reasoner.classifyClasses();
+        String hierarchy=getHierarchiesAsText();
+        m_reasoner.dispose();
+        m_reasoner=incrementalReasoner;
+        assertEquals(hierarchy,incrementalHierarchy);
+    }
+}
@@ -0,0 +1,131 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+public class ReasonerIncrementalRealisationTest extends AbstractReasonerTest {
+
+    public ReasonerIncrementalRealisationTest(String name) {
+        super(name);
+    }
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.useIncrementalRealisation=true;
+        return c;
+    }
+    public void testClassAssertions() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B :C) SubClassOf(:E ObjectUnionOf(:F :G)) SubClassOf(:F :H) SubClassOf(:G :H) "+
+            "SubClassOf(ObjectSomeValuesFrom(:r :C) :D) SubClassOf(:K ObjectAllValuesFrom(:r :B)) "+
+            "ClassAssertion(:A :a) ObjectPropertyAssertion(:r :a :b) ClassAssertion(:E :c) ClassAssertion(:F :d) ClassAssertion(:H :e)";
+        loadReasonerWithAxioms(axioms);
+        precomputeInstances();
+        assertInstanceOf(NS_C("D"),NS_NI("a"),true);
+        addAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("E"),NS_NI("e")));
+        addAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("K"),NS_NI("a")));
+        assertSameInstancesAsNewReasoner();
+        assertInstanceOf(NS_C("C"),NS_NI("b"),true);
+        removeAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("A"),NS_NI("a")));
+        assertSameInstancesAsNewReasoner();
+        assertInstanceOf(NS_C("D"),NS_NI("a"),true);
+        removeAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("K"),NS_NI("a")));
+        assertSameInstancesAsNewReasoner();
+        assertInstanceOf(NS_C("D"),NS_NI("a"),false);
+        assertInstanceOf(NS_C("H"),NS_NI("c"),true);
+    }
+    public void testPropertyAssertionsAndSameIndividuals() throws Exception {
+        String axioms="TransitiveObjectProperty(:t) SubObjectPropertyOf(:r :t) FunctionalObjectProperty(:f) InverseObjectProperties(:r :s) "+
+            "SubClassOf(:A ObjectAllValuesFrom(:t :B)) "+
+            "ObjectPropertyAssertion(:r :a :b) ObjectPropertyAssertion(:r :b :c) ObjectPropertyAssertion(:f :d :e) ObjectPropertyAssertion(:r :g :h) ClassAssertion(:A :g) ClassAssertion(:A :e)";
+        loadReasonerWithAxioms(axioms);
+        precomputeInstances();
+        addAxiom(m_dataFactory.getOWLObjectPropertyAssertionAxiom(NS_OP("f"),NS_NI("d"),NS_NI("h")));
+        addAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("A"),NS_NI("a")));
+        assertSameInstancesAsNewReasoner();
+        assertTrue(m_reasoner.isSameIndividual(NS_NI("e"),NS_NI("h")));
+        assertInstanceOf(NS_C("B"),NS_NI("c"),true);
+        removeAxiom(m_dataFactory.getOWLObjectPropertyAssertionAxiom(NS_OP("r"),NS_NI("b"),NS_NI("c")));
+        addAxiom(m_dataFactory.getOWLObjectPropertyAssertionAxiom(NS_OP("r"),NS_NI("c"),NS_NI("a")));
+        assertSameInstancesAsNewReasoner();
+        assertFalse(m_reasoner.isSameIndividual(NS_NI("e"),NS_NI("g")));
+        assertInstanceOf(NS_C("B"),NS_NI("c"),false);
+        assertInstanceOf(NS_C("B"),NS_NI("b"),true);
+    }
+    public void testInconsistencyIsDetectedAndRepaired() throws Exception {
+        String axioms="DisjointClasses(:A :B) SubClassOf(:C ObjectAllValuesFrom(:r :B)) ClassAssertion(:A :a) ObjectPropertyAssertion(:r :b :a) ClassAssertion(:D :b) ClassAssertion(:D :c)";
+        loadReasonerWithAxioms(axioms);
+        precomputeInstances();
+        OWLAxiom assertion=m_dataFactory.getOWLClassAssertionAxiom(NS_C("C"),NS_NI("b"));
+        addAxiom(assertion);
+        m_reasoner.flush();
+        assertFalse(m_reasoner.isConsistent());
+        removeAxiom(assertion);
+        m_reasoner.flush();
+        assertTrue(m_reasoner.isConsistent());
+        addAxiom(m_dataFactory.getOWLClassAssertionAxiom(NS_C("C"),NS_NI("c")));
+        assertSameInstancesAsNewReasoner();
+    }
+    public void testKeysRelateUnconnectedIndividuals() throws Exception {
+        String axioms="HasKey(:A () (:k)) DataPropertyAssertion(:k :a \"1\"^^xsd:integer) DataPropertyAssertion(:k :b \"2\"^^xsd:integer) ClassAssertion(:A :a) ClassAssertion(:A :b) ClassAssertion(:B :a)";
+        loadReasonerWithAxioms(axioms);
+        precomputeInstances();
+        removeAxiom(m_dataFactory.getOWLDataPropertyAssertionAxiom(NS_DP("k"),NS_NI("b"),m_dataFactory.getOWLLiteral(2)));
+        addAxiom(m_dataFactory.getOWLDataPropertyAssertionAxiom(NS_DP("k"),NS_NI("b"),m_dataFactory.getOWLLiteral(1)));
+        assertSameInstancesAsNewReasoner();
+        assertInstanceOf(NS_C("B"),NS_NI("b"),true);
+    }
+    protected void precomputeInstances() {
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY,InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS,InferenceType.SAME_INDIVIDUAL);
+    }
+    protected void addAxiom(OWLAxiom axiom) {
+        m_ontologyManager.addAxiom(m_ontology,axiom);
+    }
+    protected void removeAxiom(OWLAxiom axiom) {
+        m_ontologyManager.removeAxiom(m_ontology,axiom);
+    }
+    protected void assertSameInstancesAsNewReasoner() {
+        m_reasoner.flush();
+        precomputeInstances();
+        String instances=getInstancesAsText(m_reasoner);
+        Reasoner reasoner=new Reasoner(super.getConfiguration(),m_ontology);
+        try {
+            assertEquals(getInstancesAsText(reasoner),instances);
+        }
+        finally {
+            reasoner.dispose();
+        }
+    }
+    protected String getInstancesAsText(Reasoner reasoner) {
+        StringBuilder buffer=new StringBuilder();
+        List<OWLNamedIndividual> individuals=sorted(m_ontology.getIndividualsInSignature(Imports.INCLUDED));
+        List<OWLObjectProperty> objectProperties=sorted(m_ontology.getObjectPropertiesInSignature(Imports.INCLUDED));
+        for (OWLNamedIndividual individual : individuals) {
+            buffer.append(individual).append(LB);
+            buffer.append("  direct types: ").append(sorted(reasoner.getTypes(individual,true).getFlattened())).append(LB);
+            buffer.append("  types: ").append(sorted(reasoner.getTypes(individual,false).getFlattened())).append(LB);
+            buffer.append("  same as: ").append(sorted(reasoner.getSameIndividuals(individual).getEntities())).append(LB);
+            for (OWLObjectProperty objectProperty : objectProperties)
+                buffer.append("  ").append(objectProperty).append(": ").append(sorted(reasoner.getObjectPropertyValues(individual,objectProperty).getFlattened())).append(LB);
+        }
+        for (OWLClass owlClass : sorted(m_ontology.getClassesInSignature(Imports.INCLUDED)))
+            buffer.append(owlClass).append(": ").append(sorted(reasoner.getInstances(owlClass,true).getFlattened())).append(LB);
+        return buffer.toString();
+    }
+    protected static <T extends OWLObject> List<T> sorted(Iterable<T> objects) {
+        List<T> result=new ArrayList<>();
+        for (T object : objects)
+            result.add(object);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Configuration.TupleStorageType;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.util.SimpleIRIMapper;
+
+public class ReasonerIntegerEncodedTuplesTest extends ReasonerTest {
+
+    public ReasonerIntegerEncodedTuplesTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.tupleStorageType=TupleStorageType.INTEGER_ENCODED;
+        return c;
+    }
+
+    // The DL-clause evaluators of the properties instance manager share one large bindings buffer; each retrieval on the
+    // integer-encoded tables must not allocate a copy of it.
+    public void testRealiseABoxWithProperties() throws Exception {
+        String[] ontologies=new String[] { "agent-inst.owl","test.owl","situation-inst.owl","situation.owl","space.owl","agent.owl","time.owl" };
+        String base="http://www.iyouit.eu/";
+        String mainOntology=base+"agent-inst.owl";
+        for (String ont : ontologies)
+            m_ontologyManager.getIRIMappers().add(new SimpleIRIMapper(IRI.create(base+ont),IRI.create(getClass().getResource("res/OWLLink/"+ont).toURI())));
+        m_ontology=m_ontologyManager.loadOntology(IRI.create(mainOntology));
+        createReasoner();
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS,InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        OWLNamedIndividual e1079=m_dataFactory.getOWLNamedIndividual(IRI.create(mainOntology+"#1079"));
+        OWLObjectProperty colleague=m_dataFactory.getOWLObjectProperty(IRI.create(mainOntology+"#colleague"));
+        int[] expected= { 1079,1084,1086,1096,1098,1126,1127,1183 };
+        Set<OWLNamedIndividual> expectedValues=new HashSet<OWLNamedIndividual>();
+        for (int i=0;i<expected.length;i++)
+            expectedValues.add(m_dataFactory.getOWLNamedIndividual(IRI.create(mainOntology+"#"+expected[i])));
+        assertEquals(expectedValues,m_reasoner.getObjectPropertyValues(e1079,colleague).getFlattened());
+        Reasoner objectTuplesReasoner=new Reasoner(new Configuration(),m_ontology);
+        try {
+            for (OWLNamedIndividual individual : m_ontology.getIndividualsInSignature(true))
+                assertEquals(objectTuplesReasoner.getTypes(individual,true).getFlattened(),m_reasoner.getTypes(individual,true).getFlattened());
+        }
+        finally {
+            objectTuplesReasoner.dispose();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.MemoryBudgetExceededException;
+import org.semanticweb.owlapi.model.IRI;
+
+public class ReasonerMemoryBudgetTest extends ReasonerTest {
+
+    public ReasonerMemoryBudgetTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.individualTaskMemoryBudget=64*1024*1024;
+        return c;
+    }
+    public void testMemoryBudgetAbortsTask() throws Exception {
+        StringBuilder axioms=new StringBuilder();
+        for (int i=0;i<40;i++) {
+            axioms.append("SubClassOf(:A ObjectSomeValuesFrom(:r :B"+i+"))");
+            for (int j=0;j<40;j++)
+                axioms.append("SubClassOf(:B"+i+" ObjectSomeValuesFrom(:r :C"+j+"))");
+        }
+        axioms.append("SubClassOf(:D ObjectSomeValuesFrom(:r :C0))");
+        loadOntologyWithAxioms(axioms.toString());
+        Configuration c=super.getConfiguration();
+        c.individualTaskMemoryBudget=400000;
+        createReasoner(c,null);
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"D"))));
+        try {
+            m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"A")));
+            fail();
+        }
+        catch (MemoryBudgetExceededException e) {
+            assertTrue(e.getSizeInMemory()>e.getMemoryBudget());
+        }
+        assertTrue(m_reasoner.getTableau().sizeInMemory()<=400000);
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"D"))));
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"B0"))));
+    }
+    public void testLargeModelWithinMemoryBudget() throws Exception {
+        StringBuilder axioms=new StringBuilder();
+        for (int i=0;i<40;i++) {
+            axioms.append("SubClassOf(:A ObjectSomeValuesFrom(:r :B"+i+"))");
+            for (int j=0;j<40;j++)
+                axioms.append("SubClassOf(:B"+i+" ObjectSomeValuesFrom(:r :C"+j+"))");
+        }
+        loadOntologyWithAxioms(axioms.toString());
+        createReasoner();
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLClass(IRI.create(NS+"A"))));
+    }
+}
@@ -0,0 +1,128 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.monitor.ReasonerMetrics;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription.StandardTestType;
+
+public class ReasonerMetricsTest extends ReasonerTest {
+    protected static final String AXIOMS="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B ObjectUnionOf(:C :D)) SubClassOf(:C :E) SubClassOf(:D :E) "+
+        "SubClassOf(:F ObjectIntersectionOf(:A ObjectAllValuesFrom(:r ObjectComplementOf(:C)))) SubClassOf(:G ObjectSomeValuesFrom(:s :G)) DisjointClasses(:E :H)";
+
+    public ReasonerMetricsTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.collectMetrics=true;
+        return c;
+    }
+    public void testMetricsOfClassification() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner();
+        m_reasoner.classifyClasses();
+        ReasonerMetrics metrics=m_reasoner.getMetrics();
+        long numberOfTests=metrics.getNumberOfTests();
+        assertTrue(numberOfTests>0);
+        assertTrue(metrics.getNumberOfTestsByType().containsKey(StandardTestType.CONCEPT_SATISFIABILITY.messagePattern));
+        long numberOfTestsInHistograms=0;
+        for (Map.Entry<String,long[]> entry : metrics.getTestTimeHistogramsByType().entrySet()) {
+            long[] histogram=entry.getValue();
+            assertEquals(metrics.getTestTimeHistogramBounds().length+1,histogram.length);
+            long numberOfTestsOfType=0;
+            for (long count : histogram)
+                numberOfTestsOfType+=count;
+            assertEquals(metrics.getNumberOfTestsByType().get(entry.getKey()).longValue(),numberOfTestsOfType);
+            numberOfTestsInHistograms+=numberOfTestsOfType;
+        }
+        assertEquals(numberOfTests,numberOfTestsInHistograms);
+        assertTrue(metrics.getNumberOfCreatedNodes()>=numberOfTests);
+        assertTrue(metrics.getNumberOfBlockedNodes()>0);
+        assertTrue(metrics.getNumberOfClashes()>0);
+        assertTrue(metrics.getNumberOfBacktrackings()>0);
+        assertTrue(metrics.getMaximalNumberOfTuples()>=metrics.getLastNumberOfTuples());
+        assertTrue(metrics.getLastNumberOfTuples()>0);
+        metrics.reset();
+        assertEquals(0,metrics.getNumberOfTests());
+        assertTrue(metrics.getNumberOfTestsByType().isEmpty());
+        assertFalse(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("F"),m_dataFactory.getOWLObjectAllValuesFrom(NS_OP("r"),NS_C("H")))));
+        assertEquals(1,metrics.getNumberOfTests());
+    }
+    public void testMetricsAreOffByDefault() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(super.getConfiguration(),null);
+        m_reasoner.classifyClasses();
+        assertNull(m_reasoner.getMetrics());
+    }
+    public void testMetricsAreRegisteredWithJMX() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        Configuration c=getConfiguration();
+        c.metricsObjectName="org.semanticweb.HermiT:type=ReasonerMetrics,name=ReasonerMetricsTest";
+        ObjectName objectName=new ObjectName(c.metricsObjectName);
+        MBeanServer mbeanServer=ManagementFactory.getPlatformMBeanServer();
+        createReasoner(c,null);
+        try {
+            assertTrue(mbeanServer.isRegistered(objectName));
+            m_reasoner.classifyClasses();
+            long numberOfTests=m_reasoner.getMetrics().getNumberOfTests();
+            assertEquals(Long.valueOf(numberOfTests),mbeanServer.getAttribute(objectName,"NumberOfTests"));
+            TabularData numberOfTestsByType=(TabularData)mbeanServer.getAttribute(objectName,"NumberOfTestsByType");
+            assertEquals(m_reasoner.getMetrics().getNumberOfTestsByType().size(),numberOfTestsByType.size());
+            mbeanServer.invoke(objectName,"reset",new Object[0],new String[0]);
+            assertEquals(0,m_reasoner.getMetrics().getNumberOfTests());
+        }
+        finally {
+            m_reasoner.dispose();
+        }
+        assertFalse(mbeanServer.isRegistered(objectName));
+    }
+    public void testMetricsCanBeReadWhileReasoning() throws Exception {
+        StringBuilder axioms=new StringBuilder(AXIOMS);
+        for (int index=0;index<100;index++)
+            axioms.append(" SubClassOf(:X"+index+" ObjectIntersectionOf(:A ObjectUnionOf(:Y"+index+" :Z"+(index % 7)+")))");
+        loadOntologyWithAxioms(axioms.toString());
+        Configuration c=getConfiguration();
+        c.numberOfClassificationWorkers=2;
+        createReasoner(c,null);
+        final ReasonerMetrics metrics=m_reasoner.getMetrics();
+        final AtomicBoolean stop=new AtomicBoolean(false);
+        final AtomicReference<Throwable> error=new AtomicReference<>();
+        Thread scraper=new Thread() {
+            public void run() {
+                try {
+                    long previousNumberOfTests=0;
+                    while (!stop.get()) {
+                        long numberOfTests=metrics.getNumberOfTests();
+                        if (numberOfTests<previousNumberOfTests)
+                            throw new IllegalStateException("The number of tests decreased.");
+                        previousNumberOfTests=numberOfTests;
+                        metrics.getTestTimeHistogramsByType();
+                        metrics.getNumberOfCreatedNodes();
+                    }
+                }
+                catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        };
+        scraper.start();
+        try {
+            m_reasoner.classifyClasses();
+        }
+        finally {
+            stop.set(true);
+            scraper.join();
+        }
+        assertNull(error.get());
+        assertTrue(metrics.getNumberOfTests()>0);
+    }
+}
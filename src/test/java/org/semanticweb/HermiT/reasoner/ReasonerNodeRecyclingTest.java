@@ -0,0 +1,62 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+public class ReasonerNodeRecyclingTest extends ReasonerTest {
+
+    public ReasonerNodeRecyclingTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.numberOfRecycledNodes=1000;
+        return c;
+    }
+    public void testNodesAreReusedByTheNextTest() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B ObjectSomeValuesFrom(:r :C)))) SubClassOf(:C ObjectSomeValuesFrom(:s :D))");
+        createReasoner();
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        Tableau tableau=m_reasoner.getTableau();
+        Node firstNode=tableau.getFirstTableauNode();
+        int numberOfAllocatedNodes=tableau.getNumberOfAllocatedNodes();
+        assertEquals(4,tableau.getNumberOfNodesInTableau());
+        assertTrue(m_reasoner.isSatisfiable(NS_C("C")));
+        assertEquals(2,tableau.getNumberOfNodesInTableau());
+        assertSame(firstNode,tableau.getFirstTableauNode());
+        assertEquals(numberOfAllocatedNodes,tableau.getNumberOfAllocatedNodes());
+        assertTrue(m_reasoner.isSatisfiable(NS_C("B")));
+        assertSame(firstNode,tableau.getFirstTableauNode());
+        assertEquals(numberOfAllocatedNodes,tableau.getNumberOfAllocatedNodes());
+    }
+    public void testNodesAreDiscardedByDefault() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B))");
+        createReasoner(super.getConfiguration(),null);
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        Tableau tableau=m_reasoner.getTableau();
+        Node firstNode=tableau.getFirstTableauNode();
+        assertTrue(m_reasoner.isSatisfiable(NS_C("B")));
+        assertNotSame(firstNode,tableau.getFirstTableauNode());
+        tableau.clear();
+        assertEquals(0,tableau.getNumberOfAllocatedNodes());
+    }
+    public void testNumberOfRecycledNodesIsBounded() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:B ObjectSomeValuesFrom(:r :C)))) SubClassOf(:C ObjectSomeValuesFrom(:s :D))");
+        Configuration c=super.getConfiguration();
+        c.numberOfRecycledNodes=2;
+        createReasoner(c,null);
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        Tableau tableau=m_reasoner.getTableau();
+        Node firstNode=tableau.getFirstTableauNode();
+        assertEquals(4,tableau.getNumberOfAllocatedNodes());
+        tableau.clear();
+        assertEquals(2,tableau.getNumberOfAllocatedNodes());
+        assertTrue(m_reasoner.isSatisfiable(NS_C("B")));
+        assertSame(firstNode,tableau.getFirstTableauNode());
+        assertTrue(m_reasoner.isSatisfiable(NS_C("C")));
+        assertSame(firstNode,tableau.getFirstTableauNode());
+        assertEquals(2,tableau.getNumberOfAllocatedNodes());
+    }
+}
@@ -0,0 +1,47 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+
+public class ReasonerNogoodLearningTest extends ReasonerTest {
+
+    public ReasonerNogoodLearningTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.nogoodStoreSize=1000;
+        return c;
+    }
+    public void testNogoodsReduceBacktracking() throws Exception {
+        String axioms="SubClassOf(owl:Thing ObjectIntersectionOf(ObjectUnionOf(:C :D1) ObjectUnionOf(:C :D2) ObjectUnionOf(:C :D3) ObjectUnionOf(:C :D4) ObjectUnionOf(:C :D5) ObjectSomeValuesFrom(:r ObjectAllValuesFrom(ObjectInverseOf(:r) ObjectComplementOf(:C)))))";
+        loadOntologyWithAxioms(axioms);
+        Set<OWLAxiom> assertions=new HashSet<OWLAxiom>();
+        OWLClass A=m_dataFactory.getOWLClass(IRI.create(AbstractReasonerTest.NS+"A"));
+        for (int i=0;i<10;i++)
+            assertions.add(m_dataFactory.getOWLClassAssertionAxiom(A,m_dataFactory.getOWLNamedIndividual(IRI.create(AbstractReasonerTest.NS+"a"+i))));
+        m_ontologyManager.addAxioms(m_ontology,assertions);
+        Configuration c1=super.getConfiguration();
+        c1.useDisjunctionLearning=false;
+        CountingMonitor cm1=new CountingMonitor();
+        c1.monitor=cm1;
+        createReasoner(c1,null);
+        assertTrue(m_reasoner.isConsistent());
+        Configuration c2=getConfiguration();
+        c2.useDisjunctionLearning=false;
+        CountingMonitor cm2=new CountingMonitor();
+        c2.monitor=cm2;
+        createReasoner(c2,null);
+        assertTrue(m_reasoner.isConsistent());
+        assertTrue(cm2.getOverallNumberOfLearnedNogoods()>0);
+        assertTrue(cm2.getOverallNumberOfDisjunctsExcludedByNogoods()>0);
+        assertTrue(cm1.getOverallNumberOfBacktrackings()>cm2.getOverallNumberOfBacktrackings());
+    }
+}
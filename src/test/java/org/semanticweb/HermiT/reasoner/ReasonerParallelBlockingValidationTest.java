@@ -0,0 +1,39 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerParallelBlockingValidationTest extends ReasonerCoreBlockingTest {
+
+    public ReasonerParallelBlockingValidationTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.numberOfBlockingValidationThreads=2;
+        return c;
+    }
+    protected String getManyBlocksAxioms() {
+        // Each of the many successors of a starts a chain of blocked nodes, and the successors propagate Ei back to a,
+        // which the validation of the blocks has to take into account.
+        StringBuilder buffer=new StringBuilder();
+        buffer.append("InverseObjectProperties(:r :r-) ");
+        buffer.append("SubClassOf(:C ObjectSomeValuesFrom(:r :C)) ");
+        for (int index=0;index<20;index++) {
+            buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:r ObjectIntersectionOf(:C :D"+index+"))) ");
+            buffer.append("SubClassOf(:D"+index+" ObjectAllValuesFrom(:r- :E"+index+")) ");
+        }
+        buffer.append("ClassAssertion(:A :a) ");
+        return buffer.toString();
+    }
+    public void testManyBlocksWithInverses() throws Exception {
+        loadReasonerWithAxioms(getManyBlocksAxioms());
+        assertABoxSatisfiable(true);
+        for (int index=0;index<20;index++)
+            assertInstanceOf(NS_C("E"+index),NS_NI("a"),true);
+    }
+    public void testManyBlocksWithInversesUnsatisfiable() throws Exception {
+        loadReasonerWithAxioms(getManyBlocksAxioms()+"SubClassOf(ObjectIntersectionOf(:E0 :E19) owl:Nothing) ");
+        assertABoxSatisfiable(false);
+    }
+}
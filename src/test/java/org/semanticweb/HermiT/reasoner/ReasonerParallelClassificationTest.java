@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerParallelClassificationTest extends ReasonerTest {
+
+    public ReasonerParallelClassificationTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.numberOfClassificationWorkers=4;
+        return c;
+    }
+}
@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+
+public class ReasonerParallelRealisationTest extends ReasonerTest {
+
+    public ReasonerParallelRealisationTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.numberOfRealisationWorkers=4;
+        return c;
+    }
+}
@@ -0,0 +1,92 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+public class ReasonerSatisfiabilityCacheTest extends ReasonerTest {
+
+    public ReasonerSatisfiabilityCacheTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.satisfiabilityCacheSize=1000;
+        return c;
+    }
+    protected CountingMonitor createReasonerWithCountingMonitor(String axioms) throws Exception {
+        loadOntologyWithAxioms(axioms);
+        Configuration c=getConfiguration();
+        CountingMonitor countingMonitor=new CountingMonitor();
+        c.monitor=countingMonitor;
+        createReasoner(c,null);
+        return countingMonitor;
+    }
+    public void testRepeatedTestsAreCached() throws Exception {
+        CountingMonitor countingMonitor=createReasonerWithCountingMonitor("SubClassOf(:A :B) SubClassOf(:C ObjectUnionOf(:A :D)) SubClassOf(:D :B) SubClassOf(:E owl:Nothing)");
+        assertTrue(isSubClassOf("C","B"));
+        int numberOfTests=countingMonitor.getOverallNumberOfTests();
+        assertTrue(isSubClassOf("C","B"));
+        assertEquals(numberOfTests,countingMonitor.getOverallNumberOfTests());
+        assertEquals(1,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+        assertFalse(m_reasoner.isSatisfiable(NS_C("E")));
+        assertTrue(isSubClassOf("E","A"));
+        assertFalse(m_reasoner.isSatisfiable(NS_C("E")));
+        assertEquals(3,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        assertFalse(isSubClassOf("A","D"));
+        assertEquals(4,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+        assertFalse(isSubClassOf("B","A"));
+        assertTrue(countingMonitor.getNumberOfSatisfiabilityCacheMisses()>0);
+    }
+    public void testPseudoModelMerging() throws Exception {
+        String axioms="SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:C ObjectSomeValuesFrom(:s :D)) "+
+            "SubClassOf(:E ObjectAllValuesFrom(:r :F)) DisjointClasses(:B :F) DisjointClasses(:G :H)";
+        CountingMonitor countingMonitor=createReasonerWithCountingMonitor(axioms);
+        for (String className : new String[] { "A","C","E","G","H" })
+            assertTrue(m_reasoner.isSatisfiable(NS_C(className)));
+        int numberOfTests=countingMonitor.getOverallNumberOfTests();
+        int numberOfHits=countingMonitor.getNumberOfSatisfiabilityCacheHits();
+        assertTrue(isSatisfiable("A","C"));
+        assertEquals(numberOfTests,countingMonitor.getOverallNumberOfTests());
+        assertEquals(numberOfHits+1,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+        assertFalse(isSatisfiable("A","E"));
+        assertFalse(isSatisfiable("G","H"));
+        assertEquals(numberOfTests+2,countingMonitor.getOverallNumberOfTests());
+        assertEquals(numberOfHits+1,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+    }
+    public void testCacheIsOffByDefault() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A :B)");
+        Configuration c=super.getConfiguration();
+        CountingMonitor countingMonitor=new CountingMonitor();
+        c.monitor=countingMonitor;
+        createReasoner(c,null);
+        assertNull(m_reasoner.getTableau().getSatisfiabilityCache());
+        assertTrue(isSubClassOf("A","B"));
+        assertTrue(isSubClassOf("A","B"));
+        assertEquals(0,countingMonitor.getNumberOfSatisfiabilityCacheHits());
+    }
+    public void testNominalsAreNotCached() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectHasValue(:r :b))");
+        assertNull(m_reasoner.getTableau().getSatisfiabilityCache());
+    }
+    protected boolean isSubClassOf(String subClassName,String superClassName) {
+        return m_reasoner.isEntailed(m_dataFactory.getOWLSubClassOfAxiom(NS_C(subClassName),NS_C(superClassName)));
+    }
+    protected boolean isSatisfiable(String... classNames) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Set<Atom> atoms=new HashSet<>();
+        for (String className : classNames)
+            atoms.add(Atom.create(AtomicConcept.create(NS+className),freshIndividual));
+        Tableau tableau=m_reasoner.getTableau();
+        return tableau.isSatisfiable(false,atoms,null,null,null,null,new ReasoningTaskDescription(true,"satisfiability of a conjunction"));
+    }
+}
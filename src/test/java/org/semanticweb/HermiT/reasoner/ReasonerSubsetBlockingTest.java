@@ -0,0 +1,58 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Configuration.BlockingSignatureCacheType;
+import org.semanticweb.HermiT.Configuration.DirectBlockingType;
+
+public class ReasonerSubsetBlockingTest extends ReasonerTest {
+
+    public ReasonerSubsetBlockingTest(String name) {
+        super(name);
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.directBlockingType=DirectBlockingType.SUBSET;
+        return c;
+    }
+    protected int getNumberOfNodesInModel(DirectBlockingType directBlockingType) throws Exception {
+        Configuration c=getConfiguration();
+        c.directBlockingType=directBlockingType;
+        c.blockingSignatureCacheType=BlockingSignatureCacheType.NOT_CACHED;
+        createReasoner(c,null);
+        assertTrue(m_reasoner.isSatisfiable(NS_C("A")));
+        return m_reasoner.getTableau().getNumberOfNodesInTableau();
+    }
+    public void testSmallerModels() throws Exception {
+        // The r-successor of A is labelled with all Bi, so the r-successors of the s-successor of A, which are labelled
+        // with a single Bi each, are blocked by it with subset blocking, whereas single blocking expands each of them.
+        StringBuilder buffer=new StringBuilder();
+        buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:r :U)) ");
+        buffer.append("SubClassOf(:A ObjectSomeValuesFrom(:s :V)) ");
+        for (int index=0;index<20;index++) {
+            buffer.append("SubClassOf(:U :B"+index+") ");
+            buffer.append("SubClassOf(:V ObjectSomeValuesFrom(:r :B"+index+")) ");
+            buffer.append("SubClassOf(:B"+index+" ObjectSomeValuesFrom(:t :F"+index+")) ");
+        }
+        loadOntologyWithAxioms(buffer.toString());
+        int numberOfNodesSubset=getNumberOfNodesInModel(DirectBlockingType.SUBSET);
+        int numberOfNodesSingle=getNumberOfNodesInModel(DirectBlockingType.SINGLE);
+        assertTrue(numberOfNodesSubset+" vs. "+numberOfNodesSingle,numberOfNodesSubset+20<=numberOfNodesSingle);
+    }
+    public void testLabelsMustAgreeOnConceptsOfSuccessors() throws Exception {
+        // The s-successor of R has an r-successor x labelled with B, and the r-successor y of R is labelled with B and D.
+        // Blocking x by y would be unsound: x gets D only once it is expanded, and P does not allow r-successors in D.
+        String axioms="SubClassOf(:R ObjectSomeValuesFrom(:r :Y)) "
+            + "SubClassOf(:Y :B) "
+            + "SubClassOf(:B ObjectSomeValuesFrom(:t :F)) "
+            + "SubClassOf(ObjectSomeValuesFrom(:t :F) :D) "
+            + "SubClassOf(:R ObjectSomeValuesFrom(:s :P)) "
+            + "SubClassOf(:P ObjectSomeValuesFrom(:r :B)) "
+            + "SubClassOf(:P ObjectAllValuesFrom(:r ObjectComplementOf(:D)))";
+        loadOntologyWithAxioms(axioms);
+        createReasoner();
+        assertFalse(m_reasoner.isSatisfiable(NS_C("R")));
+        assertFalse(m_reasoner.isSatisfiable(NS_C("P")));
+        assertTrue(m_reasoner.isSatisfiable(NS_C("Y")));
+    }
+}
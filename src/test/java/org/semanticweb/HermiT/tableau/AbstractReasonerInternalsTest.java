@@ -48,7 +48,9 @@ public abstract class AbstractReasonerInternalsTest extends AbstractReasonerTest
         BlockingStrategy blockingStrategy=new AnywhereBlocking(directBlockingChecker,blockingSignatureCache);
         ExistentialExpansionStrategy expansionStrategy=new CreationOrderStrategy(blockingStrategy);
 
-        return new Tableau(new InterruptFlag(-1),getTableauMonitor(),expansionStrategy,false,dlOntology,null,new HashMap<String,Object>());
+        TableauConfiguration tableauConfiguration=new TableauConfiguration();
+        tableauConfiguration.useIntegerEncodedTuples=useIntegerEncodedTuples();
+        return new Tableau(new InterruptFlag(-1),getTableauMonitor(),expansionStrategy,false,tableauConfiguration,dlOntology,null,new HashMap<String,Object>());
     }
 
     protected Tableau getTableau() throws Exception {
@@ -59,6 +61,10 @@ public abstract class AbstractReasonerInternalsTest extends AbstractReasonerTest
         return null;
     }
 
+    protected boolean useIntegerEncodedTuples() {
+        return false;
+    }
+
     protected boolean shouldPrepareForNIRule() {
         return false;
     }
@@ -0,0 +1,30 @@
+package org.semanticweb.HermiT.tableau;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Configuration.TupleStorageType;
+
+public class GraphIntegerEncodedTuplesTest extends GraphTest {
+
+    public GraphIntegerEncodedTuplesTest(String name) {
+        super(name);
+    }
+
+    protected boolean useIntegerEncodedTuples() {
+        return true;
+    }
+
+    protected Configuration getConfiguration() {
+        Configuration c=super.getConfiguration();
+        c.tupleStorageType=TupleStorageType.INTEGER_ENCODED;
+        return c;
+    }
+
+    public void testTablesAreIntegerEncoded() throws Exception {
+        loadOntologyWithAxioms("");
+        Tableau tableau=getTableau(m_descriptionGraphs);
+        assertTrue(tableau.usesIntegerEncodedTuples());
+        assertTrue(tableau.getExtensionManager().getBinaryExtensionTable() instanceof IntegerExtensionTable);
+        assertTrue(tableau.getExtensionManager().getTernaryExtensionTable() instanceof IntegerExtensionTable);
+        assertNotNull(tableau.getExtensionManager().getTupleObjectEncoding());
+    }
+}
@@ -0,0 +1,98 @@
+package org.semanticweb.HermiT.tableau;
+
+public class IntegerTupleIndexTest extends AbstractReasonerInternalsTest {
+    protected IntegerTupleIndex m_tupleIndex;
+
+    public IntegerTupleIndexTest(String name) {
+        super(name);
+    }
+    protected void setUp() {
+        m_tupleIndex=new IntegerTupleIndex(new int[] { 0,1,2 });
+    }
+    public void testIndex1() {
+        assertRetrieval(I(),I());
+
+        addTuple(1,I(0,1,2));
+        assertRetrieval(I(0),I(1));
+        assertRetrieval(I(0,1),I(1));
+
+        addTuple(2,I(0,1,3));
+        assertRetrieval(I(0),I(1,2));
+        assertRetrieval(I(0,1),I(1,2));
+
+        addTuple(3,I(0,1,2));
+        assertRetrieval(I(0),I(2,1));
+        assertRetrieval(I(0,1),I(2,1));
+        assertRetrieval(I(0,1,2),I(1));
+
+        addTuple(4,I(2,1,3));
+        assertRetrieval(I(),I(2,1,4));
+        assertRetrieval(I(0),I(2,1));
+        assertRetrieval(I(0,1),I(2,1));
+        assertRetrieval(I(0,1,2),I(1));
+        assertRetrieval(I(5),I());
+
+        removeTuple(I(0,1,3));
+        assertRetrieval(I(),I(1,4));
+
+        removeTuple(I(0,1,2));
+        assertRetrieval(I(),I(4));
+
+        removeTuple(I(2,1,3));
+        assertRetrieval(I(),I());
+    }
+    public void testIndex2() {
+        int[][] tuples=new int[10000][3];
+        int[] tupleIndexes=new int[tuples.length];
+        for (int index=0;index<tuples.length;index++) {
+            tuples[index][0]=index % 300;
+            tuples[index][1]=index % 3000;
+            tuples[index][2]=index;
+            tupleIndexes[index]=index;
+        }
+        for (int index=0;index<tuples.length;index++)
+            addTuple(index,tuples[index]);
+        assertRetrieval(I(),tupleIndexes);
+        assertRetrieval(I(7),I(7,307,607,907,1207,1507,1807,2107,2407,2707,3007,3307,3607,3907,4207,4507,4807,5107,5407,5707,6007,6307,6607,6907,7207,7507,7807,8107,8407,8707,9007,9307,9607,9907));
+        for (int index=0;index<tuples.length;index++)
+            assertEquals(index,m_tupleIndex.getTupleIndex(tuples[index]));
+        for (int index=0;index<tuples.length;index++)
+            assertEquals(index,removeTuple(tuples[index]));
+        assertRetrieval(I(),I());
+        assertEquals(-1,m_tupleIndex.getTupleIndex(tuples[0]));
+    }
+    protected void addTuple(int tupleIndex,int[] tuple) {
+        m_tupleIndex.addTuple(tuple,tupleIndex);
+    }
+    protected int removeTuple(int[] tuple) {
+        return m_tupleIndex.removeTuple(tuple);
+    }
+    public void assertRetrieval(int[] selection,int[] expected) {
+        int[] selectionIndices=new int[selection.length];
+        for (int index=0;index<selectionIndices.length;index++)
+            selectionIndices[index]=index;
+        IntegerTupleIndex.IntegerTupleIndexRetrieval retrieval=new IntegerTupleIndex.IntegerTupleIndexRetrieval(m_tupleIndex,selection,selectionIndices);
+        retrieval.open();
+        boolean[] used=new boolean[expected.length];
+        while (!retrieval.afterLast()) {
+            int tupleIndex=retrieval.getCurrentTupleIndex();
+            boolean found=false;
+            for (int index=0;index<expected.length;index++)
+                if (tupleIndex==expected[index] && !used[index]) {
+                    used[index]=true;
+                    found=true;
+                    break;
+                }
+            if (!found)
+                fail("The tuple index "+tupleIndex+" has not been found in the expedted set.");
+            retrieval.next();
+        }
+        for (int index=0;index<used.length;index++)
+            if (!used[index])
+                fail("The tuple index "+expected[index]+" has not been found in the retrieval.");
+    }
+
+    protected static int[] I(int... integers) {
+        return integers;
+    }
+}
@@ -0,0 +1,71 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Term;
+
+public class SaturatedABoxTest extends AbstractReasonerInternalsTest {
+
+    public SaturatedABoxTest(String name) {
+        super(name);
+    }
+    public void testSaturatedABoxIsReused() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A ObjectSomeValuesFrom(:r :B)) SubClassOf(:B :C) SubClassOf(:A ObjectUnionOf(:D :E)) ObjectPropertyAssertion(:s :a :b) ClassAssertion(:A :a) ClassAssertion(:A :b)");
+        Tableau tableau=getTableau();
+        Individual a=I("a");
+        Map<Term,Node> termsToNodes=new HashMap<Term,Node>();
+        assertTrue(tableau.isSatisfiable(true,false,null,null,null,null,termsToNodes,null,description()));
+        assertNotNull(tableau.m_saturatedABoxTermsToNodes);
+        Node nodeForA=termsToNodes.get(a);
+        int numberOfNodes=tableau.getNumberOfNodesInTableau();
+        assertFalse(tableau.isSatisfiable(true,false,null,Collections.singleton(A("A",a)),null,null,null,description()));
+        assertTrue(tableau.isSatisfiable(true,false,null,Collections.singleton(A("D",a)),null,null,null,description()));
+        assertFalse(tableau.isSatisfiable(true,false,null,atoms(A("D",a),A("E",a)),null,null,null,description()));
+        assertFalse(tableau.isSatisfiable(true,false,null,null,null,atoms(A("D",a),A("E",a)),null,description()));
+        assertTrue(tableau.isSatisfiable(true,false,null,Collections.singleton(A("E",I("b"))),null,null,null,description()));
+        termsToNodes.clear();
+        assertTrue(tableau.isSatisfiable(true,false,null,null,null,null,termsToNodes,null,description()));
+        assertSame(nodeForA,termsToNodes.get(a));
+        assertEquals(numberOfNodes,tableau.getNumberOfNodesInTableau());
+    }
+    public void testSaturatedABoxIsDiscardedWithAdditionalOntology() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:A :B) SubClassOf(:B ObjectSomeValuesFrom(ObjectInverseOf(:r) :C)) ClassAssertion(:A :a)");
+        Tableau tableau=getTableau();
+        assertFalse(tableau.isSatisfiable(true,false,null,Collections.singleton(A("B",I("a"))),null,null,null,description()));
+        assertNotNull(tableau.m_saturatedABoxTermsToNodes);
+        tableau.setAdditionalDLOntology(getTestDLOntology(new HashSet<DLClause>()));
+        assertNull(tableau.m_saturatedABoxTermsToNodes);
+        tableau.clearAdditionalDLOntology();
+        assertFalse(tableau.isSatisfiable(true,false,null,Collections.singleton(A("B",I("a"))),null,null,null,description()));
+    }
+    public void testUnsatisfiableABoxIsNotSaved() throws Exception {
+        loadOntologyWithAxioms("DisjointClasses(:A :B) ClassAssertion(:A :a) ClassAssertion(:B :a)");
+        Tableau tableau=getTableau();
+        assertFalse(tableau.isSatisfiable(true,false,null,null,null,null,null,description()));
+        assertNull(tableau.m_saturatedABoxTermsToNodes);
+        assertFalse(tableau.isSatisfiable(true,false,Collections.singleton(A("A",I("b"))),null,null,null,null,description()));
+    }
+
+    protected static Individual I(String name) {
+        return Individual.create(NS+name);
+    }
+    protected static Atom A(String conceptName,Individual individual) {
+        return Atom.create(AtomicConcept.create(NS+conceptName),individual);
+    }
+    protected static Set<Atom> atoms(Atom... atoms) {
+        Set<Atom> result=new HashSet<Atom>();
+        Collections.addAll(result,atoms);
+        return result;
+    }
+    protected static ReasoningTaskDescription description() {
+        return new ReasoningTaskDescription(true,"test");
+    }
+}
@@ -0,0 +1,119 @@
+package org.semanticweb.HermiT.tableau;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.HermiT.blocking.CompressedBitSet;
+import org.semanticweb.HermiT.blocking.SetFactory;
+
+import junit.framework.TestCase;
+
+public class SetFactoryTest extends TestCase {
+    protected SetFactory<String> m_factory;
+
+    public SetFactoryTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() {
+        m_factory=new SetFactory<>();
+    }
+
+    public void testCompressedBitSet() {
+        CompressedBitSet bitSet=new CompressedBitSet();
+        assertBitSetEquals(bitSet);
+        assertTrue(bitSet.add(1000));
+        assertTrue(bitSet.add(63));
+        assertTrue(bitSet.add(0));
+        assertTrue(bitSet.add(64));
+        assertTrue(bitSet.add(5000));
+        assertFalse(bitSet.add(64));
+        assertBitSetEquals(bitSet,0,63,64,1000,5000);
+        assertTrue(bitSet.get(63));
+        assertFalse(bitSet.get(62));
+        assertFalse(bitSet.get(999));
+        assertEquals(64,bitSet.nextSetBit(64));
+        assertEquals(1000,bitSet.nextSetBit(65));
+        assertEquals(-1,bitSet.nextSetBit(5001));
+        assertTrue(bitSet.remove(1000));
+        assertFalse(bitSet.remove(1000));
+        assertFalse(bitSet.remove(1001));
+        assertBitSetEquals(bitSet,0,63,64,5000);
+        assertEquals(5000,bitSet.nextSetBit(65));
+
+        CompressedBitSet copy=new CompressedBitSet();
+        copy.copyFrom(bitSet);
+        assertTrue(copy.contentEquals(bitSet));
+        copy.remove(5000);
+        assertFalse(copy.contentEquals(bitSet));
+        copy.add(5001);
+        assertFalse(copy.contentEquals(bitSet));
+        copy.remove(5001);
+        copy.add(5000);
+        assertTrue(copy.contentEquals(bitSet));
+
+        bitSet.clear();
+        assertBitSetEquals(bitSet);
+        assertTrue(bitSet.isEmpty());
+    }
+    public void testSetsAreUnique() {
+        Set<String> set1=m_factory.getSet(Arrays.asList("a","b","c"));
+        assertEquals(new HashSet<>(Arrays.asList("a","b","c")),new HashSet<>(set1));
+        assertSame(set1,m_factory.getSet(Arrays.asList("c","a","b")));
+        assertSame(set1,m_factory.getSet(getIndexes("b","c","a"),getHashCode("a","b","c")));
+        Set<String> set2=m_factory.getSet(Arrays.asList("a","b"));
+        assertNotSame(set1,set2);
+        assertSame(set2,m_factory.getSet(getIndexes("a","b"),getHashCode("a","b")));
+        assertSame(m_factory.getSet(new ArrayList<String>()),m_factory.getSet(new CompressedBitSet(),0));
+    }
+    public void testLabelsCanBeUpdatedIncrementally() {
+        CompressedBitSet label=new CompressedBitSet();
+        int hashCode=0;
+        for (String element : new String[] { "a","b","c" }) {
+            label.add(m_factory.getElementIndex(element));
+            hashCode+=element.hashCode();
+        }
+        Set<String> set=m_factory.getSet(label,hashCode);
+        m_factory.addReference(set);
+        label.remove(m_factory.getElementIndex("b"));
+        hashCode-="b".hashCode();
+        assertSame(m_factory.getSet(Arrays.asList("a","c")),m_factory.getSet(label,hashCode));
+        label.add(m_factory.getElementIndex("b"));
+        hashCode+="b".hashCode();
+        assertSame(set,m_factory.getSet(label,hashCode));
+    }
+    public void testUnreferencedSetsAreRemoved() {
+        Set<String> set=m_factory.getSet(Arrays.asList("a","b"));
+        m_factory.addReference(set);
+        m_factory.removeReference(set);
+        Set<String> newSet=m_factory.getSet(Arrays.asList("c","d"));
+        // The entry of the removed set has been reused.
+        assertSame(set,newSet);
+        assertEquals(new HashSet<>(Arrays.asList("c","d")),new HashSet<>(newSet));
+    }
+    protected CompressedBitSet getIndexes(String... elements) {
+        CompressedBitSet result=new CompressedBitSet();
+        for (String element : elements)
+            result.add(m_factory.getElementIndex(element));
+        return result;
+    }
+    protected static int getHashCode(String... elements) {
+        int result=0;
+        for (String element : elements)
+            result+=element.hashCode();
+        return result;
+    }
+    protected static void assertBitSetEquals(CompressedBitSet bitSet,int... expected) {
+        List<Integer> actual=new ArrayList<>();
+        for (int index=bitSet.nextSetBit(0);index>=0;index=bitSet.nextSetBit(index+1))
+            actual.add(index);
+        List<Integer> expectedList=new ArrayList<>();
+        for (int index : expected)
+            expectedList.add(index);
+        assertEquals(expectedList,actual);
+        assertEquals(expected.length,bitSet.cardinality());
+    }
+}